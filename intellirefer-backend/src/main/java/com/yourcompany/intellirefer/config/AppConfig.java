@@ -1,11 +1,17 @@
 package com.yourcompany.intellirefer.config;
 
-
+import com.yourcompany.intellirefer.service.StorageService;
+import jakarta.servlet.MultipartConfigElement;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.web.config.EnableSpringDataWebSupport;
+import org.springframework.util.StringUtils;
 import org.springframework.web.reactive.function.client.WebClient;
 
+// Paged endpoints return a stable {content, page} JSON shape rather than serializing PageImpl.
 @Configuration
+@EnableSpringDataWebSupport(pageSerializationMode = EnableSpringDataWebSupport.PageSerializationMode.VIA_DTO)
 public class AppConfig {
 
     /**
@@ -17,4 +23,19 @@ public class AppConfig {
     public WebClient.Builder webClientBuilder() {
         return WebClient.builder();
     }
+
+    /**
+     * Spring Boot's multipart settings, except that the temp folder defaults to the storage backend's
+     * staging area rather than the servlet container's own temp folder, so uploads can be renamed
+     * into storage. {@code spring.servlet.multipart.location} still overrides it.
+     */
+    @Bean
+    public MultipartConfigElement multipartConfigElement(MultipartProperties multipartProperties, StorageService storageService) {
+        MultipartConfigElement configured = multipartProperties.createMultipartConfig();
+        if (StringUtils.hasText(configured.getLocation())) {
+            return configured;
+        }
+        return new MultipartConfigElement(storageService.multipartLocation().toString(),
+                configured.getMaxFileSize(), configured.getMaxRequestSize(), configured.getFileSizeThreshold());
+    }
 }
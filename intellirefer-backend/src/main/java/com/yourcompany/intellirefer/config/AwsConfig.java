@@ -1,34 +1,92 @@
-//package com.yourcompany.intellirefer.config;
-//
-//
-//import com.amazonaws.auth.AWSCredentials;
-//import com.amazonaws.auth.AWSStaticCredentialsProvider;
-//import com.amazonaws.auth.BasicAWSCredentials;
-//import com.amazonaws.services.s3.AmazonS3;
-//import com.amazonaws.services.s3.AmazonS3ClientBuilder;
-//import com.amazonaws.regions.Regions;
-//import org.springframework.beans.factory.annotation.Value;
-//import org.springframework.context.annotation.Bean;
-//import org.springframework.context.annotation.Configuration;
-//
-//@Configuration
-//public class AwsConfig {
-//
-//    @Value("${cloud.aws.credentials.accessKey}")
-//    private String awsAccessKey;
-//
-//    @Value("${cloud.aws.credentials.secretKey}")
-//    private String awsSecretKey;
-//
-//    @Value("${cloud.aws.region.static}")
-//    private String awsRegion;
-//
-//    @Bean
-//    public AmazonS3 s3Client() {
-//        AWSCredentials credentials = new BasicAWSCredentials(awsAccessKey, awsSecretKey);
-//        return AmazonS3ClientBuilder.standard()
-//                .withCredentials(new AWSStaticCredentialsProvider(credentials))
-//                .withRegion(Regions.fromName(awsRegion))
-//                .build();
-//    }
-//}
+package com.yourcompany.intellirefer.config;
+
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.auth.DefaultAWSCredentialsProviderChain;
+import com.amazonaws.client.builder.AwsClientBuilder;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.transfer.TransferManager;
+import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * S3 client and transfer manager for {@code storage.backend=s3}.
+ * <p>
+ * Leave the access keys blank to use the default credential chain (environment, instance
+ * profile, ...). Set {@code cloud.aws.s3.endpoint} to point at an S3-compatible store
+ * such as MinIO, which usually also needs path-style access.
+ */
+@Configuration
+@ConditionalOnProperty(name = "storage.backend", havingValue = "s3")
+public class AwsConfig {
+
+    @Value("${cloud.aws.credentials.accessKey:}")
+    private String awsAccessKey;
+
+    @Value("${cloud.aws.credentials.secretKey:}")
+    private String awsSecretKey;
+
+    @Value("${cloud.aws.region.static}")
+    private String awsRegion;
+
+    @Value("${cloud.aws.s3.endpoint:}")
+    private String endpoint;
+
+    @Value("${cloud.aws.s3.path-style-access:false}")
+    private boolean pathStyleAccess;
+
+    @Value("${storage.s3.transfer-threads:8}")
+    private int transferThreads;
+
+    // S3's minimum part size, well below the 10 MB upload limit, so that larger resumes and JDs go up in parallel parts.
+    @Value("${storage.s3.multipart-threshold-bytes:5242880}")
+    private long multipartThreshold;
+
+    @Value("${storage.s3.part-size-bytes:5242880}")
+    private long partSize;
+
+    @Bean
+    public AmazonS3 s3Client() {
+        AmazonS3ClientBuilder builder = AmazonS3ClientBuilder.standard()
+                .withPathStyleAccessEnabled(pathStyleAccess);
+        if (StringUtils.hasText(awsAccessKey)) {
+            builder.withCredentials(new AWSStaticCredentialsProvider(new BasicAWSCredentials(awsAccessKey, awsSecretKey)));
+        } else {
+            builder.withCredentials(DefaultAWSCredentialsProviderChain.getInstance());
+        }
+        if (StringUtils.hasText(endpoint)) {
+            builder.withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(endpoint, awsRegion));
+        } else {
+            builder.withRegion(awsRegion);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Splits large uploads into parts sent in parallel, on a bounded pool of daemon threads.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public TransferManager s3TransferManager(AmazonS3 s3Client) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "s3-transfer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return TransferManagerBuilder.standard()
+                .withS3Client(s3Client)
+                .withExecutorFactory(() -> Executors.newFixedThreadPool(transferThreads, threadFactory))
+                .withMultipartUploadThreshold(multipartThreshold)
+                .withMinimumUploadPartSize(partSize)
+                .build();
+    }
+}
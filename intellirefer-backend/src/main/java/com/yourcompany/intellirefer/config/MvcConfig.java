@@ -1,33 +0,0 @@
-package com.yourcompany.intellirefer.config;
-
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
-import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
-
-import java.nio.file.Path;
-import java.nio.file.Paths;
-
-@Configuration
-public class MvcConfig implements WebMvcConfigurer {
-
-    @Value("${storage.location}")
-    private String storageLocation;
-
-    @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        // This makes files in your storage directory accessible via a URL
-        // e.g., http://localhost:8080/uploads/resumes/some-file.pdf
-        exposeDirectory("uploads", registry);
-    }
-
-    private void exposeDirectory(String dirName, ResourceHandlerRegistry registry) {
-        Path uploadDir = Paths.get(storageLocation);
-        String uploadPath = uploadDir.toFile().getAbsolutePath();
-
-        // The URL path will be /uploads/**
-        // The physical path on disk will be resolved from your storage.location property
-        registry.addResourceHandler("/" + dirName + "/**")
-                .addResourceLocations("file:" + uploadPath + "/");
-    }
-}
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.yourcompany.intellirefer.config;
+
+import com.yourcompany.intellirefer.dto.EmployeeSkillRow;
+import com.yourcompany.intellirefer.dto.GeminiResponseDto;
+import com.yourcompany.intellirefer.dto.JdParsingResponse;
+import com.yourcompany.intellirefer.dto.LLMResponse;
+import com.yourcompany.intellirefer.dto.LlmUsageRow;
+import com.yourcompany.intellirefer.dto.MatchCandidate;
+import com.yourcompany.intellirefer.dto.ReferralRow;
+import com.yourcompany.intellirefer.dto.ReferralSkillRow;
+import com.yourcompany.intellirefer.dto.SelectedEmployeeDto;
+import com.yourcompany.intellirefer.dto.SkillExtractionResponse;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reflection and resource hints for a native image ({@code mvn -Pnative native:compile}).
+ * <p>
+ * Spring's AOT processing already covers the beans, the JPA entities (Lombok only generates plain
+ * accessors at compile time) and the DTOs that controllers read and return. What it cannot see is
+ * listed here: the Gemini records that {@code LLMService} binds by hand, the rows that JPQL
+ * {@code SELECT new} queries construct, resources that libraries load by name, and the Flyway
+ * migrations under their vendor folder.
+ */
+@Configuration
+@ImportRuntimeHints(NativeImageConfig.Hints.class)
+public class NativeImageConfig {
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Records read from the Gemini API with WebClient and ObjectMapper, outside any controller.
+            new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                    GeminiResponseDto.class, LLMResponse.class, SkillExtractionResponse.class, JdParsingResponse.class);
+
+            // Built by Hibernate through their constructors from "SELECT new ..." queries in the repositories.
+            for (Class<?> row : new Class<?>[] {ReferralRow.class, ReferralSkillRow.class, EmployeeSkillRow.class,
+                    MatchCandidate.class, SelectedEmployeeDto.class, LlmUsageRow.class}) {
+                hints.reflection().registerType(row, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            }
+
+            // Boot only registers db/migration/*; ours are under db/migration/{vendor}.
+            hints.resources().registerPattern("db/migration/*/*.sql");
+            // Hibernate's second-level cache configuration, opened by Ehcache through the class loader.
+            hints.resources().registerPattern("ehcache.xml");
+
+            // PDFBox loads glyph lists, font metrics, CMaps and colour profiles from the classpath while extracting text.
+            hints.resources().registerPattern("org/apache/pdfbox/resources/*");
+            hints.resources().registerPattern("org/apache/fontbox/cmap/*");
+            hints.resources().registerPattern("org/apache/fontbox/unicode/*");
+
+            // POI's XMLBeans schema types are found through a holder class and compiled .xsb files.
+            // The generated CT* classes themselves are best collected with the GraalVM tracing agent
+            // while parsing a sample DOCX, as there are too many to list here.
+            hints.reflection().registerType(TypeReference.of("org.apache.poi.schemas.ooxml.system.ooxml.TypeSystemHolder"),
+                    MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+            hints.resources().registerPattern("org/apache/poi/schemas/ooxml/*.xsb");
+        }
+    }
+}
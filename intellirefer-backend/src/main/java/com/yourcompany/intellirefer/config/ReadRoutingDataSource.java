@@ -0,0 +1,48 @@
+package com.yourcompany.intellirefer.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Where read-only transactions get their connection: the replica while {@link ReplicaLagMonitor}
+ * considers it usable, otherwise the primary. Each routing decision is counted in
+ * {@code datasource.reads}, tagged with the route taken.
+ */
+class ReadRoutingDataSource extends AbstractRoutingDataSource {
+
+    private enum Route { REPLICA, PRIMARY }
+
+    private final ReplicaLagMonitor monitor;
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+
+    ReadRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor monitor, MeterRegistry meterRegistry) {
+        this.monitor = monitor;
+        this.replicaReads = readCounter(meterRegistry, "replica");
+        this.primaryReads = readCounter(meterRegistry, "primary");
+        setTargetDataSources(Map.of(Route.REPLICA, replica, Route.PRIMARY, primary));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (monitor.isReplicaUsable()) {
+            replicaReads.increment();
+            return Route.REPLICA;
+        }
+        primaryReads.increment();
+        return Route.PRIMARY;
+    }
+
+    private static Counter readCounter(MeterRegistry meterRegistry, String route) {
+        return Counter.builder("datasource.reads")
+                .description("Read-only connections, by the database they were routed to")
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,92 @@
+package com.yourcompany.intellirefer.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Periodically asks the replica how far behind the primary it is, and decides whether reads may use it.
+ * <p>
+ * The lag query is either MySQL's {@code SHOW REPLICA STATUS} (its {@code Seconds_Behind_Source} column
+ * is used) or any query returning the lag in seconds as its only column. The replica is unusable while
+ * the lag is above the limit, unknown (replication stopped) or the query fails. A query returning no
+ * row means the database is not replicating, e.g. a standalone copy used locally, and counts as no lag.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+
+    private volatile boolean replicaUsable;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, long maxLagSeconds, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+                .description("Replication lag of the read replica at the last check")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.usable", this, monitor -> monitor.replicaUsable ? 1 : 0)
+                .description("Whether read-only transactions are currently sent to the replica")
+                .register(meterRegistry);
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-ms:5000}", initialDelayString = "${datasource.replica.lag-check-ms:5000}")
+    public void check() {
+        Long lag;
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            lag = readLag(resultSet);
+        } catch (SQLException e) {
+            update(false, Double.NaN, "cannot be queried: " + e.getMessage());
+            return;
+        }
+
+        if (lag == null) {
+            update(false, Double.NaN, "is not replicating");
+        } else if (lag > maxLagSeconds) {
+            update(false, lag, "is " + lag + "s behind the primary");
+        } else {
+            update(true, lag, "is " + lag + "s behind the primary");
+        }
+    }
+
+    private static Long readLag(ResultSet resultSet) throws SQLException {
+        if (!resultSet.next()) {
+            return 0L;
+        }
+        int column = resultSet.getMetaData().getColumnCount() == 1 ? 1 : resultSet.findColumn("Seconds_Behind_Source");
+        long lag = resultSet.getLong(column);
+        return resultSet.wasNull() ? null : lag;
+    }
+
+    private void update(boolean usable, double lag, String reason) {
+        lagSeconds = lag;
+        if (usable != replicaUsable) {
+            if (usable) {
+                logger.info("Read replica {}; sending read-only transactions to it", reason);
+            } else {
+                logger.warn("Read replica {}; sending read-only transactions to the primary", reason);
+            }
+        }
+        replicaUsable = usable;
+    }
+}
@@ -1,9 +1,11 @@
 package com.yourcompany.intellirefer.config;
 
 import com.yourcompany.intellirefer.security.JWTAuthenticationFilter;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -14,6 +16,8 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -28,6 +32,9 @@ public class SecurityConfig {
     @Autowired
     private JWTAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private Environment environment;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -49,8 +56,11 @@ public class SecurityConfig {
                                 "/api/auth/**",
                                 "/swagger-ui/**",
                                 "/swagger-ui.html",
-                                "/v3/api-docs/**"
+                                "/v3/api-docs/**",
+                                "/actuator/health"
                         ).permitAll()
+                        .requestMatchers(prometheusScrape()).permitAll()
+                        .requestMatchers("/actuator/**").hasRole("MANAGER")
                         .requestMatchers("/api/manager/**").hasRole("MANAGER")
                         .requestMatchers("/api/employee/**").hasRole("EMPLOYEE")
                         .anyRequest().authenticated()
@@ -61,6 +71,24 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Prometheus scrapes without credentials, so the scrape endpoint is open, but only on the separate
+     * management port ({@code management.server.port}), which is meant to be reachable from the
+     * monitoring network only. Without a separate port it needs a manager JWT like the other endpoints.
+     */
+    private RequestMatcher prometheusScrape() {
+        String basePath = environment.getProperty("management.endpoints.web.base-path", "/actuator");
+        RequestMatcher scrapeEndpoint = PathPatternRequestMatcher.withDefaults().matcher(basePath + "/prometheus");
+        return request -> isOnManagementPort(request) && scrapeEndpoint.matches(request);
+    }
+
+    private boolean isOnManagementPort(HttpServletRequest request) {
+        // Published by Spring Boot once the management server has started on its own port.
+        Integer managementPort = environment.getProperty("local.management.port", Integer.class);
+        Integer serverPort = environment.getProperty("local.server.port", Integer.class);
+        return managementPort != null && !managementPort.equals(serverPort) && request.getLocalPort() == managementPort;
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration config = new CorsConfiguration();
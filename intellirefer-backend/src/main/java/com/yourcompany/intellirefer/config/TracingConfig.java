@@ -0,0 +1,35 @@
+package com.yourcompany.intellirefer.config;
+
+import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+
+/**
+ * Tracing for the JD matching pipeline.
+ * <p>
+ * Spans are written as OTLP JSON, one line per batch, to the
+ * {@code io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter} logger, so traces can be
+ * inspected offline or replayed into any OTLP collector. Set {@code management.otlp.tracing.endpoint}
+ * to export to a collector directly as well.
+ */
+@Configuration
+public class TracingConfig {
+
+    /**
+     * Carries the current trace into {@code @Async} methods, so the matching run started by a JD upload
+     * belongs to the upload request's trace. Spring Boot applies it to the application task executor.
+     */
+    @Bean
+    public ContextPropagatingTaskDecorator contextPropagatingTaskDecorator() {
+        return new ContextPropagatingTaskDecorator();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.log-export.enabled", havingValue = "true", matchIfMissing = true)
+    public SpanExporter loggingSpanExporter() {
+        return OtlpJsonLoggingSpanExporter.create();
+    }
+}
@@ -4,11 +4,13 @@ import com.yourcompany.intellirefer.dto.ApiResponse;
 import com.yourcompany.intellirefer.dto.AuthResponse;
 import com.yourcompany.intellirefer.dto.LoginRequest;
 import com.yourcompany.intellirefer.dto.RegisterRequest;
+import com.yourcompany.intellirefer.security.AuthenticatedUser;
 import com.yourcompany.intellirefer.service.AuthService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -28,6 +30,15 @@ public class AuthController {
         return ResponseEntity.ok(authResponse);
     }
 
+    // Revokes the caller's token. Succeeds without a valid token too, since the client is logged out either way.
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@AuthenticationPrincipal AuthenticatedUser user) {
+        if (user != null) {
+            authService.logout(user);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/register")
     public ResponseEntity<ApiResponse> registerEmployee(@Valid @RequestBody RegisterRequest registerRequest) {
         authService.registerEmployee(registerRequest);
@@ -0,0 +1,29 @@
+package com.yourcompany.intellirefer.controller;
+
+import com.yourcompany.intellirefer.service.FileDownloadService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+public class FileController {
+
+    @Autowired private FileDownloadService fileDownloadService;
+
+    // "/uploads/**" is kept so that links created before this endpoint existed keep working.
+    @RequestMapping(value = {"/api/files/{*relativePath}", "/uploads/{*relativePath}"},
+            method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void downloadFile(@PathVariable String relativePath,
+                             Authentication authentication,
+                             HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        fileDownloadService.serve(relativePath.substring(1), authentication, request, response);
+    }
+}
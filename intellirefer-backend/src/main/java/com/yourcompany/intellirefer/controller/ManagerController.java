@@ -1,18 +1,24 @@
 package com.yourcompany.intellirefer.controller;
 
+import com.yourcompany.intellirefer.dto.CursorPage;
 import com.yourcompany.intellirefer.dto.JobDescriptionDto;
+import com.yourcompany.intellirefer.dto.LlmUsageDto;
+import com.yourcompany.intellirefer.dto.MatchingRunDto;
 import com.yourcompany.intellirefer.dto.ReferralDto;
 import com.yourcompany.intellirefer.dto.SelectedEmployeeDto;
-import com.yourcompany.intellirefer.entity.User;
+import com.yourcompany.intellirefer.model.enums.AvailabilityStatus;
 import com.yourcompany.intellirefer.model.enums.JdStatus;
 import com.yourcompany.intellirefer.model.enums.ReferralStatus;
-import com.yourcompany.intellirefer.repository.UserRepository;
+import com.yourcompany.intellirefer.security.AuthenticatedUser;
 import com.yourcompany.intellirefer.service.ManagerService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -23,38 +29,81 @@ import java.util.List;
 @PreAuthorize("hasRole('MANAGER')")
 public class ManagerController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Autowired private ManagerService managerService;
-    @Autowired private UserRepository userRepository;
 
     @PostMapping("/jds")
-    public ResponseEntity<JobDescriptionDto> uploadJd(Authentication authentication,
+    public ResponseEntity<JobDescriptionDto> uploadJd(@AuthenticationPrincipal AuthenticatedUser manager,
                                                       @RequestParam("title") String title,
                                                       @RequestParam("clientName") String clientName,
                                                       @RequestParam("file") MultipartFile file) {
-        User manager = getCurrentUser(authentication);
-        JobDescriptionDto createdJd = managerService.uploadJd(manager.getId(), title, clientName, file);
+        JobDescriptionDto createdJd = managerService.uploadJd(manager.userId(), title, clientName, file);
         return new ResponseEntity<>(createdJd, HttpStatus.CREATED);
     }
 
     @GetMapping("/selected-employees")
-    public ResponseEntity<List<SelectedEmployeeDto>> getSelectedEmployees() {
-        List<SelectedEmployeeDto> selectedEmployees = managerService.getSelectedAndReservedEmployees();
+    public ResponseEntity<Page<SelectedEmployeeDto>> getSelectedEmployees(
+            @RequestParam(value = "clientName", required = false) String clientName,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "50") int size) {
+        Pageable pageable = PageRequest.of(Math.max(page, 0), clampLimit(size));
+        Page<SelectedEmployeeDto> selectedEmployees = managerService.getSelectedAndReservedEmployees(clientName, pageable);
         return ResponseEntity.ok(selectedEmployees);
     }
 
     @GetMapping("/jds")
-    public ResponseEntity<List<JobDescriptionDto>> getMyJds(Authentication authentication) {
-        User manager = getCurrentUser(authentication);
-        List<JobDescriptionDto> jds = managerService.getJdsForManager(manager.getId());
+    public ResponseEntity<CursorPage<JobDescriptionDto>> getMyJds(@AuthenticationPrincipal AuthenticatedUser manager,
+                                                                  @RequestParam(value = "cursor", required = false) String cursor,
+                                                                  @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        CursorPage<JobDescriptionDto> jds = managerService.getJdsForManager(manager.userId(), cursor, clampLimit(limit));
         return ResponseEntity.ok(jds);
     }
 
     @GetMapping("/jds/{jdId}/recommendations")
-    public ResponseEntity<List<ReferralDto>> getRecommendations(@PathVariable Long jdId) {
-        List<ReferralDto> recommendations = managerService.getRecommendationsForJd(jdId);
+    public ResponseEntity<CursorPage<ReferralDto>> getRecommendations(@PathVariable Long jdId,
+                                                                      @RequestParam(value = "minScore", required = false) Integer minScore,
+                                                                      @RequestParam(value = "status", required = false) List<ReferralStatus> statuses,
+                                                                      @RequestParam(value = "availability", required = false) AvailabilityStatus availability,
+                                                                      @RequestParam(value = "cursor", required = false) String cursor,
+                                                                      @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        CursorPage<ReferralDto> recommendations = managerService.getRecommendationsForJd(
+                jdId, minScore, statuses, availability, cursor, clampLimit(limit));
         return ResponseEntity.ok(recommendations);
     }
 
+    /**
+     * The JD's matching runs, newest first, with their progress while they are still running.
+     */
+    @GetMapping("/jds/{jdId}/matching-runs")
+    public ResponseEntity<List<MatchingRunDto>> getMatchingRuns(@PathVariable Long jdId) {
+        return ResponseEntity.ok(managerService.getMatchingRuns(jdId));
+    }
+
+    /**
+     * The JD's LLM token usage by operation, and how much of its own and the day's token budget is left.
+     */
+    @GetMapping("/jds/{jdId}/llm-usage")
+    public ResponseEntity<LlmUsageDto> getLlmUsage(@PathVariable Long jdId) {
+        return ResponseEntity.ok(managerService.getLlmUsage(jdId));
+    }
+
+    /**
+     * Referrals on the manager's JDs that matched all of the given skills, e.g.
+     * {@code ?skill=Kafka&skill=Java&status=PENDING_REVIEW}. Searches open JDs unless {@code jdStatus} says otherwise.
+     */
+    @GetMapping("/referrals/search")
+    public ResponseEntity<CursorPage<ReferralDto>> searchReferrals(@AuthenticationPrincipal AuthenticatedUser manager,
+                                                                   @RequestParam("skill") List<String> skills,
+                                                                   @RequestParam(value = "status", required = false) List<ReferralStatus> statuses,
+                                                                   @RequestParam(value = "jdStatus", defaultValue = "OPEN") JdStatus jdStatus,
+                                                                   @RequestParam(value = "cursor", required = false) String cursor,
+                                                                   @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        CursorPage<ReferralDto> referrals = managerService.searchReferralsBySkills(
+                manager.userId(), skills, statuses, jdStatus, cursor, clampLimit(limit));
+        return ResponseEntity.ok(referrals);
+    }
+
     @PostMapping("/referrals/{referralId}/select")
     public ResponseEntity<ReferralDto> selectEmployee(@PathVariable Long referralId) {
         ReferralDto updatedReferral = managerService.updateReferralStatus(referralId, ReferralStatus.SELECTED);
@@ -79,9 +128,7 @@ public class ManagerController {
         return ResponseEntity.ok(updatedJd);
     }
 
-    private User getCurrentUser(Authentication authentication) {
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Authenticated user not found in database"));
+    private int clampLimit(int limit) {
+        return Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
     }
 }
\ No newline at end of file
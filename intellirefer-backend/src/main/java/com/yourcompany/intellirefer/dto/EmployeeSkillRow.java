@@ -0,0 +1,14 @@
+package com.yourcompany.intellirefer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One (employee, skill name) pair, used to load the skills of many employees in one query.
+ */
+@Data
+@AllArgsConstructor
+public class EmployeeSkillRow {
+    private Long employeeUserId;
+    private String skillName;
+}
@@ -6,5 +6,6 @@ import java.util.List;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public record GeminiResponseDto(
-        @JsonProperty("candidates") List<Candidate> candidates
-) {}
\ No newline at end of file
+        @JsonProperty("candidates") List<Candidate> candidates,
+        @JsonProperty("usageMetadata") UsageMetadata usageMetadata
+) {}
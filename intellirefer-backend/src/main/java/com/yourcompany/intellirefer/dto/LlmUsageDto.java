@@ -0,0 +1,19 @@
+package com.yourcompany.intellirefer.dto;
+
+import lombok.Data;
+import java.util.List;
+
+/**
+ * A JD's LLM token usage against its budget, and today's usage across all JDs against the daily budget.
+ * A null limit means no limit is configured.
+ */
+@Data
+public class LlmUsageDto {
+    private Long jobDescriptionId;
+    private long tokensUsed;
+    private Long tokenLimit;
+    private boolean budgetExceeded;
+    private long dailyTokensUsed;
+    private Long dailyTokenLimit;
+    private List<LlmUsageRow> operations;
+}
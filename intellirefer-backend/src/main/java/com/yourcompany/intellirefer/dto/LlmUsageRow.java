@@ -0,0 +1,16 @@
+package com.yourcompany.intellirefer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Token usage of one LLM operation, summed over a JD's calls.
+ */
+@Data
+@AllArgsConstructor
+public class LlmUsageRow {
+    private String operation;
+    private long calls;
+    private long promptTokens;
+    private long responseTokens;
+}
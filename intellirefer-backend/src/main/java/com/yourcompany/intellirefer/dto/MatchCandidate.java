@@ -0,0 +1,15 @@
+package com.yourcompany.intellirefer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * The columns the matching engine needs from an employee who passed the candidate filters in SQL.
+ */
+@Data
+@AllArgsConstructor
+public class MatchCandidate {
+    private Long userId;
+    private String fullName;
+    private String resumeFilePath;
+}
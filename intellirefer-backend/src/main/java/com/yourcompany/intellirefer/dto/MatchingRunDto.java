@@ -0,0 +1,33 @@
+package com.yourcompany.intellirefer.dto;
+
+import com.yourcompany.intellirefer.model.enums.MatchingRunStatus;
+import lombok.Data;
+import java.time.Instant;
+
+@Data
+public class MatchingRunDto {
+    private Long id;
+    private Long jobDescriptionId;
+    private MatchingRunStatus status;
+    private String appVersion;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private Instant updatedAt;
+    private long queueWaitMs;
+    private int candidatesConsidered;
+    private int candidatesSkipped;
+    private int candidatesDispatched;
+    private int candidatesScored;
+    private int candidatesFailed;
+    private int llmCalls;
+    private int llmCached;
+    private int llmFailed;
+    private int llmRetried;
+    private long llmPromptTokens;
+    private long llmResponseTokens;
+    private long jdParseMs;
+    private long candidateFetchMs;
+    private long resumeParseMs;
+    private long llmMs;
+    private long referralSaveMs;
+}
@@ -11,6 +11,8 @@ import java.util.Set;
 @Data
 public class ReferralDto {
     private Long referralId;
+    private Long jobDescriptionId;
+    private String jobTitle;
     private Long employeeUserId;
     private String employeeFullName;
     private Integer yearsOfExperience;
@@ -0,0 +1,31 @@
+package com.yourcompany.intellirefer.dto;
+
+import com.yourcompany.intellirefer.model.enums.AvailabilityStatus;
+import com.yourcompany.intellirefer.model.enums.ReferralStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Flat projection of a referral and its employee, read in a single query for the
+ * recommendations and skill search views. Skills and matching skills are loaded separately,
+ * one batch each (see {@link EmployeeSkillRow} and {@link ReferralSkillRow}).
+ */
+@Data
+@AllArgsConstructor
+public class ReferralRow {
+    private Long referralId;
+    private Long jobDescriptionId;
+    private String jobTitle;
+    private Long employeeUserId;
+    private String employeeFullName;
+    private Integer yearsOfExperience;
+    private String currentRole;
+    private String jobLevel;
+    private AvailabilityStatus availability;
+    private LocalDate expectedAvailabilityDate;
+    private Integer matchScore;
+    private String justification;
+    private ReferralStatus status;
+}
@@ -0,0 +1,14 @@
+package com.yourcompany.intellirefer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One (referral, matching skill name) pair, used to load the matching skills of many referrals in one query.
+ */
+@Data
+@AllArgsConstructor
+public class ReferralSkillRow {
+    private Long referralId;
+    private String skillName;
+}
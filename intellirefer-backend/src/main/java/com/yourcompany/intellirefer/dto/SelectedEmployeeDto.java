@@ -1,11 +1,13 @@
 package com.yourcompany.intellirefer.dto;
 
 import com.yourcompany.intellirefer.model.enums.AvailabilityStatus;
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Data
 @NoArgsConstructor
+@AllArgsConstructor // Used by the JPQL constructor projection in EmployeeProfileRepository
 public class SelectedEmployeeDto {
     private Long employeeUserId;
     private String employeeFullName;
@@ -0,0 +1,14 @@
+package com.yourcompany.intellirefer.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Tokens Gemini billed for one call: the prompt, and the reply's candidates.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record UsageMetadata(
+        @JsonProperty("promptTokenCount") Integer promptTokenCount,
+        @JsonProperty("candidatesTokenCount") Integer candidatesTokenCount,
+        @JsonProperty("totalTokenCount") Integer totalTokenCount
+) {}
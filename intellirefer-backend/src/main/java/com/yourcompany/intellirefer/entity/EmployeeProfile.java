@@ -13,7 +13,13 @@ import java.util.Set;
 @Data
 @NoArgsConstructor
 @Entity
-@Table(name = "employee_profiles")
+@Table(name = "employee_profiles",
+        indexes = {
+                @Index(name = "idx_employee_profiles_availability_date", columnList = "availability, expected_availability_date"),
+                @Index(name = "idx_employee_profiles_availability_user", columnList = "availability, user_id"),
+                @Index(name = "idx_employee_profiles_resume_file_path", columnList = "resume_file_path")
+        }
+)
 public class EmployeeProfile {
 
     @Id
@@ -38,7 +44,8 @@ public class EmployeeProfile {
 //    @Column(name = "resume_s3_key", unique = true)
 //    private String resumeS3Key;
 
-    @Column(name = "resume_file_path", unique = true) // <-- RENAMED from resume_s3_key
+    // Not unique: with content-addressed storage, identical resumes share one stored file.
+    @Column(name = "resume_file_path") // <-- RENAMED from resume_s3_key
     private String resumeFilePath; // <-- RENAMED from resumeS3Key
 
     @Enumerated(EnumType.STRING)
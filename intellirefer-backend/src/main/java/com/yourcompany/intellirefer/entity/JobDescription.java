@@ -4,13 +4,23 @@ import com.yourcompany.intellirefer.model.enums.JdStatus;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import java.time.Instant;
 
 @Data
 @NoArgsConstructor
 @Entity
-@Table(name = "job_descriptions")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "job_descriptions",
+        indexes = {
+                // Keyset pagination of a manager's JDs, newest first.
+                @Index(name = "idx_jds_manager_created_id", columnList = "uploaded_by_manager_id, created_at, id"),
+                @Index(name = "idx_jds_jd_file_path", columnList = "jd_file_path")
+        }
+)
 public class JobDescription {
 
     @Id
@@ -27,7 +37,8 @@ public class JobDescription {
 //    private String jdS3Key;
 
 
-    @Column(name = "jd_file_path", nullable = false, unique = true) // <-- RENAMED from jd_s3_key
+    // Not unique: re-uploading the same JD points the new record at the already stored file.
+    @Column(name = "jd_file_path", nullable = false) // <-- RENAMED from jd_s3_key
     private String jdFilePath; // <-- RENAMED from jdS3Key
 
 
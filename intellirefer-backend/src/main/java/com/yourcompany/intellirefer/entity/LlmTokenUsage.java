@@ -0,0 +1,47 @@
+package com.yourcompany.intellirefer.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.Instant;
+
+/**
+ * Tokens used by one Gemini reply, as reported in its usage metadata. A repair call is a row of its own.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "llm_token_usage",
+        indexes = {
+                @Index(name = "idx_llm_token_usage_jd", columnList = "job_description_id"),
+                @Index(name = "idx_llm_token_usage_created", columnList = "created_at")
+        }
+)
+public class LlmTokenUsage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Plain ids rather than associations: rows are written from Reactor threads without loading either.
+    // No JD for skill extraction at resume upload.
+    @Column(name = "job_description_id")
+    private Long jobDescriptionId;
+
+    // The employee's user id; none for a JD's own experience extraction.
+    @Column(name = "employee_id")
+    private Long employeeId;
+
+    // As in the llm.requests metric, e.g. match_score.
+    @Column(nullable = false, length = 32)
+    private String operation;
+
+    @Column(name = "prompt_tokens", nullable = false)
+    private int promptTokens;
+
+    @Column(name = "response_tokens", nullable = false)
+    private int responseTokens;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,107 @@
+package com.yourcompany.intellirefer.entity;
+
+import com.yourcompany.intellirefer.model.enums.MatchingRunStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.Instant;
+
+/**
+ * One matching run of a JD against the employees, written when the run starts, rewritten
+ * periodically while it progresses and a last time when it ends.
+ * <p>
+ * Stage times ({@code *Ms}) are summed over all of the run's work in that stage. Resume parsing,
+ * LLM calls and referral saves overlap across candidates, so they can add up to more than the run's duration.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "matching_runs",
+        indexes = {
+                @Index(name = "idx_matching_runs_jd_started", columnList = "job_description_id, started_at"),
+                @Index(name = "idx_matching_runs_started", columnList = "started_at")
+        }
+)
+public class MatchingRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // A plain id rather than an association: runs are written from background threads without loading the JD.
+    @Column(name = "job_description_id", nullable = false)
+    private Long jobDescriptionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private MatchingRunStatus status = MatchingRunStatus.RUNNING;
+
+    // Build version of the node that ran it, for comparing throughput across releases.
+    @Column(name = "app_version", length = 64)
+    private String appVersion;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    // From publishing the upload event to the listener starting on the task executor.
+    @Column(name = "queue_wait_ms", nullable = false)
+    private long queueWaitMs;
+
+    // Candidates returned by the filtered candidate query.
+    @Column(name = "candidates_considered", nullable = false)
+    private int candidatesConsidered;
+
+    // Dropped before the LLM call, e.g. for an unreadable resume.
+    @Column(name = "candidates_skipped", nullable = false)
+    private int candidatesSkipped;
+
+    @Column(name = "candidates_dispatched", nullable = false)
+    private int candidatesDispatched;
+
+    @Column(name = "candidates_scored", nullable = false)
+    private int candidatesScored;
+
+    @Column(name = "candidates_failed", nullable = false)
+    private int candidatesFailed;
+
+    @Column(name = "llm_calls", nullable = false)
+    private int llmCalls;
+
+    // Answered by an identical LLM call already in flight, e.g. from another run of the same JD.
+    @Column(name = "llm_cached", nullable = false)
+    private int llmCached;
+
+    @Column(name = "llm_failed", nullable = false)
+    private int llmFailed;
+
+    @Column(name = "llm_retried", nullable = false)
+    private int llmRetried;
+
+    // As billed by Gemini, for the calls whose reply arrived.
+    @Column(name = "llm_prompt_tokens", nullable = false)
+    private long llmPromptTokens;
+
+    @Column(name = "llm_response_tokens", nullable = false)
+    private long llmResponseTokens;
+
+    @Column(name = "jd_parse_ms", nullable = false)
+    private long jdParseMs;
+
+    @Column(name = "candidate_fetch_ms", nullable = false)
+    private long candidateFetchMs;
+
+    @Column(name = "resume_parse_ms", nullable = false)
+    private long resumeParseMs;
+
+    @Column(name = "llm_ms", nullable = false)
+    private long llmMs;
+
+    @Column(name = "referral_save_ms", nullable = false)
+    private long referralSaveMs;
+}
@@ -3,10 +3,14 @@ package com.yourcompany.intellirefer.entity;
 import com.yourcompany.intellirefer.model.enums.ReferralStatus;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -14,6 +18,12 @@ import java.time.Instant;
 @Table(name = "referrals",
         uniqueConstraints = {
                 @UniqueConstraint(columnNames = {"job_description_id", "employee_user_id"})
+        },
+        indexes = {
+                // Keyset pagination of a JD's recommendations, best match first.
+                @Index(name = "idx_referrals_jd_score_id", columnList = "job_description_id, match_score, id"),
+                // Latest SELECTED/RESERVED referral per employee.
+                @Index(name = "idx_referrals_employee_status_id", columnList = "employee_user_id, status, id")
         }
 )
 public class Referral {
@@ -36,8 +46,12 @@ public class Referral {
     @Column(columnDefinition = "TEXT")
     private String justification;
 
-    @Column(name = "matching_skills")
-    private String matchingSkills;
+    // In the order the LLM listed them.
+    @OneToMany(mappedBy = "referral", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("position")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private List<ReferralMatchingSkill> matchingSkills = new ArrayList<>();
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -50,4 +64,8 @@ public class Referral {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private Instant updatedAt;
-}
\ No newline at end of file
+
+    public void addMatchingSkill(Skill skill) {
+        matchingSkills.add(new ReferralMatchingSkill(this, matchingSkills.size(), skill));
+    }
+}
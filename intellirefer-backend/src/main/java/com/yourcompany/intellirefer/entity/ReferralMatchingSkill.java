@@ -0,0 +1,60 @@
+package com.yourcompany.intellirefer.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * One skill the LLM found matching for a referral, at its position in the LLM's list.
+ * Mapped as an entity, rather than a plain join table, so skill searches can seek and page
+ * on its (skill, referral) index.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@IdClass(ReferralMatchingSkill.Key.class)
+@Table(name = "referral_matching_skills",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_referral_matching_skills_referral_skill", columnNames = {"referral_id", "skill_id"})
+        },
+        indexes = {
+                // Referrals matching a skill, newest first.
+                @Index(name = "idx_referral_matching_skills_skill_referral", columnList = "skill_id, referral_id")
+        }
+)
+public class ReferralMatchingSkill {
+
+    @Id
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "referral_id")
+    private Referral referral;
+
+    @Id
+    @Column(name = "position")
+    private Integer position;
+
+    // The same column as the referral's ID, so that queries can seek and sort on this table's index.
+    @Column(name = "referral_id", insertable = false, updatable = false)
+    private Long referralId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "skill_id", nullable = false)
+    private Skill skill;
+
+    public ReferralMatchingSkill(Referral referral, Integer position, Skill skill) {
+        this.referral = referral;
+        this.position = position;
+        this.skill = skill;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long referral;
+        private Integer position;
+    }
+}
@@ -0,0 +1,35 @@
+package com.yourcompany.intellirefer.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import java.time.Instant;
+
+/**
+ * A JWT that was revoked (e.g. by logging out) before it expired.
+ * Rows are only needed until the token would have expired anyway.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "revoked_tokens",
+        indexes = {
+                @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revoked_at"),
+                @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at")
+        }
+)
+public class RevokedToken {
+
+    // The token's "jti" claim.
+    @Id
+    @Column(name = "token_id", length = 36)
+    private String tokenId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @CreationTimestamp
+    @Column(name = "revoked_at", nullable = false, updatable = false)
+    private Instant revokedAt;
+}
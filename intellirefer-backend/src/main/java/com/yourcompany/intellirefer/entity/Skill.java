@@ -3,10 +3,16 @@ package com.yourcompany.intellirefer.entity;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.util.Locale;
 
 @Data
 @NoArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "skills")
 public class Skill {
 
@@ -16,4 +22,18 @@ public class Skill {
 
     @Column(nullable = false, unique = true, length = 100)
     private String name;
+
+    // Lower-cased, trimmed name, so case-insensitive lookups can use a plain unique index.
+    @Column(name = "name_key", nullable = false, unique = true, length = 100)
+    private String nameKey;
+
+    @PrePersist
+    @PreUpdate
+    void updateNameKey() {
+        nameKey = keyOf(name);
+    }
+
+    public static String keyOf(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.yourcompany.intellirefer.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import java.time.Instant;
+
+/**
+ * Bookkeeping record for a content-addressed file in storage.
+ * One row exists per stored blob; the reference count tracks how many
+ * entities (resumes, JDs) currently point at its relative path.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "stored_blobs",
+        indexes = {
+                @Index(name = "idx_stored_blobs_content_hash", columnList = "content_hash"),
+                @Index(name = "idx_stored_blobs_ref_count_released_at", columnList = "ref_count, released_at")
+        }
+)
+public class StoredBlob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "relative_path", nullable = false, unique = true)
+    private String relativePath;
+
+    // Hex-encoded SHA-256 of the file contents.
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(name = "size_bytes", nullable = false)
+    private Long sizeBytes;
+
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount = 0;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private Instant createdAt;
+
+    // Set when the reference count drops to zero, or when the row is written ahead of the blob's content;
+    // the sweep reclaims the blob after a grace period.
+    @Column(name = "released_at")
+    private Instant releasedAt;
+}
@@ -2,12 +2,14 @@ package com.yourcompany.intellirefer.mapper;
 
 import com.yourcompany.intellirefer.dto.EmployeeProfileDto;
 import com.yourcompany.intellirefer.dto.JobDescriptionDto;
+import com.yourcompany.intellirefer.dto.MatchingRunDto;
 import com.yourcompany.intellirefer.dto.ReferralDto;
+import com.yourcompany.intellirefer.dto.ReferralRow;
 import com.yourcompany.intellirefer.entity.*;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
-import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
@@ -39,10 +41,41 @@ public class DtoMapper {
         return dto;
     }
 
+    public MatchingRunDto toMatchingRunDto(MatchingRun run) {
+        MatchingRunDto dto = new MatchingRunDto();
+        dto.setId(run.getId());
+        dto.setJobDescriptionId(run.getJobDescriptionId());
+        dto.setStatus(run.getStatus());
+        dto.setAppVersion(run.getAppVersion());
+        dto.setStartedAt(run.getStartedAt());
+        dto.setFinishedAt(run.getFinishedAt());
+        dto.setUpdatedAt(run.getUpdatedAt());
+        dto.setQueueWaitMs(run.getQueueWaitMs());
+        dto.setCandidatesConsidered(run.getCandidatesConsidered());
+        dto.setCandidatesSkipped(run.getCandidatesSkipped());
+        dto.setCandidatesDispatched(run.getCandidatesDispatched());
+        dto.setCandidatesScored(run.getCandidatesScored());
+        dto.setCandidatesFailed(run.getCandidatesFailed());
+        dto.setLlmCalls(run.getLlmCalls());
+        dto.setLlmCached(run.getLlmCached());
+        dto.setLlmFailed(run.getLlmFailed());
+        dto.setLlmRetried(run.getLlmRetried());
+        dto.setLlmPromptTokens(run.getLlmPromptTokens());
+        dto.setLlmResponseTokens(run.getLlmResponseTokens());
+        dto.setJdParseMs(run.getJdParseMs());
+        dto.setCandidateFetchMs(run.getCandidateFetchMs());
+        dto.setResumeParseMs(run.getResumeParseMs());
+        dto.setLlmMs(run.getLlmMs());
+        dto.setReferralSaveMs(run.getReferralSaveMs());
+        return dto;
+    }
+
     public ReferralDto toReferralDto(Referral referral) {
         ReferralDto dto = new ReferralDto();
         EmployeeProfile employee = referral.getEmployee();
         dto.setReferralId(referral.getId());
+        dto.setJobDescriptionId(referral.getJobDescription().getId());
+        dto.setJobTitle(referral.getJobDescription().getTitle());
         dto.setEmployeeUserId(employee.getUserId());
         dto.setEmployeeFullName(employee.getFullName());
         dto.setYearsOfExperience(employee.getYearsOfExperience());
@@ -56,11 +89,33 @@ public class DtoMapper {
         dto.setSkills(employee.getSkills().stream()
                 .map(Skill::getName)
                 .collect(Collectors.toSet()));
-        if (referral.getMatchingSkills() != null && !referral.getMatchingSkills().isEmpty()) {
-            dto.setMatchingSkills(Arrays.asList(referral.getMatchingSkills().split(",")));
-        } else {
-            dto.setMatchingSkills(Collections.emptyList()); // Ensure it's never null
-        }
+        dto.setMatchingSkills(referral.getMatchingSkills().stream()
+                .map(matchingSkill -> matchingSkill.getSkill().getName())
+                .collect(Collectors.toList()));
+        return dto;
+    }
+
+    /**
+     * Builds the same DTO as {@link #toReferralDto(Referral)} from a projected row,
+     * with the employee's skills and the referral's matching skills supplied by the caller.
+     */
+    public ReferralDto toReferralDto(ReferralRow row, Set<String> skills, List<String> matchingSkills) {
+        ReferralDto dto = new ReferralDto();
+        dto.setReferralId(row.getReferralId());
+        dto.setJobDescriptionId(row.getJobDescriptionId());
+        dto.setJobTitle(row.getJobTitle());
+        dto.setEmployeeUserId(row.getEmployeeUserId());
+        dto.setEmployeeFullName(row.getEmployeeFullName());
+        dto.setYearsOfExperience(row.getYearsOfExperience());
+        dto.setCurrentRole(row.getCurrentRole());
+        dto.setJobLevel(row.getJobLevel());
+        dto.setAvailability(row.getAvailability());
+        dto.setExpectedAvailabilityDate(row.getExpectedAvailabilityDate());
+        dto.setMatchScore(row.getMatchScore());
+        dto.setJustification(row.getJustification());
+        dto.setStatus(row.getStatus());
+        dto.setSkills(skills);
+        dto.setMatchingSkills(matchingSkills);
         return dto;
     }
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.yourcompany.intellirefer.model.enums;
+
+public enum MatchingRunStatus {
+    RUNNING,
+    COMPLETED,
+    // Stopped dispatching candidates when the JD's or the day's token budget ran out; its referrals are partial.
+    BUDGET_EXCEEDED,
+    FAILED
+}
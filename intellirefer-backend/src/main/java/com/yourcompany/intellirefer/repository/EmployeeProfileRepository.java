@@ -1,13 +1,21 @@
 package com.yourcompany.intellirefer.repository;
 
+import com.yourcompany.intellirefer.dto.EmployeeSkillRow;
+import com.yourcompany.intellirefer.dto.MatchCandidate;
+import com.yourcompany.intellirefer.dto.SelectedEmployeeDto;
 import com.yourcompany.intellirefer.entity.EmployeeProfile;
 import com.yourcompany.intellirefer.model.enums.AvailabilityStatus;
+import com.yourcompany.intellirefer.model.enums.ReferralStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -22,7 +30,70 @@ public interface EmployeeProfileRepository extends JpaRepository<EmployeeProfile
     List<EmployeeProfile> findByAvailability(AvailabilityStatus availability);
 
     List<EmployeeProfile> findByAvailabilityIn(List<AvailabilityStatus> busyStatuses);
-    @Query("SELECT e FROM EmployeeProfile e WHERE e.availability = 'AVAILABLE' OR " +
-            "(e.availability = 'ON_PROJECT' AND e.expectedAvailabilityDate <= :thresholdDate)")
-    List<EmployeeProfile> findAvailableOrSoonToBeAvailable(@Param("thresholdDate") LocalDate thresholdDate);
+
+    /**
+     * The "selected and reserved" report in one query: each busy employee with their email and the
+     * JD of their most recent referral in one of the given statuses (job fields are null if there is none).
+     * @param availabilities The availability statuses that count as busy.
+     * @param referralStatuses The referral statuses that explain the assignment.
+     * @param clientName Only include assignments for this client, or null for all.
+     */
+    @Query(value = "SELECT new com.yourcompany.intellirefer.dto.SelectedEmployeeDto(" +
+            "e.userId, e.fullName, u.email, e.availability, jd.id, jd.title, jd.clientName) " +
+            "FROM EmployeeProfile e JOIN e.user u " +
+            "LEFT JOIN Referral r ON r.employee = e AND r.status IN :referralStatuses " +
+            "LEFT JOIN r.jobDescription jd " +
+            "WHERE e.availability IN :availabilities " +
+            "AND (r.id IS NULL OR r.id = (SELECT MAX(r2.id) FROM Referral r2 WHERE r2.employee = e AND r2.status IN :referralStatuses)) " +
+            "AND (:clientName IS NULL OR jd.clientName = :clientName) " +
+            "ORDER BY e.userId",
+            countQuery = "SELECT COUNT(e) FROM EmployeeProfile e " +
+                    "LEFT JOIN Referral r ON r.employee = e AND r.status IN :referralStatuses " +
+                    "LEFT JOIN r.jobDescription jd " +
+                    "WHERE e.availability IN :availabilities " +
+                    "AND (r.id IS NULL OR r.id = (SELECT MAX(r2.id) FROM Referral r2 WHERE r2.employee = e AND r2.status IN :referralStatuses)) " +
+                    "AND (:clientName IS NULL OR jd.clientName = :clientName)")
+    Page<SelectedEmployeeDto> findSelectedEmployees(@Param("availabilities") List<AvailabilityStatus> availabilities,
+                                                    @Param("referralStatuses") List<ReferralStatus> referralStatuses,
+                                                    @Param("clientName") String clientName,
+                                                    Pageable pageable);
+
+    /**
+     * One chunk of the employees with the given availability that the matching engine should score
+     * against a JD, in user ID order: experienced enough, with a resume and, if a date is given,
+     * off their project by then. Seeks on idx_employee_profiles_availability_user.
+     * @param availableBy Latest expected availability date, or null for no date limit.
+     * @param minExperience Minimum years of experience; employees without a value count as 0.
+     * @param afterUserId Return only employees after this ID (the last one of the previous chunk, or 0).
+     */
+    @Query("SELECT new com.yourcompany.intellirefer.dto.MatchCandidate(e.userId, e.fullName, e.resumeFilePath) " +
+            "FROM EmployeeProfile e " +
+            "WHERE e.availability = :availability AND e.userId > :afterUserId " +
+            "AND (:availableBy IS NULL OR e.expectedAvailabilityDate <= :availableBy) " +
+            "AND (:minExperience <= 0 OR e.yearsOfExperience >= :minExperience) " +
+            "AND e.resumeFilePath IS NOT NULL " +
+            "ORDER BY e.userId")
+    List<MatchCandidate> findMatchCandidates(@Param("availability") AvailabilityStatus availability,
+                                             @Param("availableBy") LocalDate availableBy,
+                                             @Param("minExperience") int minExperience,
+                                             @Param("afterUserId") long afterUserId,
+                                             Pageable pageable);
+
+    /**
+     * Loads the skill names of many employees at once, instead of initializing each profile's skill set.
+     */
+    @Query("SELECT new com.yourcompany.intellirefer.dto.EmployeeSkillRow(e.userId, s.name) " +
+            "FROM EmployeeProfile e JOIN e.skills s WHERE e.userId IN :userIds")
+    List<EmployeeSkillRow> findSkillRowsByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Keyset-paged scan over profiles that have a resume, used by the storage layout migration.
+     */
+    List<EmployeeProfile> findByUserIdGreaterThanAndResumeFilePathIsNotNullOrderByUserIdAsc(Long afterUserId, Pageable pageable);
+
+    boolean existsByResumeFilePath(String resumeFilePath);
+
+    @Modifying
+    @Query("UPDATE EmployeeProfile e SET e.resumeFilePath = :newPath WHERE e.resumeFilePath = :oldPath")
+    int updateResumeFilePath(@Param("oldPath") String oldPath, @Param("newPath") String newPath);
 }
\ No newline at end of file
@@ -1,8 +1,13 @@
 package com.yourcompany.intellirefer.repository;
 
 import com.yourcompany.intellirefer.entity.JobDescription;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.Instant;
 import java.util.List;
 
 @Repository
@@ -15,4 +20,29 @@ public interface JobDescriptionRepository extends JpaRepository<JobDescription,
      * @return A list of JobDescriptions.
      */
     List<JobDescription> findByUploadedByManagerId(Long managerId);
+
+    /**
+     * One keyset page of a manager's JDs, newest first: the rows after the given
+     * (createdAt, id) position. Served by idx_jds_manager_created_id; the redundant
+     * {@code createdAt <= :afterCreatedAt} bound makes the keyset condition an index range.
+     */
+    @Query("SELECT j FROM JobDescription j WHERE j.uploadedByManager.id = :managerId " +
+            "AND j.createdAt <= :afterCreatedAt " +
+            "AND (j.createdAt < :afterCreatedAt OR (j.createdAt = :afterCreatedAt AND j.id < :afterId)) " +
+            "ORDER BY j.createdAt DESC, j.id DESC")
+    List<JobDescription> findPageByManager(@Param("managerId") Long managerId,
+                                           @Param("afterCreatedAt") Instant afterCreatedAt,
+                                           @Param("afterId") Long afterId,
+                                           Pageable pageable);
+
+    /**
+     * Keyset-paged scan over all JDs, used by the storage layout migration.
+     */
+    List<JobDescription> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    boolean existsByJdFilePath(String jdFilePath);
+
+    @Modifying
+    @Query("UPDATE JobDescription j SET j.jdFilePath = :newPath WHERE j.jdFilePath = :oldPath")
+    int updateJdFilePath(@Param("oldPath") String oldPath, @Param("newPath") String newPath);
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.yourcompany.intellirefer.repository;
+
+import com.yourcompany.intellirefer.dto.LlmUsageRow;
+import com.yourcompany.intellirefer.entity.LlmTokenUsage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface LlmTokenUsageRepository extends JpaRepository<LlmTokenUsage, Long> {
+
+    /**
+     * All tokens used for a JD, over all of its runs. Served by idx_llm_token_usage_jd.
+     */
+    @Query("SELECT COALESCE(SUM(u.promptTokens + u.responseTokens), 0) FROM LlmTokenUsage u WHERE u.jobDescriptionId = :jdId")
+    long sumTokensByJobDescriptionId(@Param("jdId") Long jdId);
+
+    /**
+     * All tokens used since the given time, across JDs. Served by idx_llm_token_usage_created.
+     */
+    @Query("SELECT COALESCE(SUM(u.promptTokens + u.responseTokens), 0) FROM LlmTokenUsage u WHERE u.createdAt >= :since")
+    long sumTokensSince(@Param("since") Instant since);
+
+    @Query("SELECT new com.yourcompany.intellirefer.dto.LlmUsageRow(u.operation, COUNT(u), SUM(u.promptTokens), SUM(u.responseTokens)) " +
+            "FROM LlmTokenUsage u WHERE u.jobDescriptionId = :jdId GROUP BY u.operation ORDER BY u.operation")
+    List<LlmUsageRow> summarizeByJobDescriptionId(@Param("jdId") Long jdId);
+}
@@ -0,0 +1,16 @@
+package com.yourcompany.intellirefer.repository;
+
+import com.yourcompany.intellirefer.entity.MatchingRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MatchingRunRepository extends JpaRepository<MatchingRun, Long> {
+
+    /**
+     * A JD's runs, newest first. Served by idx_matching_runs_jd_started.
+     */
+    List<MatchingRun> findByJobDescriptionIdOrderByStartedAtDescIdDesc(Long jobDescriptionId);
+}
@@ -0,0 +1,57 @@
+package com.yourcompany.intellirefer.repository;
+
+import com.yourcompany.intellirefer.dto.ReferralRow;
+import com.yourcompany.intellirefer.dto.ReferralSkillRow;
+import com.yourcompany.intellirefer.entity.ReferralMatchingSkill;
+import com.yourcompany.intellirefer.model.enums.JdStatus;
+import com.yourcompany.intellirefer.model.enums.ReferralStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ReferralMatchingSkillRepository extends JpaRepository<ReferralMatchingSkill, ReferralMatchingSkill.Key> {
+
+    /**
+     * Loads the matching skill names of many referrals at once, each referral's in the LLM's order.
+     */
+    @Query("SELECT new com.yourcompany.intellirefer.dto.ReferralSkillRow(m.referralId, s.name) " +
+            "FROM ReferralMatchingSkill m JOIN m.skill s " +
+            "WHERE m.referralId IN :referralIds " +
+            "ORDER BY m.referralId, m.position")
+    List<ReferralSkillRow> findSkillRowsByReferralIdIn(@Param("referralIds") Collection<Long> referralIds);
+
+    /**
+     * One page of a manager's referrals that matched all of the given skills, newest first.
+     * <p>
+     * Seeks on idx_referral_matching_skills_skill_referral for the driving skill, so the cost of a page
+     * does not depend on how many referrals exist; the other skills are checked per referral on the
+     * (referral, skill) unique key.
+     * @param drivingSkillId One of {@code skillIds}; the scan walks this skill's referrals.
+     * @param skillIds All skills the referral must have matched, including the driving one.
+     * @param skillCount The number of {@code skillIds}.
+     * @param afterId Return only referrals with a lower ID (the last one of the previous page).
+     */
+    @Query("SELECT new com.yourcompany.intellirefer.dto.ReferralRow(r.id, j.id, j.title, e.userId, e.fullName, " +
+            "e.yearsOfExperience, e.currentRole, e.jobLevel, e.availability, e.expectedAvailabilityDate, " +
+            "r.matchScore, r.justification, r.status) " +
+            "FROM ReferralMatchingSkill m JOIN m.referral r JOIN r.jobDescription j JOIN r.employee e " +
+            "WHERE m.skill.id = :drivingSkillId AND m.referralId < :afterId " +
+            "AND j.uploadedByManager.id = :managerId AND j.status = :jdStatus AND r.status IN :statuses " +
+            "AND (SELECT COUNT(o.position) FROM ReferralMatchingSkill o " +
+            "     WHERE o.referralId = m.referralId AND o.skill.id IN :skillIds) = :skillCount " +
+            "ORDER BY m.referralId DESC")
+    List<ReferralRow> findRowPageBySkills(@Param("managerId") Long managerId,
+                                          @Param("jdStatus") JdStatus jdStatus,
+                                          @Param("statuses") Collection<ReferralStatus> statuses,
+                                          @Param("drivingSkillId") Integer drivingSkillId,
+                                          @Param("skillIds") Collection<Integer> skillIds,
+                                          @Param("skillCount") long skillCount,
+                                          @Param("afterId") long afterId,
+                                          Pageable pageable);
+}
@@ -1,9 +1,15 @@
 package com.yourcompany.intellirefer.repository;
 
+import com.yourcompany.intellirefer.dto.ReferralRow;
 import com.yourcompany.intellirefer.entity.Referral;
+import com.yourcompany.intellirefer.model.enums.AvailabilityStatus;
 import com.yourcompany.intellirefer.model.enums.ReferralStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +24,33 @@ public interface ReferralRepository extends JpaRepository<Referral, Long> {
      */
     List<Referral> findByJobDescriptionIdOrderByMatchScoreDesc(Long jobDescriptionId);
 
+    /**
+     * One keyset page of a JD's referral rows, best match first: the rows after the given
+     * (matchScore, id) position that pass the filters. Served by idx_referrals_jd_score_id,
+     * so a deep page costs the same as the first one; the redundant {@code matchScore <= :afterScore}
+     * bound lets the planner turn the keyset condition into an index range.
+     * @param minScore Lowest match score to include (0 for all).
+     * @param statuses Referral statuses to include.
+     * @param availability Only include employees with this availability, or null for all.
+     */
+    @Query("SELECT new com.yourcompany.intellirefer.dto.ReferralRow(r.id, r.jobDescription.id, j.title, e.userId, " +
+            "e.fullName, e.yearsOfExperience, e.currentRole, e.jobLevel, e.availability, e.expectedAvailabilityDate, " +
+            "r.matchScore, r.justification, r.status) " +
+            "FROM Referral r JOIN r.employee e JOIN r.jobDescription j " +
+            "WHERE r.jobDescription.id = :jobDescriptionId " +
+            "AND r.matchScore <= :afterScore " +
+            "AND (r.matchScore < :afterScore OR (r.matchScore = :afterScore AND r.id < :afterId)) " +
+            "AND r.matchScore >= :minScore AND r.status IN :statuses " +
+            "AND (:availability IS NULL OR e.availability = :availability) " +
+            "ORDER BY r.matchScore DESC, r.id DESC")
+    List<ReferralRow> findRowPage(@Param("jobDescriptionId") Long jobDescriptionId,
+                                  @Param("afterScore") Integer afterScore,
+                                  @Param("afterId") Long afterId,
+                                  @Param("minScore") Integer minScore,
+                                  @Param("statuses") Collection<ReferralStatus> statuses,
+                                  @Param("availability") AvailabilityStatus availability,
+                                  Pageable pageable);
+
     /**
      * Finds a specific referral for a given job and employee combination.
      * Useful for checking if a match has already been processed.
@@ -25,6 +58,7 @@ public interface ReferralRepository extends JpaRepository<Referral, Long> {
      * @param employeeUserId The ID of the employee.
      * @return An Optional containing the Referral if it exists.
      */
-    Optional<Referral> findByJobDescriptionIdAndEmployeeUserId(Long jobDescriptionId, Long employeeUserId);
-    Optional<Referral> findFirstByEmployeeUserIdAndStatusIn(Long employeeUserId, List<ReferralStatus> statuses);
+    @Query("SELECT r FROM Referral r WHERE r.jobDescription.id = :jobDescriptionId AND r.employee.userId = :employeeUserId")
+    Optional<Referral> findByJobDescriptionIdAndEmployeeUserId(@Param("jobDescriptionId") Long jobDescriptionId,
+                                                               @Param("employeeUserId") Long employeeUserId);
 }
\ No newline at end of file
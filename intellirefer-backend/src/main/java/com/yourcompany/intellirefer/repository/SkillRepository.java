@@ -3,16 +3,25 @@ package com.yourcompany.intellirefer.repository;
 import com.yourcompany.intellirefer.entity.Skill;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface SkillRepository extends JpaRepository<Skill, Integer> {
 
+    Optional<Skill> findByNameKey(String nameKey);
+
+    List<Skill> findByNameKeyIn(Collection<String> nameKeys);
+
     /**
      * Finds a skill by its name (case-insensitive).
      * Useful for checking if a skill already exists before creating a new one.
+     * Goes through the indexed name_key column rather than UPPER(name), which no index can serve.
      * @param name The name of the skill to search for.
      * @return An Optional containing the Skill if found.
      */
-    Optional<Skill> findByNameIgnoreCase(String name);
+    default Optional<Skill> findByNameIgnoreCase(String name) {
+        return findByNameKey(Skill.keyOf(name));
+    }
 }
\ No newline at end of file
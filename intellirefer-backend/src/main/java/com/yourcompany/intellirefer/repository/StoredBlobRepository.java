@@ -0,0 +1,48 @@
+package com.yourcompany.intellirefer.repository;
+
+import com.yourcompany.intellirefer.entity.StoredBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, Long> {
+
+    Optional<StoredBlob> findByRelativePath(String relativePath);
+
+    boolean existsByRelativePath(String relativePath);
+
+    /**
+     * Atomically adds a reference to an existing blob.
+     * @return The number of rows updated (0 if the blob is not known yet).
+     */
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.refCount = b.refCount + 1, b.releasedAt = null WHERE b.relativePath = :relativePath")
+    int incrementRefCount(@Param("relativePath") String relativePath);
+
+    /**
+     * Atomically drops a reference. The count never goes below zero.
+     */
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.refCount = b.refCount - 1 WHERE b.relativePath = :relativePath AND b.refCount > 0")
+    int decrementRefCount(@Param("relativePath") String relativePath);
+
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.releasedAt = :releasedAt WHERE b.relativePath = :relativePath AND b.refCount = 0")
+    int markReleased(@Param("relativePath") String relativePath, @Param("releasedAt") Instant releasedAt);
+
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.relativePath = :targetPath WHERE b.relativePath = :sourcePath")
+    int updateRelativePath(@Param("sourcePath") String sourcePath, @Param("targetPath") String targetPath);
+
+    /**
+     * Finds blobs nobody references any more and that have been released for longer than the grace period.
+     */
+    List<StoredBlob> findByRefCountLessThanEqualAndReleasedAtBefore(Integer refCount, Instant releasedBefore);
+}
@@ -1,7 +1,10 @@
 package com.yourcompany.intellirefer.repository;
 
 import com.yourcompany.intellirefer.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
@@ -9,10 +12,16 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
 
     /**
-     * Finds a user by their email address. Used for login and registration checks.
+     * Finds a user by their email address. Used for login and registration checks,
+     * and to map the authenticated email to a user on most requests, so the result is
+     * kept in the query cache (invalidated by any write to the users table).
      * @param email The email to search for.
      * @return An Optional containing the User if found, otherwise empty.
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "query.usersByEmail")
+    })
     Optional<User> findByEmail(String email);
 
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.yourcompany.intellirefer.security;
+
+import com.yourcompany.intellirefer.model.enums.Role;
+
+import java.security.Principal;
+import java.time.Instant;
+
+/**
+ * The caller of an authenticated request, built from the JWT claims alone.
+ * Controllers receive it with {@code @AuthenticationPrincipal} instead of looking the user up by email.
+ *
+ * @param userId The user's ID.
+ * @param email The user's email, also returned by {@link #getName()}.
+ * @param role The user's role.
+ * @param profileId The employee profile ID, or null for managers.
+ * @param tokenId The JWT ID, used to revoke this token on logout.
+ * @param expiresAt When the token expires.
+ */
+public record AuthenticatedUser(Long userId, String email, Role role, Long profileId,
+                                String tokenId, Instant expiresAt) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -1,6 +1,6 @@
 package com.yourcompany.intellirefer.security;
 
-import com.auth0.jwt.interfaces.DecodedJWT;
+import com.yourcompany.intellirefer.service.TokenRevocationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,17 +8,12 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority; // <-- Import this
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.stream.Collectors;
 
 @Component
 public class JWTAuthenticationFilter extends OncePerRequestFilter {
@@ -26,7 +21,10 @@ public class JWTAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JWTAuthenticationFilter.class);
 
     @Autowired
-    private JwtTokenProvider jwtTokenProvider;
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -39,29 +37,17 @@ public class JWTAuthenticationFilter extends OncePerRequestFilter {
             String jwtToken = tokenHeader.substring(7);
 
             try {
-                DecodedJWT decodedJWT = jwtTokenProvider.verifyToken(jwtToken);
-                String userEmail = decodedJWT.getSubject();
-
-                if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-
-                    // === THIS IS THE FIX (PART 2) ===
-                    // Extract the roles claim from the decoded token.
-                    String rolesClaim = decodedJWT.getClaim("roles").asString();
-
-                    // Create a list of authorities from the roles string.
-                    var authorities = Arrays.stream(rolesClaim.split(","))
-                            .map(SimpleGrantedAuthority::new)
-                            .collect(Collectors.toList());
-
-                    // Create the authentication token WITH the correct authorities.
-                    UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
-                            userEmail, // The principal can be the email string
-                            null,
-                            authorities // Pass the authorities list here
-                    );
-
-                    authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+                if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                    // Everything the request needs is in the token; no user lookup here. A token seen
+                    // before is not verified again and comes back as the same immutable authentication.
+                    JwtAuthentication authentication = verifiedTokenCache.authenticate(jwtToken);
+                    AuthenticatedUser user = authentication.getPrincipal();
+
+                    if (tokenRevocationService.isRevoked(user.tokenId())) {
+                        logger.debug("Rejected revoked token for user ID: {}", user.userId());
+                    } else {
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                    }
                 }
             } catch (Exception ex) {
                 logger.error("JWT Authentication failed: {}", ex.getMessage());
@@ -0,0 +1,55 @@
+package com.yourcompany.intellirefer.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Immutable {@link Authentication} for a verified JWT. One instance is built per token and
+ * shared by all requests that present it, so it must never change after construction.
+ */
+public record JwtAuthentication(AuthenticatedUser principal, List<GrantedAuthority> authorities) implements Authentication {
+
+    public JwtAuthentication(AuthenticatedUser principal) {
+        this(principal, List.of(new SimpleGrantedAuthority("ROLE_" + principal.role().name())));
+    }
+
+    @Override
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getDetails() {
+        return null;
+    }
+
+    @Override
+    public AuthenticatedUser getPrincipal() {
+        return principal;
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return true;
+    }
+
+    @Override
+    public void setAuthenticated(boolean authenticated) {
+        if (!authenticated) {
+            throw new IllegalArgumentException("A verified JWT authentication cannot be marked as unauthenticated");
+        }
+    }
+
+    @Override
+    public String getName() {
+        return principal.getName();
+    }
+}
@@ -1,23 +1,29 @@
 package com.yourcompany.intellirefer.security;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTCreator;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.yourcompany.intellirefer.entity.User;
+import com.yourcompany.intellirefer.model.enums.Role;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority; // <-- Import this
 import org.springframework.stereotype.Service;
 
 import java.io.UnsupportedEncodingException;
+import java.time.Instant;
 import java.util.Date;
-import java.util.stream.Collectors; // <-- Import this
+import java.util.UUID;
 
 @Service
 public class JwtTokenProvider {
 
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String PROFILE_ID_CLAIM = "pid";
+    private static final String ROLES_CLAIM = "roles";
+
     @Value("${jwt.algorithm.key}")
     private String algorithmKey;
 
@@ -38,25 +44,43 @@ public class JwtTokenProvider {
                 .build();
     }
 
-    public String generateToken(Authentication authentication) {
-        String email = authentication.getName();
-
-        // === THIS IS THE FIX (PART 1) ===
-        // Extract the user's roles from the Authentication object.
-        String roles = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.joining(",")); // e.g., "ROLE_EMPLOYEE,ROLE_USER"
-
-        return JWT.create()
-                .withSubject(email)
+    /**
+     * Issues a token that carries everything needed to authorize a request: the user's email (subject),
+     * ID, role and, for employees, profile ID, plus a unique token ID so the token can be revoked.
+     */
+    public String generateToken(User user) {
+        JWTCreator.Builder builder = JWT.create()
+                .withSubject(user.getEmail())
                 .withIssuer(issuer)
-                .withClaim("roles", roles) // <-- Embed the roles into the token
+                .withJWTId(UUID.randomUUID().toString())
+                .withClaim(USER_ID_CLAIM, user.getId())
+                .withClaim(ROLES_CLAIM, "ROLE_" + user.getRole().name())
                 .withIssuedAt(new Date())
-                .withExpiresAt(new Date(System.currentTimeMillis() + expiryDuration))
-                .sign(algorithm);
+                .withExpiresAt(new Date(System.currentTimeMillis() + expiryDuration));
+        if (user.getRole() == Role.EMPLOYEE) {
+            // The employee profile shares its primary key with the user.
+            builder.withClaim(PROFILE_ID_CLAIM, user.getId());
+        }
+        return builder.sign(algorithm);
     }
 
     public DecodedJWT verifyToken(String token) throws JWTVerificationException {
         return verifier.verify(token);
     }
+
+    /**
+     * Builds the request principal from a verified token, without a database lookup.
+     * @throws JWTVerificationException If the token predates the user ID claim; its holder has to log in again.
+     */
+    public AuthenticatedUser toAuthenticatedUser(DecodedJWT jwt) throws JWTVerificationException {
+        Long userId = jwt.getClaim(USER_ID_CLAIM).asLong();
+        String roles = jwt.getClaim(ROLES_CLAIM).asString();
+        if (userId == null || roles == null) {
+            throw new JWTVerificationException("Token does not carry a user ID and role");
+        }
+        Role role = Role.valueOf(roles.split(",")[0].replace("ROLE_", ""));
+        Instant expiresAt = jwt.getExpiresAt().toInstant();
+        return new AuthenticatedUser(userId, jwt.getSubject(), role, jwt.getClaim(PROFILE_ID_CLAIM).asLong(),
+                jwt.getId(), expiresAt);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.yourcompany.intellirefer.security;
+
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Remembers tokens that already passed signature verification, so a client that sends the same
+ * token on every request pays for HMAC verification and claim parsing only once.
+ * <p>
+ * Entries are keyed by the SHA-256 of the whole token (a token with any other signature has a
+ * different key) and expire together with the token. Only successful verifications are cached.
+ * Revocation is not cached here; callers still check the deny-list on every request.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    // 0 disables the cache.
+    @Value("${jwt.cache.max-size:10000}")
+    private long maxSize;
+
+    private Cache<String, JwtAuthentication> cache;
+
+    @PostConstruct
+    public void init() {
+        if (maxSize > 0) {
+            cache = Caffeine.newBuilder()
+                    .maximumSize(maxSize)
+                    .expireAfter(Expiry.creating((String key, JwtAuthentication authentication) -> timeToExpiry(authentication)))
+                    .build();
+        }
+    }
+
+    /**
+     * Verifies the token, or returns the authentication built when it was first verified.
+     * @throws JWTVerificationException If the token is invalid or expired.
+     */
+    public JwtAuthentication authenticate(String token) throws JWTVerificationException {
+        if (cache == null) {
+            return verify(token);
+        }
+        String key = digest(token);
+        JwtAuthentication cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        JwtAuthentication verified = verify(token);
+        cache.put(key, verified);
+        return verified;
+    }
+
+    private JwtAuthentication verify(String token) {
+        return new JwtAuthentication(jwtTokenProvider.toAuthenticatedUser(jwtTokenProvider.verifyToken(token)));
+    }
+
+    private static Duration timeToExpiry(JwtAuthentication authentication) {
+        Duration remaining = Duration.between(Instant.now(), authentication.principal().expiresAt());
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
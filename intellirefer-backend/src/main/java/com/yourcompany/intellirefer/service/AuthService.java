@@ -5,9 +5,11 @@ import com.yourcompany.intellirefer.dto.LoginRequest;
 import com.yourcompany.intellirefer.dto.RegisterRequest;
 import com.yourcompany.intellirefer.entity.EmployeeProfile;
 import com.yourcompany.intellirefer.entity.User;
+import com.yourcompany.intellirefer.exception.ResourceNotFoundException;
 import com.yourcompany.intellirefer.model.enums.Role;
 import com.yourcompany.intellirefer.repository.EmployeeProfileRepository;
 import com.yourcompany.intellirefer.repository.UserRepository;
+import com.yourcompany.intellirefer.security.AuthenticatedUser;
 import com.yourcompany.intellirefer.security.JwtTokenProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,6 +45,9 @@ public class AuthService {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     /**
      * Authenticates a user and returns an AuthResponse containing the JWT
      * and a clean role name (e.g., "MANAGER", "EMPLOYEE").
@@ -63,8 +68,10 @@ public class AuthService {
 
             logger.info("Authentication successful for user: {}", loginRequest.getEmail());
 
-            // Generate the token.
-            String token = tokenProvider.generateToken(authentication);
+            // Generate the token. It carries the user's ID and role, so later requests need no user lookup.
+            User user = userRepository.findByEmail(authentication.getName())
+                    .orElseThrow(() -> new ResourceNotFoundException("User", "email", authentication.getName()));
+            String token = tokenProvider.generateToken(user);
 
             // === THIS IS THE KEY CHANGE ===
             // Extract the user's authority, find the first one, and clean it up
@@ -84,6 +91,13 @@ public class AuthService {
         }
     }
 
+    /**
+     * Revokes the token the user is logged in with, so it is rejected from now on even though it has not expired.
+     */
+    public void logout(AuthenticatedUser user) {
+        tokenRevocationService.revoke(user);
+    }
+
     /**
      * Registers a new user with the EMPLOYEE role.
      */
@@ -0,0 +1,212 @@
+package com.yourcompany.intellirefer.service;
+
+import com.yourcompany.intellirefer.entity.StoredBlob;
+import com.yourcompany.intellirefer.repository.StoredBlobRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Reference counting for content-addressed blobs, shared by the storage backends.
+ * <p>
+ * Counts are committed in their own transactions so that concurrent uploads of the same
+ * content see each other's rows, and they are tied back to the caller's transaction:
+ * a reference taken by a transaction that rolls back is returned, and a release only
+ * happens once the releasing transaction commits.
+ */
+@Component
+public class BlobReferenceTracker {
+
+    // Content-addressed files are named "<sha256>.<ext>", which never collides with the legacy UUID names.
+    private static final Pattern CONTENT_ADDRESSED_NAME = Pattern.compile("^[0-9a-f]{64}(\\.[A-Za-z0-9]+)?$");
+    private static final int LOCK_STRIPES = 64;
+
+    @Autowired
+    private StoredBlobRepository storedBlobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate blobTransaction;
+    private final Object[] blobLocks = new Object[LOCK_STRIPES];
+
+    /**
+     * Does some I/O on behalf of the tracker while the blob's lock is held.
+     */
+    @FunctionalInterface
+    public interface BlobAction {
+        void run() throws IOException;
+    }
+
+    @PostConstruct
+    public void init() {
+        blobTransaction = new TransactionTemplate(transactionManager);
+        blobTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            blobLocks[i] = new Object();
+        }
+    }
+
+    public static boolean isContentAddressedName(String relativePath) {
+        String fileName = relativePath.substring(Math.max(relativePath.lastIndexOf('/'), relativePath.lastIndexOf('\\')) + 1);
+        return CONTENT_ADDRESSED_NAME.matcher(fileName).matches();
+    }
+
+    /**
+     * Adds a reference to a blob. {@code ensureContentPresent} runs under the blob's lock and must
+     * make sure the content exists at {@code relativePath} (a no-op for duplicates). The blob's row
+     * is written before that, unreferenced, so content never exists without a row: if the reference
+     * is never counted, the sweep reclaims the content like any other released blob.
+     */
+    public void acquire(String relativePath, String contentHash, long size, BlobAction ensureContentPresent) throws IOException {
+        synchronized (lockFor(relativePath)) {
+            reserve(relativePath, contentHash, size);
+            ensureContentPresent.run();
+            try {
+                blobTransaction.executeWithoutResult(status -> incrementOrCreate(relativePath, contentHash, size));
+            } catch (DataIntegrityViolationException e) {
+                // Another node created the row between our update and insert; just add the reference.
+                blobTransaction.executeWithoutResult(status -> storedBlobRepository.incrementRefCount(relativePath));
+            }
+        }
+
+        // If the caller's transaction rolls back, the entity never points at the blob, so give the reference back.
+        runAfterCompletion(false, () -> release(relativePath));
+    }
+
+    /**
+     * Makes sure a blob has a row before its content is written. An unreferenced row is marked
+     * released now, which keeps a sweep from reclaiming it while the content is being written.
+     */
+    private void reserve(String relativePath, String contentHash, long size) {
+        try {
+            blobTransaction.executeWithoutResult(status -> {
+                if (storedBlobRepository.markReleased(relativePath, Instant.now()) == 0
+                        && !storedBlobRepository.existsByRelativePath(relativePath)) {
+                    StoredBlob blob = new StoredBlob();
+                    blob.setRelativePath(relativePath);
+                    blob.setContentHash(contentHash);
+                    blob.setSizeBytes(size);
+                    blob.setRefCount(0);
+                    blob.setReleasedAt(Instant.now());
+                    storedBlobRepository.saveAndFlush(blob);
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another node reserved the blob between our update and insert.
+        }
+    }
+
+    private void incrementOrCreate(String relativePath, String contentHash, long size) {
+        if (storedBlobRepository.incrementRefCount(relativePath) == 0) {
+            StoredBlob blob = new StoredBlob();
+            blob.setRelativePath(relativePath);
+            blob.setContentHash(contentHash);
+            blob.setSizeBytes(size);
+            blob.setRefCount(1);
+            storedBlobRepository.saveAndFlush(blob);
+        }
+    }
+
+    public void release(String relativePath) {
+        synchronized (lockFor(relativePath)) {
+            blobTransaction.executeWithoutResult(status -> {
+                storedBlobRepository.decrementRefCount(relativePath);
+                storedBlobRepository.markReleased(relativePath, Instant.now());
+            });
+        }
+    }
+
+    public boolean isTracked(String relativePath) {
+        return Boolean.TRUE.equals(blobTransaction.execute(status -> storedBlobRepository.existsByRelativePath(relativePath)));
+    }
+
+    /**
+     * Points a blob's bookkeeping at a new path, running {@code copyContent} first under both paths' locks.
+     */
+    public void move(String sourcePath, String targetPath, BlobAction copyContent) throws IOException {
+        synchronized (lockFor(sourcePath)) {
+            synchronized (lockFor(targetPath)) {
+                copyContent.run();
+                blobTransaction.executeWithoutResult(status -> storedBlobRepository.updateRelativePath(sourcePath, targetPath));
+            }
+        }
+    }
+
+    /**
+     * Runs {@code action} under the blob's lock, e.g. to delete content nothing should be writing.
+     */
+    public void withLock(String relativePath, Runnable action) {
+        synchronized (lockFor(relativePath)) {
+            action.run();
+        }
+    }
+
+    /**
+     * Deletes the rows of blobs released before {@code cutoff} and still unreferenced,
+     * handing each path to {@code deleteContent} while its lock is held. This includes the
+     * content of uploads that stopped before counting their reference (see {@link #acquire}).
+     *
+     * @return The number of blobs reclaimed.
+     */
+    public int reclaimReleased(Instant cutoff, Consumer<String> deleteContent) {
+        int reclaimed = 0;
+        List<StoredBlob> candidates = storedBlobRepository.findByRefCountLessThanEqualAndReleasedAtBefore(0, cutoff);
+        for (StoredBlob candidate : candidates) {
+            String relativePath = candidate.getRelativePath();
+            synchronized (lockFor(relativePath)) {
+                Boolean removed = blobTransaction.execute(status -> storedBlobRepository.findByRelativePath(relativePath)
+                        .filter(blob -> blob.getRefCount() <= 0 && blob.getReleasedAt() != null
+                                && blob.getReleasedAt().isBefore(cutoff))
+                        .map(blob -> {
+                            storedBlobRepository.delete(blob);
+                            return true;
+                        })
+                        .orElse(false));
+                if (Boolean.TRUE.equals(removed)) {
+                    deleteContent.accept(relativePath);
+                    reclaimed++;
+                }
+            }
+        }
+        return reclaimed;
+    }
+
+    /**
+     * Runs {@code action} after the current transaction commits ({@code onCommit}) or rolls back.
+     * Outside a transaction, commit actions run immediately and rollback actions never run.
+     */
+    public static void runAfterCompletion(boolean onCommit, Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (onCommit) {
+                action.run();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                boolean committed = status == STATUS_COMMITTED;
+                if (committed == onCommit) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    private Object lockFor(String relativePath) {
+        return blobLocks[Math.floorMod(relativePath.hashCode(), LOCK_STRIPES)];
+    }
+}
@@ -0,0 +1,62 @@
+package com.yourcompany.intellirefer.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+/**
+ * A read-through channel that feeds every byte it hands out into a digest and
+ * keeps the first few bytes aside, so that a single pass over an upload yields
+ * both its content hash and its file signature.
+ */
+class DigestingChannel implements ReadableByteChannel {
+
+    static final int HEADER_LENGTH = 8;
+
+    private final ReadableByteChannel delegate;
+    private final MessageDigest digest;
+    private final byte[] header = new byte[HEADER_LENGTH];
+    private int headerLength;
+
+    DigestingChannel(ReadableByteChannel delegate, MessageDigest digest) {
+        this.delegate = delegate;
+        this.digest = digest;
+    }
+
+    @Override
+    public int read(ByteBuffer destination) throws IOException {
+        int start = destination.position();
+        int read = delegate.read(destination);
+        if (read > 0) {
+            ByteBuffer readBytes = destination.duplicate();
+            readBytes.position(start).limit(start + read);
+            if (headerLength < HEADER_LENGTH) {
+                int take = Math.min(HEADER_LENGTH - headerLength, read);
+                readBytes.duplicate().get(header, headerLength, take);
+                headerLength += take;
+            }
+            digest.update(readBytes);
+        }
+        return read;
+    }
+
+    byte[] header() {
+        return Arrays.copyOf(header, headerLength);
+    }
+
+    byte[] digest() {
+        return digest.digest();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return delegate.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+}
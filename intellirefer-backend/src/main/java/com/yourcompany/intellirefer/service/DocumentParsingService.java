@@ -1,9 +1,16 @@
 package com.yourcompany.intellirefer.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
@@ -12,7 +19,38 @@ import java.io.InputStream;
 @Service
 public class DocumentParsingService {
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private Tracer tracer;
+
+    /**
+     * Extracts the text of a PDF or DOCX document. Each call is timed in {@code document.parse}
+     * and traced as a span of the same name.
+     */
     public String parse(InputStream inputStream, String fileExtension) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Span span = tracer.nextSpan().name("document.parse").tag("format", formatTag(fileExtension)).start();
+        String outcome = "failure";
+        try (Tracer.SpanInScope scope = tracer.withSpan(span)) {
+            String text = parseByFormat(inputStream, fileExtension);
+            outcome = "success";
+            return text;
+        } catch (IOException | RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+            sample.stop(Timer.builder("document.parse")
+                    .description("Text extraction from uploaded resumes and JDs")
+                    .tag("format", formatTag(fileExtension))
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private String parseByFormat(InputStream inputStream, String fileExtension) throws IOException {
         if ("pdf".equalsIgnoreCase(fileExtension)) {
             return parsePdf(inputStream);
         } else if ("docx".equalsIgnoreCase(fileExtension)) {
@@ -22,6 +60,14 @@ public class DocumentParsingService {
         }
     }
 
+    // Bounded tag values, whatever extension the uploaded file had.
+    private static String formatTag(String fileExtension) {
+        if ("pdf".equalsIgnoreCase(fileExtension) || "docx".equalsIgnoreCase(fileExtension)) {
+            return fileExtension.toLowerCase();
+        }
+        return "other";
+    }
+
     private String parsePdf(InputStream inputStream) throws IOException {
         try (PDDocument document = PDDocument.load(inputStream)) {
             PDFTextStripper pdfStripper = new PDFTextStripper();
@@ -35,4 +81,4 @@ public class DocumentParsingService {
             return extractor.getText();
         }
     }
-}
\ No newline at end of file
+}
@@ -3,12 +3,10 @@ package com.yourcompany.intellirefer.service;
 import com.yourcompany.intellirefer.dto.EmployeeProfileDto;
 import com.yourcompany.intellirefer.dto.EmployeeProfileUpdateRequest;
 import com.yourcompany.intellirefer.entity.EmployeeProfile;
-import com.yourcompany.intellirefer.entity.Skill;
 import com.yourcompany.intellirefer.exception.ResourceNotFoundException;
 import com.yourcompany.intellirefer.mapper.DtoMapper;
 import com.yourcompany.intellirefer.model.enums.AvailabilityStatus;
 import com.yourcompany.intellirefer.repository.EmployeeProfileRepository;
-import com.yourcompany.intellirefer.repository.SkillRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,8 +18,6 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.InputStream;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Service class for handling all business logic related to Employees.
@@ -36,15 +32,17 @@ public class EmployeeService {
     @Autowired
     private EmployeeProfileRepository employeeProfileRepository;
     @Autowired
-    private SkillRepository skillRepository;
+    private SkillDictionary skillDictionary;
 
     // Dependent services
     @Autowired
-    private FileSystemStorageService fileSystemStorageService;
+    private StorageService storageService;
     @Autowired
     private DocumentParsingService parsingService;
     @Autowired
     private LLMService llmService;
+    @Autowired
+    private LlmBudgetService llmBudgetService;
 
     // DTO Mapper
     @Autowired
@@ -92,16 +90,8 @@ public class EmployeeService {
             profile.setExpectedAvailabilityDate(null);
         }
 
-        // Handle skills with a "find or create" approach
-        Set<Skill> skillsToSet = updateRequest.getSkills().stream()
-                .map(skillName -> skillRepository.findByNameIgnoreCase(skillName.trim())
-                        .orElseGet(() -> {
-                            Skill newSkill = new Skill();
-                            newSkill.setName(StringUtils.capitalize(skillName.trim()));
-                            return skillRepository.save(newSkill);
-                        }))
-                .collect(Collectors.toSet());
-        profile.setSkills(skillsToSet);
+        // Find or create all skills in one go through the shared dictionary
+        profile.setSkills(skillDictionary.resolve(updateRequest.getSkills()));
 
         EmployeeProfile updatedProfile = employeeProfileRepository.save(profile);
         logger.info("Successfully updated profile for user ID: {}", userId);
@@ -121,14 +111,17 @@ public class EmployeeService {
         EmployeeProfile profile = employeeProfileRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("EmployeeProfile", "userId", userId));
 
-        // Delete the old resume file from storage if it exists to save space.
-        if (profile.getResumeFilePath() != null) {
-            fileSystemStorageService.delete(profile.getResumeFilePath());
-        }
-
         // Store the new file in the "resumes" subfolder and get its relative path.
-        String filePath = fileSystemStorageService.store(file, "resumes");
+        // This happens before the old file is released, so re-uploading identical
+        // content never drops the blob's reference count to zero in between.
+        String previousFilePath = profile.getResumeFilePath();
+        String filePath = storageService.store(file, "resumes");
         profile.setResumeFilePath(filePath);
+
+        // Release the old resume file so its space can be reclaimed.
+        if (previousFilePath != null) {
+            storageService.delete(previousFilePath);
+        }
         employeeProfileRepository.save(profile);
 
         // Trigger the background job to extract skills from the new resume.
@@ -151,7 +144,7 @@ public class EmployeeService {
         logger.info("Starting background skill extraction for user ID: {} from path: {}", userId, resumePath);
 
         String resumeText;
-        try (InputStream resumeStream = fileSystemStorageService.loadAsResource(resumePath).getInputStream()) {
+        try (InputStream resumeStream = storageService.loadAsResource(resumePath).getInputStream()) {
             resumeText = parsingService.parse(resumeStream, getFileExtension(resumePath));
             if (StringUtils.isEmpty(resumeText)) {
                 logger.warn("Parsed resume text is empty for user ID: {}. Aborting skill extraction.", userId);
@@ -162,7 +155,13 @@ public class EmployeeService {
             return;
         }
 
-        llmService.extractSkillsFromResume(resumeText).subscribe(
+        LlmCallListener usage = new LlmCallListener() {
+            @Override
+            public void llmTokensUsed(String operation, int promptTokens, int responseTokens) {
+                llmBudgetService.record(userId, operation, promptTokens, responseTokens);
+            }
+        };
+        llmService.extractSkillsFromResume(resumeText, usage).subscribe(
                 skillResponse -> {
                     if (skillResponse != null && skillResponse.skills() != null && !skillResponse.skills().isEmpty()) {
                         logger.info("LLM returned {} skills for user ID: {}", skillResponse.skills().size(), userId);
@@ -170,17 +169,7 @@ public class EmployeeService {
                         EmployeeProfile profile = employeeProfileRepository.findById(userId)
                                 .orElseThrow(() -> new ResourceNotFoundException("EmployeeProfile", "userId", userId));
 
-                        Set<Skill> skillsToSet = skillResponse.skills().stream()
-                                .map(skillName -> skillRepository.findByNameIgnoreCase(skillName.trim())
-                                        .orElseGet(() -> {
-                                            logger.info("New skill found: '{}'. Saving to master skills list.", skillName.trim());
-                                            Skill newSkill = new Skill();
-                                            newSkill.setName(StringUtils.capitalize(skillName.trim()));
-                                            return skillRepository.save(newSkill);
-                                        }))
-                                .collect(Collectors.toSet());
-
-                        profile.setSkills(skillsToSet);
+                        profile.setSkills(skillDictionary.resolve(skillResponse.skills()));
                         employeeProfileRepository.save(profile);
                         logger.info("Successfully updated skills for user ID: {}", userId);
                     } else {
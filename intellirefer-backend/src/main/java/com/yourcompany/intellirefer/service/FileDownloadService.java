@@ -0,0 +1,217 @@
+package com.yourcompany.intellirefer.service;
+
+import com.yourcompany.intellirefer.entity.EmployeeProfile;
+import com.yourcompany.intellirefer.repository.EmployeeProfileRepository;
+import com.yourcompany.intellirefer.security.AuthenticatedUser;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Serves stored resumes and JDs with HTTP caching and range support.
+ * <p>
+ * Every response carries a strong ETag derived from the file's SHA-256 and a
+ * Last-Modified date, so repeat views are answered with 304 Not Modified.
+ * Files on local disk are written with the container's sendfile support when available,
+ * falling back to {@link FileChannel#transferTo}; other backends stream just the requested range.
+ */
+@Service
+public class FileDownloadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileDownloadService.class);
+
+    // Request attributes understood by Tomcat's NIO connector for zero-copy transfers.
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired private StorageService storageService;
+    @Autowired private EmployeeProfileRepository employeeProfileRepository;
+
+    @Value("${storage.serve.max-age-seconds:31536000}")
+    private long immutableMaxAgeSeconds;
+
+    @Value("${storage.serve.sendfile-threshold-bytes:49152}")
+    private long sendfileThreshold;
+
+    /**
+     * Writes the requested file (or the requested byte range of it) to the response,
+     * after checking that the caller may see it.
+     *
+     * @param relativePath The file's path relative to the storage root, e.g. "resumes/abc.pdf".
+     */
+    public void serve(String relativePath, Authentication authentication,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        checkAccess(relativePath, authentication);
+
+        StoredFileMetadata metadata = storageService.getMetadata(relativePath);
+        long length = metadata.size();
+        long lastModified = metadata.lastModified().toEpochMilli();
+        String eTag = "\"" + storageService.getContentHash(relativePath) + "\"";
+
+        // Content-addressed blobs never change, so browsers may keep them; legacy files must revalidate.
+        response.setHeader(HttpHeaders.CACHE_CONTROL, storageService.isContentAddressed(relativePath)
+                ? "private, max-age=" + immutableMaxAgeSeconds + ", immutable"
+                : "private, no-cache");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (new ServletWebRequest(request, response).checkNotModified(eTag, lastModified)) {
+            return; // 304 with ETag and Last-Modified already set.
+        }
+
+        MediaType mediaType = MediaTypeFactory.getMediaType(relativePath)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        response.setContentType(mediaType.toString());
+
+        long start = 0;
+        long end = length - 1;
+        HttpRange range = requestedRange(request, eTag, lastModified);
+        if (range != null) {
+            try {
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                start = length;
+            }
+            if (start >= length || start > end) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equalsIgnoreCase(request.getMethod())) {
+            return;
+        }
+        Optional<Path> localFile = storageService.localFile(relativePath);
+        if (localFile.isPresent()) {
+            writeBody(localFile.get(), start, count, request, response);
+        } else {
+            streamBody(relativePath, start, count, response);
+        }
+    }
+
+    /**
+     * Managers may open any resume or JD; employees may only open their own resume.
+     */
+    private void checkAccess(String relativePath, Authentication authentication) {
+        Path requested = Paths.get(relativePath).normalize();
+        boolean isManager = hasRole(authentication, "ROLE_MANAGER");
+        if (requested.startsWith("jds") && isManager) {
+            return;
+        }
+        if (requested.startsWith("resumes")) {
+            if (isManager) {
+                return;
+            }
+            if (hasRole(authentication, "ROLE_EMPLOYEE") && isOwnResume(authentication, requested)) {
+                return;
+            }
+        }
+        throw new AccessDeniedException("Not allowed to access file: " + relativePath);
+    }
+
+    private boolean isOwnResume(Authentication authentication, Path requested) {
+        if (!(authentication.getPrincipal() instanceof AuthenticatedUser user) || user.profileId() == null) {
+            return false;
+        }
+        // Stored paths use the platform separator, so compare them as paths rather than strings.
+        return employeeProfileRepository.findById(user.profileId())
+                .map(EmployeeProfile::getResumeFilePath)
+                .filter(resumePath -> Paths.get(resumePath).equals(requested))
+                .isPresent();
+    }
+
+    private boolean hasRole(Authentication authentication, String role) {
+        return authentication.getAuthorities().stream()
+                .anyMatch(authority -> role.equals(authority.getAuthority()));
+    }
+
+    /**
+     * Returns the single byte range to serve, or null for the full file. Multi-range
+     * requests are answered with the full file, which RFC 9110 allows, and an If-Range
+     * that no longer matches the file also means "send everything".
+     */
+    private HttpRange requestedRange(HttpServletRequest request, String eTag, long lastModified) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(eTag)) {
+            long ifRangeDate = request.getDateHeader(HttpHeaders.IF_RANGE);
+            if (ifRangeDate == -1 || lastModified / 1000 > ifRangeDate / 1000) {
+                return null;
+            }
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void writeBody(Path file, long start, long count,
+                           HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (count >= sendfileThreshold && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // The container copies the bytes from the page cache to the socket after we return.
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, target);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+        } catch (IOException e) {
+            // Clients routinely abort downloads (e.g. a PDF viewer switching to range requests).
+            logger.debug("File transfer aborted for {}: {}", file.getFileName(), e.getMessage());
+        }
+    }
+
+    private void streamBody(String relativePath, long start, long count, HttpServletResponse response) {
+        try (InputStream body = storageService.openRange(relativePath, start, count)) {
+            body.transferTo(response.getOutputStream());
+        } catch (IOException e) {
+            logger.debug("File transfer aborted for {}: {}", relativePath, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.yourcompany.intellirefer.service;
+
+import com.yourcompany.intellirefer.exception.FileStorageException;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Magic-byte checks for the document formats we parse, so that a renamed or
+ * corrupt upload is rejected at store time instead of failing later in parsing.
+ */
+final class FileSignature {
+
+    private static final Map<String, byte[]> SIGNATURES = Map.of(
+            "pdf", new byte[]{'%', 'P', 'D', 'F', '-'},
+            "docx", new byte[]{'P', 'K', 0x03, 0x04}
+    );
+
+    private FileSignature() {
+    }
+
+    /**
+     * Verifies that the leading bytes match the declared extension.
+     * Extensions we don't know a signature for are accepted as-is.
+     */
+    static void verify(String extension, byte[] header) {
+        if (extension == null) {
+            return;
+        }
+        byte[] expected = SIGNATURES.get(extension.toLowerCase());
+        if (expected == null) {
+            return;
+        }
+        if (header.length < expected.length || !Arrays.equals(header, 0, expected.length, expected, 0, expected.length)) {
+            throw new FileStorageException("Uploaded file content does not match its ." + extension + " extension");
+        }
+    }
+}
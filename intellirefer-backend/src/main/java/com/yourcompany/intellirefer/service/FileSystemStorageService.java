@@ -1,69 +1,222 @@
 package com.yourcompany.intellirefer.service;
 
+import com.yourcompany.intellirefer.exception.FileStorageException;
+import com.yourcompany.intellirefer.exception.ResourceNotFoundException;
+import com.yourcompany.intellirefer.service.UploadStager.StagedUpload;
 import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.MalformedURLException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
-public class FileSystemStorageService {
+@ConditionalOnProperty(name = "storage.backend", havingValue = "filesystem", matchIfMissing = true)
+public class FileSystemStorageService implements StorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileSystemStorageService.class);
+
+    private static final String STAGING_FOLDER = ".staging";
+    private static final String MULTIPART_FOLDER = "multipart";
+    private static final int LEGACY_HASH_CACHE_SIZE = 1024;
 
     @Value("${storage.location}")
     private String storageLocation;
 
+    @Value("${storage.content-addressed.enabled:false}")
+    private boolean contentAddressed;
+
+    @Value("${storage.layout:FLAT}")
+    private StorageLayout layout;
+
+    @Value("${storage.upload.transfer-in-place.enabled:true}")
+    private boolean transferInPlaceEnabled;
+
+    @Value("${spring.servlet.multipart.location:}")
+    private String multipartLocation;
+
+    @Value("${storage.sweep.grace-period-minutes:60}")
+    private long sweepGracePeriodMinutes;
+
+    @Autowired
+    private BlobReferenceTracker blobReferenceTracker;
+
     private Path rootLocation;
+    private Path stagingLocation;
+    private Path multipartDirectory;
+    private UploadStager uploadStager;
+    private final Map<String, String> legacyHashCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > LEGACY_HASH_CACHE_SIZE;
+        }
+    };
 
     @PostConstruct
     public void init() {
         try {
-            rootLocation = Paths.get(storageLocation);
+            rootLocation = Paths.get(storageLocation).toAbsolutePath();
             Files.createDirectories(rootLocation);
+            stagingLocation = rootLocation.resolve(STAGING_FOLDER);
+            multipartDirectory = StringUtils.hasText(multipartLocation)
+                    ? Paths.get(multipartLocation)
+                    : stagingLocation.resolve(MULTIPART_FOLDER);
+            uploadStager = new UploadStager(stagingLocation, multipartDirectory, transferInPlaceEnabled);
         } catch (IOException e) {
             throw new RuntimeException("Could not initialize storage location", e);
         }
     }
 
+    @Override
     public String store(MultipartFile file, String subfolder) {
         String originalFilename = StringUtils.cleanPath(file.getOriginalFilename());
         if (file.isEmpty() || originalFilename.contains("..")) {
             throw new RuntimeException("Failed to store empty file or file with invalid path sequence " + originalFilename);
         }
+        String extension = StringUtils.getFilenameExtension(originalFilename);
 
+        StagedUpload staged = null;
         try {
+            staged = uploadStager.stage(file, extension);
+
+            if (contentAddressed) {
+                String fileName = StringUtils.hasText(extension) ? staged.contentHash() + "." + extension : staged.contentHash();
+                String relativePath = layout.relativePath(subfolder, fileName);
+                acquireReference(relativePath, staged.contentHash(), staged.file());
+                return relativePath;
+            }
+
             // Generate a unique filename to prevent overwrites
-            String extension = StringUtils.getFilenameExtension(originalFilename);
             String uniqueFilename = UUID.randomUUID().toString() + "." + extension;
 
             // Resolve the path against the root location
-            Path destinationFolder = this.rootLocation.resolve(subfolder);
-            Files.createDirectories(destinationFolder); // Ensure subfolder exists
-            Path destinationFile = destinationFolder.resolve(uniqueFilename);
+            String relativePath = layout.relativePath(subfolder, uniqueFilename);
+            Path destinationFile = this.rootLocation.resolve(relativePath);
+            Files.createDirectories(destinationFile.getParent()); // Ensure subfolder exists
+            Files.move(staged.file(), destinationFile, StandardCopyOption.ATOMIC_MOVE);
 
-            // Copy the file to the target location
-            try (InputStream inputStream = file.getInputStream()) {
-                Files.copy(inputStream, destinationFile, StandardCopyOption.REPLACE_EXISTING);
+            // Return the relative path to be stored in the database
+            return relativePath;
+
+        } catch (IOException e) {
+            throw new FileStorageException("Failed to store file.", e);
+        } finally {
+            if (staged != null) {
+                UploadStager.deleteQuietly(staged.file());
             }
+        }
+    }
 
-            // Return the relative path to be stored in the database
-            return Paths.get(subfolder, uniqueFilename).toString();
+    private void acquireReference(String relativePath, String contentHash, Path stagedFile) throws IOException {
+        Path destinationFile = rootLocation.resolve(relativePath);
+        blobReferenceTracker.acquire(relativePath, contentHash, Files.size(stagedFile), () -> {
+            if (!Files.exists(destinationFile)) {
+                Files.createDirectories(destinationFile.getParent());
+                Files.move(stagedFile, destinationFile, StandardCopyOption.ATOMIC_MOVE);
+            } else {
+                logger.info("Duplicate upload detected, reusing stored blob {}", relativePath);
+            }
+        });
+    }
+
+    /**
+     * The path a stored file should have under the configured layout.
+     */
+    public String layoutPathFor(String relativePath) {
+        return layout.relocate(relativePath);
+    }
+
+    /**
+     * First half of moving a file to a new path: makes it reachable under {@code targetPath}
+     * (a hard link where the filesystem allows, a copy otherwise) and moves its blob
+     * bookkeeping over. The old path keeps working until {@link #deleteRelocatedSource}
+     * is called, so readers holding the old path are never left without a file.
+     *
+     * @return false if the source file no longer exists and nothing was relocated.
+     */
+    public boolean relocate(String sourcePath, String targetPath) {
+        Path source = rootLocation.resolve(sourcePath);
+        Path target = rootLocation.resolve(targetPath);
+        if (!Files.exists(target) && !Files.exists(source)) {
+            logger.warn("Cannot relocate missing file {}", sourcePath);
+            return false;
+        }
+        try {
+            blobReferenceTracker.move(sourcePath, targetPath, () -> {
+                if (!Files.exists(target)) {
+                    Files.createDirectories(target.getParent());
+                    try {
+                        Files.createLink(target, source);
+                    } catch (UnsupportedOperationException | IOException e) {
+                        Files.copy(source, target);
+                    }
+                }
+            });
+            return true;
+        } catch (IOException e) {
+            throw new FileStorageException("Failed to relocate file " + sourcePath, e);
+        }
+    }
 
+    /**
+     * Files below {@code subfolder} that are not where the layout puts them but also exist there:
+     * old paths of relocations whose {@link #deleteRelocatedSource} never ran.
+     */
+    public List<String> relocatedSources(String subfolder) {
+        Path folder = rootLocation.resolve(subfolder);
+        if (!Files.isDirectory(folder)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.walk(folder)) {
+            return files.filter(Files::isRegularFile)
+                    .map(file -> rootLocation.relativize(file).toString())
+                    .filter(path -> {
+                        String target = layout.relocate(path);
+                        return !target.equals(path) && Files.exists(rootLocation.resolve(target));
+                    })
+                    .toList();
         } catch (IOException e) {
-            throw new RuntimeException("Failed to store file.", e);
+            throw new FileStorageException("Failed to list files in " + subfolder, e);
         }
     }
 
+    /**
+     * Second half of a relocation, once nothing in the database points at the old path any more.
+     */
+    public void deleteRelocatedSource(String sourcePath) {
+        blobReferenceTracker.withLock(sourcePath, () -> deleteFile(sourcePath));
+    }
+
+    @Override
     public Resource loadAsResource(String relativePath) {
         try {
             Path file = rootLocation.resolve(relativePath);
@@ -78,15 +231,139 @@ public class FileSystemStorageService {
         }
     }
 
-    public void delete(String relativePath) {
+    @Override
+    public InputStream openRange(String relativePath, long start, long count) {
         try {
-            if (relativePath != null) {
-                Path file = rootLocation.resolve(relativePath);
-                Files.deleteIfExists(file);
+            FileChannel channel = FileChannel.open(resolveStoredFile(relativePath), StandardOpenOption.READ);
+            channel.position(start);
+            return new LimitedInputStream(Channels.newInputStream(channel), count);
+        } catch (IOException e) {
+            throw new FileStorageException("Could not read file: " + relativePath, e);
+        }
+    }
+
+    @Override
+    public StoredFileMetadata getMetadata(String relativePath) {
+        try {
+            Path file = resolveStoredFile(relativePath);
+            return new StoredFileMetadata(Files.size(file), Files.getLastModifiedTime(file).toInstant());
+        } catch (IOException e) {
+            throw new FileStorageException("Could not read file: " + relativePath, e);
+        }
+    }
+
+    @Override
+    public Optional<Path> localFile(String relativePath) {
+        return Optional.of(resolveStoredFile(relativePath));
+    }
+
+    /**
+     * Resolves a stored file for direct access (e.g. zero-copy serving), refusing
+     * paths that escape the storage root or point into the staging area.
+     */
+    public Path resolveStoredFile(String relativePath) {
+        Path file = rootLocation.resolve(relativePath).normalize();
+        if (!file.startsWith(rootLocation.normalize()) || file.startsWith(stagingLocation.normalize())) {
+            throw new FileStorageException("Cannot access file outside storage: " + relativePath);
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new ResourceNotFoundException("File", "path", relativePath);
+        }
+        return file;
+    }
+
+    @Override
+    public String getContentHash(String relativePath) {
+        if (isContentAddressed(relativePath)) {
+            return Paths.get(relativePath).getFileName().toString().substring(0, 64);
+        }
+
+        // Legacy UUID-named file: hash it on demand, remembering the result until the file changes.
+        try {
+            Path file = resolveStoredFile(relativePath);
+            String cacheKey = relativePath + "@" + Files.getLastModifiedTime(file).toMillis();
+            synchronized (legacyHashCache) {
+                String cached = legacyHashCache.get(cacheKey);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+            MessageDigest digest = UploadStager.newSha256Digest();
+            try (InputStream inputStream = new DigestInputStream(Files.newInputStream(file), digest)) {
+                inputStream.transferTo(OutputStream.nullOutputStream());
+            }
+            String contentHash = HexFormat.of().formatHex(digest.digest());
+            synchronized (legacyHashCache) {
+                legacyHashCache.put(cacheKey, contentHash);
+            }
+            return contentHash;
+        } catch (IOException e) {
+            throw new FileStorageException("Could not hash file: " + relativePath, e);
+        }
+    }
+
+    /**
+     * Deletes a file. Content-addressed blobs only lose a reference; the file itself is
+     * reclaimed by the background sweep once nothing points at it any more. When called
+     * inside a transaction, the delete is deferred until that transaction commits.
+     */
+    @Override
+    public void delete(String relativePath) {
+        if (relativePath == null) {
+            return;
+        }
+        BlobReferenceTracker.runAfterCompletion(true, () -> {
+            if (contentAddressed && blobReferenceTracker.isTracked(relativePath)) {
+                blobReferenceTracker.release(relativePath);
+            } else {
+                deleteFile(relativePath);
             }
+        });
+    }
+
+    private void deleteFile(String relativePath) {
+        try {
+            Path file = rootLocation.resolve(relativePath);
+            Files.deleteIfExists(file);
         } catch (IOException e) {
             // Log this error but don't throw, as failing to delete shouldn't break the app
-            System.err.println("Failed to delete file: " + relativePath);
+            logger.error("Failed to delete file: {}", relativePath, e);
+        }
+    }
+
+    /**
+     * Reclaims blobs whose reference count has been zero for longer than the grace period, found
+     * through their bookkeeping rows, and staging leftovers of uploads that never finished. The rest
+     * of the storage tree is never walked.
+     */
+    @Scheduled(fixedDelayString = "${storage.sweep.interval-ms:3600000}", initialDelayString = "${storage.sweep.initial-delay-ms:300000}")
+    public void sweepUnreferencedBlobs() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(sweepGracePeriodMinutes));
+        sweepStaging(cutoff);
+        if (!contentAddressed) {
+            return;
         }
+
+        int reclaimed = blobReferenceTracker.reclaimReleased(cutoff, this::deleteFile);
+        if (reclaimed > 0) {
+            logger.info("Blob sweep reclaimed {} unreferenced file(s).", reclaimed);
+        }
+    }
+
+    private void sweepStaging(Instant cutoff) {
+        try (Stream<Path> files = Files.list(stagingLocation)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                    UploadStager.deleteQuietly(file);
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Failed to clean up staging location during blob sweep", e);
+        }
+    }
+
+    @Override
+    public Path multipartLocation() {
+        return multipartDirectory;
     }
-}
\ No newline at end of file
+}
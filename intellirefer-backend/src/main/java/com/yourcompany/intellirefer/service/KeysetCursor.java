@@ -0,0 +1,53 @@
+package com.yourcompany.intellirefer.service;
+
+import com.yourcompany.intellirefer.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes the sort key of the last row on a page as an opaque cursor string, and back.
+ * Clients must treat cursors as opaque; the format may change.
+ */
+final class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private KeysetCursor() {
+    }
+
+    static String encode(Object... keyParts) {
+        StringBuilder joined = new StringBuilder();
+        for (Object part : keyParts) {
+            if (!joined.isEmpty()) {
+                joined.append(SEPARATOR);
+            }
+            joined.append(part);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joined.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return The key parts, or throws {@link BadRequestException} if the cursor is malformed.
+     */
+    static String[] decode(String cursor, int expectedParts) {
+        try {
+            String joined = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = joined.split("\\|", -1);
+            if (parts.length == expectedParts) {
+                return parts;
+            }
+        } catch (IllegalArgumentException e) {
+            // Fall through to the error below.
+        }
+        throw new BadRequestException("Invalid page cursor: " + cursor);
+    }
+
+    static long parseLong(String value, String cursor) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid page cursor: " + cursor);
+        }
+    }
+}
@@ -1,10 +1,18 @@
 package com.yourcompany.intellirefer.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yourcompany.intellirefer.dto.Candidate;
 import com.yourcompany.intellirefer.dto.GeminiResponseDto;
 import com.yourcompany.intellirefer.dto.JdParsingResponse;
 import com.yourcompany.intellirefer.dto.LLMResponse;
+import com.yourcompany.intellirefer.dto.Part;
 import com.yourcompany.intellirefer.dto.SkillExtractionResponse;
+import com.yourcompany.intellirefer.dto.UsageMetadata;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,17 +20,57 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
+/**
+ * Calls the Gemini API for match scores, resume skills and JD experience.
+ * <p>
+ * Every call uses structured output mode: the request carries a response schema for the expected
+ * record and asks for {@code application/json}, so the reply is normally that JSON object and nothing else.
+ * Replies that still are not (older models, truncation, a chatty answer) go through {@link LlmJsonReader}'s
+ * tolerant parse, and failing that get one repair call that shows the model its reply and the parse error.
+ * How each reply parsed is counted in {@code llm.responses}, and the calls whose answer was thrown away in
+ * {@code llm.calls.wasted}.
+ * <p>
+ * With {@code llm.hedging.enabled}, a call still unanswered after the usual latency of its operation gets a
+ * duplicate request within a small budget, see {@link LlmHedging}. Identical calls made while one is in
+ * flight, e.g. when the same JD is matched twice at once, share that call's answer.
+ */
 @Service
 public class LLMService {
     private static final Logger logger = LoggerFactory.getLogger(LLMService.class);
 
+    private static final Map<String, Object> MATCH_SCORE_SCHEMA = objectSchema(
+            "score", Map.of("type", "INTEGER", "description", "How well the resume matches the job, from 0 to 100"),
+            "justification", Map.of("type", "STRING", "description", "A 2-sentence summary explaining the score"),
+            "matching_skills", Map.of("type", "ARRAY", "items", Map.of("type", "STRING"),
+                    "description", "The top 5 to 6 resume skills that match the job's requirements"));
+    private static final Map<String, Object> SKILL_EXTRACTION_SCHEMA = objectSchema(
+            "skills", Map.of("type", "ARRAY", "items", Map.of("type", "STRING")));
+    private static final Map<String, Object> JD_EXPERIENCE_SCHEMA = objectSchema(
+            "required_experience", Map.of("type", "INTEGER", "description", "Minimum required years of experience, 0 if not stated"));
+
     private final WebClient webClient;
-    private final ObjectMapper objectMapper;
+    private final LlmJsonReader jsonReader = new LlmJsonReader();
+    private final MeterRegistry meterRegistry;
+    private final Tracer tracer;
 
     @Value("${llm.google.api.url_template}")
     private String apiUrlTemplate;
@@ -30,10 +78,38 @@ public class LLMService {
     @Value("${llm.google.api.key}")
     private String apiKey;
 
+    @Value("${llm.hedging.enabled:false}")
+    private boolean hedgingEnabled;
+
+    @Value("${llm.hedging.percentile:0.95}")
+    private double hedgingPercentile;
+
+    @Value("${llm.hedging.budget:0.05}")
+    private double hedgingBudget;
+
+    @Value("${llm.hedging.min-samples:50}")
+    private int hedgingMinSamples;
+
+    // Null unless llm.hedging.enabled.
+    private LlmHedging hedging;
+
+    // Calls in flight by operation and prompt digest, see call().
+    private final Map<String, InFlightCall> inFlightCalls = new ConcurrentHashMap<>();
+
     @Autowired
-    public LLMService(WebClient.Builder webClientBuilder) {
+    public LLMService(WebClient.Builder webClientBuilder, MeterRegistry meterRegistry, Tracer tracer) {
         this.webClient = webClientBuilder.build();
-        this.objectMapper = new ObjectMapper();
+        this.meterRegistry = meterRegistry;
+        this.tracer = tracer;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (hedgingEnabled) {
+            hedging = new LlmHedging(hedgingPercentile, hedgingBudget, hedgingMinSamples);
+            logger.info("LLM request hedging enabled after p{} latency, budget {} hedges per call.",
+                    Math.round(hedgingPercentile * 100), hedgingBudget);
+        }
     }
 
     /**
@@ -43,18 +119,15 @@ public class LLMService {
      * @return A Mono containing the structured match score and justification.
      */
     public Mono<LLMResponse> getMatchScore(String jdText, String resumeText) {
-        String prompt = buildMatchScorePrompt(jdText, resumeText);
-        Map<String, Object> requestBody = createGeminiRequestBody(prompt);
-        String finalUrl = String.format(apiUrlTemplate, apiKey);
+        return getMatchScore(jdText, resumeText, LlmCallListener.NONE);
+    }
 
+    /**
+     * @param listener Told when the call needed a repair call, or was answered by an identical one in flight.
+     */
+    public Mono<LLMResponse> getMatchScore(String jdText, String resumeText, LlmCallListener listener) {
         logger.info("Sending request to Google Gemini API for match score.");
-        return webClient.post()
-                .uri(finalUrl)
-                .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(GeminiResponseDto.class)
-                .map(this::parseJsonToLlmResponse);
+        return call("match_score", buildMatchScorePrompt(jdText, resumeText), MATCH_SCORE_SCHEMA, LLMResponse.class, listener);
     }
 
     /**
@@ -63,53 +136,355 @@ public class LLMService {
      * @return A Mono containing the structured list of skills.
      */
     public Mono<SkillExtractionResponse> extractSkillsFromResume(String resumeText) {
-        String prompt = buildSkillExtractionPrompt(resumeText);
-        Map<String, Object> requestBody = createGeminiRequestBody(prompt);
-        String finalUrl = String.format(apiUrlTemplate, apiKey);
+        return extractSkillsFromResume(resumeText, LlmCallListener.NONE);
+    }
 
+    /**
+     * @param listener Told when the call needed a repair call, or was answered by an identical one in flight.
+     */
+    public Mono<SkillExtractionResponse> extractSkillsFromResume(String resumeText, LlmCallListener listener) {
         logger.info("Sending request to Google Gemini API for skill extraction.");
-        return webClient.post()
-                .uri(finalUrl)
-                .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(GeminiResponseDto.class)
-                .map(this::parseJsonToSkillExtractionResponse);
+        return call("skill_extraction", buildSkillExtractionPrompt(resumeText), SKILL_EXTRACTION_SCHEMA,
+                SkillExtractionResponse.class, listener);
     }
 
-    private Map<String, Object> createGeminiRequestBody(String prompt) {
-        return Map.of(
-                "contents", List.of(
-                        Map.of("parts", List.of(
-                                Map.of("text", prompt)
-                        ))
-                )
-        );
+    /**
+     * Makes one call, unless an identical one (same operation and prompt) is already in flight, in which
+     * case its answer or error is shared instead. Only calls in flight are shared: once one ends or every
+     * caller has cancelled it, it is forgotten, so a failed call does not fail later ones and nothing is cached.
+     * Every caller's listener is told about the shared call's repairs and tokens, see {@link SharedCallListener}.
+     * Shared answers are counted in {@code llm.calls.coalesced}.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Mono<T> call(String operation, String prompt, Map<String, Object> schema, Class<T> type, LlmCallListener listener) {
+        return Mono.defer(() -> {
+            String key = operation + ":" + digest(prompt);
+            AtomicBoolean started = new AtomicBoolean();
+            InFlightCall inFlight = inFlightCalls.computeIfAbsent(key, k -> {
+                started.set(true);
+                SharedCallListener sharedListener = new SharedCallListener(listener);
+                AtomicReference<InFlightCall> self = new AtomicReference<>();
+                // share() runs the call once for every subscriber that arrives before it ends.
+                Mono<T> shared = timed(operation, generate(operation, prompt, schema, type, sharedListener))
+                        // Before the answer reaches any subscriber, so a caller that got it never joins the finished call.
+                        .doOnTerminate(() -> inFlightCalls.remove(k, self.get()))
+                        // Also when every subscriber cancelled, which doOnTerminate does not see.
+                        .doFinally(signal -> inFlightCalls.remove(k, self.get()))
+                        .share();
+                self.set(new InFlightCall(shared, sharedListener));
+                return self.get();
+            });
+            if (!started.get()) {
+                logger.debug("Sharing the in-flight LLM call for {}.", operation);
+                listener.llmCallShared();
+                inFlight.listener().join(listener);
+                Counter.builder("llm.calls.coalesced")
+                        .description("LLM calls answered by an identical call already in flight, without a request of their own")
+                        .tag("operation", operation)
+                        .register(meterRegistry)
+                        .increment();
+            }
+            return (Mono<T>) inFlight.answer();
+        });
     }
 
-    public Mono<JdParsingResponse> extractExperienceFromJd(String jdText) {
-        String prompt = buildJdParsingPrompt(jdText);
-        Map<String, Object> requestBody = createGeminiRequestBody(prompt);
-        String finalUrl = String.format(apiUrlTemplate, apiKey);
+    private record InFlightCall(Mono<?> answer, SharedCallListener listener) {
+    }
 
-        logger.info("Sending request to Google Gemini API for JD experience extraction.");
-        return webClient.post()
-                .uri(finalUrl)
+    private static String digest(String prompt) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(prompt.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Asks for one JSON object of the given type, and repairs the answer once if it cannot be read.
+     */
+    private <T> Mono<T> generate(String operation, String prompt, Map<String, Object> schema, Class<T> type, LlmCallListener listener) {
+        List<Map<String, Object>> contents = List.of(turn("user", prompt));
+        return send(operation, contents, schema, listener).flatMap(reply -> {
+            tokensUsed(operation, reply, listener);
+            String text = textOf(reply);
+            LlmJsonReader.Result<T> first = read(operation, "first", text, type);
+            if (first.value() != null) {
+                return Mono.just(first.value());
+            }
+            if (text == null || text.isBlank()) {
+                // Nothing to repair, e.g. a blocked or empty answer.
+                wasted(operation, "lost", 1);
+                return Mono.error(new InvalidLlmResponseException("Empty LLM response for " + operation, null));
+            }
+
+            logger.warn("Unreadable LLM response for {} ({}). Asking the model to repair it.", operation, first.error());
+            listener.llmCallRetried();
+            List<Map<String, Object>> repair = List.of(contents.get(0), turn("model", text), turn("user", buildRepairPrompt(first.error())));
+            return send(operation, repair, schema, listener)
+                    .onErrorResume(error -> {
+                        wasted(operation, "lost", 1);
+                        return Mono.error(error);
+                    })
+                    .flatMap(repairReply -> {
+                        tokensUsed(operation, repairReply, listener);
+                        LlmJsonReader.Result<T> repaired = read(operation, "repair", textOf(repairReply), type);
+                        if (repaired.value() == null) {
+                            wasted(operation, "lost", 2);
+                            return Mono.error(new InvalidLlmResponseException(
+                                    "Failed to parse LLM response for " + operation + " after a repair: " + repaired.error(), null));
+                        }
+                        wasted(operation, "repaired", 1);
+                        return Mono.just(repaired.value());
+                    });
+        });
+    }
+
+    private Mono<GeminiResponseDto> send(String operation, List<Map<String, Object>> contents, Map<String, Object> schema,
+                                         LlmCallListener listener) {
+        Mono<GeminiResponseDto> call = webClient.post()
+                .uri(String.format(apiUrlTemplate, apiKey))
                 .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(requestBody)
+                .bodyValue(Map.of(
+                        "contents", contents,
+                        "generationConfig", Map.of(
+                                "responseMimeType", "application/json",
+                                "responseSchema", schema)))
                 .retrieve()
-                .bodyToMono(GeminiResponseDto.class)
-                .map(this::parseJsonToJdParsingResponse);
+                .bodyToMono(GeminiResponseDto.class);
+        return hedging == null ? call : hedged(operation, call, listener);
     }
 
-    private JdParsingResponse parseJsonToJdParsingResponse(GeminiResponseDto geminiResponse) {
-        try {
-            String jsonText = cleanJsonString(geminiResponse.candidates().get(0).content().parts().get(0).text());
-            return objectMapper.readValue(jsonText, JdParsingResponse.class);
-        } catch (Exception e) {
-            logger.error("Failed to parse JSON from Gemini response for JdParsingResponse", e);
-            throw new RuntimeException("Failed to parse LLM response for JD", e);
+    /**
+     * Runs the call, and a second copy of it if the first has not answered within the hedging delay and
+     * the budget allows. The first answer wins and the other request is cancelled. An error from the
+     * original fails the call as it would unhedged, unless a hedge is in flight, which then settles it;
+     * an error from the hedge is ignored unless the original failed too.
+     * Outcomes go to {@code llm.hedges}, and the estimated time a won hedge saved to {@code llm.hedges.saved}.
+     * The request cancelled after it went out was billed for its prompt too, see {@link #cancelledRequestTokens}.
+     */
+    private Mono<GeminiResponseDto> hedged(String operation, Mono<GeminiResponseDto> call, LlmCallListener listener) {
+        return Mono.defer(() -> {
+            Duration delay = hedging.callStarted(operation);
+            long started = System.nanoTime();
+            if (delay == null) {
+                return call.doOnSuccess(reply -> hedging.record(operation, System.nanoTime() - started));
+            }
+
+            // Becomes "sent" once the hedge's request starts, then "won", "failed", or "lost" if it is cancelled.
+            AtomicReference<String> hedgeState = new AtomicReference<>();
+            AtomicBoolean originalCancelled = new AtomicBoolean();
+            Sinks.Empty<Void> hedgeFailed = Sinks.empty();
+            Mono<GeminiResponseDto> original = call
+                    .doOnCancel(() -> originalCancelled.set(true))
+                    .doOnSuccess(reply -> hedging.record(operation, System.nanoTime() - started))
+                    .onErrorResume(error -> {
+                        if (!"sent".equals(hedgeState.get())) {
+                            return Mono.error(error);
+                        }
+                        logger.debug("LLM call for {} failed with its hedge in flight: {}", operation, error.getMessage());
+                        // The hedge settles the call; if it fails too, the original's error is the call's.
+                        return hedgeFailed.asMono().then(Mono.error(error));
+                    });
+            Mono<GeminiResponseDto> hedge = Mono.delay(delay).flatMap(tick -> {
+                if (!hedging.tryHedge()) {
+                    hedgeCounter(operation, "over_budget").increment();
+                    return Mono.never();
+                }
+                logger.debug("No LLM response for {} after {} ms; sending a hedge.", operation, delay.toMillis());
+                return call
+                        .doOnSubscribe(subscription -> hedgeState.set("sent"))
+                        .doOnCancel(() -> {
+                            if (hedgeState.compareAndSet("sent", "lost")) {
+                                hedgeCounter(operation, "lost").increment();
+                            }
+                        })
+                        .doOnSuccess(reply -> {
+                            long elapsed = System.nanoTime() - started;
+                            hedgeState.set("won");
+                            hedgeCounter(operation, "won").increment();
+                            Timer.builder("llm.hedges.saved")
+                                    .description("Estimated time won hedges saved, from how much longer recent calls that ran as long took")
+                                    .tag("operation", operation)
+                                    .register(meterRegistry)
+                                    .record(hedging.estimatedSaving(operation, elapsed), TimeUnit.NANOSECONDS);
+                            hedging.record(operation, elapsed);
+                        })
+                        .onErrorResume(error -> {
+                            logger.debug("LLM hedge for {} failed: {}", operation, error.getMessage());
+                            hedgeState.set("failed");
+                            hedgeCounter(operation, "failed").increment();
+                            hedgeFailed.tryEmitEmpty();
+                            return Mono.never();
+                        });
+            });
+            return Mono.firstWithSignal(original, hedge)
+                    .doOnSuccess(reply -> {
+                        // The winner's signal cancels the other request before it arrives here.
+                        if (originalCancelled.get() || "lost".equals(hedgeState.get())) {
+                            cancelledRequestTokens(operation, reply, listener);
+                        }
+                    });
+        });
+    }
+
+    private Counter hedgeCounter(String operation, String outcome) {
+        return Counter.builder("llm.hedges")
+                .description("Duplicate Gemini calls sent for slow ones, by whether they answered first, or skipped as over budget")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private <T> LlmJsonReader.Result<T> read(String operation, String attempt, String text, Class<T> type) {
+        LlmJsonReader.Result<T> result = jsonReader.read(text, type);
+        Counter.builder("llm.responses")
+                .description("Gemini replies by how their JSON could be read: strict, tolerant (recovered from surrounding text) or failed")
+                .tag("operation", operation)
+                .tag("attempt", attempt)
+                .tag("parse", result.mode().name().toLowerCase())
+                .register(meterRegistry)
+                .increment();
+        if (result.mode() == LlmJsonReader.Mode.TOLERANT) {
+            logger.debug("LLM response for {} needed the tolerant parser: {}", operation, result.error());
+        }
+        return result;
+    }
+
+    /**
+     * Counts paid-for calls whose answer was discarded: {@code repaired} when a repair call replaced it,
+     * {@code lost} when the caller got nothing.
+     */
+    private void wasted(String operation, String outcome, int calls) {
+        Counter.builder("llm.calls.wasted")
+                .description("Gemini calls whose answer could not be used")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment(calls);
+    }
+
+    /**
+     * Passes on the tokens a reply was billed for and counts them in {@code llm.tokens}.
+     */
+    private void tokensUsed(String operation, GeminiResponseDto reply, LlmCallListener listener) {
+        UsageMetadata usage = reply != null ? reply.usageMetadata() : null;
+        if (usage == null) {
+            return;
         }
+        int promptTokens = usage.promptTokenCount() != null ? usage.promptTokenCount() : 0;
+        int responseTokens = usage.candidatesTokenCount() != null ? usage.candidatesTokenCount() : 0;
+        tokenCounter(operation, "prompt").increment(promptTokens);
+        tokenCounter(operation, "response").increment(responseTokens);
+        listener.llmTokensUsed(operation, promptTokens, responseTokens);
+    }
+
+    /**
+     * Counts the prompt of a hedged request that was cancelled after it went out, which Gemini bills
+     * without a reply to report it. The prompt was the same as the answered request's, so that count is
+     * reused. Response tokens the cancelled request ran up before the cancel are unknown and not counted.
+     */
+    private void cancelledRequestTokens(String operation, GeminiResponseDto reply, LlmCallListener listener) {
+        UsageMetadata usage = reply != null ? reply.usageMetadata() : null;
+        if (usage == null || usage.promptTokenCount() == null) {
+            return;
+        }
+        tokenCounter(operation, "prompt").increment(usage.promptTokenCount());
+        listener.llmTokensUsed(operation, usage.promptTokenCount(), 0);
+    }
+
+    private Counter tokenCounter(String operation, String type) {
+        return Counter.builder("llm.tokens")
+                .description("Tokens Gemini billed, by prompt and response")
+                .tag("operation", operation)
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    private static String textOf(GeminiResponseDto reply) {
+        if (reply == null || reply.candidates() == null) {
+            return null;
+        }
+        return reply.candidates().stream()
+                .map(Candidate::content)
+                .filter(Objects::nonNull)
+                .flatMap(content -> content.parts() == null ? Stream.<Part>empty() : content.parts().stream())
+                .map(Part::text)
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static Map<String, Object> turn(String role, String text) {
+        return Map.of("role", role, "parts", List.of(Map.of("text", text)));
+    }
+
+    /**
+     * An OBJECT schema in Gemini's OpenAPI subset, with every property required and kept in the given order.
+     */
+    private static Map<String, Object> objectSchema(Object... namesAndTypes) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndTypes.length; i += 2) {
+            properties.put((String) namesAndTypes[i], namesAndTypes[i + 1]);
+        }
+        List<String> names = List.copyOf(properties.keySet());
+        return Map.of("type", "OBJECT", "properties", properties, "required", names, "propertyOrdering", names);
+    }
+
+    /**
+     * Records each subscription to an LLM call in {@code llm.requests}, tagged by operation and outcome,
+     * and traces it as an {@code llm <operation>} span.
+     * Both start on subscribe, so they cover the HTTP round trip and parsing, not time spent queued before it.
+     * The span's parent is the span current on the subscribing thread, e.g. the candidate being matched.
+     */
+    private <T> Mono<T> timed(String operation, Mono<T> call) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            Span span = tracer.nextSpan().name("llm " + operation).tag("llm.operation", operation).start();
+            return call
+                    .doOnSuccess(result -> {
+                        sample.stop(llmTimer(operation, "success"));
+                        span.tag("outcome", "success").end();
+                    })
+                    .doOnError(error -> {
+                        String outcome = outcomeOf(error);
+                        sample.stop(llmTimer(operation, outcome));
+                        span.tag("outcome", outcome).error(error).end();
+                    })
+                    .doOnCancel(span::end);
+        });
+    }
+
+    private Timer llmTimer(String operation, String outcome) {
+        return Timer.builder("llm.requests")
+                .description("Gemini API calls, including parsing the response")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static String outcomeOf(Throwable error) {
+        if (error instanceof WebClientResponseException.TooManyRequests) {
+            return "rate_limited";
+        }
+        if (error instanceof WebClientResponseException) {
+            return "http_error";
+        }
+        if (error instanceof InvalidLlmResponseException) {
+            return "invalid_response";
+        }
+        return "error";
+    }
+
+    public Mono<JdParsingResponse> extractExperienceFromJd(String jdText) {
+        return extractExperienceFromJd(jdText, LlmCallListener.NONE);
+    }
+
+    /**
+     * @param listener Told when the call needed a repair call, or was answered by an identical one in flight.
+     */
+    public Mono<JdParsingResponse> extractExperienceFromJd(String jdText, LlmCallListener listener) {
+        logger.info("Sending request to Google Gemini API for JD experience extraction.");
+        return call("jd_experience", buildJdParsingPrompt(jdText), JD_EXPERIENCE_SCHEMA, JdParsingResponse.class, listener);
     }
 
     private String buildJdParsingPrompt(String jdText) {
@@ -131,42 +506,6 @@ public class LLMService {
     }
 
 
-    private LLMResponse parseJsonToLlmResponse(GeminiResponseDto geminiResponse) {
-        try {
-            String rawText = geminiResponse.candidates().get(0).content().parts().get(0).text();
-            String cleanJson = cleanJsonString(rawText); // Clean the string first
-            return objectMapper.readValue(cleanJson, LLMResponse.class);
-        } catch (Exception e) {
-            logger.error("Failed to parse JSON from Gemini response for LLMResponse", e);
-            throw new RuntimeException("Failed to parse LLM response", e);
-        }
-    }
-
-    private SkillExtractionResponse parseJsonToSkillExtractionResponse(GeminiResponseDto geminiResponse) {
-        try {
-            String rawText = geminiResponse.candidates().get(0).content().parts().get(0).text();
-            String cleanJson = cleanJsonString(rawText); // Clean the string first
-            return objectMapper.readValue(cleanJson, SkillExtractionResponse.class);
-        } catch (Exception e) {
-            logger.error("Failed to parse JSON from Gemini response for SkillExtractionResponse", e);
-            throw new RuntimeException("Failed to parse LLM response", e);
-        }
-    }
-
-    private String cleanJsonString(String rawText) {
-        String cleanedText = rawText.trim();
-        if (cleanedText.startsWith("```json")) {
-            cleanedText = cleanedText.substring(7); // Remove ```json
-        }
-        if (cleanedText.startsWith("```")) {
-            cleanedText = cleanedText.substring(3); // Remove ```
-        }
-        if (cleanedText.endsWith("```")) {
-            cleanedText = cleanedText.substring(0, cleanedText.length() - 3); // Remove ```
-        }
-        return cleanedText.trim();
-    }
-
     private String buildMatchScorePrompt(String jdText, String resumeText) {
         return String.format(
                 """
@@ -177,8 +516,6 @@ public class LLMService {
         
                 Return the result ONLY in a valid JSON format like this:
                 {"score": 92, "justification": "This is a summary.", "matching_skills": ["Java", "Spring Boot", "Microservices", "REST APIs", "SQL"]}
-                
-                Do not include ```json and ``` at the start or end.
         
                 **Job Description:**
                 %s
@@ -194,7 +531,6 @@ public class LLMService {
                 """
                 You are an expert technical recruiter. Analyze the following resume text and extract all relevant technical skills.
                 Return the result ONLY as a valid JSON object with a single key "skills" which contains an array of strings. Do not include any explanation or introductory text.
-                Do not include ```json and ``` at the start or end.
     
                 Example format:
                 {"skills": ["Java", "Spring Boot", "React", "PostgreSQL", "AWS", "Agile", "Team Leadership"]}
@@ -206,4 +542,22 @@ public class LLMService {
                 """, resumeText
         );
     }
-}
\ No newline at end of file
+
+    private String buildRepairPrompt(String error) {
+        return String.format(
+                """
+                Your previous reply could not be read as the requested JSON object (%s).
+                Reply again with ONLY that JSON object, with every field filled in, and nothing before or after it.
+                """, error
+        );
+    }
+
+    /**
+     * The LLM answered, but not with the JSON the prompt asked for.
+     */
+    private static class InvalidLlmResponseException extends RuntimeException {
+        InvalidLlmResponseException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
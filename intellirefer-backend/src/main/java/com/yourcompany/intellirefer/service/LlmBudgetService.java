@@ -0,0 +1,219 @@
+package com.yourcompany.intellirefer.service;
+
+import com.yourcompany.intellirefer.dto.LlmUsageDto;
+import com.yourcompany.intellirefer.entity.LlmTokenUsage;
+import com.yourcompany.intellirefer.repository.LlmTokenUsageRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Records the tokens every Gemini reply used, and keeps matching within a token budget per JD
+ * ({@code llm.budget.jd-tokens}, over all of the JD's runs) and per UTC day ({@code llm.budget.daily-tokens},
+ * over all calls). A limit of 0 means no limit.
+ * <p>
+ * Token counts are only known once a reply arrives, so before each call its tokens are estimated from the
+ * prompt and reserved, and the reservation is released when the call ends. A run whose next call does not
+ * fit stops dispatching; calls already in flight still finish. Usage is written to {@code llm_token_usage},
+ * and today's total is reloaded from it every {@code llm.budget.refresh-ms} so that other nodes' calls count too.
+ */
+@Service
+public class LlmBudgetService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LlmBudgetService.class);
+
+    // Gemini averages about four characters of English per token.
+    private static final int CHARS_PER_TOKEN = 4;
+    // The prompt's instructions plus a reply, on top of the documents themselves.
+    private static final int CALL_ALLOWANCE_TOKENS = 512;
+
+    @Autowired private LlmTokenUsageRepository tokenUsageRepository;
+
+    @Value("${llm.budget.jd-tokens:0}")
+    private long jdTokenLimit;
+
+    @Value("${llm.budget.daily-tokens:0}")
+    private long dailyTokenLimit;
+
+    private LocalDate day;
+    private long dayUsed;
+    private long dayReserved;
+
+    @PostConstruct
+    public void init() {
+        refreshDailyUsage();
+    }
+
+    /**
+     * Reloads today's usage from the table, which includes calls made on other nodes.
+     */
+    @Scheduled(fixedDelayString = "${llm.budget.refresh-ms:60000}", initialDelayString = "${llm.budget.refresh-ms:60000}")
+    public void refreshDailyUsage() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        long used;
+        try {
+            used = tokenUsageRepository.sumTokensSince(today.atStartOfDay().toInstant(ZoneOffset.UTC));
+        } catch (RuntimeException e) {
+            logger.error("Could not load today's LLM token usage. Keeping the last known total. Error: {}", e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            day = today;
+            dayUsed = used;
+        }
+    }
+
+    /**
+     * Starts tracking a JD's usage for one matching run, from the tokens its earlier runs already used.
+     */
+    public JdBudget open(Long jdId) {
+        long used = jdTokenLimit > 0 ? tokenUsageRepository.sumTokensByJobDescriptionId(jdId) : 0;
+        return new JdBudget(jdId, used);
+    }
+
+    /**
+     * A rough token count for a call whose prompt holds these documents, to reserve before making it.
+     */
+    public long estimateTokens(String... documents) {
+        long chars = 0;
+        for (String document : documents) {
+            chars += document != null ? document.length() : 0;
+        }
+        return chars / CHARS_PER_TOKEN + CALL_ALLOWANCE_TOKENS;
+    }
+
+    /**
+     * Records a reply that belongs to no JD, e.g. skill extraction at resume upload. It counts towards the daily budget.
+     */
+    public void record(Long employeeId, String operation, int promptTokens, int responseTokens) {
+        save(null, employeeId, operation, promptTokens, responseTokens);
+        addDaily(promptTokens + (long) responseTokens);
+    }
+
+    public LlmUsageDto getUsage(Long jdId) {
+        LlmUsageDto dto = new LlmUsageDto();
+        dto.setJobDescriptionId(jdId);
+        dto.setTokensUsed(tokenUsageRepository.sumTokensByJobDescriptionId(jdId));
+        dto.setTokenLimit(jdTokenLimit > 0 ? jdTokenLimit : null);
+        dto.setBudgetExceeded(jdTokenLimit > 0 && dto.getTokensUsed() >= jdTokenLimit);
+        synchronized (this) {
+            rollOver();
+            dto.setDailyTokensUsed(dayUsed);
+        }
+        dto.setDailyTokenLimit(dailyTokenLimit > 0 ? dailyTokenLimit : null);
+        dto.setOperations(tokenUsageRepository.summarizeByJobDescriptionId(jdId));
+        return dto;
+    }
+
+    private synchronized boolean tryReserveDaily(long tokens) {
+        rollOver();
+        if (dailyTokenLimit > 0 && dayUsed + dayReserved + tokens > dailyTokenLimit) {
+            return false;
+        }
+        dayReserved += tokens;
+        return true;
+    }
+
+    private synchronized void releaseDaily(long tokens) {
+        dayReserved -= tokens;
+    }
+
+    private synchronized void addDaily(long tokens) {
+        rollOver();
+        dayUsed += tokens;
+    }
+
+    private void rollOver() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        if (!today.equals(day)) {
+            day = today;
+            dayUsed = 0;
+        }
+    }
+
+    private void save(Long jdId, Long employeeId, String operation, int promptTokens, int responseTokens) {
+        LlmTokenUsage usage = new LlmTokenUsage();
+        usage.setJobDescriptionId(jdId);
+        usage.setEmployeeId(employeeId);
+        usage.setOperation(operation);
+        usage.setPromptTokens(promptTokens);
+        usage.setResponseTokens(responseTokens);
+        usage.setCreatedAt(Instant.now());
+        try {
+            tokenUsageRepository.save(usage);
+        } catch (RuntimeException e) {
+            logger.error("Could not record {} LLM tokens for JD ID {} and employee ID {}. Error: {}",
+                    promptTokens + responseTokens, jdId, employeeId, e.getMessage());
+        }
+    }
+
+    /**
+     * One matching run's view of its JD's budget. Thread-safe: replies are recorded from Reactor threads.
+     */
+    public final class JdBudget {
+
+        private final Long jdId;
+        private long used;
+        private long reserved;
+        private boolean exceeded;
+
+        private JdBudget(Long jdId, long used) {
+            this.jdId = jdId;
+            this.used = used;
+        }
+
+        /**
+         * Reserves the estimated tokens of a call if both the JD's and the day's budget have room for them.
+         * Once this has refused, the budget stays exceeded for the rest of the run.
+         */
+        public synchronized boolean tryReserve(long tokens) {
+            if (exceeded) {
+                return false;
+            }
+            if (jdTokenLimit > 0 && used + reserved + tokens > jdTokenLimit) {
+                logger.warn("JD ID {} has used {} of its {} LLM tokens. No further calls will be made for it.", jdId, used, jdTokenLimit);
+                exceeded = true;
+                return false;
+            }
+            if (!tryReserveDaily(tokens)) {
+                logger.warn("The daily budget of {} LLM tokens is spent. No further calls will be made for JD ID {} today.", dailyTokenLimit, jdId);
+                exceeded = true;
+                return false;
+            }
+            reserved += tokens;
+            return true;
+        }
+
+        /**
+         * Returns a reservation once its call has ended; the tokens it actually used were recorded by then.
+         */
+        public synchronized void release(long tokens) {
+            reserved -= tokens;
+            releaseDaily(tokens);
+        }
+
+        /**
+         * Records a reply for this JD, for a candidate or, with a null employee, for the JD itself.
+         */
+        public void record(Long employeeId, String operation, int promptTokens, int responseTokens) {
+            save(jdId, employeeId, operation, promptTokens, responseTokens);
+            long tokens = promptTokens + (long) responseTokens;
+            synchronized (this) {
+                used += tokens;
+            }
+            addDaily(tokens);
+        }
+
+        public synchronized boolean exceeded() {
+            return exceeded;
+        }
+    }
+}
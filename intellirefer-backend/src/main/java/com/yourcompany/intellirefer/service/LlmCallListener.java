@@ -0,0 +1,31 @@
+package com.yourcompany.intellirefer.service;
+
+/**
+ * Told about what it took to answer one {@link LLMService} call, so the caller can account for it,
+ * e.g. in its matching run's row.
+ */
+public interface LlmCallListener {
+
+    LlmCallListener NONE = new LlmCallListener() {
+    };
+
+    /**
+     * A repair call was made because the answer could not be read.
+     */
+    default void llmCallRetried() {
+    }
+
+    /**
+     * The call was answered by an identical call already in flight, without a request of its own.
+     * Its repairs and tokens are still reported, as they are to the caller that made the request.
+     */
+    default void llmCallShared() {
+    }
+
+    /**
+     * A reply arrived, billed for these tokens. Called once per reply, so twice when a repair call was made,
+     * and also for a hedged request cancelled after it went out, with its prompt tokens only.
+     */
+    default void llmTokensUsed(String operation, int promptTokens, int responseTokens) {
+    }
+}
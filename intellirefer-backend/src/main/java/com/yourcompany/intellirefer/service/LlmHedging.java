@@ -0,0 +1,122 @@
+package com.yourcompany.intellirefer.service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides when an LLM call gets a hedge: a duplicate request sent once the call has run longer than
+ * the configured percentile of recent calls to the same operation, so a slow straggler does not hold
+ * up a whole matching run.
+ * <p>
+ * Hedges are paid for, so they are budgeted: every call earns {@code budget} of a hedge (0.05 allows
+ * one hedge per 20 calls) and a hedge is only sent when a whole one has been earned. Savings are
+ * capped, so a quiet spell cannot fund a burst of hedges later.
+ */
+final class LlmHedging {
+
+    // Recent latencies kept per operation.
+    private static final int WINDOW = 512;
+    // Hedges that can be saved up.
+    private static final long MAX_SAVED_HEDGES = 10;
+    // The budget is kept in millionths of a hedge, so that e.g. ten calls at 0.1 earn exactly one.
+    private static final long HEDGE = 1_000_000;
+
+    private final double percentile;
+    private final long budgetPerCall;
+    private final int minSamples;
+    private final Map<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+    private long earned;
+
+    /**
+     * @param percentile Latency percentile after which a call is hedged, e.g. 0.95.
+     * @param budget Hedges allowed per call, e.g. 0.05 for at most 5% extra calls.
+     * @param minSamples Calls an operation needs before its percentile is trusted; it is not hedged until then.
+     */
+    LlmHedging(double percentile, double budget, int minSamples) {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("Hedging percentile must be between 0 and 1, was " + percentile);
+        }
+        this.percentile = percentile;
+        this.budgetPerCall = Math.round(budget * HEDGE);
+        this.minSamples = Math.max(minSamples, 1);
+    }
+
+    /**
+     * Counts a call towards the budget, and returns how long to wait before hedging it, or null
+     * when the operation has too few recent calls to tell.
+     */
+    Duration callStarted(String operation) {
+        synchronized (this) {
+            earned = Math.min(earned + budgetPerCall, MAX_SAVED_HEDGES * HEDGE);
+        }
+        long nanos = window(operation).percentile(percentile, minSamples);
+        return nanos < 0 ? null : Duration.ofNanos(nanos);
+    }
+
+    /**
+     * Takes one hedge from the budget, or returns false when none is left.
+     */
+    synchronized boolean tryHedge() {
+        if (earned < HEDGE) {
+            return false;
+        }
+        earned -= HEDGE;
+        return true;
+    }
+
+    /**
+     * Records how long a call took to be answered. When its hedge won this is the time until the
+     * hedge answered, a lower bound for the cancelled original.
+     */
+    void record(String operation, long nanos) {
+        window(operation).add(nanos);
+    }
+
+    /**
+     * Estimates what a won hedge saved: how much longer recent calls that were still running at
+     * {@code elapsedNanos} took on average. Zero when none ran that long.
+     */
+    long estimatedSaving(String operation, long elapsedNanos) {
+        return window(operation).meanExcessOver(elapsedNanos);
+    }
+
+    private LatencyWindow window(String operation) {
+        return windows.computeIfAbsent(operation, key -> new LatencyWindow());
+    }
+
+    private static final class LatencyWindow {
+
+        private final long[] samples = new long[WINDOW];
+        private int next;
+        private int size;
+
+        synchronized void add(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % WINDOW;
+            size = Math.min(size + 1, WINDOW);
+        }
+
+        synchronized long percentile(double percentile, int minSamples) {
+            if (size < minSamples) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            return sorted[Math.max((int) Math.ceil(percentile * size) - 1, 0)];
+        }
+
+        synchronized long meanExcessOver(long nanos) {
+            long total = 0;
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (samples[i] > nanos) {
+                    total += samples[i] - nanos;
+                    count++;
+                }
+            }
+            return count == 0 ? 0 : total / count;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.yourcompany.intellirefer.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+
+/**
+ * Reads the JSON object an LLM reply was asked for.
+ * <p>
+ * A reply from structured output mode is exactly that object and is read strictly. Anything else is
+ * scanned with a lenient streaming parser for the first object that binds to the target type, which
+ * gets past markdown fences, prose before or after the object, trailing commas, single quotes,
+ * comments and raw line breaks inside strings. Every property of the target record must be present,
+ * so a truncated or half-filled object is rejected instead of binding to defaults such as a score of 0.
+ */
+final class LlmJsonReader {
+
+    enum Mode {
+        STRICT,
+        TOLERANT,
+        FAILED
+    }
+
+    /**
+     * @param value The bound object, or null when the reply held none.
+     * @param error Why the strict read failed, for the repair prompt and the logs; null when it succeeded.
+     */
+    record Result<T>(T value, Mode mode, String error) {
+    }
+
+    // Bounds the scan over replies that are mostly prose.
+    private static final int MAX_CANDIDATE_OBJECTS = 20;
+
+    private final ObjectMapper strict = JsonMapper.builder()
+            .enable(DeserializationFeature.FAIL_ON_MISSING_CREATOR_PROPERTIES)
+            .enable(DeserializationFeature.FAIL_ON_TRAILING_TOKENS)
+            .build();
+
+    private final ObjectMapper lenient = JsonMapper.builder()
+            .enable(DeserializationFeature.FAIL_ON_MISSING_CREATOR_PROPERTIES)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .enable(JsonReadFeature.ALLOW_TRAILING_COMMA, JsonReadFeature.ALLOW_SINGLE_QUOTES,
+                    JsonReadFeature.ALLOW_JAVA_COMMENTS, JsonReadFeature.ALLOW_UNESCAPED_CONTROL_CHARS,
+                    JsonReadFeature.ALLOW_UNQUOTED_FIELD_NAMES)
+            .build();
+
+    <T> Result<T> read(String text, Class<T> type) {
+        if (text == null || text.isBlank()) {
+            return new Result<>(null, Mode.FAILED, "the reply was empty");
+        }
+        String error;
+        try {
+            return new Result<>(strict.readValue(text.trim(), type), Mode.STRICT, null);
+        } catch (JsonProcessingException e) {
+            error = e.getOriginalMessage();
+        }
+
+        char[] chars = text.toCharArray();
+        int candidates = 0;
+        for (int start = indexOf(chars, '{', 0); start >= 0 && candidates < MAX_CANDIDATE_OBJECTS;
+             start = indexOf(chars, '{', start + 1), candidates++) {
+            // Reads one value from the brace on and ignores whatever follows it.
+            try (JsonParser parser = lenient.createParser(chars, start, chars.length - start)) {
+                return new Result<>(lenient.readValue(parser, type), Mode.TOLERANT, error);
+            } catch (IOException e) {
+                // Not the object we want; try the next brace.
+            }
+        }
+        return new Result<>(null, Mode.FAILED, error);
+    }
+
+    private static int indexOf(char[] chars, char c, int from) {
+        for (int i = from; i < chars.length; i++) {
+            if (chars[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
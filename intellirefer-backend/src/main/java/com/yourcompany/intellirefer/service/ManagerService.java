@@ -1,9 +1,16 @@
 package com.yourcompany.intellirefer.service;
 
+import com.yourcompany.intellirefer.dto.CursorPage;
+import com.yourcompany.intellirefer.dto.EmployeeSkillRow;
 import com.yourcompany.intellirefer.dto.JobDescriptionDto;
+import com.yourcompany.intellirefer.dto.LlmUsageDto;
+import com.yourcompany.intellirefer.dto.MatchingRunDto;
 import com.yourcompany.intellirefer.dto.ReferralDto;
+import com.yourcompany.intellirefer.dto.ReferralRow;
+import com.yourcompany.intellirefer.dto.ReferralSkillRow;
 import com.yourcompany.intellirefer.dto.SelectedEmployeeDto;
 import com.yourcompany.intellirefer.entity.*;
+import com.yourcompany.intellirefer.exception.BadRequestException;
 import com.yourcompany.intellirefer.exception.ResourceNotFoundException;
 import com.yourcompany.intellirefer.mapper.DtoMapper;
 import com.yourcompany.intellirefer.model.enums.AvailabilityStatus;
@@ -13,15 +20,26 @@ import com.yourcompany.intellirefer.repository.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.context.ApplicationEventPublisher; // <-- Import this
 import com.yourcompany.intellirefer.event.JdUploadedEvent;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -33,15 +51,24 @@ public class ManagerService {
 
     private static final Logger logger = LoggerFactory.getLogger(ManagerService.class);
 
+    // Keeps the IN list of the skills lookup well below database parameter limits.
+    private static final int SKILL_LOOKUP_BATCH_SIZE = 1000;
+    // Sorts after every real creation time, so the first page starts from the newest JD.
+    private static final Instant LATEST_INSTANT = Instant.parse("9999-12-31T23:59:59Z");
+
     // Repositories for database access
     @Autowired private JobDescriptionRepository jdRepository;
     @Autowired private ReferralRepository referralRepository;
     @Autowired private UserRepository userRepository;
     @Autowired private EmployeeProfileRepository employeeProfileRepository;
+    @Autowired private ReferralMatchingSkillRepository referralMatchingSkillRepository;
+    @Autowired private SkillRepository skillRepository;
+    @Autowired private MatchingRunRepository matchingRunRepository;
 
     // Dependent services
-    @Autowired private FileSystemStorageService fileSystemStorageService;
+    @Autowired private StorageService storageService;
     @Autowired private MatchingService matchingService;
+    @Autowired private LlmBudgetService llmBudgetService;
 
     // DTO Mapper for converting entities to DTOs
     @Autowired private DtoMapper dtoMapper;
@@ -67,7 +94,7 @@ public class ManagerService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", managerId));
 
         // Store the file in a "jds" subfolder using the local file system service
-        String filePath = fileSystemStorageService.store(file, "jds");
+        String filePath = storageService.store(file, "jds");
         logger.info("JD file stored at relative path: {}", filePath);
 
         JobDescription jd = new JobDescription();
@@ -90,27 +117,150 @@ public class ManagerService {
     }
 
     /**
-     * Retrieves all Job Descriptions uploaded by a specific manager.
+     * Retrieves one page of the Job Descriptions uploaded by a specific manager, newest first.
      *
      * @param managerId The ID of the manager.
-     * @return A list of JobDescriptionDto objects.
+     * @param cursor The {@code nextCursor} of the previous page, or null for the first page.
+     * @param limit The maximum number of JDs to return.
+     * @return A page of JobDescriptionDto objects.
      */
-    public List<JobDescriptionDto> getJdsForManager(Long managerId) {
-        return jdRepository.findByUploadedByManagerId(managerId).stream()
-                .map(dtoMapper::toJobDescriptionDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<JobDescriptionDto> getJdsForManager(Long managerId, String cursor, int limit) {
+        Instant afterCreatedAt = LATEST_INSTANT;
+        long afterId = Long.MAX_VALUE;
+        if (StringUtils.hasText(cursor)) {
+            String[] key = KeysetCursor.decode(cursor, 3);
+            afterCreatedAt = Instant.ofEpochSecond(KeysetCursor.parseLong(key[0], cursor), KeysetCursor.parseLong(key[1], cursor));
+            afterId = KeysetCursor.parseLong(key[2], cursor);
+        }
+
+        // Fetch one extra row to learn whether there is a next page.
+        List<JobDescription> jds = jdRepository.findPageByManager(managerId, afterCreatedAt, afterId, PageRequest.of(0, limit + 1));
+        String nextCursor = null;
+        if (jds.size() > limit) {
+            jds = jds.subList(0, limit);
+            JobDescription last = jds.get(limit - 1);
+            nextCursor = KeysetCursor.encode(last.getCreatedAt().getEpochSecond(), last.getCreatedAt().getNano(), last.getId());
+        }
+        return new CursorPage<>(jds.stream().map(dtoMapper::toJobDescriptionDto).collect(Collectors.toList()), nextCursor);
     }
 
     /**
-     * Retrieves all AI-generated recommendations for a specific Job Description,
+     * Retrieves one page of the AI-generated recommendations for a specific Job Description,
      * sorted by the highest match score first.
+     * <p>
+     * Runs a fixed number of queries per page: one projection for the referral and employee
+     * columns, and one batched query for the employees' skills.
      *
      * @param jdId The ID of the Job Description.
-     * @return A sorted list of ReferralDto objects.
+     * @param minScore Lowest match score to include, or null for all.
+     * @param statuses Referral statuses to include, or null/empty for all.
+     * @param availability Only include employees with this availability, or null for all.
+     * @param cursor The {@code nextCursor} of the previous page, or null for the first page.
+     * @param limit The maximum number of recommendations to return.
+     * @return A page of ReferralDto objects.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ReferralDto> getRecommendationsForJd(Long jdId, Integer minScore, Collection<ReferralStatus> statuses,
+                                                           AvailabilityStatus availability, String cursor, int limit) {
+        int afterScore = Integer.MAX_VALUE;
+        long afterId = Long.MAX_VALUE;
+        if (StringUtils.hasText(cursor)) {
+            String[] key = KeysetCursor.decode(cursor, 2);
+            afterScore = (int) KeysetCursor.parseLong(key[0], cursor);
+            afterId = KeysetCursor.parseLong(key[1], cursor);
+        }
+        Collection<ReferralStatus> statusFilter = statuses == null || statuses.isEmpty()
+                ? EnumSet.allOf(ReferralStatus.class)
+                : statuses;
+
+        List<ReferralRow> rows = referralRepository.findRowPage(jdId, afterScore, afterId,
+                minScore == null ? 0 : minScore, statusFilter, availability, PageRequest.of(0, limit + 1));
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            ReferralRow last = rows.get(limit - 1);
+            nextCursor = KeysetCursor.encode(last.getMatchScore(), last.getReferralId());
+        }
+        return new CursorPage<>(toReferralDtos(rows), nextCursor);
+    }
+
+    /**
+     * Retrieves one page of the manager's referrals whose matching skills include all of the given
+     * skills, across all of the manager's JDs with the given status, newest referral first.
+     * <p>
+     * Put the rarest skill first: the search walks that skill's referrals and checks the others on each.
+     *
+     * @param managerId The ID of the manager who uploaded the JDs.
+     * @param skills Skill names, compared ignoring case and surrounding whitespace.
+     * @param statuses Referral statuses to include, or null/empty for all.
+     * @param jdStatus Only search JDs with this status.
+     * @param cursor The {@code nextCursor} of the previous page, or null for the first page.
+     * @param limit The maximum number of referrals to return.
+     * @return A page of ReferralDto objects.
      */
-    public List<ReferralDto> getRecommendationsForJd(Long jdId) {
-        return referralRepository.findByJobDescriptionIdOrderByMatchScoreDesc(jdId).stream()
-                .map(dtoMapper::toReferralDto)
+    @Transactional(readOnly = true)
+    public CursorPage<ReferralDto> searchReferralsBySkills(Long managerId, List<String> skills, Collection<ReferralStatus> statuses,
+                                                           JdStatus jdStatus, String cursor, int limit) {
+        List<String> skillKeys = skills == null ? List.of() : skills.stream()
+                .filter(StringUtils::hasText)
+                .map(Skill::keyOf)
+                .distinct()
+                .collect(Collectors.toList());
+        if (skillKeys.isEmpty()) {
+            throw new BadRequestException("At least one skill is required");
+        }
+        long afterId = Long.MAX_VALUE;
+        if (StringUtils.hasText(cursor)) {
+            afterId = KeysetCursor.parseLong(KeysetCursor.decode(cursor, 1)[0], cursor);
+        }
+
+        Map<String, Integer> skillIdsByKey = skillRepository.findByNameKeyIn(skillKeys).stream()
+                .collect(Collectors.toMap(Skill::getNameKey, Skill::getId));
+        if (skillIdsByKey.size() < skillKeys.size()) {
+            // No referral can match a skill nobody has.
+            return new CursorPage<>(new ArrayList<>(), null);
+        }
+        Collection<ReferralStatus> statusFilter = statuses == null || statuses.isEmpty()
+                ? EnumSet.allOf(ReferralStatus.class)
+                : statuses;
+
+        List<ReferralRow> rows = referralMatchingSkillRepository.findRowPageBySkills(managerId, jdStatus, statusFilter,
+                skillIdsByKey.get(skillKeys.get(0)), skillIdsByKey.values(), skillIdsByKey.size(), afterId,
+                PageRequest.of(0, limit + 1));
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            nextCursor = KeysetCursor.encode(rows.get(limit - 1).getReferralId());
+        }
+        return new CursorPage<>(toReferralDtos(rows), nextCursor);
+    }
+
+    private List<ReferralDto> toReferralDtos(List<ReferralRow> rows) {
+        if (rows.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> employeeIds = rows.stream().map(ReferralRow::getEmployeeUserId).distinct().collect(Collectors.toList());
+        Map<Long, Set<String>> skillsByEmployee = new HashMap<>();
+        for (int from = 0; from < employeeIds.size(); from += SKILL_LOOKUP_BATCH_SIZE) {
+            List<Long> batch = employeeIds.subList(from, Math.min(from + SKILL_LOOKUP_BATCH_SIZE, employeeIds.size()));
+            for (EmployeeSkillRow skillRow : employeeProfileRepository.findSkillRowsByUserIdIn(batch)) {
+                skillsByEmployee.computeIfAbsent(skillRow.getEmployeeUserId(), id -> new HashSet<>()).add(skillRow.getSkillName());
+            }
+        }
+
+        // Pages are at most a few hundred rows, well within one IN list.
+        List<Long> referralIds = rows.stream().map(ReferralRow::getReferralId).collect(Collectors.toList());
+        Map<Long, List<String>> matchingSkillsByReferral = new HashMap<>();
+        for (ReferralSkillRow skillRow : referralMatchingSkillRepository.findSkillRowsByReferralIdIn(referralIds)) {
+            matchingSkillsByReferral.computeIfAbsent(skillRow.getReferralId(), id -> new ArrayList<>()).add(skillRow.getSkillName());
+        }
+
+        return rows.stream()
+                .map(row -> dtoMapper.toReferralDto(row,
+                        skillsByEmployee.getOrDefault(row.getEmployeeUserId(), new HashSet<>()),
+                        matchingSkillsByReferral.getOrDefault(row.getReferralId(), new ArrayList<>())))
                 .collect(Collectors.toList());
     }
 
@@ -167,34 +317,47 @@ public class ManagerService {
         return dtoMapper.toJobDescriptionDto(savedJd);
     }
 
-    public List<SelectedEmployeeDto> getSelectedAndReservedEmployees() {
-        // 1. Find all employees who are not currently available.
-        List<AvailabilityStatus> busyStatuses = Arrays.asList(AvailabilityStatus.ON_PROJECT, AvailabilityStatus.RESERVED);
-        List<EmployeeProfile> busyEmployees = employeeProfileRepository.findByAvailabilityIn(busyStatuses);
-
-        List<SelectedEmployeeDto> result = new ArrayList<>();
-
-        // 2. For each busy employee, find the job they were selected/reserved for.
-        for (EmployeeProfile employee : busyEmployees) {
-            SelectedEmployeeDto dto = new SelectedEmployeeDto();
-            dto.setEmployeeUserId(employee.getUserId());
-            dto.setEmployeeFullName(employee.getFullName());
-            dto.setEmployeeEmail(employee.getUser().getEmail());
-            dto.setAvailability(employee.getAvailability());
-
-            // 3. Find the corresponding referral to get the job details.
-            List<ReferralStatus> referralStatuses = Arrays.asList(ReferralStatus.SELECTED, ReferralStatus.RESERVED);
-            referralRepository.findFirstByEmployeeUserIdAndStatusIn(employee.getUserId(), referralStatuses)
-                    .ifPresent(referral -> {
-                        JobDescription jd = referral.getJobDescription();
-                        dto.setJobId(jd.getId());
-                        dto.setJobTitle(jd.getTitle());
-                        dto.setClientName(jd.getClientName());
-                    });
-
-            result.add(dto);
+    /**
+     * Lists the matching runs of a JD, newest first. A RUNNING run's counts are at most
+     * {@code matching.run.flush-ms} old; see {@code updatedAt}.
+     *
+     * @param jdId The ID of the Job Description.
+     * @return The JD's runs as MatchingRunDto objects.
+     */
+    @Transactional(readOnly = true)
+    public List<MatchingRunDto> getMatchingRuns(Long jdId) {
+        if (!jdRepository.existsById(jdId)) {
+            throw new ResourceNotFoundException("JobDescription", "id", jdId);
         }
+        return matchingRunRepository.findByJobDescriptionIdOrderByStartedAtDescIdDesc(jdId).stream()
+                .map(dtoMapper::toMatchingRunDto)
+                .collect(Collectors.toList());
+    }
 
-        return result;
+    /**
+     * The JD's LLM token usage by operation, against its own and the daily token budget.
+     */
+    @Transactional(readOnly = true)
+    public LlmUsageDto getLlmUsage(Long jdId) {
+        if (!jdRepository.existsById(jdId)) {
+            throw new ResourceNotFoundException("JobDescription", "id", jdId);
+        }
+        return llmBudgetService.getUsage(jdId);
+    }
+
+    /**
+     * Lists employees who are on a project or reserved, with the job they were most recently
+     * selected or reserved for, in a single query (plus a count query for the page total).
+     *
+     * @param clientName Only include assignments for this client; null or blank for all.
+     * @param pageable The page to return.
+     * @return A page of SelectedEmployeeDto objects, ordered by employee ID.
+     */
+    @Transactional(readOnly = true)
+    public Page<SelectedEmployeeDto> getSelectedAndReservedEmployees(String clientName, Pageable pageable) {
+        List<AvailabilityStatus> busyStatuses = Arrays.asList(AvailabilityStatus.ON_PROJECT, AvailabilityStatus.RESERVED);
+        List<ReferralStatus> referralStatuses = Arrays.asList(ReferralStatus.SELECTED, ReferralStatus.RESERVED);
+        String clientFilter = StringUtils.hasText(clientName) ? clientName.trim() : null;
+        return employeeProfileRepository.findSelectedEmployees(busyStatuses, referralStatuses, clientFilter, pageable);
     }
-}
\ No newline at end of file
+}
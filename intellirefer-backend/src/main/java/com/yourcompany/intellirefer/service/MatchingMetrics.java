@@ -0,0 +1,294 @@
+package com.yourcompany.intellirefer.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Meters for the JD matching pipeline, and the bookkeeping of each matching run.
+ * <p>
+ * A run ends when its candidates have all been dispatched and every LLM call it started has
+ * finished, which is usually long after the event listener that started it has returned.
+ * Its duration goes to {@code matching.run} and a one-line summary to the log.
+ */
+@Component
+public class MatchingMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(MatchingMetrics.class);
+
+    public static final String SKIP_RESUME_UNREADABLE = "resume_unreadable";
+    public static final String SKIP_BUDGET_EXCEEDED = "budget_exceeded";
+
+    /**
+     * Parts of a run whose time is summed per run. Candidate stages overlap, so their sums can exceed the run's duration.
+     */
+    public enum Stage {
+        JD_PARSE,
+        CANDIDATE_FETCH,
+        RESUME_PARSE,
+        LLM,
+        REFERRAL_SAVE
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Counter considered;
+    private final Counter scored;
+    private final Counter failed;
+    private final Timer referralSave;
+    private final AtomicInteger activeRuns = new AtomicInteger();
+    private final AtomicInteger candidatesInFlight = new AtomicInteger();
+
+    @Autowired
+    public MatchingMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.considered = Counter.builder("matching.candidates.considered")
+                .description("Candidates returned by the candidate scan")
+                .register(meterRegistry);
+        this.scored = Counter.builder("matching.candidates.scored")
+                .description("Candidates scored by the LLM and saved as referrals")
+                .register(meterRegistry);
+        this.failed = Counter.builder("matching.candidates.failed")
+                .description("Candidates whose LLM call or referral save failed")
+                .register(meterRegistry);
+        this.referralSave = Timer.builder("matching.referral.save")
+                .description("Saving one referral, including resolving its matching skills")
+                .register(meterRegistry);
+        Gauge.builder("matching.runs.active", activeRuns, AtomicInteger::get)
+                .description("Matching runs with work outstanding")
+                .register(meterRegistry);
+        Gauge.builder("matching.candidates.in_flight", candidatesInFlight, AtomicInteger::get)
+                .description("Candidates dispatched to the LLM and not yet finished, across all runs")
+                .register(meterRegistry);
+    }
+
+    public Run startRun(Long jdId) {
+        return startRun(jdId, outcome -> { });
+    }
+
+    /**
+     * @param onFinish Called once with the run's outcome when it ends, on whichever thread ended it.
+     */
+    public Run startRun(Long jdId, Consumer<String> onFinish) {
+        activeRuns.incrementAndGet();
+        return new Run(jdId, onFinish);
+    }
+
+    public void timeReferralSave(Runnable save) {
+        referralSave.record(save);
+    }
+
+    /**
+     * Counts and outstanding work of one JD's matching run. Thread-safe: LLM callbacks report from Reactor threads.
+     */
+    public final class Run implements LlmCallListener {
+
+        private final Long jdId;
+        private final Consumer<String> onFinish;
+        private final Timer.Sample sample = Timer.start(meterRegistry);
+        private final long startNanos = System.nanoTime();
+        // One extra for the dispatch itself, so the run cannot end before all candidates were handed out.
+        private final AtomicInteger outstanding = new AtomicInteger(1);
+        private final AtomicInteger runConsidered = new AtomicInteger();
+        private final AtomicInteger runSkipped = new AtomicInteger();
+        private final AtomicInteger runDispatched = new AtomicInteger();
+        private final AtomicInteger runScored = new AtomicInteger();
+        private final AtomicInteger runFailed = new AtomicInteger();
+        private final AtomicInteger llmCalls = new AtomicInteger();
+        private final AtomicInteger llmFailed = new AtomicInteger();
+        private final AtomicInteger llmRetried = new AtomicInteger();
+        private final AtomicInteger llmShared = new AtomicInteger();
+        private final AtomicLong promptTokens = new AtomicLong();
+        private final AtomicLong responseTokens = new AtomicLong();
+        private final AtomicBoolean budgetExceeded = new AtomicBoolean();
+        private final AtomicLongArray stageNanos = new AtomicLongArray(Stage.values().length);
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        private Run(Long jdId, Consumer<String> onFinish) {
+            this.jdId = jdId;
+            this.onFinish = onFinish;
+        }
+
+        public void candidateConsidered() {
+            runConsidered.incrementAndGet();
+            considered.increment();
+        }
+
+        public void candidateSkipped(String reason) {
+            runSkipped.incrementAndGet();
+            Counter.builder("matching.candidates.skipped")
+                    .description("Candidates dropped before the LLM call")
+                    .tag("reason", reason)
+                    .register(meterRegistry)
+                    .increment();
+        }
+
+        /**
+         * Marks a candidate as sent to the LLM. Must be followed by {@link #candidateFinished()}.
+         */
+        public void candidateDispatched() {
+            runDispatched.incrementAndGet();
+            outstanding.incrementAndGet();
+            candidatesInFlight.incrementAndGet();
+        }
+
+        public void candidateScored() {
+            runScored.incrementAndGet();
+            scored.increment();
+        }
+
+        public void candidateFailed() {
+            runFailed.incrementAndGet();
+            failed.increment();
+        }
+
+        public void candidateFinished() {
+            candidatesInFlight.decrementAndGet();
+            if (outstanding.decrementAndGet() == 0) {
+                finish("completed");
+            }
+        }
+
+        /**
+         * Called once every candidate has been dispatched; the run completes when the last one finishes.
+         */
+        public void dispatchFinished() {
+            if (outstanding.decrementAndGet() == 0) {
+                finish("completed");
+            }
+        }
+
+        public void stageTime(Stage stage, long nanos) {
+            stageNanos.addAndGet(stage.ordinal(), nanos);
+        }
+
+        /**
+         * Counts one finished LLM call and adds its duration to {@link Stage#LLM}.
+         */
+        public void llmCallFinished(long nanos, boolean succeeded) {
+            llmCalls.incrementAndGet();
+            if (!succeeded) {
+                llmFailed.incrementAndGet();
+            }
+            stageTime(Stage.LLM, nanos);
+        }
+
+        /**
+         * Counts an extra call made for one of the run's LLM calls, e.g. to repair an unreadable answer.
+         */
+        @Override
+        public void llmCallRetried() {
+            llmRetried.incrementAndGet();
+        }
+
+        /**
+         * Counts one of the run's LLM calls answered by an identical call in flight, e.g. from another run of the same JD.
+         */
+        @Override
+        public void llmCallShared() {
+            llmShared.incrementAndGet();
+        }
+
+        public int considered() {
+            return runConsidered.get();
+        }
+
+        public int skipped() {
+            return runSkipped.get();
+        }
+
+        public int dispatched() {
+            return runDispatched.get();
+        }
+
+        public int scored() {
+            return runScored.get();
+        }
+
+        public int failed() {
+            return runFailed.get();
+        }
+
+        public int llmCalls() {
+            return llmCalls.get();
+        }
+
+        public int llmFailed() {
+            return llmFailed.get();
+        }
+
+        @Override
+        public void llmTokensUsed(String operation, int prompt, int response) {
+            promptTokens.addAndGet(prompt);
+            responseTokens.addAndGet(response);
+        }
+
+        /**
+         * Notes that the run stopped dispatching for lack of token budget. It then ends as {@code budget_exceeded}
+         * rather than {@code completed}.
+         */
+        public void budgetExceeded() {
+            budgetExceeded.set(true);
+        }
+
+        public boolean isBudgetExceeded() {
+            return budgetExceeded.get();
+        }
+
+        public int llmRetried() {
+            return llmRetried.get();
+        }
+
+        public long promptTokens() {
+            return promptTokens.get();
+        }
+
+        public long responseTokens() {
+            return responseTokens.get();
+        }
+
+        public int llmShared() {
+            return llmShared.get();
+        }
+
+        public long stageMillis(Stage stage) {
+            return Duration.ofNanos(stageNanos.get(stage.ordinal())).toMillis();
+        }
+
+        /**
+         * Ends the run early, e.g. when the JD itself cannot be read.
+         */
+        public void abort() {
+            finish("failed");
+        }
+
+        private void finish(String outcome) {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+            if ("completed".equals(outcome) && budgetExceeded.get()) {
+                outcome = "budget_exceeded";
+            }
+            activeRuns.decrementAndGet();
+            sample.stop(Timer.builder("matching.run")
+                    .description("Time from a JD upload event to the last candidate's referral")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+            logger.info("Matching run for JD ID {} {} in {} ms: {} considered, {} skipped, {} scored, {} failed",
+                    jdId, outcome, Duration.ofNanos(System.nanoTime() - startNanos).toMillis(),
+                    runConsidered.get(), runSkipped.get(), runScored.get(), runFailed.get());
+            onFinish.accept(outcome);
+        }
+    }
+}
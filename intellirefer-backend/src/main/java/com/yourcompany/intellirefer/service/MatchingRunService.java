@@ -0,0 +1,136 @@
+package com.yourcompany.intellirefer.service;
+
+import com.yourcompany.intellirefer.entity.MatchingRun;
+import com.yourcompany.intellirefer.model.enums.MatchingRunStatus;
+import com.yourcompany.intellirefer.repository.MatchingRunRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.info.BuildProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Keeps a {@link MatchingRun} row for every matching run.
+ * <p>
+ * The row is inserted as RUNNING when the run starts, rewritten with the run's counts and stage
+ * times every {@code matching.run.flush-ms} while it progresses, and written a last time when it
+ * completes or fails. Failing to write it is logged and never stops the matching itself.
+ */
+@Service
+public class MatchingRunService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MatchingRunService.class);
+
+    @Autowired private MatchingRunRepository matchingRunRepository;
+    @Autowired private MatchingMetrics matchingMetrics;
+    // Present once Maven has run the build-info goal; missing in a plain IDE build.
+    @Autowired(required = false) private BuildProperties buildProperties;
+
+    private final Map<Long, TrackedRun> activeRuns = new ConcurrentHashMap<>();
+
+    /**
+     * Starts a run and records it.
+     *
+     * @param jdId The JD being matched; it must exist.
+     * @param queueWaitMs How long the upload event waited for the listener to start.
+     * @param onFinish Called once with the run's outcome, after its final row was written.
+     */
+    public MatchingMetrics.Run start(Long jdId, long queueWaitMs, Consumer<String> onFinish) {
+        Instant now = Instant.now();
+        MatchingRun record = new MatchingRun();
+        record.setJobDescriptionId(jdId);
+        record.setAppVersion(buildProperties != null ? buildProperties.getVersion() : null);
+        record.setStartedAt(now);
+        record.setUpdatedAt(now);
+        record.setQueueWaitMs(Math.max(queueWaitMs, 0));
+
+        TrackedRun tracked = new TrackedRun(record);
+        tracked.run = matchingMetrics.startRun(jdId, outcome -> {
+            tracked.finish(outcome);
+            onFinish.accept(outcome);
+        });
+        try {
+            matchingRunRepository.save(record);
+            activeRuns.put(record.getId(), tracked);
+        } catch (RuntimeException e) {
+            logger.error("Could not record the matching run for JD ID {}. Matching continues unrecorded. Error: {}", jdId, e.getMessage());
+        }
+        return tracked.run;
+    }
+
+    /**
+     * Writes the progress of every unfinished run, so a JD's row shows how far matching has got.
+     */
+    @Scheduled(fixedDelayString = "${matching.run.flush-ms:5000}", initialDelayString = "${matching.run.flush-ms:5000}")
+    public void flush() {
+        activeRuns.values().forEach(TrackedRun::flush);
+    }
+
+    /**
+     * The row of one run and the live counters it is written from. Writes are serialized per run,
+     * so a periodic flush cannot overwrite the final row with an older RUNNING snapshot.
+     */
+    private final class TrackedRun {
+
+        private final MatchingRun record;
+        private MatchingMetrics.Run run;
+        private boolean finished;
+
+        private TrackedRun(MatchingRun record) {
+            this.record = record;
+        }
+
+        synchronized void flush() {
+            if (!finished) {
+                write();
+            }
+        }
+
+        synchronized void finish(String outcome) {
+            finished = true;
+            if (record.getId() == null) {
+                return;
+            }
+            activeRuns.remove(record.getId());
+            record.setStatus(switch (outcome) {
+                case "completed" -> MatchingRunStatus.COMPLETED;
+                case "budget_exceeded" -> MatchingRunStatus.BUDGET_EXCEEDED;
+                default -> MatchingRunStatus.FAILED;
+            });
+            record.setFinishedAt(Instant.now());
+            write();
+        }
+
+        private void write() {
+            record.setUpdatedAt(Instant.now());
+            record.setCandidatesConsidered(run.considered());
+            record.setCandidatesSkipped(run.skipped());
+            record.setCandidatesDispatched(run.dispatched());
+            record.setCandidatesScored(run.scored());
+            record.setCandidatesFailed(run.failed());
+            record.setLlmCalls(run.llmCalls());
+            record.setLlmFailed(run.llmFailed());
+            record.setLlmCached(run.llmShared());
+            record.setLlmRetried(run.llmRetried());
+            record.setLlmPromptTokens(run.promptTokens());
+            record.setLlmResponseTokens(run.responseTokens());
+            record.setJdParseMs(run.stageMillis(MatchingMetrics.Stage.JD_PARSE));
+            record.setCandidateFetchMs(run.stageMillis(MatchingMetrics.Stage.CANDIDATE_FETCH));
+            record.setResumeParseMs(run.stageMillis(MatchingMetrics.Stage.RESUME_PARSE));
+            record.setLlmMs(run.stageMillis(MatchingMetrics.Stage.LLM));
+            record.setReferralSaveMs(run.stageMillis(MatchingMetrics.Stage.REFERRAL_SAVE));
+            try {
+                matchingRunRepository.save(record);
+            } catch (RuntimeException e) {
+                logger.error("Could not update matching run {} for JD ID {}. Error: {}",
+                        record.getId(), record.getJobDescriptionId(), e.getMessage());
+            }
+        }
+    }
+}
@@ -1,23 +1,31 @@
 package com.yourcompany.intellirefer.service;
 
 import com.yourcompany.intellirefer.dto.LLMResponse;
+import com.yourcompany.intellirefer.dto.MatchCandidate;
 import com.yourcompany.intellirefer.entity.*;
 import com.yourcompany.intellirefer.event.JdUploadedEvent;
 import com.yourcompany.intellirefer.model.enums.AvailabilityStatus;
 import com.yourcompany.intellirefer.repository.*;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class MatchingService {
@@ -26,9 +34,19 @@ public class MatchingService {
     @Autowired private JobDescriptionRepository jdRepository;
     @Autowired private EmployeeProfileRepository employeeRepository;
     @Autowired private ReferralRepository referralRepository;
-    @Autowired private FileSystemStorageService fileSystemStorageService;
+    @Autowired private StorageService storageService;
     @Autowired private DocumentParsingService parsingService;
     @Autowired private LLMService llmService;
+    @Autowired private LlmBudgetService llmBudgetService;
+    @Autowired private SkillDictionary skillDictionary;
+    @Autowired private MatchingMetrics matchingMetrics;
+    @Autowired private MatchingRunService matchingRunService;
+    @Autowired private Tracer tracer;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    // Candidates read per query; memory use is bounded by this, not by the number of employees.
+    @Value("${matching.candidate-chunk-size:500}")
+    private int candidateChunkSize;
 
     /**
      * This method listens for a JdUploadedEvent.
@@ -44,82 +62,239 @@ public class MatchingService {
         Long jdId = event.getJobDescriptionId();
 
         logger.info("============== [MATCHING START from Event] for JD ID: {} ==============", jdId);
+        long queueWaitMs = System.currentTimeMillis() - event.getTimestamp();
+        // A child of the upload request's span, carried over the @Async hop. It stays open until the
+        // run's last LLM call has finished, so the trace covers the whole time a JD takes to populate.
+        Span matchingSpan = tracer.nextSpan().name("jd.matching")
+                .tag("jd.id", jdId)
+                .tag("queue.wait_ms", queueWaitMs)
+                .start();
 
-        // This findById call is now safe and will find the JD.
-        JobDescription jd = jdRepository.findById(jdId)
-                .orElseThrow(() -> new RuntimeException("JobDescription not found in event listener even after commit: " + jdId));
-
-        try (InputStream jdStream = fileSystemStorageService.loadAsResource(jd.getJdFilePath()).getInputStream()) {
-            String jdText = parsingService.parse(jdStream, getFileExtension(jd.getJdFilePath()));
-
-            // Step 1: Extract required experience from the JD and save it.
-            llmService.extractExperienceFromJd(jdText).subscribe(
-                    jdResponse -> {
-                        Integer requiredExp = jdResponse.requiredExperience() != null ? jdResponse.requiredExperience() : 0;
-                        logger.info("LLM extracted required experience for JD ID {}: {} years.", jd.getId(), requiredExp);
-
-                        // Since we're in a new transaction, we need to save the updated JD.
-                        // To do this safely within a reactive chain, we can fetch it again.
-                        jdRepository.findById(jd.getId()).ifPresent(jobDescToUpdate -> {
-                            jobDescToUpdate.setRequiredExperience(requiredExp);
-                            jdRepository.save(jobDescToUpdate);
-                            // Step 2: Now proceed with matching employees using the updated JD.
-                            matchEmployeesAgainstJd(jobDescToUpdate, jdText);
-                        });
-                    },
-                    error -> {
-                        logger.error("Failed to extract experience from JD ID {}. Matching process will continue without this filter. Error: {}", jd.getId(), error.getMessage());
-                        matchEmployeesAgainstJd(jd, jdText);
-                    }
-            );
-        } catch (Exception e) {
-            logger.error("CRITICAL error during JD parsing for JD ID: {}. Process halted. Error: {}", jdId, e.getMessage());
+        try (Tracer.SpanInScope scope = tracer.withSpan(matchingSpan)) {
+            // This findById call is now safe and will find the JD.
+            JobDescription jd = findJdOnPrimary(jdId).orElse(null);
+            if (jd == null) {
+                matchingSpan.tag("outcome", "failed").end();
+                throw new RuntimeException("JobDescription not found in event listener even after commit: " + jdId);
+            }
+            MatchingMetrics.Run run = matchingRunService.start(jdId, queueWaitMs, outcome -> matchingSpan.tag("outcome", outcome).end());
+
+            long parseStart = System.nanoTime();
+            try (InputStream jdStream = storageService.loadAsResource(jd.getJdFilePath()).getInputStream()) {
+                String jdText = parsingService.parse(jdStream, getFileExtension(jd.getJdFilePath()));
+                run.stageTime(MatchingMetrics.Stage.JD_PARSE, System.nanoTime() - parseStart);
+
+                LlmBudgetService.JdBudget budget = llmBudgetService.open(jdId);
+                long jdTokens = llmBudgetService.estimateTokens(jdText);
+                if (!budget.tryReserve(jdTokens)) {
+                    run.budgetExceeded();
+                    run.dispatchFinished();
+                    return;
+                }
+
+                // Step 1: Extract required experience from the JD and save it.
+                // The callbacks run on a Reactor thread, so they re-enter the matching span themselves.
+                long llmStart = System.nanoTime();
+                llmService.extractExperienceFromJd(jdText, callListener(run, budget, null))
+                        // Before the callbacks, which go on to reserve tokens for the candidates.
+                        .doOnTerminate(() -> budget.release(jdTokens))
+                        .subscribe(
+                        jdResponse -> {
+                            run.llmCallFinished(System.nanoTime() - llmStart, true);
+                            try (Tracer.SpanInScope callbackScope = tracer.withSpan(matchingSpan)) {
+                                Integer requiredExp = jdResponse.requiredExperience() != null ? jdResponse.requiredExperience() : 0;
+                                logger.info("LLM extracted required experience for JD ID {}: {} years.", jd.getId(), requiredExp);
+
+                                // Since we're in a new transaction, we need to save the updated JD.
+                                // To do this safely within a reactive chain, we can fetch it again.
+                                findJdOnPrimary(jd.getId()).ifPresent(jobDescToUpdate -> {
+                                    jobDescToUpdate.setRequiredExperience(requiredExp);
+                                    jdRepository.save(jobDescToUpdate);
+                                    // Step 2: Now proceed with matching employees using the updated JD.
+                                    matchEmployeesAgainstJd(jobDescToUpdate, jdText, run, budget);
+                                });
+                            }
+                        },
+                        error -> {
+                            run.llmCallFinished(System.nanoTime() - llmStart, false);
+                            try (Tracer.SpanInScope callbackScope = tracer.withSpan(matchingSpan)) {
+                                logger.error("Failed to extract experience from JD ID {}. Matching process will continue without this filter. Error: {}", jd.getId(), error.getMessage());
+                                matchEmployeesAgainstJd(jd, jdText, run, budget);
+                            }
+                        }
+                );
+            } catch (Exception e) {
+                matchingSpan.error(e);
+                run.abort();
+                logger.error("CRITICAL error during JD parsing for JD ID: {}. Process halted. Error: {}", jdId, e.getMessage());
+            }
         }
     }
 
     /**
      * Private helper method to contain the core matching logic.
-     * It pre-filters candidates by experience and then calls the LLM for detailed analysis.
+     * Reads the candidates in chunks, already filtered by availability, experience and resume in the
+     * query, and calls the LLM for detailed analysis of each one: first the employees available now,
+     * then those whose project ends within 90 days. Stops early once the token budget is spent.
      */
-    private void matchEmployeesAgainstJd(JobDescription jd, String jdText) {
+    private void matchEmployeesAgainstJd(JobDescription jd, String jdText, MatchingMetrics.Run run, LlmBudgetService.JdBudget budget) {
         LocalDate availabilityThreshold = LocalDate.now().plusDays(90);
-        List<EmployeeProfile> potentialCandidates = employeeRepository.findAvailableOrSoonToBeAvailable(availabilityThreshold);
+        int requiredExperience = jd.getRequiredExperience() != null ? jd.getRequiredExperience() : 0;
 
-        logger.info("Found {} potential candidates to match against.", potentialCandidates.size());
-        if (potentialCandidates.isEmpty()) {
+        int candidateCount;
+        try {
+            candidateCount = matchCandidates(jd, jdText, AvailabilityStatus.AVAILABLE, null, requiredExperience, run, budget)
+                    + matchCandidates(jd, jdText, AvailabilityStatus.ON_PROJECT, availabilityThreshold, requiredExperience, run, budget);
+        } finally {
+            run.dispatchFinished();
+        }
+
+        if (run.isBudgetExceeded()) {
+            logger.warn("Token budget spent for JD ID: {}. Stopped after {} candidates; referrals so far are kept.",
+                    jd.getId(), candidateCount);
+        } else if (candidateCount == 0) {
             logger.warn("No potential candidates found. Ending matching process for JD ID: {}", jd.getId());
-            return;
+        } else {
+            logger.info("Sent {} candidates with at least {} years of experience for matching against JD ID: {}",
+                    candidateCount, requiredExperience, jd.getId());
         }
+    }
 
-        Integer requiredExperience = jd.getRequiredExperience() != null ? jd.getRequiredExperience() : 0;
+    /**
+     * Matches every candidate with the given availability, one chunk at a time.
+     * @return The number of candidates processed.
+     */
+    private int matchCandidates(JobDescription jd, String jdText, AvailabilityStatus availability,
+                                LocalDate availableBy, int requiredExperience, MatchingMetrics.Run run,
+                                LlmBudgetService.JdBudget budget) {
+        long afterUserId = 0;
+        int candidateCount = 0;
+        List<MatchCandidate> chunk;
+        do {
+            if (run.isBudgetExceeded()) {
+                break;
+            }
+            Span fetchSpan = tracer.nextSpan().name("matching.candidates.fetch").tag("availability", availability.name()).start();
+            long fetchStart = System.nanoTime();
+            try (Tracer.SpanInScope scope = tracer.withSpan(fetchSpan)) {
+                chunk = employeeRepository.findMatchCandidates(availability, availableBy, requiredExperience, afterUserId,
+                        PageRequest.of(0, candidateChunkSize));
+                fetchSpan.tag("rows", chunk.size());
+            } finally {
+                fetchSpan.end();
+                run.stageTime(MatchingMetrics.Stage.CANDIDATE_FETCH, System.nanoTime() - fetchStart);
+            }
+            for (MatchCandidate candidate : chunk) {
+                if (run.isBudgetExceeded()) {
+                    return candidateCount;
+                }
+                matchCandidate(jd, jdText, candidate, run, budget);
+                candidateCount++;
+            }
+            if (!chunk.isEmpty()) {
+                afterUserId = chunk.get(chunk.size() - 1).getUserId();
+            }
+        } while (chunk.size() == candidateChunkSize);
+        return candidateCount;
+    }
 
-        for (EmployeeProfile employee : potentialCandidates) {
-            logger.info("Processing employee ID: {} - {}", employee.getUserId(), employee.getFullName());
+    /**
+     * Parses one candidate's resume and sends it to the LLM. The candidate's span covers the parse,
+     * the LLM call and the referral save, and ends when the LLM call does.
+     */
+    private void matchCandidate(JobDescription jd, String jdText, MatchCandidate candidate, MatchingMetrics.Run run,
+                                LlmBudgetService.JdBudget budget) {
+        logger.info("Processing employee ID: {} - {}", candidate.getUserId(), candidate.getFullName());
+        run.candidateConsidered();
+        Span candidateSpan = tracer.nextSpan().name("matching.candidate").tag("employee.id", candidate.getUserId()).start();
+        boolean dispatched = false;
+        long parseStart = System.nanoTime();
+
+        try (Tracer.SpanInScope scope = tracer.withSpan(candidateSpan);
+             InputStream resumeStream = storageService.loadAsResource(candidate.getResumeFilePath()).getInputStream()) {
+            String resumeText = parsingService.parse(resumeStream, getFileExtension(candidate.getResumeFilePath()));
+            run.stageTime(MatchingMetrics.Stage.RESUME_PARSE, System.nanoTime() - parseStart);
 
-            Integer employeeExperience = employee.getYearsOfExperience() != null ? employee.getYearsOfExperience() : 0;
-            if (employeeExperience < requiredExperience) {
-                logger.warn("Skipping employee ID: {} due to insufficient experience (Has: {}, Requires: {}).", employee.getUserId(), employeeExperience, requiredExperience);
-                continue;
+            long tokens = llmBudgetService.estimateTokens(jdText, resumeText);
+            if (!budget.tryReserve(tokens)) {
+                run.budgetExceeded();
+                run.candidateSkipped(MatchingMetrics.SKIP_BUDGET_EXCEEDED);
+                candidateSpan.tag("skipped", MatchingMetrics.SKIP_BUDGET_EXCEEDED).end();
+                return;
             }
 
-            if (employee.getResumeFilePath() == null) {
-                logger.warn("Skipping employee ID: {} because they have no resume file path.", employee.getUserId());
-                continue;
+            run.candidateDispatched();
+            dispatched = true;
+            long llmStart = System.nanoTime();
+            llmService.getMatchScore(jdText, resumeText, callListener(run, budget, candidate.getUserId()))
+                    // Before the subscriber's callbacks, so the referral save is not counted as LLM time.
+                    .doOnSuccess(llmResponse -> run.llmCallFinished(System.nanoTime() - llmStart, true))
+                    .doOnError(error -> run.llmCallFinished(System.nanoTime() - llmStart, false))
+                    .doFinally(signal -> {
+                        budget.release(tokens);
+                        candidateSpan.end();
+                        run.candidateFinished();
+                    })
+                    .subscribe(
+                            llmResponse -> {
+                                logger.info("LLM successful for Employee ID: {}. Score: {}. Saving referral...", candidate.getUserId(), llmResponse.score());
+                                try (Tracer.SpanInScope callbackScope = tracer.withSpan(candidateSpan)) {
+                                    saveReferralTraced(jd, candidate.getUserId(), llmResponse, run);
+                                }
+                            },
+                            error -> {
+                                run.candidateFailed();
+                                candidateSpan.error(error);
+                                logger.error("LLM API call FAILED for Employee ID: {}. Reason: {}", candidate.getUserId(), error.getMessage());
+                            }
+                    );
+        } catch (Exception e) {
+            if (!dispatched) {
+                run.stageTime(MatchingMetrics.Stage.RESUME_PARSE, System.nanoTime() - parseStart);
+                run.candidateSkipped(MatchingMetrics.SKIP_RESUME_UNREADABLE);
+                candidateSpan.error(e).end();
             }
+            logger.error("Failed to process resume for Employee ID: {}. Skipping. Error: {}", candidate.getUserId(), e.getMessage());
+        }
+    }
 
-            try (InputStream resumeStream = fileSystemStorageService.loadAsResource(employee.getResumeFilePath()).getInputStream()) {
-                String resumeText = parsingService.parse(resumeStream, getFileExtension(employee.getResumeFilePath()));
+    /**
+     * Reports an LLM call's extra work to the run, and the tokens it used to the JD's budget,
+     * attributed to the candidate it was for (null for the JD's own call).
+     */
+    private static LlmCallListener callListener(MatchingMetrics.Run run, LlmBudgetService.JdBudget budget, Long employeeId) {
+        return new LlmCallListener() {
+            @Override
+            public void llmCallRetried() {
+                run.llmCallRetried();
+            }
 
-                llmService.getMatchScore(jdText, resumeText).subscribe(
-                        llmResponse -> {
-                            logger.info("LLM successful for Employee ID: {}. Score: {}. Saving referral...", employee.getUserId(), llmResponse.score());
-                            saveReferral(jd, employee, llmResponse);
-                        },
-                        error -> logger.error("LLM API call FAILED for Employee ID: {}. Reason: {}", employee.getUserId(), error.getMessage())
-                );
-            } catch (Exception e) {
-                logger.error("Failed to process resume for Employee ID: {}. Skipping. Error: {}", employee.getUserId(), e.getMessage());
+            @Override
+            public void llmCallShared() {
+                run.llmCallShared();
             }
+
+            @Override
+            public void llmTokensUsed(String operation, int promptTokens, int responseTokens) {
+                run.llmTokensUsed(operation, promptTokens, responseTokens);
+                budget.record(employeeId, operation, promptTokens, responseTokens);
+            }
+        };
+    }
+
+    private void saveReferralTraced(JobDescription jd, Long employeeUserId, LLMResponse llmResponse, MatchingMetrics.Run run) {
+        Span saveSpan = tracer.nextSpan().name("referral.save").start();
+        long saveStart = System.nanoTime();
+        try (Tracer.SpanInScope scope = tracer.withSpan(saveSpan)) {
+            matchingMetrics.timeReferralSave(() -> saveReferral(jd, employeeUserId, llmResponse));
+            run.candidateScored();
+        } catch (RuntimeException e) {
+            saveSpan.error(e);
+            run.candidateFailed();
+            logger.error("Failed to save referral for Employee ID: {}. Error: {}", employeeUserId, e.getMessage());
+        } finally {
+            saveSpan.end();
+            run.stageTime(MatchingMetrics.Stage.REFERRAL_SAVE, System.nanoTime() - saveStart);
         }
     }
 
@@ -128,19 +303,27 @@ public class MatchingService {
      * it's independent of the main loop.
      */
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void saveReferral(JobDescription jd, EmployeeProfile employee, LLMResponse llmResponse) {
+    public void saveReferral(JobDescription jd, Long employeeUserId, LLMResponse llmResponse) {
         Referral referral = new Referral();
         referral.setJobDescription(jd);
-        referral.setEmployee(employee);
+        referral.setEmployee(employeeRepository.getReferenceById(employeeUserId));
         referral.setMatchScore(llmResponse.score());
         referral.setJustification(llmResponse.justification());
 
         if (llmResponse.matchingSkills() != null && !llmResponse.matchingSkills().isEmpty()) {
-            referral.setMatchingSkills(String.join(",", llmResponse.matchingSkills()));
+            skillDictionary.resolveInOrder(llmResponse.matchingSkills()).forEach(referral::addMatchingSkill);
         }
 
         referralRepository.save(referral);
-        logger.info("SUCCESS: Referral saved for Employee ID {} and JD ID {}.", employee.getUserId(), jd.getId());
+        logger.info("SUCCESS: Referral saved for Employee ID {} and JD ID {}.", employeeUserId, jd.getId());
+    }
+
+    /**
+     * Loads a JD inside a read-write transaction, which always runs on the primary database.
+     * A read replica may not have caught up with the commit that published the event yet.
+     */
+    private Optional<JobDescription> findJdOnPrimary(Long jdId) {
+        return new TransactionTemplate(transactionManager).execute(status -> jdRepository.findById(jdId));
     }
 
     /**
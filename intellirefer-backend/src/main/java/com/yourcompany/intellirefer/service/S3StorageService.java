@@ -0,0 +1,347 @@
+package com.yourcompany.intellirefer.service;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.transfer.TransferManager;
+import com.amazonaws.services.s3.transfer.Upload;
+import com.yourcompany.intellirefer.exception.FileStorageException;
+import com.yourcompany.intellirefer.exception.ResourceNotFoundException;
+import com.yourcompany.intellirefer.service.UploadStager.StagedUpload;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Stores resumes and JDs in an S3-compatible bucket, so that API nodes don't need a shared disk.
+ * <p>
+ * Uploads are staged locally (to hash them and check their signature), then handed to the
+ * {@link TransferManager}, which sends files above the multipart threshold as parts in parallel.
+ * Reads stream straight from S3, fetching only the requested byte range.
+ * <p>
+ * Object keys are the same relative paths the filesystem backend uses, with '/' separators,
+ * and content-addressed mode shares the same reference counting ({@link BlobReferenceTracker}).
+ */
+@Service
+@ConditionalOnProperty(name = "storage.backend", havingValue = "s3")
+public class S3StorageService implements StorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(S3StorageService.class);
+
+    // User metadata recording the SHA-256 of every object we write, so that hashing never needs a download.
+    static final String CONTENT_HASH_METADATA = "sha256";
+
+    @Value("${cloud.aws.s3.bucket.name}")
+    private String bucketName;
+
+    @Value("${storage.content-addressed.enabled:false}")
+    private boolean contentAddressed;
+
+    @Value("${storage.layout:FLAT}")
+    private StorageLayout layout;
+
+    @Value("${storage.s3.staging-location:${java.io.tmpdir}/intellirefer-staging}")
+    private String stagingLocation;
+
+    @Value("${storage.upload.transfer-in-place.enabled:true}")
+    private boolean transferInPlaceEnabled;
+
+    @Value("${spring.servlet.multipart.location:}")
+    private String multipartLocation;
+
+    @Value("${storage.sweep.grace-period-minutes:60}")
+    private long sweepGracePeriodMinutes;
+
+    @Autowired
+    private AmazonS3 s3Client;
+
+    @Autowired
+    private TransferManager transferManager;
+
+    @Autowired
+    private BlobReferenceTracker blobReferenceTracker;
+
+    private Path multipartDirectory;
+    private UploadStager uploadStager;
+
+    @PostConstruct
+    public void init() {
+        try {
+            Path staging = Paths.get(stagingLocation).toAbsolutePath();
+            multipartDirectory = StringUtils.hasText(multipartLocation)
+                    ? Paths.get(multipartLocation)
+                    : staging.resolve("multipart");
+            uploadStager = new UploadStager(staging, multipartDirectory, transferInPlaceEnabled);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not initialize staging location", e);
+        }
+    }
+
+    @Override
+    public String store(MultipartFile file, String subfolder) {
+        String originalFilename = StringUtils.cleanPath(file.getOriginalFilename());
+        if (file.isEmpty() || originalFilename.contains("..")) {
+            throw new RuntimeException("Failed to store empty file or file with invalid path sequence " + originalFilename);
+        }
+        String extension = StringUtils.getFilenameExtension(originalFilename);
+
+        StagedUpload staged = null;
+        try {
+            staged = uploadStager.stage(file, extension);
+
+            if (contentAddressed) {
+                String fileName = StringUtils.hasText(extension) ? staged.contentHash() + "." + extension : staged.contentHash();
+                String key = toKey(layout.relativePath(subfolder, fileName));
+                StagedUpload upload = staged;
+                blobReferenceTracker.acquire(key, staged.contentHash(), staged.size(), () -> {
+                    if (!s3Client.doesObjectExist(bucketName, key)) {
+                        upload(key, upload);
+                    } else {
+                        logger.info("Duplicate upload detected, reusing stored blob {}", key);
+                    }
+                });
+                return key;
+            }
+
+            String key = toKey(layout.relativePath(subfolder, UUID.randomUUID() + "." + extension));
+            upload(key, staged);
+            return key;
+
+        } catch (IOException | AmazonClientException e) {
+            throw new FileStorageException("Failed to store file.", e);
+        } finally {
+            if (staged != null) {
+                UploadStager.deleteQuietly(staged.file());
+            }
+        }
+    }
+
+    private void upload(String key, StagedUpload staged) throws IOException {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentLength(staged.size());
+        metadata.setContentType(MediaTypeFactory.getMediaType(key).map(Object::toString).orElse("application/octet-stream"));
+        metadata.addUserMetadata(CONTENT_HASH_METADATA, staged.contentHash());
+
+        Upload upload = transferManager.upload(new PutObjectRequest(bucketName, key, staged.file().toFile()).withMetadata(metadata));
+        try {
+            upload.waitForCompletion();
+        } catch (InterruptedException e) {
+            upload.abort();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while uploading " + key, e);
+        }
+    }
+
+    @Override
+    public Resource loadAsResource(String relativePath) {
+        String key = toKey(relativePath);
+        if (!s3Client.doesObjectExist(bucketName, key)) {
+            throw new RuntimeException("Could not read file: " + relativePath);
+        }
+        return new S3ObjectResource(key);
+    }
+
+    @Override
+    public InputStream openRange(String relativePath, long start, long count) {
+        try {
+            return s3Client.getObject(new GetObjectRequest(bucketName, toKey(relativePath))
+                    .withRange(start, start + count - 1)).getObjectContent();
+        } catch (AmazonClientException e) {
+            throw translate(relativePath, e);
+        }
+    }
+
+    @Override
+    public StoredFileMetadata getMetadata(String relativePath) {
+        ObjectMetadata metadata = headObject(relativePath);
+        return new StoredFileMetadata(metadata.getContentLength(), metadata.getLastModified().toInstant());
+    }
+
+    @Override
+    public Path multipartLocation() {
+        return multipartDirectory;
+    }
+
+    @Override
+    public String getContentHash(String relativePath) {
+        String key = toKey(relativePath);
+        if (isContentAddressed(key)) {
+            return key.substring(key.lastIndexOf('/') + 1, key.lastIndexOf('/') + 65);
+        }
+        String recorded = headObject(key).getUserMetaDataOf(CONTENT_HASH_METADATA);
+        if (recorded != null) {
+            return recorded;
+        }
+
+        // Written by something other than this service: hash it once by streaming it through.
+        MessageDigest digest = UploadStager.newSha256Digest();
+        try (InputStream inputStream = new DigestInputStream(s3Client.getObject(bucketName, key).getObjectContent(), digest)) {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException | AmazonClientException e) {
+            throw new FileStorageException("Could not hash file: " + relativePath, e);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Deletes an object. Content-addressed blobs only lose a reference; the object is removed
+     * by the background sweep. Inside a transaction, the delete waits until it commits.
+     */
+    @Override
+    public void delete(String relativePath) {
+        if (relativePath == null) {
+            return;
+        }
+        String key = toKey(relativePath);
+        BlobReferenceTracker.runAfterCompletion(true, () -> {
+            if (contentAddressed && blobReferenceTracker.isTracked(key)) {
+                blobReferenceTracker.release(key);
+            } else {
+                deleteObject(key);
+            }
+        });
+    }
+
+    private void deleteObject(String key) {
+        try {
+            s3Client.deleteObject(bucketName, key);
+        } catch (AmazonClientException e) {
+            // Log this error but don't throw, as failing to delete shouldn't break the app
+            logger.error("Failed to delete object: {}", key, e);
+        }
+    }
+
+    /**
+     * Reclaims released blobs past the grace period, found through their bookkeeping rows rather than
+     * by listing the bucket, aborts multipart uploads abandoned by crashed nodes, and clears local
+     * staging leftovers.
+     */
+    @Scheduled(fixedDelayString = "${storage.sweep.interval-ms:3600000}", initialDelayString = "${storage.sweep.initial-delay-ms:300000}")
+    public void sweepUnreferencedBlobs() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(sweepGracePeriodMinutes));
+        try {
+            transferManager.abortMultipartUploads(bucketName, Date.from(cutoff));
+        } catch (AmazonClientException e) {
+            logger.warn("Failed to abort stale multipart uploads: {}", e.getMessage());
+        }
+        sweepStaging(cutoff);
+        if (!contentAddressed) {
+            return;
+        }
+
+        int reclaimed = blobReferenceTracker.reclaimReleased(cutoff, this::deleteObject);
+        if (reclaimed > 0) {
+            logger.info("Blob sweep reclaimed {} unreferenced object(s).", reclaimed);
+        }
+    }
+
+    private void sweepStaging(Instant cutoff) {
+        try (Stream<Path> files = Files.list(uploadStager.stagingLocation())) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                    UploadStager.deleteQuietly(file);
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Failed to clean up staging location during blob sweep", e);
+        }
+    }
+
+    private ObjectMetadata headObject(String relativePath) {
+        try {
+            return s3Client.getObjectMetadata(bucketName, toKey(relativePath));
+        } catch (AmazonClientException e) {
+            throw translate(relativePath, e);
+        }
+    }
+
+    private RuntimeException translate(String relativePath, AmazonClientException e) {
+        if (e instanceof AmazonS3Exception s3Exception && s3Exception.getStatusCode() == 404) {
+            return new ResourceNotFoundException("File", "path", relativePath);
+        }
+        return new FileStorageException("Could not read file: " + relativePath, e);
+    }
+
+    /**
+     * Turns a stored path into an object key. Paths written on Windows use '\' separators,
+     * and keys that try to climb out of their folder are refused.
+     */
+    private static String toKey(String relativePath) {
+        String key = relativePath.replace('\\', '/');
+        for (String segment : key.split("/")) {
+            if (segment.equals("..") || segment.equals(".")) {
+                throw new FileStorageException("Cannot access file outside storage: " + relativePath);
+            }
+        }
+        return key.startsWith("/") ? key.substring(1) : key;
+    }
+
+    /**
+     * A stored object as a {@link Resource}; every {@link #getInputStream()} opens a fresh streamed GET.
+     */
+    private class S3ObjectResource extends AbstractResource {
+
+        private final String key;
+
+        S3ObjectResource(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            try {
+                return s3Client.getObject(bucketName, key).getObjectContent();
+            } catch (AmazonClientException e) {
+                throw new IOException("Could not read object: " + key, e);
+            }
+        }
+
+        @Override
+        public boolean exists() {
+            return s3Client.doesObjectExist(bucketName, key);
+        }
+
+        @Override
+        public long contentLength() {
+            return headObject(key).getContentLength();
+        }
+
+        @Override
+        public String getFilename() {
+            return key.substring(key.lastIndexOf('/') + 1);
+        }
+
+        @Override
+        public String getDescription() {
+            return "S3 object [s3://" + bucketName + "/" + key + "]";
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.yourcompany.intellirefer.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The listener of an LLM call shared by identical callers: passes what the call reports on to every
+ * caller's own listener, so each is charged for the answer it got. A caller that joins late is told
+ * what was reported before it joined.
+ * <p>
+ * Listeners are called outside the lock, as they may write usage rows.
+ */
+final class SharedCallListener implements LlmCallListener {
+
+    private final List<LlmCallListener> listeners = new ArrayList<>();
+    private final List<Consumer<LlmCallListener>> reported = new ArrayList<>();
+
+    SharedCallListener(LlmCallListener first) {
+        listeners.add(first);
+    }
+
+    void join(LlmCallListener listener) {
+        List<Consumer<LlmCallListener>> earlier;
+        synchronized (this) {
+            listeners.add(listener);
+            earlier = List.copyOf(reported);
+        }
+        earlier.forEach(event -> event.accept(listener));
+    }
+
+    @Override
+    public void llmCallRetried() {
+        report(LlmCallListener::llmCallRetried);
+    }
+
+    @Override
+    public void llmTokensUsed(String operation, int promptTokens, int responseTokens) {
+        report(listener -> listener.llmTokensUsed(operation, promptTokens, responseTokens));
+    }
+
+    private void report(Consumer<LlmCallListener> event) {
+        List<LlmCallListener> current;
+        synchronized (this) {
+            reported.add(event);
+            current = List.copyOf(listeners);
+        }
+        current.forEach(event);
+    }
+}
@@ -0,0 +1,176 @@
+package com.yourcompany.intellirefer.service;
+
+import com.yourcompany.intellirefer.entity.Skill;
+import com.yourcompany.intellirefer.repository.SkillRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide map from normalized skill name ({@link Skill#keyOf}) to skill id.
+ * <p>
+ * Resolving a list of skill names costs a constant number of queries: known names come from
+ * the map, unknown ones are created with one batched {@code INSERT IGNORE} and read back with
+ * one lookup, and the entities are then loaded by id, from the second-level cache where
+ * possible. The insert and read-back run in their own transaction, so a skill another node
+ * created concurrently is ignored by our insert and still visible to our read.
+ */
+@Component
+public class SkillDictionary {
+
+    private static final Logger logger = LoggerFactory.getLogger(SkillDictionary.class);
+
+    private static final int MAX_NAME_LENGTH = 100;
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    @Autowired
+    private SkillRepository skillRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<String, Integer> idsByKey = new ConcurrentHashMap<>();
+    private TransactionTemplate upsertTransaction;
+
+    @PostConstruct
+    public void init() {
+        upsertTransaction = new TransactionTemplate(transactionManager);
+        upsertTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        skillRepository.findAll().forEach(this::remember);
+        logger.info("Loaded {} skills into the skill dictionary", idsByKey.size());
+    }
+
+    /**
+     * Finds or creates a skill for each name, ignoring case and surrounding whitespace.
+     * Blank names and names longer than the column allows are skipped.
+     *
+     * @param names Skill names as entered by a user or returned by the LLM.
+     * @return The matching skills, loaded in the caller's persistence context.
+     */
+    @Transactional
+    public Set<Skill> resolve(Collection<String> names) {
+        Map<String, String> namesByKey = normalize(names);
+        return namesByKey.isEmpty() ? new HashSet<>() : resolve(namesByKey, true);
+    }
+
+    /**
+     * Like {@link #resolve(Collection)}, but keeps the order in which the names were first given.
+     */
+    @Transactional
+    public List<Skill> resolveInOrder(List<String> names) {
+        Map<String, String> namesByKey = normalize(names);
+        if (namesByKey.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<String, Skill> skillsByKey = new HashMap<>();
+        resolve(namesByKey, true).forEach(skill -> skillsByKey.put(skill.getNameKey(), skill));
+        return namesByKey.keySet().stream()
+                .map(skillsByKey::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private Set<Skill> resolve(Map<String, String> namesByKey, boolean retryStale) {
+        Map<String, String> missing = new LinkedHashMap<>(namesByKey);
+        missing.keySet().removeAll(idsByKey.keySet());
+        if (!missing.isEmpty()) {
+            createMissing(missing);
+        }
+
+        Set<Integer> ids = new HashSet<>();
+        for (String key : namesByKey.keySet()) {
+            Integer id = idsByKey.get(key);
+            if (id == null) {
+                // Insert was ignored for a different key, e.g. a name the database collation treats as equal.
+                logger.warn("Could not resolve skill '{}'", namesByKey.get(key));
+            } else {
+                ids.add(id);
+            }
+        }
+
+        List<Skill> skills = entityManager.unwrap(Session.class).byMultipleIds(Skill.class)
+                .with(CacheMode.NORMAL)
+                .multiLoad(new ArrayList<>(ids)).stream()
+                .filter(Objects::nonNull)
+                .toList();
+        if (retryStale && skills.size() < ids.size()) {
+            // A cached id no longer exists, e.g. after duplicate skills were merged. Forget it and resolve again.
+            skills.forEach(skill -> ids.remove(skill.getId()));
+            idsByKey.values().removeAll(ids);
+            return resolve(namesByKey, false);
+        }
+        return new HashSet<>(skills);
+    }
+
+    private Map<String, String> normalize(Collection<String> names) {
+        Map<String, String> namesByKey = new LinkedHashMap<>();
+        for (String name : names) {
+            if (!StringUtils.hasText(name)) {
+                continue;
+            }
+            String trimmed = name.trim();
+            if (trimmed.length() > MAX_NAME_LENGTH) {
+                logger.warn("Skipping skill name longer than {} characters: '{}...'", MAX_NAME_LENGTH, trimmed.substring(0, 40));
+                continue;
+            }
+            namesByKey.putIfAbsent(Skill.keyOf(trimmed), StringUtils.capitalize(trimmed));
+        }
+        return namesByKey;
+    }
+
+    private void createMissing(Map<String, String> missing) {
+        List<Skill> created = upsertTransaction.execute(status -> {
+            List<Map.Entry<String, String>> rows = new ArrayList<>(missing.entrySet());
+            for (int from = 0; from < rows.size(); from += INSERT_BATCH_SIZE) {
+                insertIgnore(rows.subList(from, Math.min(from + INSERT_BATCH_SIZE, rows.size())));
+            }
+            return skillRepository.findByNameKeyIn(missing.keySet());
+        });
+        created.forEach(this::remember);
+        logger.info("Resolved {} skills not yet in the dictionary", missing.size());
+    }
+
+    private void insertIgnore(List<Map.Entry<String, String>> rows) {
+        StringBuilder sql = new StringBuilder("INSERT IGNORE INTO skills (name, name_key) VALUES ");
+        List<Object> args = new ArrayList<>(rows.size() * 2);
+        for (int i = 0; i < rows.size(); i++) {
+            sql.append(i == 0 ? "(?, ?)" : ", (?, ?)");
+            args.add(rows.get(i).getValue());
+            args.add(rows.get(i).getKey());
+        }
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    private void remember(Skill skill) {
+        idsByKey.put(skill.getNameKey(), skill.getId());
+    }
+}
@@ -0,0 +1,67 @@
+package com.yourcompany.intellirefer.service;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * How stored files are arranged below their subfolder ("resumes", "jds").
+ * Selected with the {@code storage.layout} property.
+ */
+public enum StorageLayout {
+
+    /**
+     * Every file directly in its subfolder, e.g. {@code resumes/3f9c...pdf}.
+     */
+    FLAT {
+        @Override
+        public String relativePath(String subfolder, String fileName) {
+            return Paths.get(subfolder, fileName).toString();
+        }
+    },
+
+    /**
+     * Two levels of hex fan-out, e.g. {@code resumes/3f/9c/3f9c...pdf}, which keeps
+     * directories at a few thousand entries even with millions of files.
+     */
+    SHARDED {
+        @Override
+        public String relativePath(String subfolder, String fileName) {
+            String shard = shardKey(fileName);
+            return Paths.get(subfolder, shard.substring(0, 2), shard.substring(2, 4), fileName).toString();
+        }
+    };
+
+    public abstract String relativePath(String subfolder, String fileName);
+
+    /**
+     * Where a file stored under {@code relativePath} belongs in this layout.
+     */
+    public String relocate(String relativePath) {
+        Path path = Paths.get(relativePath);
+        return relativePath(path.getName(0).toString(), path.getFileName().toString());
+    }
+
+    /**
+     * Content hashes and UUIDs already start with uniformly distributed hex digits;
+     * any other name is hashed to get them.
+     */
+    static String shardKey(String fileName) {
+        if (fileName.length() >= 4 && fileName.substring(0, 4).chars().allMatch(StorageLayout::isLowerHex)) {
+            return fileName.substring(0, 4);
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(fileName.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 2);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static boolean isLowerHex(int c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f');
+    }
+}
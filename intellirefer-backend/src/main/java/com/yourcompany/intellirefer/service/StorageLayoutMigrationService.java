@@ -0,0 +1,155 @@
+package com.yourcompany.intellirefer.service;
+
+import com.yourcompany.intellirefer.entity.EmployeeProfile;
+import com.yourcompany.intellirefer.entity.JobDescription;
+import com.yourcompany.intellirefer.repository.EmployeeProfileRepository;
+import com.yourcompany.intellirefer.repository.JobDescriptionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Moves existing resumes and JDs into the layout configured by {@code storage.layout}
+ * while the application keeps serving traffic.
+ * <p>
+ * Entities are processed in keyset-paged batches. For each batch the files are first made
+ * reachable under their new path, then the paths in the database are rewritten in one
+ * transaction, and only after that commits are the old paths removed. Batches are separated
+ * by a pause so the migration doesn't compete with regular traffic for disk and database.
+ * <p>
+ * Enable with {@code storage.migration.enabled=true}; it runs once in the background after
+ * startup and is safe to re-run: already migrated files are skipped, and old files that an
+ * interrupted run had relocated but not yet removed are removed. Object-storage
+ * backends have no directory fan-out limits, so this only applies to local disk.
+ */
+@Service
+@ConditionalOnProperty(name = "storage.backend", havingValue = "filesystem", matchIfMissing = true)
+public class StorageLayoutMigrationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StorageLayoutMigrationService.class);
+
+    @Autowired private FileSystemStorageService fileSystemStorageService;
+    @Autowired private EmployeeProfileRepository employeeProfileRepository;
+    @Autowired private JobDescriptionRepository jdRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Value("${storage.migration.enabled:false}")
+    private boolean migrationEnabled;
+
+    @Value("${storage.migration.batch-size:200}")
+    private int batchSize;
+
+    @Value("${storage.migration.pause-ms:500}")
+    private long pauseMillis;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (migrationEnabled) {
+            migrate();
+        }
+    }
+
+    /**
+     * Runs the migration to completion.
+     *
+     * @return The number of files relocated.
+     */
+    public int migrate() {
+        logger.info("Starting storage layout migration (batch size {}, pause {} ms).", batchSize, pauseMillis);
+
+        int resumes = migrateInBatches(
+                afterId -> employeeProfileRepository.findByUserIdGreaterThanAndResumeFilePathIsNotNullOrderByUserIdAsc(afterId, PageRequest.of(0, batchSize)),
+                EmployeeProfile::getUserId,
+                EmployeeProfile::getResumeFilePath,
+                employeeProfileRepository::updateResumeFilePath);
+
+        int jds = migrateInBatches(
+                afterId -> jdRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, batchSize)),
+                JobDescription::getId,
+                JobDescription::getJdFilePath,
+                jdRepository::updateJdFilePath);
+
+        int leftovers = removeRelocatedSources("resumes", employeeProfileRepository::existsByResumeFilePath)
+                + removeRelocatedSources("jds", jdRepository::existsByJdFilePath);
+
+        logger.info("Storage layout migration finished. Relocated {} resume(s) and {} JD file(s), removed {} left over from an earlier run.",
+                resumes, jds, leftovers);
+        return resumes + jds;
+    }
+
+    /**
+     * Deletes old paths that an earlier run relocated and rewrote in the database, but stopped before
+     * removing. A path an entity still points at is kept.
+     */
+    private int removeRelocatedSources(String subfolder, Predicate<String> referenced) {
+        int removed = 0;
+        for (String sourcePath : fileSystemStorageService.relocatedSources(subfolder)) {
+            if (!referenced.test(sourcePath)) {
+                fileSystemStorageService.deleteRelocatedSource(sourcePath);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private <T> int migrateInBatches(Function<Long, List<T>> nextBatch,
+                                     Function<T, Long> idOf,
+                                     Function<T, String> pathOf,
+                                     BiFunction<String, String, Integer> rewritePath) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int relocated = 0;
+        long afterId = 0;
+
+        while (true) {
+            List<T> batch = nextBatch.apply(afterId);
+            if (batch.isEmpty()) {
+                return relocated;
+            }
+            afterId = idOf.apply(batch.get(batch.size() - 1));
+
+            // Several entities can share one content-addressed file, so relocate each path only once.
+            Map<String, String> moves = new LinkedHashMap<>();
+            for (T entity : batch) {
+                String currentPath = pathOf.apply(entity);
+                String targetPath = fileSystemStorageService.layoutPathFor(currentPath);
+                if (!targetPath.equals(currentPath) && !moves.containsKey(currentPath)
+                        && fileSystemStorageService.relocate(currentPath, targetPath)) {
+                    moves.put(currentPath, targetPath);
+                }
+            }
+            if (moves.isEmpty()) {
+                continue;
+            }
+
+            transaction.executeWithoutResult(status -> moves.forEach(rewritePath::apply));
+            moves.keySet().forEach(fileSystemStorageService::deleteRelocatedSource);
+            relocated += moves.size();
+            logger.info("Storage layout migration: relocated {} file(s) so far.", relocated);
+
+            try {
+                Thread.sleep(pauseMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Storage layout migration interrupted after {} file(s).", relocated);
+                return relocated;
+            }
+        }
+    }
+}
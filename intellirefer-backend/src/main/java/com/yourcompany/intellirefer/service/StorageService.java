@@ -0,0 +1,65 @@
+package com.yourcompany.intellirefer.service;
+
+import org.springframework.core.io.Resource;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Stores uploaded resumes and JDs. Implemented by {@link FileSystemStorageService} (local disk,
+ * the default) and {@link S3StorageService} (any S3-compatible object store), selected with
+ * the {@code storage.backend} property.
+ * <p>
+ * Files are identified by the relative path returned from {@link #store}, which is what the
+ * entities persist (e.g. {@code resumes/3f/9c/3f9c....pdf}).
+ */
+public interface StorageService {
+
+    /**
+     * Stores an upload below the given subfolder and returns its relative path.
+     */
+    String store(MultipartFile file, String subfolder);
+
+    Resource loadAsResource(String relativePath);
+
+    /**
+     * Streams {@code count} bytes of a stored file starting at {@code start}.
+     */
+    InputStream openRange(String relativePath, long start, long count);
+
+    StoredFileMetadata getMetadata(String relativePath);
+
+    /**
+     * Deletes a stored file, or drops a reference to it if it is content-addressed.
+     */
+    void delete(String relativePath);
+
+    /**
+     * Returns the hex-encoded SHA-256 of a stored file, so that downstream caches
+     * (parsed text, match scores) can key on content rather than on path.
+     */
+    String getContentHash(String relativePath);
+
+    /**
+     * Content-addressed files never change once written, so they can be cached indefinitely.
+     */
+    default boolean isContentAddressed(String relativePath) {
+        return BlobReferenceTracker.isContentAddressedName(relativePath);
+    }
+
+    /**
+     * Where the servlet container writes multipart temp files: {@code spring.servlet.multipart.location}
+     * if set, otherwise a folder inside this backend's staging area, so that uploads can be renamed
+     * into staging rather than copied (see {@link UploadStager}).
+     */
+    Path multipartLocation();
+
+    /**
+     * The file on local disk, if this backend keeps one, so it can be served with zero-copy I/O.
+     */
+    default Optional<Path> localFile(String relativePath) {
+        return Optional.empty();
+    }
+}
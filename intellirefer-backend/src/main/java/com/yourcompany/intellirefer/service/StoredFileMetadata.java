@@ -0,0 +1,9 @@
+package com.yourcompany.intellirefer.service;
+
+import java.time.Instant;
+
+/**
+ * Size and modification time of a stored file, as reported by the storage backend.
+ */
+public record StoredFileMetadata(long size, Instant lastModified) {
+}
@@ -0,0 +1,85 @@
+package com.yourcompany.intellirefer.service;
+
+import com.yourcompany.intellirefer.entity.RevokedToken;
+import com.yourcompany.intellirefer.repository.RevokedTokenRepository;
+import com.yourcompany.intellirefer.security.AuthenticatedUser;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deny-list of revoked JWTs, checked on every authenticated request without touching the database.
+ * <p>
+ * Each node keeps the unexpired revocations in memory. Its own revocations apply immediately;
+ * other nodes' are picked up by a periodic refresh, so a token revoked elsewhere stays usable
+ * for at most one refresh interval. Entries are dropped once the token would have expired anyway.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    // Re-read a little before the last refresh, so revocations committed late or stamped by a lagging clock are not missed.
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    private volatile Instant lastRefresh;
+
+    @PostConstruct
+    public void init() {
+        Instant now = Instant.now();
+        revokedTokenRepository.findByExpiresAtAfter(now).forEach(this::remember);
+        lastRefresh = now;
+        logger.info("Loaded {} revoked tokens", revoked.size());
+    }
+
+    public boolean isRevoked(String tokenId) {
+        Instant expiresAt = revoked.get(tokenId);
+        return expiresAt != null && expiresAt.isAfter(Instant.now());
+    }
+
+    /**
+     * Revokes the token the user authenticated with, until it expires.
+     */
+    @Transactional
+    public void revoke(AuthenticatedUser user) {
+        if (user.tokenId() == null || isRevoked(user.tokenId())) {
+            return;
+        }
+        RevokedToken token = new RevokedToken();
+        token.setTokenId(user.tokenId());
+        token.setExpiresAt(user.expiresAt());
+        revokedTokenRepository.save(token);
+        revoked.put(user.tokenId(), user.expiresAt());
+        logger.info("Revoked token for user ID: {}", user.userId());
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-ms:30000}", initialDelayString = "${jwt.revocation.refresh-ms:30000}")
+    @Transactional
+    public void refresh() {
+        Instant now = Instant.now();
+        List<RevokedToken> recent = revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(lastRefresh.minus(REFRESH_OVERLAP), now);
+        recent.forEach(this::remember);
+        lastRefresh = now;
+
+        revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        revokedTokenRepository.deleteExpired(now);
+    }
+
+    private void remember(RevokedToken token) {
+        revoked.put(token.getTokenId(), token.getExpiresAt());
+    }
+}
@@ -0,0 +1,113 @@
+package com.yourcompany.intellirefer.service;
+
+import com.yourcompany.intellirefer.exception.FileStorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Brings an upload into a local staging folder with as few disk writes as possible,
+ * hashing it and checking its magic bytes along the way.
+ * <p>
+ * When the servlet container's multipart temp folder sits on the same filesystem as the
+ * staging folder, the temp file is renamed into place ({@code transferTo}) and then only
+ * read once for the hash. Otherwise the upload is streamed channel-to-channel into the
+ * staging file, with the hash and signature computed in that same pass.
+ */
+class UploadStager {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadStager.class);
+    private static final int TRANSFER_CHUNK_SIZE = 1 << 20;
+
+    private final Path stagingLocation;
+    private final boolean transferInPlace;
+
+    record StagedUpload(Path file, String contentHash, long size) {
+    }
+
+    UploadStager(Path stagingLocation, Path multipartLocation, boolean transferInPlaceEnabled) throws IOException {
+        this.stagingLocation = stagingLocation;
+        Files.createDirectories(stagingLocation);
+        Files.createDirectories(multipartLocation);
+        this.transferInPlace = transferInPlaceEnabled && isSameFileStore(multipartLocation, stagingLocation);
+        logger.info("Uploads will be {} into staging at {}.", transferInPlace ? "moved" : "streamed", stagingLocation);
+    }
+
+    StagedUpload stage(MultipartFile file, String extension) throws IOException {
+        Path stagedFile = stagingLocation.resolve("upload-" + UUID.randomUUID() + ".part");
+        DigestingChannel source;
+
+        if (transferInPlace) {
+            file.transferTo(stagedFile.toFile());
+            try (FileChannel channel = FileChannel.open(stagedFile, StandardOpenOption.READ)) {
+                source = new DigestingChannel(channel, newSha256Digest());
+                ByteBuffer buffer = ByteBuffer.allocateDirect(TRANSFER_CHUNK_SIZE);
+                while (source.read(buffer) != -1) {
+                    buffer.clear();
+                }
+            }
+        } else {
+            try (ReadableByteChannel upload = Channels.newChannel(file.getInputStream());
+                 FileChannel target = FileChannel.open(stagedFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                source = new DigestingChannel(upload, newSha256Digest());
+                long position = 0;
+                long transferred;
+                while ((transferred = target.transferFrom(source, position, TRANSFER_CHUNK_SIZE)) > 0) {
+                    position += transferred;
+                }
+            }
+        }
+
+        try {
+            FileSignature.verify(extension, source.header());
+        } catch (FileStorageException e) {
+            deleteQuietly(stagedFile);
+            throw e;
+        }
+        return new StagedUpload(stagedFile, HexFormat.of().formatHex(source.digest()), Files.size(stagedFile));
+    }
+
+    Path stagingLocation() {
+        return stagingLocation;
+    }
+
+    static MessageDigest newSha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Failed to delete temporary file: {}", file);
+        }
+    }
+
+    private static boolean isSameFileStore(Path first, Path second) {
+        try {
+            return Files.getFileStore(first).equals(Files.getFileStore(second));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
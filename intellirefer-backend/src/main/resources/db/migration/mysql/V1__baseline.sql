@@ -0,0 +1,74 @@
+-- Baseline: the schema as Hibernate's ddl-auto=update created it before migrations took over,
+-- constraint names included. Existing databases are baselined at this version
+-- (spring.flyway.baseline-on-migrate) and skip it, so it must never change: every later
+-- change to the schema belongs in a new migration.
+
+CREATE TABLE users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    email VARCHAR(255) NOT NULL,
+    password_hash VARCHAR(255) NOT NULL,
+    role ENUM ('EMPLOYEE','MANAGER') NOT NULL,
+    created_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT UK6dotkott2kjsp8vw4d0m25fb7 UNIQUE (email)
+) ENGINE=InnoDB;
+
+CREATE TABLE employee_profiles (
+    user_id BIGINT NOT NULL,
+    full_name VARCHAR(255) NOT NULL,
+    years_of_experience INTEGER,
+    resume_file_path VARCHAR(255),
+    availability ENUM ('AVAILABLE','ON_PROJECT','RESERVED') NOT NULL,
+    job_level VARCHAR(50),
+    current_role VARCHAR(100),
+    expected_availability_date DATE,
+    updated_at DATETIME(6),
+    PRIMARY KEY (user_id),
+    CONSTRAINT UKg60c1gmifnmer4bp3x9sk621k UNIQUE (resume_file_path),
+    CONSTRAINT FKeotvdthm6gd1pavuhb075uocm FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE skills (
+    id INTEGER NOT NULL AUTO_INCREMENT,
+    name VARCHAR(100) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT UK85woe63nu9klkk9fa73vf0jd0 UNIQUE (name)
+) ENGINE=InnoDB;
+
+CREATE TABLE employee_skills (
+    employee_user_id BIGINT NOT NULL,
+    skill_id INTEGER NOT NULL,
+    PRIMARY KEY (skill_id, employee_user_id),
+    CONSTRAINT FK8anwsnenk9d8nirjuov0ywinb FOREIGN KEY (skill_id) REFERENCES skills (id),
+    CONSTRAINT FK2on26ennduilfepb2q4ntk8j FOREIGN KEY (employee_user_id) REFERENCES employee_profiles (user_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE job_descriptions (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    title VARCHAR(255) NOT NULL,
+    client_name VARCHAR(255),
+    jd_file_path VARCHAR(255) NOT NULL,
+    status ENUM ('CLOSED','OPEN') NOT NULL,
+    required_experience INTEGER,
+    uploaded_by_manager_id BIGINT NOT NULL,
+    created_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT UKfjo2m1mprikbqj9v3labvxk5x UNIQUE (jd_file_path),
+    CONSTRAINT FKawdwhl5kin9ccf8gaqgqc67fe FOREIGN KEY (uploaded_by_manager_id) REFERENCES users (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE referrals (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    job_description_id BIGINT NOT NULL,
+    employee_user_id BIGINT NOT NULL,
+    match_score INTEGER NOT NULL,
+    justification TEXT,
+    matching_skills VARCHAR(255),
+    status ENUM ('PENDING_REVIEW','REJECTED','RESERVED','SELECTED') NOT NULL,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT UK1j6smeppaqm2ss8llbg8jc6oi UNIQUE (job_description_id, employee_user_id),
+    CONSTRAINT FK1gp4kv043j3jdi6s3ejhw8a2c FOREIGN KEY (job_description_id) REFERENCES job_descriptions (id),
+    CONSTRAINT FKoq4s2s49wn6vq60ypxqf0qb9t FOREIGN KEY (employee_user_id) REFERENCES employee_profiles (user_id)
+) ENGINE=InnoDB;
@@ -0,0 +1,85 @@
+-- Content-addressed storage and the indexes for the repository queries that the baseline left to full scans.
+
+-- Path rewrites by the storage layout migration (updateResumeFilePath, updateJdFilePath). Created
+-- before the unique keys below are dropped, so the file path lookups never lose their index.
+CREATE INDEX idx_employee_profiles_resume_file_path ON employee_profiles (resume_file_path);
+CREATE INDEX idx_jds_jd_file_path ON job_descriptions (jd_file_path);
+
+-- With content-addressed storage identical uploads share one stored file, so file paths are no longer
+-- unique. Hibernate named the unique keys, and some databases had them dropped by hand already, so
+-- they are looked up rather than named here.
+SET @drop_unique_key = NULL;
+SELECT CONCAT('ALTER TABLE employee_profiles DROP INDEX `', index_name, '`') INTO @drop_unique_key
+FROM information_schema.statistics
+WHERE table_schema = DATABASE() AND table_name = 'employee_profiles' AND non_unique = 0
+GROUP BY index_name
+HAVING COUNT(*) = 1 AND MAX(column_name) = 'resume_file_path';
+SET @drop_unique_key = IFNULL(@drop_unique_key, 'DO 0');
+PREPARE drop_unique_key FROM @drop_unique_key;
+EXECUTE drop_unique_key;
+DEALLOCATE PREPARE drop_unique_key;
+
+SET @drop_unique_key = NULL;
+SELECT CONCAT('ALTER TABLE job_descriptions DROP INDEX `', index_name, '`') INTO @drop_unique_key
+FROM information_schema.statistics
+WHERE table_schema = DATABASE() AND table_name = 'job_descriptions' AND non_unique = 0
+GROUP BY index_name
+HAVING COUNT(*) = 1 AND MAX(column_name) = 'jd_file_path';
+SET @drop_unique_key = IFNULL(@drop_unique_key, 'DO 0');
+PREPARE drop_unique_key FROM @drop_unique_key;
+EXECUTE drop_unique_key;
+DEALLOCATE PREPARE drop_unique_key;
+
+-- Reference counts of content-addressed files (storage.content-addressed.enabled).
+CREATE TABLE stored_blobs (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    relative_path VARCHAR(255) NOT NULL,
+    content_hash VARCHAR(64) NOT NULL,
+    size_bytes BIGINT NOT NULL,
+    ref_count INTEGER NOT NULL,
+    created_at DATETIME(6),
+    released_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT UKhtnsyn2qd6mn2mt6asdhhe2qe UNIQUE (relative_path)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_stored_blobs_content_hash ON stored_blobs (content_hash);
+CREATE INDEX idx_stored_blobs_ref_count_released_at ON stored_blobs (ref_count, released_at);
+
+-- Keyset pagination of a manager's JDs (findPageByManager) and of a JD's recommendations.
+CREATE INDEX idx_jds_manager_created_id ON job_descriptions (uploaded_by_manager_id, created_at, id);
+CREATE INDEX idx_referrals_jd_score_id ON referrals (job_description_id, match_score, id);
+
+-- Matching engine (findAvailableOrSoonToBeAvailable) and the busy-employees report (availability IN ...).
+CREATE INDEX idx_employee_profiles_availability_date ON employee_profiles (availability, expected_availability_date);
+
+-- Latest SELECTED/RESERVED referral per employee (findSelectedEmployees).
+CREATE INDEX idx_referrals_employee_status_id ON referrals (employee_user_id, status, id);
+
+-- Case-insensitive skill lookups (findByNameIgnoreCase) use a normalized key instead of
+-- UPPER(name), which no index can serve. Skills that differ only in case are merged first.
+ALTER TABLE skills ADD COLUMN name_key VARCHAR(100);
+UPDATE skills SET name_key = LOWER(TRIM(name));
+
+CREATE TEMPORARY TABLE skill_survivors AS
+    SELECT name_key, MIN(id) AS keep_id FROM skills GROUP BY name_key;
+
+UPDATE IGNORE employee_skills es
+    JOIN skills s ON s.id = es.skill_id
+    JOIN skill_survivors k ON k.name_key = s.name_key
+    SET es.skill_id = k.keep_id
+    WHERE s.id <> k.keep_id;
+
+DELETE es FROM employee_skills es
+    JOIN skills s ON s.id = es.skill_id
+    JOIN skill_survivors k ON k.name_key = s.name_key
+    WHERE s.id <> k.keep_id;
+
+DELETE s FROM skills s
+    JOIN skill_survivors k ON k.name_key = s.name_key
+    WHERE s.id <> k.keep_id;
+
+DROP TEMPORARY TABLE skill_survivors;
+
+ALTER TABLE skills MODIFY name_key VARCHAR(100) NOT NULL;
+CREATE UNIQUE INDEX uk_skills_name_key ON skills (name_key);
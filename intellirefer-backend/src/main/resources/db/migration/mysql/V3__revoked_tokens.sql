@@ -0,0 +1,11 @@
+-- Deny-list of JWTs revoked before their expiry. Every node keeps it in memory.
+
+CREATE TABLE revoked_tokens (
+    token_id VARCHAR(36) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    revoked_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (token_id)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_revoked_tokens_revoked_at ON revoked_tokens (revoked_at);
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
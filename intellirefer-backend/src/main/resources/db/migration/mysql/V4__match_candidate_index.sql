@@ -0,0 +1,3 @@
+-- Matching engine candidate scan (findMatchCandidates): reads the employees of one availability
+-- status in user ID chunks, so each chunk is an index seek rather than a filesort of all candidates.
+CREATE INDEX idx_employee_profiles_availability_user ON employee_profiles (availability, user_id);
@@ -0,0 +1,49 @@
+-- Matching skills of a referral as rows against skills, replacing the comma-joined
+-- referrals.matching_skills column, so that referrals can be searched by skill through an index.
+
+CREATE TABLE referral_matching_skills (
+    referral_id BIGINT NOT NULL,
+    position INTEGER NOT NULL,
+    skill_id INTEGER NOT NULL,
+    PRIMARY KEY (referral_id, position),
+    CONSTRAINT uk_referral_matching_skills_referral_skill UNIQUE (referral_id, skill_id),
+    INDEX idx_referral_matching_skills_skill_referral (skill_id, referral_id),
+    CONSTRAINT fk_referral_matching_skills_referral FOREIGN KEY (referral_id) REFERENCES referrals (id),
+    CONSTRAINT fk_referral_matching_skills_skill FOREIGN KEY (skill_id) REFERENCES skills (id)
+) ENGINE=InnoDB;
+
+-- Split the existing lists into one row per name, keeping their order.
+CREATE TEMPORARY TABLE referral_skill_names
+WITH RECURSIVE split (referral_id, position, name, rest) AS (
+    SELECT id, 0,
+           TRIM(SUBSTRING_INDEX(matching_skills, ',', 1)),
+           IF(LOCATE(',', matching_skills) > 0, SUBSTRING(matching_skills, LOCATE(',', matching_skills) + 1), NULL)
+    FROM referrals
+    WHERE matching_skills IS NOT NULL AND matching_skills <> ''
+    UNION ALL
+    SELECT referral_id, position + 1,
+           TRIM(SUBSTRING_INDEX(rest, ',', 1)),
+           IF(LOCATE(',', rest) > 0, SUBSTRING(rest, LOCATE(',', rest) + 1), NULL)
+    FROM split
+    WHERE rest IS NOT NULL
+)
+SELECT referral_id, position, name, LOWER(name) AS name_key
+FROM split
+WHERE CHAR_LENGTH(name) BETWEEN 1 AND 100;
+
+-- Names not yet in the dictionary become skills, capitalized like SkillDictionary does.
+INSERT IGNORE INTO skills (name, name_key)
+SELECT CONCAT(UPPER(LEFT(MIN(name), 1)), SUBSTRING(MIN(name), 2)), name_key
+FROM referral_skill_names
+GROUP BY name_key;
+
+-- A skill listed twice for one referral keeps its first position; positions are renumbered without gaps.
+INSERT INTO referral_matching_skills (referral_id, position, skill_id)
+SELECT n.referral_id, ROW_NUMBER() OVER (PARTITION BY n.referral_id ORDER BY MIN(n.position)) - 1, s.id
+FROM referral_skill_names n
+    JOIN skills s ON s.name_key = n.name_key
+GROUP BY n.referral_id, s.id;
+
+DROP TEMPORARY TABLE referral_skill_names;
+
+ALTER TABLE referrals DROP COLUMN matching_skills;
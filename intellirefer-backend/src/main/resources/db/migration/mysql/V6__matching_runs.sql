@@ -0,0 +1,31 @@
+-- One row per matching run of a JD, rewritten as the run progresses and kept afterwards as history.
+-- Stage times are sums over the run's work, so they can exceed the wall-clock time of concurrent stages.
+
+CREATE TABLE matching_runs (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    job_description_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    app_version VARCHAR(64),
+    started_at DATETIME(6) NOT NULL,
+    finished_at DATETIME(6),
+    updated_at DATETIME(6) NOT NULL,
+    queue_wait_ms BIGINT NOT NULL,
+    candidates_considered INTEGER NOT NULL,
+    candidates_skipped INTEGER NOT NULL,
+    candidates_dispatched INTEGER NOT NULL,
+    candidates_scored INTEGER NOT NULL,
+    candidates_failed INTEGER NOT NULL,
+    llm_calls INTEGER NOT NULL,
+    llm_cached INTEGER NOT NULL,
+    llm_failed INTEGER NOT NULL,
+    llm_retried INTEGER NOT NULL,
+    jd_parse_ms BIGINT NOT NULL,
+    candidate_fetch_ms BIGINT NOT NULL,
+    resume_parse_ms BIGINT NOT NULL,
+    llm_ms BIGINT NOT NULL,
+    referral_save_ms BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_matching_runs_jd_started (job_description_id, started_at),
+    INDEX idx_matching_runs_started (started_at),
+    CONSTRAINT fk_matching_runs_jd FOREIGN KEY (job_description_id) REFERENCES job_descriptions (id)
+) ENGINE=InnoDB;
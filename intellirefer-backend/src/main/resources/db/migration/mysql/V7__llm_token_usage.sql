@@ -0,0 +1,19 @@
+-- Tokens used per Gemini reply, attributed to the JD and employee it was for, for the per-JD and daily token budgets.
+
+CREATE TABLE llm_token_usage (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    job_description_id BIGINT,
+    employee_id BIGINT,
+    operation VARCHAR(32) NOT NULL,
+    prompt_tokens INTEGER NOT NULL,
+    response_tokens INTEGER NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_llm_token_usage_jd (job_description_id),
+    INDEX idx_llm_token_usage_created (created_at),
+    CONSTRAINT fk_llm_token_usage_jd FOREIGN KEY (job_description_id) REFERENCES job_descriptions (id)
+) ENGINE=InnoDB;
+
+ALTER TABLE matching_runs
+    ADD COLUMN llm_prompt_tokens BIGINT NOT NULL DEFAULT 0 AFTER llm_retried,
+    ADD COLUMN llm_response_tokens BIGINT NOT NULL DEFAULT 0 AFTER llm_prompt_tokens;
@@ -1,13 +1,32 @@
 package com.yourcompany.intellirefer;
 
+import jakarta.servlet.MultipartConfigElement;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 @SpringBootTest
 class IntellireferApplicationTests {
 
+	@Autowired
+	private MultipartConfigElement multipartConfigElement;
+
+	@Value("${storage.location}")
+	private String storageLocation;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void multipartTempFilesAreKeptInTheStorageStagingArea() {
+		assertEquals(Paths.get(storageLocation, ".staging", "multipart").toAbsolutePath().toString(),
+				multipartConfigElement.getLocation());
+	}
+
 }
@@ -0,0 +1,69 @@
+package com.yourcompany.intellirefer.benchmark;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Mimics a servlet multipart part that the container has already spooled to a
+ * temp file: {@link #transferTo(File)} renames the temp file, like Tomcat does.
+ */
+class DiskBackedMultipartFile implements MultipartFile {
+
+    private final Path tempFile;
+    private final String originalFilename;
+
+    DiskBackedMultipartFile(Path tempFile, String originalFilename) {
+        this.tempFile = tempFile;
+        this.originalFilename = originalFilename;
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/octet-stream";
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return getSize() == 0;
+    }
+
+    @Override
+    public long getSize() {
+        try {
+            return Files.size(tempFile);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        return Files.readAllBytes(tempFile);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return Files.newInputStream(tempFile);
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        Files.move(tempFile, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+}
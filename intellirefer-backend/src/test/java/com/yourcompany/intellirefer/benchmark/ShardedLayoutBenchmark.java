@@ -0,0 +1,77 @@
+package com.yourcompany.intellirefer.benchmark;
+
+import com.yourcompany.intellirefer.service.StorageLayout;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares file lookup and create latency in the FLAT and SHARDED storage layouts once a
+ * subfolder holds {@code fileCount} files (1M by default, like a large resume archive).
+ * <p>
+ * Populating 1M files takes a while and needs a few GB of inodes; pass e.g.
+ * {@code -Djmh.args="-p fileCount=100000"} for a quicker run.
+ * <p>
+ * Run with: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.includes=ShardedLayoutBenchmark}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShardedLayoutBenchmark {
+
+    @Param({"FLAT", "SHARDED"})
+    public StorageLayout layout;
+
+    @Param({"1000000"})
+    public int fileCount;
+
+    private Path root;
+    private String[] existingNames;
+
+    @Setup(Level.Trial)
+    public void populate() throws IOException {
+        root = Files.createTempDirectory("layout-bench");
+        existingNames = new String[fileCount];
+        for (int i = 0; i < fileCount; i++) {
+            String name = UUID.randomUUID() + ".pdf";
+            Path file = root.resolve(layout.relativePath("resumes", name));
+            Files.createDirectories(file.getParent());
+            Files.createFile(file);
+            existingNames[i] = name;
+        }
+    }
+
+    @Benchmark
+    public boolean lookup() {
+        String name = existingNames[ThreadLocalRandom.current().nextInt(existingNames.length)];
+        return Files.exists(root.resolve(layout.relativePath("resumes", name)));
+    }
+
+    @Benchmark
+    public Path createAndDelete() throws IOException {
+        Path file = root.resolve(layout.relativePath("resumes", UUID.randomUUID() + ".pdf"));
+        Files.createDirectories(file.getParent());
+        Files.createFile(file);
+        Files.delete(file);
+        return file;
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanUp() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.yourcompany.intellirefer.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Compares how fast the application starts in each of its build modes: the executable jar, the
+ * extracted jar, the extracted jar with AOT-processed beans, AOT plus a CDS archive, and a native image.
+ * <p>
+ * Every run starts a fresh process on a free port and records two times: the startup time Spring
+ * logs ("Started ... in"), and the wall-clock time from launching the process until
+ * {@code /actuator/health} first answers. The second includes JVM boot and is what a load balancer sees.
+ * Modes whose artifacts are missing are skipped, so build them first:
+ * <pre>
+ * mvn -Pfast-startup package            # jar, extracted, aot, aot+cds
+ * mvn -Pnative native:compile           # native, on GraalVM
+ * </pre>
+ * It only needs the JDK, so run it straight from the test classes:
+ * <pre>
+ * java -Dstartup.app-args="--spring.config.additional-location=file:/etc/intellirefer/" \
+ *      -cp target/test-classes com.yourcompany.intellirefer.benchmark.StartupBenchmark
+ * </pre>
+ * Other settings: {@code startup.runs} (measured runs per mode, default 5, after one discarded warm-up),
+ * {@code startup.modes} (comma-separated subset), {@code startup.jvm-args} and {@code startup.target}
+ * (the build directory, default {@code target}).
+ */
+public class StartupBenchmark {
+
+    private static final Pattern STARTED = Pattern.compile("Started \\w+ in ([0-9.]+) seconds");
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private final Path target;
+    private final List<String> jvmArgs;
+    private final List<String> appArgs;
+
+    StartupBenchmark(Path target, List<String> jvmArgs, List<String> appArgs) {
+        this.target = target;
+        this.jvmArgs = jvmArgs;
+        this.appArgs = appArgs;
+    }
+
+    public static void main(String[] args) throws Exception {
+        StartupBenchmark benchmark = new StartupBenchmark(
+                Path.of(System.getProperty("startup.target", "target")),
+                split(System.getProperty("startup.jvm-args", "")),
+                split(System.getProperty("startup.app-args", "")));
+        int runs = Integer.getInteger("startup.runs", 5);
+        List<String> selected = split(System.getProperty("startup.modes", "").replace(',', ' '));
+
+        Map<String, List<Run>> results = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> mode : benchmark.modes().entrySet()) {
+            if (!selected.isEmpty() && !selected.contains(mode.getKey())) {
+                continue;
+            }
+            System.out.printf("%s: %s%n", mode.getKey(), String.join(" ", mode.getValue()));
+            benchmark.start(mode.getValue());
+            List<Run> modeRuns = new ArrayList<>();
+            for (int i = 0; i < runs; i++) {
+                Run run = benchmark.start(mode.getValue());
+                System.out.printf("  run %d: started in %d ms, first request after %d ms%n", i + 1, run.startedMs(), run.firstRequestMs());
+                modeRuns.add(run);
+            }
+            results.put(mode.getKey(), modeRuns);
+        }
+        report(results);
+    }
+
+    /**
+     * The command line of every mode whose artifacts exist, without the port and application arguments.
+     */
+    Map<String, List<String>> modes() throws IOException {
+        Map<String, List<String>> modes = new LinkedHashMap<>();
+        Path jar = findJar(target);
+        if (jar != null) {
+            modes.put("jar", java(List.of(), jar));
+        }
+        Path extracted = jar != null ? target.resolve("fast-startup").resolve(jar.getFileName()) : null;
+        if (extracted != null && Files.exists(extracted)) {
+            modes.put("extracted", java(List.of(), extracted));
+            modes.put("aot", java(List.of("-Dspring.aot.enabled=true"), extracted));
+            Path archive = extracted.resolveSibling("application.jsa");
+            if (Files.exists(archive)) {
+                modes.put("aot+cds", java(List.of("-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true"), extracted));
+            }
+        }
+        Path nativeImage = target.resolve("intellirefer");
+        if (Files.isExecutable(nativeImage)) {
+            modes.put("native", List.of(nativeImage.toString()));
+        }
+        return modes;
+    }
+
+    private List<String> java(List<String> modeArgs, Path jar) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.addAll(modeArgs);
+        command.add("-jar");
+        command.add(jar.toString());
+        return command;
+    }
+
+    /**
+     * Starts the application, waits for its first answered request, then stops it.
+     */
+    Run start(List<String> baseCommand) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(baseCommand);
+        command.add("--server.port=" + port);
+        command.addAll(appArgs);
+
+        long launched = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        CompletableFuture<Long> startedMs = new CompletableFuture<>();
+        StringBuilder output = new StringBuilder();
+        Thread reader = Thread.ofVirtual().start(() -> readOutput(process, startedMs, output));
+        try {
+            HttpRequest health = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/actuator/health"))
+                    .timeout(Duration.ofSeconds(1)).build();
+            while (true) {
+                if (!process.isAlive() || System.nanoTime() - launched > START_TIMEOUT.toNanos()) {
+                    reader.join(1000);
+                    throw new IllegalStateException("Application did not start:\n" + output);
+                }
+                try {
+                    httpClient.send(health, HttpResponse.BodyHandlers.discarding());
+                    break;
+                } catch (IOException e) {
+                    Thread.sleep(5);
+                }
+            }
+            long firstRequestMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - launched);
+            return new Run(startedMs.get(10, TimeUnit.SECONDS), firstRequestMs);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static void readOutput(Process process, CompletableFuture<Long> startedMs, StringBuilder output) {
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                synchronized (output) {
+                    output.append(line).append('\n');
+                }
+                Matcher matcher = STARTED.matcher(line);
+                if (matcher.find()) {
+                    startedMs.complete(Math.round(Double.parseDouble(matcher.group(1)) * 1000));
+                }
+            }
+        } catch (IOException e) {
+            startedMs.completeExceptionally(e);
+        }
+    }
+
+    private static void report(Map<String, List<Run>> results) {
+        System.out.printf("%n%-10s %6s  %28s  %28s%n", "mode", "runs", "started (ms) median/min/max", "first request (ms) med/min/max");
+        results.forEach((mode, runs) -> System.out.printf("%-10s %6d  %28s  %28s%n", mode, runs.size(),
+                summary(runs.stream().mapToLong(Run::startedMs).toArray()),
+                summary(runs.stream().mapToLong(Run::firstRequestMs).toArray())));
+    }
+
+    private static String summary(long[] values) {
+        if (values.length == 0) {
+            return "-";
+        }
+        Arrays.sort(values);
+        return values[values.length / 2] + " / " + values[0] + " / " + values[values.length - 1];
+    }
+
+    /**
+     * The executable jar the build produced, or null before {@code mvn package}.
+     */
+    private static Path findJar(Path target) throws IOException {
+        if (!Files.isDirectory(target)) {
+            return null;
+        }
+        try (Stream<Path> files = Files.list(target)) {
+            return files.filter(file -> file.getFileName().toString().matches("intellirefer-.*\\.jar"))
+                    .findFirst()
+                    .orElse(null);
+        }
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<String> split(String value) {
+        return value.isBlank() ? List.of() : List.of(value.trim().split("\\s+"));
+    }
+
+    record Run(long startedMs, long firstRequestMs) {
+    }
+}
@@ -0,0 +1,84 @@
+package com.yourcompany.intellirefer.benchmark;
+
+import com.yourcompany.intellirefer.entity.User;
+import com.yourcompany.intellirefer.model.enums.Role;
+import com.yourcompany.intellirefer.repository.RevokedTokenRepository;
+import com.yourcompany.intellirefer.security.JWTAuthenticationFilter;
+import com.yourcompany.intellirefer.security.JwtTokenProvider;
+import com.yourcompany.intellirefer.security.VerifiedTokenCache;
+import com.yourcompany.intellirefer.service.TokenRevocationService;
+import jakarta.servlet.ServletException;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating one request in {@link JWTAuthenticationFilter}, with the verified-token
+ * cache disabled ({@code cacheSize=0}: HMAC check and claim parsing every time) and enabled
+ * (the client resends a token it has used before, as the frontend does on every call).
+ * <p>
+ * Run with: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.includes=TokenFilterBenchmark}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenFilterBenchmark {
+
+    @Param({"0", "10000"})
+    public long cacheSize;
+
+    private JWTAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        JwtTokenProvider tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "algorithmKey", "BenchmarkSecretKeyForAuth0JWTThatIsAtLeast32CharactersLong");
+        ReflectionTestUtils.setField(tokenProvider, "issuer", "IntelliReferBenchmark");
+        ReflectionTestUtils.setField(tokenProvider, "expiryDuration", 3_600_000L);
+        tokenProvider.init();
+
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(verifiedTokenCache, "jwtTokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(verifiedTokenCache, "maxSize", cacheSize);
+        verifiedTokenCache.init();
+
+        TokenRevocationService revocationService = new TokenRevocationService();
+        ReflectionTestUtils.setField(revocationService, "revokedTokenRepository", Mockito.mock(RevokedTokenRepository.class));
+        revocationService.init();
+
+        filter = new JWTAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "verifiedTokenCache", verifiedTokenCache);
+        ReflectionTestUtils.setField(filter, "tokenRevocationService", revocationService);
+
+        User user = new User();
+        user.setId(42L);
+        user.setEmail("employee@intellirefer.test");
+        user.setRole(Role.EMPLOYEE);
+        request = new MockHttpServletRequest("GET", "/api/employee/me");
+        request.addHeader("Authorization", "Bearer " + tokenProvider.generateToken(user));
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Authentication authenticateRequest() throws ServletException, IOException {
+        // OncePerRequestFilter marks the request as filtered; clear that so every call runs the filter.
+        request.clearAttributes();
+        filter.doFilter(request, response, new MockFilterChain());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
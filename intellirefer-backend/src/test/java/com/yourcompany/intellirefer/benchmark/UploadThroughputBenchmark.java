@@ -0,0 +1,149 @@
+package com.yourcompany.intellirefer.benchmark;
+
+import com.yourcompany.intellirefer.repository.StoredBlobRepository;
+import com.yourcompany.intellirefer.service.BlobReferenceTracker;
+import com.yourcompany.intellirefer.service.FileSystemStorageService;
+import com.yourcompany.intellirefer.service.StorageLayout;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures {@link FileSystemStorageService#store} for a 10 MB PDF (the multipart limit),
+ * comparing the rename-into-place path with the channel-to-channel streaming path.
+ * <p>
+ * Besides throughput, the {@link IoPerUpload} aux counters report the bytes read and
+ * written by the process per upload, which shows whether the upload hit the disk once or twice.
+ * <p>
+ * Run with: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.includes=UploadThroughputBenchmark}
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Thread)
+public class UploadThroughputBenchmark {
+
+    private static final int UPLOAD_SIZE = 10 * 1024 * 1024;
+
+    @Param({"true", "false"})
+    public boolean transferInPlace;
+
+    @Param({"false", "true"})
+    public boolean contentAddressed;
+
+    private Path workDir;
+    private Path multipartDir;
+    private Path sourcePdf;
+    private FileSystemStorageService storageService;
+
+    private DiskBackedMultipartFile upload;
+    private ProcessIoCounters before;
+    private String storedPath;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class IoPerUpload {
+        public long bytesRead;
+        public long bytesWritten;
+    }
+
+    @Setup(Level.Trial)
+    public void setUpTrial() throws IOException {
+        workDir = Files.createTempDirectory("upload-bench");
+        multipartDir = Files.createDirectories(workDir.resolve("multipart"));
+        sourcePdf = workDir.resolve("source.pdf");
+
+        byte[] content = new byte[UPLOAD_SIZE];
+        new Random(42).nextBytes(content);
+        System.arraycopy("%PDF-1.7\n".getBytes(), 0, content, 0, 9);
+        Files.write(sourcePdf, content);
+
+        StoredBlobRepository blobRepository = Mockito.mock(StoredBlobRepository.class);
+        Mockito.when(blobRepository.incrementRefCount(Mockito.anyString())).thenReturn(0);
+
+        BlobReferenceTracker blobReferenceTracker = new BlobReferenceTracker();
+        ReflectionTestUtils.setField(blobReferenceTracker, "storedBlobRepository", blobRepository);
+        ReflectionTestUtils.setField(blobReferenceTracker, "transactionManager", new NoOpTransactionManager());
+        blobReferenceTracker.init();
+
+        storageService = new FileSystemStorageService();
+        ReflectionTestUtils.setField(storageService, "storageLocation", workDir.resolve("storage").toString());
+        ReflectionTestUtils.setField(storageService, "multipartLocation", multipartDir.toString());
+        ReflectionTestUtils.setField(storageService, "transferInPlaceEnabled", transferInPlace);
+        ReflectionTestUtils.setField(storageService, "contentAddressed", contentAddressed);
+        ReflectionTestUtils.setField(storageService, "layout", StorageLayout.FLAT);
+        ReflectionTestUtils.setField(storageService, "blobReferenceTracker", blobReferenceTracker);
+        storageService.init();
+    }
+
+    @Setup(Level.Invocation)
+    public void spoolUpload() throws IOException {
+        // The container has already written the request body to its temp file before store() runs.
+        Path tempFile = multipartDir.resolve("upload_" + System.nanoTime() + ".tmp");
+        Files.copy(sourcePdf, tempFile, StandardCopyOption.REPLACE_EXISTING);
+        upload = new DiskBackedMultipartFile(tempFile, "resume.pdf");
+        before = ProcessIoCounters.snapshot();
+    }
+
+    @Benchmark
+    public String store() {
+        storedPath = storageService.store(upload, "resumes");
+        return storedPath;
+    }
+
+    @TearDown(Level.Invocation)
+    public void recordIo(IoPerUpload io) throws IOException {
+        ProcessIoCounters after = ProcessIoCounters.snapshot();
+        io.bytesRead += after.readChars() - before.readChars();
+        io.bytesWritten += after.writtenChars() - before.writtenChars();
+
+        Files.deleteIfExists(workDir.resolve("storage").resolve(storedPath));
+        try (Stream<Path> leftovers = Files.list(multipartDir)) {
+            for (Path leftover : (Iterable<Path>) leftovers::iterator) {
+                Files.deleteIfExists(leftover);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() throws IOException {
+        try (Stream<Path> files = Files.walk(workDir)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Lets the content-addressed path run without a database.
+     */
+    private static class NoOpTransactionManager implements PlatformTransactionManager {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.yourcompany.intellirefer.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prometheus can scrape the management port without credentials; other actuator endpoints there still
+ * need a manager JWT, and the application port serves no actuator endpoints at all.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "management.server.port=0",
+        "management.endpoints.web.exposure.include=health,metrics,prometheus"
+})
+@AutoConfigureObservability(tracing = false)
+class ActuatorSecurityTest {
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @LocalServerPort
+    private int serverPort;
+
+    @Test
+    void prometheusScrapesTheManagementPortWithoutCredentials() throws Exception {
+        HttpResponse<String> scrape = get(managementPort, "/actuator/prometheus");
+
+        assertEquals(200, scrape.statusCode());
+        assertTrue(scrape.body().contains("jvm_memory_used_bytes"));
+    }
+
+    @Test
+    void otherEndpointsStillNeedAManager() throws Exception {
+        int status = get(managementPort, "/actuator/metrics").statusCode();
+
+        assertTrue(status == 401 || status == 403, "status " + status);
+    }
+
+    @Test
+    void theApplicationPortDoesNotServeTheScrapeEndpoint() throws Exception {
+        assertTrue(get(serverPort, "/actuator/prometheus").statusCode() != 200);
+    }
+
+    private HttpResponse<String> get(int port, String path) throws Exception {
+        return httpClient.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
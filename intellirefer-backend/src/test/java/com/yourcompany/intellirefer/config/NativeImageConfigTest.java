@@ -0,0 +1,47 @@
+package com.yourcompany.intellirefer.config;
+
+import com.yourcompany.intellirefer.dto.GeminiResponseDto;
+import com.yourcompany.intellirefer.dto.LLMResponse;
+import com.yourcompany.intellirefer.dto.MatchCandidate;
+import com.yourcompany.intellirefer.dto.Part;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.ReflectionHintsPredicates;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the native image hints against the names the libraries actually load.
+ */
+class NativeImageConfigTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeImageConfigTest() {
+        new NativeImageConfig.Hints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registersGeminiRecordsAndTheirComponentsForBinding() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(GeminiResponseDto.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(LLMResponse.class).test(hints));
+        // Reached only through GeminiResponseDto's components.
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Part.class).test(hints));
+    }
+
+    @Test
+    void registersQueryRowConstructors() throws NoSuchMethodException {
+        ReflectionHintsPredicates reflection = RuntimeHintsPredicates.reflection();
+        assertTrue(reflection.onConstructor(MatchCandidate.class.getConstructor(Long.class, String.class, String.class))
+                .invoke().test(hints));
+    }
+
+    @Test
+    void registersResourcesLoadedByName() {
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/migration/mysql/V6__matching_runs.sql").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("ehcache.xml").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("org/apache/pdfbox/resources/glyphlist/glyphlist.txt").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("org/apache/fontbox/cmap/Identity-H").test(hints));
+    }
+}
@@ -0,0 +1,107 @@
+package com.yourcompany.intellirefer.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Routes transactions between two embedded databases, each of which knows its own name, and
+ * simulates replication lag through a status table on the replica.
+ */
+class ReadReplicaRoutingTest {
+
+    private JdbcDataSource primary;
+    private JdbcDataSource replica;
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaLagMonitor monitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate readWriteTransaction;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("routing-primary");
+        replica = database("routing-replica");
+        new JdbcTemplate(replica).execute("CREATE TABLE replica_status (seconds_behind INT)");
+        new JdbcTemplate(replica).execute("INSERT INTO replica_status VALUES (0)");
+
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new ReplicaLagMonitor(replica, "SELECT seconds_behind FROM replica_status", 10, meterRegistry);
+        monitor.check();
+        DataSource dataSource = ReadReplicaConfig.routingDataSource(primary, replica, monitor, meterRegistry);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(primary).execute("SHUTDOWN");
+        new JdbcTemplate(replica).execute("SHUTDOWN");
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplicaAndOthersUsePrimary() {
+        assertEquals("replica", readOnlyTransaction.execute(status -> node()));
+        assertEquals("primary", readWriteTransaction.execute(status -> node()));
+        assertEquals("primary", node());
+        assertEquals(1.0, reads("replica"));
+    }
+
+    @Test
+    void readsFallBackToPrimaryWhileReplicaLags() {
+        setReplicaLag(60);
+        assertEquals("primary", readOnlyTransaction.execute(status -> node()));
+        assertEquals(60.0, meterRegistry.get("datasource.replica.lag").gauge().value());
+
+        setReplicaLag(3);
+        assertEquals("replica", readOnlyTransaction.execute(status -> node()));
+        assertEquals(1.0, reads("primary"));
+        assertEquals(1.0, reads("replica"));
+    }
+
+    @Test
+    void readsFallBackToPrimaryWhenReplicationStopsOrReplicaIsUnreachable() {
+        setReplicaLag(null);
+        assertEquals("primary", readOnlyTransaction.execute(status -> node()));
+
+        new JdbcTemplate(replica).execute("DROP TABLE replica_status");
+        monitor.check();
+        assertEquals("primary", readOnlyTransaction.execute(status -> node()));
+        assertEquals(0.0, meterRegistry.get("datasource.replica.usable").gauge().value());
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private void setReplicaLag(Integer seconds) {
+        new JdbcTemplate(replica).update("UPDATE replica_status SET seconds_behind = ?", seconds);
+        monitor.check();
+    }
+
+    private double reads(String route) {
+        return meterRegistry.get("datasource.reads").tag("route", route).counter().count();
+    }
+
+    private static JdbcDataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name.substring("routing-".length()));
+        return dataSource;
+    }
+}
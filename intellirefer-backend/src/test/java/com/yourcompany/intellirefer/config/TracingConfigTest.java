@@ -0,0 +1,46 @@
+package com.yourcompany.intellirefer.config;
+
+import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.autoconfigure.opentelemetry.OpenTelemetryAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.tracing.OpenTelemetryTracingAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.tracing.otlp.OtlpTracingAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks which span exporters the tracing configuration ends up with: the OTLP JSON log always,
+ * and an OTLP/HTTP exporter to a collector once {@code management.otlp.tracing.endpoint} is set.
+ */
+class TracingConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(OpenTelemetryAutoConfiguration.class,
+                    OpenTelemetryTracingAutoConfiguration.class, OtlpTracingAutoConfiguration.class))
+            .withUserConfiguration(TracingConfig.class);
+
+    @Test
+    void exportsToTheLogOnlyWithoutACollectorEndpoint() {
+        contextRunner.run(context -> assertEquals(Set.of(OtlpJsonLoggingSpanExporter.class),
+                exporterTypes(context.getBeansOfType(SpanExporter.class).values())));
+    }
+
+    @Test
+    void exportsToTheCollectorOnceItsEndpointIsSet() {
+        contextRunner.withPropertyValues("management.otlp.tracing.endpoint=http://localhost:4318/v1/traces")
+                .run(context -> assertEquals(Set.of(OtlpJsonLoggingSpanExporter.class, OtlpHttpSpanExporter.class),
+                        exporterTypes(context.getBeansOfType(SpanExporter.class).values())));
+    }
+
+    private static Set<Class<?>> exporterTypes(Collection<SpanExporter> exporters) {
+        return exporters.stream().map(SpanExporter::getClass).collect(Collectors.toSet());
+    }
+}
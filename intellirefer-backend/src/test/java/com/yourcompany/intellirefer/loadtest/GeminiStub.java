@@ -0,0 +1,248 @@
+package com.yourcompany.intellirefer.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process stand-in for the Gemini {@code generateContent} endpoint, so the matching pipeline can be
+ * driven at load without calling the real API.
+ * <p>
+ * Each request sleeps for a log-normally distributed latency, then fails with a 429 or a 500 at the
+ * configured rates, or answers with canned JSON for whichever prompt it received: a match score, a skill
+ * list or a JD's required experience. The answer is wrapped in the same envelope the real API uses.
+ * At {@code malformedRate} the JSON is cut off halfway, as when a model runs out of output tokens;
+ * repair requests (a conversation with more than one turn) always get the full answer.
+ * Usage metadata counts a token per four characters of the prompt and of the answer.
+ * <p>
+ * Tests that need a particular request to be slow or to fail, rather than a random share of them, can
+ * script it by its number with {@link #delay} and {@link #fail}.
+ */
+public class GeminiStub implements AutoCloseable {
+
+    /**
+     * The prompts {@code LLMService} sends, named as in its {@code llm.requests} metric.
+     */
+    public enum Operation {
+        MATCH_SCORE("match_score"),
+        SKILL_EXTRACTION("skill_extraction"),
+        JD_EXPERIENCE("jd_experience");
+
+        private final String tag;
+
+        Operation(String tag) {
+            this.tag = tag;
+        }
+
+        public String tag() {
+            return tag;
+        }
+
+        static Operation of(String prompt) {
+            if (prompt.contains("required years of experience")) {
+                return JD_EXPERIENCE;
+            }
+            if (prompt.contains("extract all relevant technical skills")) {
+                return SKILL_EXTRACTION;
+            }
+            return MATCH_SCORE;
+        }
+    }
+
+    /**
+     * Latency is log-normal around {@code latencyMedianMs}; a {@code latencySigma} of 0 makes it constant.
+     * A {@code stragglerRate} fraction of requests take {@code stragglerMs} longer, the heavy tail that
+     * request hedging is meant for. Rates are fractions of all requests, drawn independently per request.
+     */
+    public record Settings(long latencyMedianMs, double latencySigma, long latencyMaxMs,
+                           double stragglerRate, long stragglerMs, double rateLimitRate, double errorRate, double malformedRate,
+                           Map<Operation, String> responses) {
+
+        public static final Map<Operation, String> DEFAULT_RESPONSES = Map.of(
+                Operation.MATCH_SCORE,
+                "{\"score\": 78, \"justification\": \"Strong backend background. Limited cloud exposure.\", "
+                        + "\"matching_skills\": [\"Java\", \"Spring Boot\", \"SQL\", \"REST APIs\", \"Microservices\"]}",
+                Operation.SKILL_EXTRACTION,
+                "{\"skills\": [\"Java\", \"Spring Boot\", \"SQL\", \"REST APIs\", \"Microservices\", \"Docker\", \"Git\"]}",
+                Operation.JD_EXPERIENCE,
+                "{\"required_experience\": 3}");
+
+        public static Settings immediate() {
+            return new Settings(0, 0, 0, 0, 0, 0, 0, 0, DEFAULT_RESPONSES);
+        }
+
+        /**
+         * Reads {@code stub.*} system properties, falling back to a latency profile similar to a hosted model.
+         */
+        public static Settings fromSystemProperties() {
+            Map<Operation, String> responses = new ConcurrentHashMap<>(DEFAULT_RESPONSES);
+            for (Operation operation : Operation.values()) {
+                String override = System.getProperty("stub.response." + operation.tag());
+                if (override != null) {
+                    responses.put(operation, override);
+                }
+            }
+            return new Settings(
+                    Long.getLong("stub.latency-median-ms", 800),
+                    Double.parseDouble(System.getProperty("stub.latency-sigma", "0.5")),
+                    Long.getLong("stub.latency-max-ms", 10_000),
+                    Double.parseDouble(System.getProperty("stub.straggler-rate", "0")),
+                    Long.getLong("stub.straggler-ms", 5_000),
+                    Double.parseDouble(System.getProperty("stub.rate-limit-rate", "0")),
+                    Double.parseDouble(System.getProperty("stub.error-rate", "0")),
+                    Double.parseDouble(System.getProperty("stub.malformed-rate", "0")),
+                    Map.copyOf(responses));
+        }
+
+        long sampleLatencyMs() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long straggling = random.nextDouble() < stragglerRate ? stragglerMs : 0;
+            if (latencyMedianMs <= 0) {
+                return straggling;
+            }
+            double latency = latencyMedianMs * Math.exp(latencySigma * random.nextGaussian());
+            return (latencyMaxMs > 0 ? Math.min((long) latency, latencyMaxMs) : (long) latency) + straggling;
+        }
+    }
+
+    private final Settings settings;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, LongAdder> responseCounts = new ConcurrentHashMap<>();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final Map<Long, Long> delaysByRequest = new ConcurrentHashMap<>();
+    private final Map<Long, Boolean> failingRequests = new ConcurrentHashMap<>();
+
+    public GeminiStub(Settings settings) throws IOException {
+        this.settings = settings;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * A value for {@code llm.google.api.url_template} that points at this stub.
+     */
+    public String urlTemplate() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/v1beta/models/stub:generateContent?key=%s";
+    }
+
+    /**
+     * Responses sent so far, keyed by operation and HTTP status, e.g. {@code match_score 429}
+     * or {@code match_score repair 200}.
+     */
+    public Map<String, Long> responseCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        responseCounts.forEach((key, count) -> counts.put(key, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Requests received so far, including those whose caller gave up before the answer.
+     */
+    public long requestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Makes a request take this much longer than its sampled latency.
+     *
+     * @param request The request's number, counting from 1 in the order they arrive.
+     */
+    public GeminiStub delay(long request, long millis) {
+        delaysByRequest.put(request, millis);
+        return this;
+    }
+
+    /**
+     * Makes a request fail with a 500 once its latency has passed.
+     *
+     * @param request The request's number, counting from 1 in the order they arrive.
+     */
+    public GeminiStub fail(long request) {
+        failingRequests.put(request, true);
+        return this;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long request = requestCount.incrementAndGet();
+        try (exchange) {
+            JsonNode contents = objectMapper.readTree(exchange.getRequestBody()).path("contents");
+            Operation operation = Operation.of(contents.path(0).path("parts").path(0).path("text").asText(""));
+            String kind = contents.size() > 1 ? operation.tag() + " repair" : operation.tag();
+            Thread.sleep(settings.sampleLatencyMs() + delaysByRequest.getOrDefault(request, 0L));
+
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (failingRequests.containsKey(request)) {
+                respond(exchange, kind, 500, error(500, "INTERNAL", "An internal error has occurred."));
+            } else if (roll < settings.rateLimitRate()) {
+                respond(exchange, kind, 429, error(429, "RESOURCE_EXHAUSTED", "Quota exceeded for requests per minute."));
+            } else if (roll < settings.rateLimitRate() + settings.errorRate()) {
+                respond(exchange, kind, 500, error(500, "INTERNAL", "An internal error has occurred."));
+            } else {
+                String text = settings.responses().get(operation);
+                boolean malformed = contents.size() == 1 && ThreadLocalRandom.current().nextDouble() < settings.malformedRate();
+                String answer = malformed ? text.substring(0, text.length() / 2) : text;
+                int promptTokens = promptChars(contents) / 4;
+                int answerTokens = answer.length() / 4;
+                respond(exchange, malformed ? kind + " malformed" : kind, 200, objectMapper.writeValueAsString(Map.of(
+                        "candidates", List.of(Map.of(
+                                "content", Map.of("role", "model", "parts", List.of(Map.of("text", answer))),
+                                "finishReason", malformed ? "MAX_TOKENS" : "STOP")),
+                        "usageMetadata", Map.of(
+                                "promptTokenCount", promptTokens,
+                                "candidatesTokenCount", answerTokens,
+                                "totalTokenCount", promptTokens + answerTokens))));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int promptChars(JsonNode contents) {
+        int chars = 0;
+        for (JsonNode turn : contents) {
+            for (JsonNode part : turn.path("parts")) {
+                chars += part.path("text").asText("").length();
+            }
+        }
+        return chars;
+    }
+
+    private String error(int code, String status, String message) throws IOException {
+        return objectMapper.writeValueAsString(Map.of("error", Map.of("code", code, "message", message, "status", status)));
+    }
+
+    private void respond(HttpExchange exchange, String kind, int status, String body) throws IOException {
+        responseCounts.computeIfAbsent(kind + " " + status, key -> new LongAdder()).increment();
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,59 @@
+package com.yourcompany.intellirefer.loadtest;
+
+import com.yourcompany.intellirefer.dto.LLMResponse;
+import com.yourcompany.intellirefer.service.LLMService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that {@link LLMService} understands the stub's responses, so load runs exercise the real parsing path.
+ */
+class GeminiStubTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void answersEachPromptWithItsCannedResponse() throws Exception {
+        try (GeminiStub stub = new GeminiStub(GeminiStub.Settings.immediate())) {
+            LLMService llmService = llmService(stub);
+
+            LLMResponse match = llmService.getMatchScore("Java developer", "Java resume").block();
+            assertEquals(78, match.score());
+            assertEquals(List.of("Java", "Spring Boot", "SQL", "REST APIs", "Microservices"), match.matchingSkills());
+            assertEquals(7, llmService.extractSkillsFromResume("Java resume").block().skills().size());
+            assertEquals(3, llmService.extractExperienceFromJd("Java developer").block().requiredExperience());
+
+            assertEquals(1, registry.get("llm.requests").tag("operation", "match_score").tag("outcome", "success").timer().count());
+        }
+    }
+
+    @Test
+    void rateLimitsAtConfiguredRate() throws Exception {
+        GeminiStub.Settings settings = new GeminiStub.Settings(0, 0, 0, 0, 0, 1.0, 0, 0, GeminiStub.Settings.DEFAULT_RESPONSES);
+        try (GeminiStub stub = new GeminiStub(settings)) {
+            LLMService llmService = llmService(stub);
+
+            assertThrows(WebClientResponseException.TooManyRequests.class,
+                    () -> llmService.getMatchScore("Java developer", "Java resume").block());
+            assertEquals(1, registry.get("llm.requests").tag("outcome", "rate_limited").timer().count());
+            assertEquals(1L, stub.responseCounts().get("match_score 429"));
+        }
+    }
+
+    private LLMService llmService(GeminiStub stub) {
+        LLMService llmService = new LLMService(WebClient.builder(), registry, Tracer.NOOP);
+        ReflectionTestUtils.setField(llmService, "apiUrlTemplate", stub.urlTemplate());
+        ReflectionTestUtils.setField(llmService, "apiKey", "test-key");
+        return llmService;
+    }
+}
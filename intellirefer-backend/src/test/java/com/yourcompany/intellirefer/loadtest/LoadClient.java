@@ -0,0 +1,154 @@
+package com.yourcompany.intellirefer.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP client for the load scenarios. Every call is timed and recorded under its endpoint
+ * (method and path template, not the concrete URL) in the current {@link Scenario}.
+ */
+class LoadClient {
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+
+    LoadClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    JsonNode postJson(Scenario scenario, String endpoint, String path, String token, Object body) throws IOException {
+        HttpRequest.Builder request = request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+        return send(scenario, endpoint, request);
+    }
+
+    JsonNode get(Scenario scenario, String endpoint, String path, String token) throws IOException {
+        return send(scenario, endpoint, request(path, token).GET());
+    }
+
+    /**
+     * Posts a multipart form with text fields and one file part named {@code file}.
+     */
+    JsonNode postMultipart(Scenario scenario, String endpoint, String path, String token,
+                           Map<String, String> fields, String fileName, byte[] content) throws IOException {
+        String boundary = "----load-" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(content.length + 1024);
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            body.writeBytes(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + field.getKey() + "\"\r\n\r\n"
+                    + field.getValue() + "\r\n").getBytes(StandardCharsets.UTF_8));
+        }
+        body.writeBytes(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"" + fileName
+                + "\"\r\nContent-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(content);
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        HttpRequest.Builder request = request(path, token)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()));
+        return send(scenario, endpoint, request);
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(60));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return request;
+    }
+
+    /**
+     * Sends the request and returns the parsed JSON body, or null when the call failed.
+     * Failures are counted rather than thrown so one bad response does not stop a scenario.
+     */
+    private JsonNode send(Scenario scenario, String endpoint, HttpRequest.Builder request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            boolean ok = response.statusCode() / 100 == 2;
+            scenario.record(endpoint, System.nanoTime() - start, ok);
+            return ok && !response.body().isEmpty() ? objectMapper.readTree(response.body()) : null;
+        } catch (IOException e) {
+            scenario.record(endpoint, System.nanoTime() - start, false);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Latencies of every request made during one scenario, grouped by endpoint.
+     */
+    static class Scenario {
+
+        final String name;
+        private final long startNanos = System.nanoTime();
+        private volatile long endNanos;
+        private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+        Scenario(String name) {
+            this.name = name;
+        }
+
+        void record(String endpoint, long nanos, boolean ok) {
+            endpoints.computeIfAbsent(endpoint, key -> new Endpoint()).record(nanos, ok);
+        }
+
+        void finish() {
+            endNanos = System.nanoTime();
+        }
+
+        double elapsedSeconds() {
+            return ((endNanos == 0 ? System.nanoTime() : endNanos) - startNanos) / 1e9;
+        }
+
+        Map<String, Endpoint> endpoints() {
+            return endpoints;
+        }
+    }
+
+    /**
+     * Keeps every sample, so percentiles are exact; a load run produces at most a few hundred thousand.
+     */
+    static class Endpoint {
+
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final LongAdder errors = new LongAdder();
+
+        void record(long nanos, boolean ok) {
+            latencies.add(nanos);
+            if (!ok) {
+                errors.increment();
+            }
+        }
+
+        long errors() {
+            return errors.sum();
+        }
+
+        List<Long> sortedLatencies() {
+            List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            return sorted;
+        }
+    }
+}
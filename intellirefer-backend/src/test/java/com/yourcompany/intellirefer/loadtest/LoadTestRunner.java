@@ -0,0 +1,329 @@
+package com.yourcompany.intellirefer.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.yourcompany.intellirefer.IntellireferApplication;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load test: starts the application on a random port against an in-memory H2 database and a
+ * {@link GeminiStub}, then runs, in order, bulk employee registration, resume uploads, concurrent JD uploads
+ * and dashboard polling while the resulting matching runs complete.
+ * <p>
+ * Reports throughput and latency percentiles per endpoint for each scenario, then the application's own
+ * {@code matching.run} and {@code llm.requests} timers. Every matching run also logs a one-line summary.
+ * <p>
+ * Run with: {@code mvn -Pload-test test-compile exec:exec -Dload.args="-Dload.employees=500 -Dstub.rate-limit-rate=0.05"}
+ * <ul>
+ *     <li>{@code load.employees} (200), {@code load.jds} (10), {@code load.concurrency} (16)</li>
+ *     <li>{@code load.poll-seconds} (30): how long managers and employees poll their dashboards</li>
+ *     <li>{@code load.matching-timeout-seconds} (600): how long to wait for matching runs to finish</li>
+ *     <li>{@code stub.*}: latency, stragglers, 429, error and malformed-reply rates and canned responses, see {@link GeminiStub.Settings}</li>
+ *     <li>application properties such as {@code -Dllm.hedging.enabled=true}, e.g. to compare LLM tail latency with and without hedging
+ *     under {@code -Dstub.straggler-rate=0.03}</li>
+ * </ul>
+ */
+public class LoadTestRunner {
+
+    private static final String PASSWORD = "LoadTestPassword123!";
+
+    private final int employees = Integer.getInteger("load.employees", 200);
+    private final int jds = Integer.getInteger("load.jds", 10);
+    private final int concurrency = Integer.getInteger("load.concurrency", 16);
+    private final long pollSeconds = Long.getLong("load.poll-seconds", 30);
+    private final long matchingTimeoutSeconds = Long.getLong("load.matching-timeout-seconds", 600);
+
+    private LoadClient client;
+    private MeterRegistry appRegistry;
+
+    public static void main(String[] args) throws Exception {
+        new LoadTestRunner().run();
+    }
+
+    private void run() throws Exception {
+        GeminiStub.Settings stubSettings = GeminiStub.Settings.fromSystemProperties();
+        Path storage = Files.createTempDirectory("intellirefer-load");
+        try (GeminiStub stub = new GeminiStub(stubSettings);
+             // Passed as arguments so they override the test application.properties.
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(IntellireferApplication.class).run(
+                     "--server.port=0",
+                     "--spring.datasource.url=jdbc:h2:mem:intellirefer-load;MODE=MySQL;NON_KEYWORDS=CURRENT_ROLE;DB_CLOSE_DELAY=-1",
+                     "--storage.location=" + storage,
+                     "--llm.google.api.url_template=" + stub.urlTemplate(),
+                     "--management.metrics.distribution.percentiles.matching.run=0.5,0.95,0.99",
+                     "--management.metrics.distribution.percentiles.llm.requests=0.5,0.95,0.99",
+                     "--logging.level.root=WARN",
+                     "--logging.level.org.apache.pdfbox=ERROR",
+                     "--logging.level.com.yourcompany.intellirefer.service.MatchingMetrics=INFO")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            client = new LoadClient("http://localhost:" + port);
+            appRegistry = context.getBean(MeterRegistry.class);
+            System.out.printf("Application on port %d, Gemini stub %s%n%n", port, stubSettings);
+
+            String[] employeeTokens = registerEmployees();
+            uploadResumes(employeeTokens);
+            String managerToken = loginManager(context.getEnvironment());
+            List<Long> jdIds = uploadJds(managerToken);
+            pollDashboards(managerToken, employeeTokens, jdIds);
+            awaitMatchingRuns();
+
+            reportMatching();
+            System.out.println("Gemini stub responses: " + stub.responseCounts());
+        }
+    }
+
+    private String[] registerEmployees() {
+        String[] tokens = new String[employees];
+        runScenario("bulk employee registration", employees, (scenario, i) -> {
+            String email = "load-employee-" + i + "@loadtest.example";
+            client.postJson(scenario, "POST /api/auth/register", "/api/auth/register", null, Map.of(
+                    "fullName", "Load Employee " + i,
+                    "email", email,
+                    "password", PASSWORD,
+                    "yearsOfExperience", i % 12));
+            tokens[i] = token(client.postJson(scenario, "POST /api/auth/login", "/api/auth/login", null,
+                    Map.of("email", email, "password", PASSWORD)));
+        });
+        return tokens;
+    }
+
+    private void uploadResumes(String[] employeeTokens) throws IOException {
+        byte[] resume = resumePdf();
+        runScenario("resume uploads", employees, (scenario, i) -> {
+            if (employeeTokens[i] != null) {
+                client.postMultipart(scenario, "POST /api/employee/me/resume", "/api/employee/me/resume",
+                        employeeTokens[i], Map.of(), "resume-" + i + ".pdf", resume);
+            }
+        });
+    }
+
+    private String loginManager(Environment environment) {
+        LoadClient.Scenario scenario = new LoadClient.Scenario("manager login");
+        try {
+            return token(client.postJson(scenario, "POST /api/auth/login", "/api/auth/login", null, Map.of(
+                    "email", environment.getRequiredProperty("admin.default.email"),
+                    "password", environment.getRequiredProperty("admin.default.password"))));
+        } catch (IOException e) {
+            throw new IllegalStateException("Manager login failed", e);
+        }
+    }
+
+    private List<Long> uploadJds(String managerToken) throws IOException {
+        byte[] jd = pdf("Senior Backend Engineer", "We need at least 3 years of experience with Java, Spring Boot,",
+                "SQL and REST APIs. Experience with microservices and Docker is a plus.");
+        List<Long> jdIds = Collections.synchronizedList(new ArrayList<>());
+        runScenario("concurrent JD uploads", jds, (scenario, i) -> {
+            JsonNode created = client.postMultipart(scenario, "POST /api/manager/jds", "/api/manager/jds", managerToken,
+                    Map.of("title", "Backend Engineer " + i, "clientName", "Load Client " + (i % 3)), "jd-" + i + ".pdf", jd);
+            if (created != null) {
+                jdIds.add(created.path("id").asLong());
+            }
+        });
+        return jdIds;
+    }
+
+    /**
+     * Managers poll their JD list and recommendations, employees their profile, while matching runs in the background.
+     */
+    private void pollDashboards(String managerToken, String[] employeeTokens, List<Long> jdIds) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(pollSeconds);
+        runScenario("dashboard polling", concurrency, (scenario, worker) -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < deadline) {
+                switch (random.nextInt(3)) {
+                    case 0 -> client.get(scenario, "GET /api/manager/jds", "/api/manager/jds?limit=20", managerToken);
+                    case 1 -> {
+                        if (!jdIds.isEmpty()) {
+                            long jdId = jdIds.get(random.nextInt(jdIds.size()));
+                            client.get(scenario, "GET /api/manager/jds/{jdId}/recommendations",
+                                    "/api/manager/jds/" + jdId + "/recommendations?limit=20", managerToken);
+                        }
+                    }
+                    default -> {
+                        String token = employeeTokens[random.nextInt(employeeTokens.length)];
+                        if (token != null) {
+                            client.get(scenario, "GET /api/employee/me", "/api/employee/me", token);
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    private void awaitMatchingRuns() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(matchingTimeoutSeconds);
+        while (finishedRuns() < jds || activeRuns() > 0) {
+            if (System.nanoTime() > deadline) {
+                System.out.printf("Gave up waiting for matching: %d of %d runs finished, %d still active%n",
+                        finishedRuns(), jds, activeRuns());
+                return;
+            }
+            Thread.sleep(500);
+        }
+    }
+
+    private long finishedRuns() {
+        return appRegistry.find("matching.run").timers().stream().mapToLong(Timer::count).sum();
+    }
+
+    private double activeRuns() {
+        Gauge gauge = appRegistry.find("matching.runs.active").gauge();
+        return gauge == null ? 0 : gauge.value();
+    }
+
+    private void runScenario(String name, int tasks, Task task) {
+        LoadClient.Scenario scenario = new LoadClient.Scenario(name);
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                int index = i;
+                futures.add(pool.submit(() -> {
+                    task.run(scenario, index);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Scenario '" + name + "' failed", e);
+        } finally {
+            pool.shutdownNow();
+            scenario.finish();
+        }
+        report(scenario);
+    }
+
+    private void report(LoadClient.Scenario scenario) {
+        System.out.printf("== %s: %.1f s, %d threads%n", scenario.name, scenario.elapsedSeconds(), concurrency);
+        System.out.printf("%-46s %8s %7s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s",
+                "p50 ms", "p95 ms", "p99 ms", "max ms");
+        new TreeMap<>(scenario.endpoints()).forEach((endpoint, stats) -> {
+            List<Long> latencies = stats.sortedLatencies();
+            System.out.printf("%-46s %8d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n", endpoint, latencies.size(), stats.errors(),
+                    latencies.size() / scenario.elapsedSeconds(), percentileMs(latencies, 0.5), percentileMs(latencies, 0.95),
+                    percentileMs(latencies, 0.99), latencies.get(latencies.size() - 1) / 1e6);
+        });
+        System.out.println();
+    }
+
+    private void reportMatching() {
+        System.out.println("== matching runs");
+        for (Timer timer : appRegistry.find("matching.run").timers()) {
+            printTimer("matching.run outcome=" + timer.getId().getTag("outcome"), timer);
+        }
+        System.out.printf("candidates: %.0f considered, %.0f scored, %.0f failed%n",
+                counter("matching.candidates.considered"), counter("matching.candidates.scored"), counter("matching.candidates.failed"));
+        System.out.println();
+
+        System.out.println("== LLM calls");
+        for (Timer timer : appRegistry.find("llm.requests").timers()) {
+            printTimer("llm.requests " + timer.getId().getTag("operation") + " " + timer.getId().getTag("outcome"), timer);
+        }
+        for (Counter responses : appRegistry.find("llm.responses").counters()) {
+            System.out.printf("%-46s %.0f%n", "llm.responses " + responses.getId().getTag("operation") + " "
+                    + responses.getId().getTag("attempt") + " " + responses.getId().getTag("parse"), responses.count());
+        }
+        for (Counter wasted : appRegistry.find("llm.calls.wasted").counters()) {
+            System.out.printf("%-46s %.0f%n", "llm.calls.wasted " + wasted.getId().getTag("operation") + " "
+                    + wasted.getId().getTag("outcome"), wasted.count());
+        }
+        for (Counter tokens : appRegistry.find("llm.tokens").counters()) {
+            System.out.printf("%-46s %.0f%n", "llm.tokens " + tokens.getId().getTag("operation") + " "
+                    + tokens.getId().getTag("type"), tokens.count());
+        }
+        for (Counter coalesced : appRegistry.find("llm.calls.coalesced").counters()) {
+            System.out.printf("%-46s %.0f%n", "llm.calls.coalesced " + coalesced.getId().getTag("operation"), coalesced.count());
+        }
+        for (Counter hedges : appRegistry.find("llm.hedges").counters()) {
+            System.out.printf("%-46s %.0f%n", "llm.hedges " + hedges.getId().getTag("operation") + " "
+                    + hedges.getId().getTag("outcome"), hedges.count());
+        }
+        for (Timer saved : appRegistry.find("llm.hedges.saved").timers()) {
+            printTimer("llm.hedges.saved " + saved.getId().getTag("operation"), saved);
+        }
+        System.out.println();
+    }
+
+    private void printTimer(String name, Timer timer) {
+        StringBuilder line = new StringBuilder(String.format("%-46s count=%d mean=%.1f ms max=%.1f ms", name, timer.count(),
+                timer.mean(TimeUnit.MILLISECONDS), timer.max(TimeUnit.MILLISECONDS)));
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            line.append(String.format(" p%.0f=%.1f ms", percentile.percentile() * 100, percentile.value(TimeUnit.MILLISECONDS)));
+        }
+        System.out.println(line);
+    }
+
+    private double counter(String name) {
+        Counter counter = appRegistry.find(name).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static double percentileMs(List<Long> sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(index, 0)) / 1e6;
+    }
+
+    private static String token(JsonNode authResponse) {
+        return authResponse == null ? null : authResponse.path("accessToken").asText(null);
+    }
+
+    private static byte[] resumePdf() throws IOException {
+        return pdf("Load Employee", "Backend engineer with experience in Java, Spring Boot, SQL and REST APIs.",
+                "Built microservices deployed with Docker. Comfortable with Git and code review.");
+    }
+
+    private static byte[] pdf(String... lines) throws IOException {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.beginText();
+                content.setFont(PDType1Font.HELVETICA, 11);
+                content.setLeading(14);
+                content.newLineAtOffset(50, 720);
+                for (String line : lines) {
+                    content.showText(line);
+                    content.newLine();
+                }
+                content.endText();
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Task {
+        void run(LoadClient.Scenario scenario, int index) throws Exception;
+    }
+}
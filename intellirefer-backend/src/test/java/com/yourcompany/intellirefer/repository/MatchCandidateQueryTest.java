@@ -0,0 +1,88 @@
+package com.yourcompany.intellirefer.repository;
+
+import com.yourcompany.intellirefer.dto.MatchCandidate;
+import com.yourcompany.intellirefer.entity.EmployeeProfile;
+import com.yourcompany.intellirefer.entity.User;
+import com.yourcompany.intellirefer.model.enums.AvailabilityStatus;
+import com.yourcompany.intellirefer.model.enums.Role;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the matching engine's candidate filters run in SQL and that walking the chunks
+ * returns every candidate exactly once.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class MatchCandidateQueryTest {
+
+    private static final LocalDate THRESHOLD = LocalDate.now().plusDays(90);
+
+    @Autowired private EmployeeProfileRepository employeeProfileRepository;
+    @Autowired private EntityManager entityManager;
+
+    @Test
+    void filtersByExperienceAndResumeAcrossChunks() {
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            expected.add(employee("senior" + i, AvailabilityStatus.AVAILABLE, null, 5, "resumes/" + i + ".pdf"));
+        }
+        employee("junior", AvailabilityStatus.AVAILABLE, null, 1, "resumes/junior.pdf");
+        employee("unknown-experience", AvailabilityStatus.AVAILABLE, null, null, "resumes/unknown.pdf");
+        employee("no-resume", AvailabilityStatus.AVAILABLE, null, 8, null);
+        employee("busy", AvailabilityStatus.ON_PROJECT, null, 8, "resumes/busy.pdf");
+
+        assertEquals(expected, allCandidates(AvailabilityStatus.AVAILABLE, null, 3));
+    }
+
+    @Test
+    void onProjectCandidatesMustBeFreeByTheThreshold() {
+        Long soon = employee("soon", AvailabilityStatus.ON_PROJECT, LocalDate.now().plusDays(30), 0, "resumes/soon.pdf");
+        employee("later", AvailabilityStatus.ON_PROJECT, LocalDate.now().plusDays(120), 0, "resumes/later.pdf");
+        employee("open-ended", AvailabilityStatus.ON_PROJECT, null, 0, "resumes/open.pdf");
+        employee("reserved", AvailabilityStatus.RESERVED, LocalDate.now(), 0, "resumes/reserved.pdf");
+
+        assertEquals(List.of(soon), allCandidates(AvailabilityStatus.ON_PROJECT, THRESHOLD, 0));
+    }
+
+    private List<Long> allCandidates(AvailabilityStatus availability, LocalDate availableBy, int minExperience) {
+        List<Long> ids = new ArrayList<>();
+        List<MatchCandidate> chunk;
+        do {
+            long afterUserId = ids.isEmpty() ? 0 : ids.get(ids.size() - 1);
+            chunk = employeeProfileRepository.findMatchCandidates(availability, availableBy, minExperience, afterUserId,
+                    PageRequest.of(0, 2));
+            chunk.forEach(candidate -> ids.add(candidate.getUserId()));
+        } while (chunk.size() == 2);
+        return ids;
+    }
+
+    private Long employee(String name, AvailabilityStatus availability, LocalDate availableOn, Integer experience, String resume) {
+        User user = new User();
+        user.setEmail(name + "@test");
+        user.setPasswordHash("hash");
+        user.setRole(Role.EMPLOYEE);
+        entityManager.persist(user);
+
+        EmployeeProfile employee = new EmployeeProfile();
+        employee.setUser(user);
+        employee.setFullName(name);
+        employee.setAvailability(availability);
+        employee.setExpectedAvailabilityDate(availableOn);
+        employee.setYearsOfExperience(experience);
+        employee.setResumeFilePath(resume);
+        entityManager.persist(employee);
+        entityManager.flush();
+        return employee.getUserId();
+    }
+}
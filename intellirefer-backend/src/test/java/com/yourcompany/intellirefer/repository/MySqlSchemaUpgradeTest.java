@@ -0,0 +1,147 @@
+package com.yourcompany.intellirefer.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * {@link SchemaUpgradeTest} on MySQL, where the migrations run as they do in production: the
+ * unique keys V2 drops are looked up by their columns, V2 merges skills whose names differ
+ * only in case or surrounding blanks, and V5 splits the comma-joined matching skills of
+ * referrals into rows. Skipped where no Docker daemon is available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class MySqlSchemaUpgradeTest {
+
+    @Container
+    private static final MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withUsername("root")
+            .withPassword("intellirefer");
+
+    @Test
+    void upgradedDatabaseMatchesOneMigratedFromScratch() throws Exception {
+        DataSource existing = database();
+        new ResourceDatabasePopulator(new ClassPathResource("db/pre-migration/mysql/schema.sql")).execute(existing);
+        JdbcTemplate jdbc = new JdbcTemplate(existing);
+        seed(jdbc);
+
+        Flyway upgrade = flyway(existing);
+        upgrade.migrate();
+
+        DataSource fresh = database();
+        Flyway scratch = flyway(fresh);
+        scratch.migrate();
+
+        assertEquals(scratch.info().current().getVersion(), upgrade.info().current().getVersion());
+        assertEquals(SchemaSnapshot.of(fresh), SchemaSnapshot.of(existing));
+        assertEquals(List.of("java", "spring boot"), jdbc.queryForList("SELECT name_key FROM skills ORDER BY id", String.class));
+        assertEquals(List.of(1, 2), jdbc.queryForList("SELECT skill_id FROM employee_skills WHERE employee_user_id = 2 ORDER BY skill_id", Integer.class),
+                "the employee keeps one of the two Java skills");
+        assertEquals(List.of(1), jdbc.queryForList("SELECT skill_id FROM employee_skills WHERE employee_user_id = 3", Integer.class),
+                "the merged skill's employees move to the one kept");
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM referrals", Integer.class));
+
+        jdbc.update("UPDATE employee_profiles SET resume_file_path = 'resumes/first.pdf' WHERE user_id = 3");
+        jdbc.update("INSERT INTO job_descriptions (title, jd_file_path, status, uploaded_by_manager_id) VALUES "
+                + "('Backend Engineer II', 'jds/backend.pdf', 'OPEN', 1)");
+    }
+
+    @Test
+    void upgradesADatabaseWhoseFilePathKeysWereAlreadyDropped() throws Exception {
+        DataSource existing = database();
+        new ResourceDatabasePopulator(new ClassPathResource("db/pre-migration/mysql/schema.sql")).execute(existing);
+        JdbcTemplate jdbc = new JdbcTemplate(existing);
+        jdbc.execute("ALTER TABLE employee_profiles DROP INDEX UKg60c1gmifnmer4bp3x9sk621k");
+        jdbc.execute("ALTER TABLE job_descriptions DROP INDEX UKfjo2m1mprikbqj9v3labvxk5x");
+
+        flyway(existing).migrate();
+
+        DataSource fresh = database();
+        flyway(fresh).migrate();
+        assertEquals(SchemaSnapshot.of(fresh), SchemaSnapshot.of(existing));
+    }
+
+    @Test
+    void splitsCommaJoinedMatchingSkillsIntoRows() {
+        DataSource existing = database();
+        new ResourceDatabasePopulator(new ClassPathResource("db/pre-migration/mysql/schema.sql")).execute(existing);
+        JdbcTemplate jdbc = new JdbcTemplate(existing);
+        seed(jdbc);
+        String tooLong = "x".repeat(101);
+        List<String> lists = Arrays.asList(
+                "Java, spring boot ,  Kafka",
+                " , Java,,JAVA, java , docker,",
+                "kafka, " + tooLong,
+                "",
+                null);
+        for (int i = 0; i < lists.size(); i++) {
+            jdbc.update("INSERT INTO job_descriptions (id, title, jd_file_path, status, uploaded_by_manager_id) VALUES (?, 'Skills', ?, 'OPEN', 1)",
+                    10 + i, "jds/skills-" + i + ".pdf");
+            jdbc.update("INSERT INTO referrals (id, job_description_id, employee_user_id, match_score, matching_skills, status) "
+                    + "VALUES (?, ?, 3, 50, ?, 'PENDING_REVIEW')", 10 + i, 10 + i, lists.get(i));
+        }
+
+        flyway(existing).migrate();
+
+        assertEquals(List.of("Docker", "Java", "Kafka", "Spring Boot"),
+                jdbc.queryForList("SELECT name FROM skills ORDER BY name_key", String.class),
+                "new names become skills once each, capitalized; known names keep their skill");
+        assertEquals(List.of(
+                        "10:0:Java", "10:1:Spring Boot", "10:2:Kafka",
+                        "11:0:Java", "11:1:Docker",
+                        "12:0:Kafka"),
+                jdbc.queryForList("SELECT CONCAT(m.referral_id, ':', m.position, ':', s.name) FROM referral_matching_skills m "
+                        + "JOIN skills s ON s.id = m.skill_id ORDER BY m.referral_id, m.position", String.class),
+                "blanks and over-long names are dropped, a repeated name keeps its first position, and positions have no gaps");
+    }
+
+    private static void seed(JdbcTemplate jdbc) {
+        jdbc.update("INSERT INTO users (id, email, password_hash, role) VALUES (1, 'manager@intellirefer.test', 'hash', 'MANAGER'), "
+                + "(2, 'first@intellirefer.test', 'hash', 'EMPLOYEE'), (3, 'second@intellirefer.test', 'hash', 'EMPLOYEE')");
+        jdbc.update("INSERT INTO employee_profiles (user_id, full_name, resume_file_path, availability) VALUES "
+                + "(2, 'First', 'resumes/first.pdf', 'AVAILABLE'), (3, 'Second', 'resumes/second.pdf', 'ON_PROJECT')");
+        // The baseline's unique key already rejects names differing only in case, but not in
+        // leading blanks, which V2's name_key trims away.
+        jdbc.update("INSERT INTO skills (id, name) VALUES (1, 'Java'), (2, 'Spring Boot'), (3, ' java')");
+        jdbc.update("INSERT INTO employee_skills (employee_user_id, skill_id) VALUES (2, 1), (2, 2), (2, 3), (3, 3)");
+        jdbc.update("INSERT INTO job_descriptions (id, title, jd_file_path, status, uploaded_by_manager_id) VALUES "
+                + "(1, 'Backend Engineer', 'jds/backend.pdf', 'OPEN', 1)");
+        jdbc.update("INSERT INTO referrals (id, job_description_id, employee_user_id, match_score, status) VALUES (1, 1, 2, 80, 'PENDING_REVIEW')");
+    }
+
+    /**
+     * A new, empty database in the container.
+     */
+    private static DataSource database() {
+        String name = "upgrade_" + UUID.randomUUID().toString().replace("-", "");
+        DriverManagerDataSource server = new DriverManagerDataSource(mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword());
+        new JdbcTemplate(server).execute("CREATE DATABASE " + name);
+        String url = mysql.getJdbcUrl().replace("/" + mysql.getDatabaseName(), "/" + name);
+        return new DriverManagerDataSource(url, mysql.getUsername(), mysql.getPassword());
+    }
+
+    /**
+     * Flyway as spring.flyway.* configures it for an existing database.
+     */
+    private static Flyway flyway(DataSource dataSource) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/mysql")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
+    }
+}
@@ -0,0 +1,120 @@
+package com.yourcompany.intellirefer.repository;
+
+import com.yourcompany.intellirefer.model.enums.AvailabilityStatus;
+import com.yourcompany.intellirefer.model.enums.JdStatus;
+import com.yourcompany.intellirefer.model.enums.ReferralStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the SQL that Hibernate generates for the hot repository methods through {@code EXPLAIN}
+ * on the migrated schema, so that dropping an index or rewriting a query into a full scan fails the build.
+ */
+@DataJpaTest(showSql = false, properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.yourcompany.intellirefer.repository.RecordingStatementInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class QueryPlanTest {
+
+    @Autowired private EmployeeProfileRepository employeeProfileRepository;
+    @Autowired private ReferralRepository referralRepository;
+    @Autowired private ReferralMatchingSkillRepository referralMatchingSkillRepository;
+    @Autowired private JobDescriptionRepository jobDescriptionRepository;
+    @Autowired private SkillRepository skillRepository;
+    @Autowired private StoredBlobRepository storedBlobRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void recommendationPageSeeksOnJdScoreIndex() {
+        String plan = planOf(() -> referralRepository.findRowPage(1L, 80, 10L, 0,
+                List.of(ReferralStatus.PENDING_REVIEW), null, PageRequest.of(0, 20)));
+
+        assertUsesIndex(plan, "IDX_REFERRALS_JD_SCORE_ID");
+    }
+
+    @Test
+    void referralSkillSearchSeeksOnSkillReferralIndex() {
+        String plan = planOf(() -> referralMatchingSkillRepository.findRowPageBySkills(1L, JdStatus.OPEN,
+                List.of(ReferralStatus.PENDING_REVIEW), 7, List.of(7, 8), 2, 1000L, PageRequest.of(0, 20)));
+
+        assertUsesIndex(plan, "IDX_REFERRAL_MATCHING_SKILLS_SKILL_REFERRAL");
+        assertUsesIndex(plan, "UK_REFERRAL_MATCHING_SKILLS_REFERRAL_SKILL");
+    }
+
+    @Test
+    void referralLookupUsesUniqueJdEmployeeKey() {
+        String plan = planOf(() -> referralRepository.findByJobDescriptionIdAndEmployeeUserId(1L, 2L));
+
+        assertUsesIndex(plan, "UK_REFERRALS_JD_EMPLOYEE");
+    }
+
+    @Test
+    void managerJdPageSeeksOnManagerCreatedIndex() {
+        String plan = planOf(() -> jobDescriptionRepository.findPageByManager(1L, Instant.now(), 10L, PageRequest.of(0, 20)));
+
+        assertUsesIndex(plan, "IDX_JDS_MANAGER_CREATED_ID");
+    }
+
+    @Test
+    void matchingCandidateChunksSeekOnAvailabilityUserIndex() {
+        String plan = planOf(() -> employeeProfileRepository.findMatchCandidates(AvailabilityStatus.ON_PROJECT,
+                LocalDate.now(), 3, 100L, PageRequest.of(0, 500)));
+
+        assertUsesIndex(plan, "IDX_EMPLOYEE_PROFILES_AVAILABILITY_USER");
+    }
+
+    @Test
+    void selectedEmployeesReportFindsLatestReferralByIndex() {
+        String plan = planOf(() -> employeeProfileRepository.findSelectedEmployees(
+                List.of(AvailabilityStatus.ON_PROJECT, AvailabilityStatus.RESERVED),
+                List.of(ReferralStatus.SELECTED, ReferralStatus.RESERVED), null, PageRequest.of(0, 50)));
+
+        assertUsesIndex(plan, "IDX_EMPLOYEE_PROFILES_AVAILABILITY_DATE");
+        assertUsesIndex(plan, "IDX_REFERRALS_EMPLOYEE_STATUS_ID");
+    }
+
+    @Test
+    void skillLookupUsesNameKey() {
+        String plan = planOf(() -> skillRepository.findByNameIgnoreCase(" Java "));
+
+        assertUsesIndex(plan, "UK_SKILLS_NAME_KEY");
+    }
+
+    @Test
+    void storageMigrationPathUpdatesUseIndexes() {
+        assertUsesIndex(planOf(() -> employeeProfileRepository.updateResumeFilePath("a", "b")),
+                "IDX_EMPLOYEE_PROFILES_RESUME_FILE_PATH");
+        assertUsesIndex(planOf(() -> jobDescriptionRepository.updateJdFilePath("a", "b")), "IDX_JDS_JD_FILE_PATH");
+    }
+
+    @Test
+    void blobSweepUsesRefCountIndex() {
+        String plan = planOf(() -> storedBlobRepository.findByRefCountLessThanEqualAndReleasedAtBefore(0, Instant.now()));
+
+        assertUsesIndex(plan, "IDX_STORED_BLOBS_REF_COUNT_RELEASED_AT");
+    }
+
+    /**
+     * Runs the repository call and returns the H2 plan of the last statement it issued.
+     */
+    private String planOf(Runnable repositoryCall) {
+        RecordingStatementInspector.clear();
+        repositoryCall.run();
+        return jdbcTemplate.queryForObject("EXPLAIN " + RecordingStatementInspector.last(), String.class);
+    }
+
+    private static void assertUsesIndex(String plan, String indexName) {
+        assertTrue(plan.contains("PUBLIC." + indexName), () -> "Expected " + indexName + " in plan:\n" + plan);
+        assertFalse(plan.contains(".tableScan"), () -> "Unexpected table scan in plan:\n" + plan);
+    }
+}
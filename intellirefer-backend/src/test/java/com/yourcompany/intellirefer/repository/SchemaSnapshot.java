@@ -0,0 +1,79 @@
+package com.yourcompany.intellirefer.repository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The tables, columns and indexes of a database as its JDBC metadata reports them, so that a
+ * database upgraded by the migrations can be compared with one they created from scratch.
+ * <p>
+ * Indexes are compared by their columns and uniqueness. Only the names the migrations choose
+ * ({@code idx_...}) are compared too; the databases name the others themselves.
+ */
+record SchemaSnapshot(Map<String, List<String>> columns, Map<String, List<String>> indexes) {
+
+    static SchemaSnapshot of(DataSource dataSource) throws SQLException {
+        Map<String, List<String>> columns = new TreeMap<>();
+        Map<String, List<String>> indexes = new TreeMap<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String catalog = connection.getCatalog();
+            String schema = connection.getSchema();
+            try (ResultSet tables = metaData.getTables(catalog, schema, "%", new String[] {"TABLE"})) {
+                while (tables.next()) {
+                    String table = tables.getString("TABLE_NAME");
+                    if (!table.equalsIgnoreCase("flyway_schema_history")) {
+                        columns.put(lower(table), columnsOf(metaData, catalog, schema, table));
+                        indexes.put(lower(table), indexesOf(metaData, catalog, schema, table));
+                    }
+                }
+            }
+        }
+        return new SchemaSnapshot(columns, indexes);
+    }
+
+    private static List<String> columnsOf(DatabaseMetaData metaData, String catalog, String schema, String table) throws SQLException {
+        List<String> columns = new ArrayList<>();
+        try (ResultSet rows = metaData.getColumns(catalog, schema, table, "%")) {
+            while (rows.next()) {
+                columns.add(lower(rows.getString("COLUMN_NAME")) + " " + rows.getString("TYPE_NAME") + "(" + rows.getInt("COLUMN_SIZE") + ")"
+                        + (rows.getInt("NULLABLE") == DatabaseMetaData.columnNoNulls ? " not null" : ""));
+            }
+        }
+        columns.sort(null);
+        return columns;
+    }
+
+    private static List<String> indexesOf(DatabaseMetaData metaData, String catalog, String schema, String table) throws SQLException {
+        Map<String, String> columnsByIndex = new TreeMap<>();
+        Map<String, Boolean> uniqueByIndex = new TreeMap<>();
+        try (ResultSet rows = metaData.getIndexInfo(catalog, schema, table, false, false)) {
+            while (rows.next()) {
+                String name = lower(rows.getString("INDEX_NAME"));
+                if (name == null || rows.getString("COLUMN_NAME") == null) {
+                    continue;
+                }
+                // Rows come ordered by index and then by the column's position in it.
+                columnsByIndex.merge(name, lower(rows.getString("COLUMN_NAME")), (first, next) -> first + ", " + next);
+                uniqueByIndex.put(name, !rows.getBoolean("NON_UNIQUE"));
+            }
+        }
+        List<String> indexes = new ArrayList<>();
+        columnsByIndex.forEach((name, indexColumns) -> indexes.add((uniqueByIndex.get(name) ? "unique" : "index")
+                + " (" + indexColumns + ")" + (name.startsWith("idx_") ? " " + name : "")));
+        indexes.sort(null);
+        return indexes;
+    }
+
+    private static String lower(String name) {
+        return name != null ? name.toLowerCase(Locale.ROOT) : null;
+    }
+}
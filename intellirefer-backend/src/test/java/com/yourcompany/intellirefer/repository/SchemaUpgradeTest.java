@@ -0,0 +1,89 @@
+package com.yourcompany.intellirefer.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Upgrades a database created by Hibernate before Flyway took over the schema, the way the
+ * application does (baseline at version 1, then migrate), and checks that it ends up with the
+ * same schema as a database the migrations create from scratch, with its rows intact.
+ * <p>
+ * Runs on H2; {@link MySqlSchemaUpgradeTest} does the same on MySQL where Docker is available.
+ */
+class SchemaUpgradeTest {
+
+    private final List<JdbcTemplate> databases = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        databases.forEach(database -> database.execute("SHUTDOWN"));
+    }
+
+    @Test
+    void upgradedDatabaseMatchesOneMigratedFromScratch() throws Exception {
+        DataSource existing = database();
+        new ResourceDatabasePopulator(new ClassPathResource("db/pre-migration/h2/schema.sql")).execute(existing);
+        JdbcTemplate jdbc = new JdbcTemplate(existing);
+        jdbc.update("INSERT INTO users (id, email, password_hash, role) VALUES (1, 'manager@intellirefer.test', 'hash', 'MANAGER'), "
+                + "(2, 'first@intellirefer.test', 'hash', 'EMPLOYEE'), (3, 'second@intellirefer.test', 'hash', 'EMPLOYEE')");
+        jdbc.update("INSERT INTO employee_profiles (user_id, full_name, resume_file_path, availability) VALUES "
+                + "(2, 'First', 'resumes/first.pdf', 'AVAILABLE'), (3, 'Second', 'resumes/second.pdf', 'ON_PROJECT')");
+        jdbc.update("INSERT INTO skills (id, name) VALUES (1, 'Java'), (2, 'Spring Boot')");
+        jdbc.update("INSERT INTO employee_skills (employee_user_id, skill_id) VALUES (2, 1), (2, 2), (3, 1)");
+        jdbc.update("INSERT INTO job_descriptions (id, title, jd_file_path, status, uploaded_by_manager_id) VALUES "
+                + "(1, 'Backend Engineer', 'jds/backend.pdf', 'OPEN', 1)");
+        jdbc.update("INSERT INTO referrals (id, job_description_id, employee_user_id, match_score, status) VALUES (1, 1, 2, 80, 'PENDING_REVIEW')");
+
+        Flyway upgrade = flyway(existing);
+        upgrade.migrate();
+
+        DataSource fresh = database();
+        Flyway scratch = flyway(fresh);
+        scratch.migrate();
+
+        assertEquals(scratch.info().current().getVersion(), upgrade.info().current().getVersion());
+        assertEquals(SchemaSnapshot.of(fresh), SchemaSnapshot.of(existing));
+        assertEquals(3, jdbc.queryForObject("SELECT COUNT(*) FROM employee_skills", Integer.class));
+        assertEquals("spring boot", jdbc.queryForObject("SELECT name_key FROM skills WHERE id = 2", String.class));
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM referrals", Integer.class));
+
+        // Content-addressed storage lets profiles and JDs share a file once V2 has dropped the unique keys.
+        jdbc.update("UPDATE employee_profiles SET resume_file_path = 'resumes/first.pdf' WHERE user_id = 3");
+        jdbc.update("INSERT INTO job_descriptions (title, jd_file_path, status, uploaded_by_manager_id) VALUES "
+                + "('Backend Engineer II', 'jds/backend.pdf', 'OPEN', 1)");
+    }
+
+    /**
+     * A new in-memory database in the same mode as the application's test database.
+     */
+    private DataSource database() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:upgrade-" + UUID.randomUUID() + ";MODE=MySQL;NON_KEYWORDS=CURRENT_ROLE;DB_CLOSE_DELAY=-1", "sa", "");
+        databases.add(new JdbcTemplate(dataSource));
+        return dataSource;
+    }
+
+    /**
+     * Flyway as spring.flyway.* configures it for an existing database.
+     */
+    private static Flyway flyway(DataSource dataSource) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/h2")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
+    }
+}
@@ -0,0 +1,92 @@
+package com.yourcompany.intellirefer.repository;
+
+import com.yourcompany.intellirefer.entity.User;
+import com.yourcompany.intellirefer.model.enums.Role;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that user lookups are served from the second-level and query caches and that writes
+ * invalidate them. Each repository call commits on its own, as it does in the application.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE 'cache-%'");
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void repeatedEmailLookupHitsQueryCache() {
+        User user = userRepository.save(user("cache-one@test"));
+        userRepository.findByEmail("cache-one@test");
+
+        statistics.clear();
+        User cached = userRepository.findByEmail("cache-one@test").orElseThrow();
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(user.getId(), cached.getId());
+    }
+
+    @Test
+    void writingUsersInvalidatesCachedEmailLookups() {
+        userRepository.save(user("cache-two@test"));
+        userRepository.findByEmail("cache-two@test");
+
+        userRepository.save(user("cache-three@test"));
+        statistics.clear();
+        userRepository.findByEmail("cache-two@test");
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void updatedUserIsServedFreshFromEntityCache() {
+        User user = userRepository.save(user("cache-four@test"));
+        user.setRole(Role.MANAGER);
+        userRepository.save(user);
+
+        statistics.clear();
+        User loaded = userRepository.findById(user.getId()).orElseThrow();
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(Role.MANAGER, loaded.getRole());
+    }
+
+    private static User user(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPasswordHash("hash");
+        user.setRole(Role.EMPLOYEE);
+        return user;
+    }
+}
@@ -0,0 +1,144 @@
+package com.yourcompany.intellirefer.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.yourcompany.intellirefer.entity.User;
+import com.yourcompany.intellirefer.model.enums.Role;
+import com.yourcompany.intellirefer.repository.RevokedTokenRepository;
+import com.yourcompany.intellirefer.service.TokenRevocationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that the filter builds the principal from the token alone, reuses it for a repeated token
+ * and honours the revocation deny-list.
+ */
+class JWTAuthenticationFilterTest {
+
+    private static final String KEY = "TestOnlySecretKeyForAuth0JWTThatIsAtLeast32CharactersLong";
+    private static final String ISSUER = "IntelliReferTest";
+
+    private JwtTokenProvider tokenProvider;
+    private TokenRevocationService revocationService;
+    private RevokedTokenRepository revokedTokenRepository;
+    private JWTAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "algorithmKey", KEY);
+        ReflectionTestUtils.setField(tokenProvider, "issuer", ISSUER);
+        ReflectionTestUtils.setField(tokenProvider, "expiryDuration", 3_600_000L);
+        tokenProvider.init();
+
+        revokedTokenRepository = mock(RevokedTokenRepository.class);
+        when(revokedTokenRepository.findByExpiresAtAfter(any())).thenReturn(List.of());
+        revocationService = new TokenRevocationService();
+        ReflectionTestUtils.setField(revocationService, "revokedTokenRepository", revokedTokenRepository);
+        revocationService.init();
+
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(verifiedTokenCache, "jwtTokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(verifiedTokenCache, "maxSize", 100L);
+        verifiedTokenCache.init();
+
+        filter = new JWTAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "verifiedTokenCache", verifiedTokenCache);
+        ReflectionTestUtils.setField(filter, "tokenRevocationService", revocationService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void buildsPrincipalFromClaims() throws Exception {
+        Authentication authentication = authenticate(tokenProvider.generateToken(user(42L, "employee@test", Role.EMPLOYEE)));
+
+        AuthenticatedUser principal = (AuthenticatedUser) authentication.getPrincipal();
+        assertEquals(42L, principal.userId());
+        assertEquals(42L, principal.profileId());
+        assertEquals(Role.EMPLOYEE, principal.role());
+        assertEquals("employee@test", authentication.getName());
+        assertEquals("ROLE_EMPLOYEE", authentication.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void managerTokenHasNoProfile() throws Exception {
+        Authentication authentication = authenticate(tokenProvider.generateToken(user(7L, "manager@test", Role.MANAGER)));
+
+        AuthenticatedUser principal = (AuthenticatedUser) authentication.getPrincipal();
+        assertEquals(7L, principal.userId());
+        assertNull(principal.profileId());
+    }
+
+    @Test
+    void reusesAuthenticationForRepeatedToken() throws Exception {
+        String token = tokenProvider.generateToken(user(42L, "employee@test", Role.EMPLOYEE));
+        Authentication first = authenticate(token);
+        SecurityContextHolder.clearContext();
+
+        assertSame(first, authenticate(token));
+        SecurityContextHolder.clearContext();
+        // Any change to the token, e.g. a forged signature, misses the cache and fails verification.
+        assertNull(authenticate(token.substring(0, token.length() - 2) + "xx"));
+    }
+
+    @Test
+    void rejectsRevokedToken() throws Exception {
+        String token = tokenProvider.generateToken(user(42L, "employee@test", Role.EMPLOYEE));
+        AuthenticatedUser principal = (AuthenticatedUser) authenticate(token).getPrincipal();
+        SecurityContextHolder.clearContext();
+
+        revocationService.revoke(principal);
+
+        assertNull(authenticate(token));
+        verify(revokedTokenRepository).save(any());
+    }
+
+    @Test
+    void rejectsTokenWithoutUserId() throws Exception {
+        String legacyToken = JWT.create()
+                .withSubject("employee@test")
+                .withIssuer(ISSUER)
+                .withClaim("roles", "ROLE_EMPLOYEE")
+                .withExpiresAt(new Date(System.currentTimeMillis() + 60_000))
+                .sign(Algorithm.HMAC256(KEY));
+
+        assertNull(authenticate(legacyToken));
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/employee/me");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static User user(Long id, String email, Role role) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        user.setRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,178 @@
+package com.yourcompany.intellirefer.service;
+
+import com.yourcompany.intellirefer.entity.StoredBlob;
+import com.yourcompany.intellirefer.repository.StoredBlobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the reference counting of {@link FileSystemStorageService} in content-addressed mode:
+ * identical uploads share one blob, replacing a file releases the old blob only once the
+ * replacing transaction commits, and the sweep reclaims only blobs that have been unreferenced
+ * for longer than the grace period, including content whose upload never counted its reference. Counts are committed in their own transactions, so these
+ * tests run without the usual rollback and clean up after themselves.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({FileSystemStorageService.class, BlobReferenceTracker.class})
+@TestPropertySource(properties = {
+        "storage.content-addressed.enabled=true",
+        "storage.location=${java.io.tmpdir}/intellirefer-test-storage/content-addressed",
+        "storage.sweep.grace-period-minutes=60"
+})
+class ContentAddressedStorageTest {
+
+    @Autowired private FileSystemStorageService storageService;
+    @Autowired private StoredBlobRepository storedBlobRepository;
+    @Autowired private BlobReferenceTracker blobReferenceTracker;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Value("${storage.location}")
+    private Path storageLocation;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        jdbcTemplate.update("DELETE FROM stored_blobs");
+        FileSystemUtils.deleteRecursively(storageLocation.resolve("resumes"));
+        FileSystemUtils.deleteRecursively(storageLocation.resolve("jds"));
+    }
+
+    @Test
+    void identicalUploadsShareOneBlob() {
+        String first = storageService.store(pdf("shared resume"), "resumes");
+        String second = storageService.store(pdf("shared resume"), "resumes");
+
+        assertEquals(first, second);
+        assertEquals(2, blob(first).getRefCount());
+        assertTrue(Files.isRegularFile(storageService.resolveStoredFile(first)));
+
+        storageService.delete(first);
+
+        assertEquals(1, blob(first).getRefCount());
+        assertNull(blob(first).getReleasedAt());
+    }
+
+    @Test
+    void replacingAFileReleasesTheOldBlobOnCommit() {
+        String previous = storageService.store(pdf("old resume"), "resumes");
+
+        String replacement = new TransactionTemplate(transactionManager).execute(status -> {
+            String stored = storageService.store(pdf("new resume"), "resumes");
+            storageService.delete(previous);
+            assertEquals(1, blob(previous).getRefCount(), "the old blob is only released once the replacement commits");
+            return stored;
+        });
+
+        assertNotEquals(previous, replacement);
+        assertEquals(0, blob(previous).getRefCount());
+        assertNotNull(blob(previous).getReleasedAt());
+        assertEquals(1, blob(replacement).getRefCount());
+    }
+
+    @Test
+    void rolledBackReplacementKeepsTheOldBlob() {
+        String previous = storageService.store(pdf("kept resume"), "resumes");
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        String[] replacement = new String[1];
+        transaction.executeWithoutResult(status -> {
+            replacement[0] = storageService.store(pdf("abandoned resume"), "resumes");
+            storageService.delete(previous);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(1, blob(previous).getRefCount());
+        assertNull(blob(previous).getReleasedAt());
+        assertEquals(0, blob(replacement[0]).getRefCount(), "the rolled-back upload gives its reference back");
+    }
+
+    @Test
+    void sweepReclaimsOnlyBlobsUnreferencedForLongerThanTheGracePeriod() {
+        String expired = storageService.store(pdf("expired"), "jds");
+        String recent = storageService.store(pdf("recently released"), "jds");
+        String referenced = storageService.store(pdf("still referenced"), "jds");
+        storageService.delete(expired);
+        storageService.delete(recent);
+        jdbcTemplate.update("UPDATE stored_blobs SET released_at = ? WHERE relative_path = ?",
+                Timestamp.from(Instant.now().minus(Duration.ofMinutes(61))), expired);
+        Path expiredFile = storageService.resolveStoredFile(expired);
+
+        storageService.sweepUnreferencedBlobs();
+
+        assertFalse(storedBlobRepository.existsByRelativePath(expired));
+        assertFalse(Files.exists(expiredFile));
+        assertEquals(0, blob(recent).getRefCount());
+        assertTrue(Files.isRegularFile(storageService.resolveStoredFile(recent)));
+        assertEquals(1, blob(referenced).getRefCount());
+        assertTrue(Files.isRegularFile(storageService.resolveStoredFile(referenced)));
+    }
+
+    @Test
+    void sweepReclaimsContentOfAnUploadThatNeverCountedItsReference() throws IOException {
+        String relativePath = "resumes/" + "a".repeat(64) + ".pdf";
+        Path file = storageLocation.resolve(relativePath);
+        // The node died after writing the content, before the reference was counted.
+        assertThrows(IOException.class, () -> blobReferenceTracker.acquire(relativePath, "a".repeat(64), 9, () -> {
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, "%PDF-1.7\n", StandardCharsets.UTF_8);
+            throw new IOException("node stopped");
+        }));
+        assertEquals(0, blob(relativePath).getRefCount());
+        Path staged = storageLocation.resolve(".staging").resolve("upload-leftover.part");
+        Files.writeString(staged, "partial", StandardCharsets.UTF_8);
+
+        storageService.sweepUnreferencedBlobs();
+        assertTrue(Files.exists(file), "kept during the grace period");
+        assertTrue(Files.exists(staged), "kept during the grace period");
+
+        jdbcTemplate.update("UPDATE stored_blobs SET released_at = ? WHERE relative_path = ?",
+                Timestamp.from(Instant.now().minus(Duration.ofMinutes(61))), relativePath);
+        Files.setLastModifiedTime(staged, FileTime.from(Instant.now().minus(Duration.ofMinutes(61))));
+        storageService.sweepUnreferencedBlobs();
+
+        assertFalse(storedBlobRepository.existsByRelativePath(relativePath));
+        assertFalse(Files.exists(file));
+        assertFalse(Files.exists(staged));
+    }
+
+    private StoredBlob blob(String relativePath) {
+        return storedBlobRepository.findByRelativePath(relativePath).orElseThrow();
+    }
+
+    private static MockMultipartFile pdf(String body) {
+        byte[] content = ("%PDF-1.7\n" + body).getBytes(StandardCharsets.UTF_8);
+        return new MockMultipartFile("file", "document.pdf", "application/pdf", content);
+    }
+}
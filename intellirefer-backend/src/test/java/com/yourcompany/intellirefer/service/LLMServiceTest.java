@@ -0,0 +1,255 @@
+package com.yourcompany.intellirefer.service;
+
+import com.yourcompany.intellirefer.dto.LLMResponse;
+import com.yourcompany.intellirefer.loadtest.GeminiStub;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks how {@link LLMService} handles replies that are not the requested JSON: recovered without
+ * another call where possible, repaired with exactly one more call otherwise, and counted either way.
+ * Also checks that hedging answers slow and failed calls from their hedge, and that identical calls in
+ * flight share one request while each caller is charged for its answer.
+ */
+class LLMServiceTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void recoversChattyReplyWithoutAnotherCall() throws Exception {
+        Map<GeminiStub.Operation, String> responses = new EnumMap<>(GeminiStub.Settings.DEFAULT_RESPONSES);
+        responses.put(GeminiStub.Operation.MATCH_SCORE,
+                "Here you go:\n```json\n{\"score\": 55, \"justification\": \"Partial fit.\", \"matching_skills\": [\"SQL\"]}\n```");
+        try (GeminiStub stub = new GeminiStub(new GeminiStub.Settings(0, 0, 0, 0, 0, 0, 0, 0, responses))) {
+            CountingListener listener = new CountingListener();
+
+            LLMResponse match = llmService(stub).getMatchScore("JD", "Resume", listener).block();
+
+            assertEquals(55, match.score());
+            assertEquals(0, listener.retried.get());
+            assertEquals(Map.of("match_score 200", 1L), stub.responseCounts());
+            assertEquals(1.0, responses("first", "tolerant"));
+        }
+    }
+
+    @Test
+    void repairsTruncatedReplyWithOneMoreCall() throws Exception {
+        try (GeminiStub stub = new GeminiStub(new GeminiStub.Settings(0, 0, 0, 0, 0, 0, 0, 1.0, GeminiStub.Settings.DEFAULT_RESPONSES))) {
+            CountingListener listener = new CountingListener();
+
+            LLMResponse match = llmService(stub).getMatchScore("JD", "Resume", listener).block();
+
+            assertEquals(78, match.score());
+            assertEquals(1, listener.retried.get());
+            assertEquals(Map.of("match_score malformed 200", 1L, "match_score repair 200", 1L), stub.responseCounts());
+            assertEquals(1.0, responses("first", "failed"));
+            assertEquals(1.0, responses("repair", "strict"));
+            assertEquals(1.0, registry.get("llm.calls.wasted").tag("outcome", "repaired").counter().count());
+            // Both replies were billed.
+            assertEquals(2, listener.replies.get());
+            assertTrue(listener.responseTokens.get() > 0);
+            assertEquals(listener.promptTokens.get(), registry.get("llm.tokens").tag("type", "prompt").counter().count());
+            assertEquals(1, registry.get("llm.requests").tag("operation", "match_score").tag("outcome", "success").timer().count());
+        }
+    }
+
+    @Test
+    void givesUpAfterOneFailedRepair() throws Exception {
+        Map<GeminiStub.Operation, String> responses = new EnumMap<>(GeminiStub.Settings.DEFAULT_RESPONSES);
+        responses.put(GeminiStub.Operation.MATCH_SCORE, "I cannot score this resume.");
+        try (GeminiStub stub = new GeminiStub(new GeminiStub.Settings(0, 0, 0, 0, 0, 0, 0, 0, responses))) {
+            LLMService llmService = llmService(stub);
+
+            assertThrows(RuntimeException.class, () -> llmService.getMatchScore("JD", "Resume").block());
+
+            assertEquals(Map.of("match_score 200", 1L, "match_score repair 200", 1L), stub.responseCounts());
+            assertEquals(2.0, registry.get("llm.calls.wasted").tag("outcome", "lost").counter().count());
+            assertNull(registry.find("llm.calls.wasted").tag("outcome", "repaired").counter());
+            assertEquals(1, registry.get("llm.requests").tag("outcome", "invalid_response").timer().count());
+        }
+    }
+
+    @Test
+    void hedgedStragglersAreAnsweredByTheirHedge() throws Exception {
+        // Requests answer at once, except three scripted by number; hedges go out after the slowest recent call.
+        try (GeminiStub stub = new GeminiStub(GeminiStub.Settings.immediate())) {
+            AtomicInteger cancelled = new AtomicInteger();
+            LLMService llmService = llmService(stub, WebClient.builder()
+                    .filter((request, next) -> next.exchange(request).doOnCancel(cancelled::incrementAndGet)));
+            CountingListener unhedged = new CountingListener();
+            llmService.getMatchScore("JD", "Resume", unhedged).block();
+            LlmHedging hedging = new LlmHedging(0.99, 1.0, 5);
+            for (int i = 0; i < 5; i++) {
+                hedging.record("match_score", TimeUnit.MILLISECONDS.toNanos(300));
+            }
+            ReflectionTestUtils.setField(llmService, "hedging", hedging);
+            // Request 1 was the unhedged call. The 10th call's original straggles and its hedge (12) wins.
+            stub.delay(11, 2_000);
+            // The 18th call's original (20) answers before its slower hedge (21), which loses.
+            stub.delay(20, 600).delay(21, 2_000);
+            // The 27th call's original (30) fails while its hedge (31) is in flight; the hedge answers it.
+            stub.delay(30, 1_200).fail(30).delay(31, 1_500);
+            CountingListener listener = new CountingListener();
+
+            for (int i = 0; i < 60; i++) {
+                assertEquals(78, llmService.getMatchScore("JD", "Resume", listener).block().score());
+            }
+
+            assertEquals(2.0, registry.get("llm.hedges").tag("outcome", "won").counter().count());
+            assertEquals(1.0, registry.get("llm.hedges").tag("outcome", "lost").counter().count());
+            assertNull(registry.find("llm.hedges").tag("outcome", "failed").counter());
+            assertEquals(2, registry.get("llm.hedges.saved").tag("operation", "match_score").timer().count());
+            assertEquals(61, registry.get("llm.requests").tag("outcome", "success").timer().count());
+            // The stub still answers the requests cancelled on the client's side.
+            assertEquals(64, stub.requestCount());
+            assertEquals(Map.of("match_score 200", 63L, "match_score 500", 1L), stub.responseCounts());
+            // The straggling original of the 10th call and the losing hedge of the 18th were cancelled.
+            assertEquals(2, cancelled.get());
+            // Only one reply per call was read, and the cancelled requests count their prompt tokens.
+            assertEquals(62, listener.replies.get());
+            assertEquals(62 * unhedged.promptTokens.get(), listener.promptTokens.get());
+            assertEquals(60 * unhedged.responseTokens.get(), listener.responseTokens.get());
+            assertEquals(unhedged.promptTokens.get() + listener.promptTokens.get(),
+                    registry.get("llm.tokens").tag("type", "prompt").counter().count());
+        }
+    }
+
+    @Test
+    void failedHedgeLeavesTheOriginalsErrorToTheCall() throws Exception {
+        try (GeminiStub stub = new GeminiStub(GeminiStub.Settings.immediate())) {
+            LLMService llmService = llmService(stub);
+            LlmHedging hedging = new LlmHedging(0.99, 1.0, 1);
+            hedging.record("match_score", TimeUnit.MILLISECONDS.toNanos(100));
+            ReflectionTestUtils.setField(llmService, "hedging", hedging);
+            stub.delay(1, 500).fail(1).delay(2, 800).fail(2);
+
+            assertThrows(WebClientResponseException.InternalServerError.class, () -> llmService.getMatchScore("JD", "Resume").block());
+
+            assertEquals(Map.of("match_score 500", 2L), stub.responseCounts());
+            assertEquals(1.0, registry.get("llm.hedges").tag("outcome", "failed").counter().count());
+            assertNull(registry.find("llm.hedges").tag("outcome", "lost").counter());
+        }
+    }
+
+    @Test
+    void identicalCallsInFlightShareOneRequest() throws Exception {
+        try (GeminiStub stub = new GeminiStub(new GeminiStub.Settings(200, 0, 0, 0, 0, 0, 0, 0, GeminiStub.Settings.DEFAULT_RESPONSES))) {
+            LLMService llmService = llmService(stub);
+            CountingListener first = new CountingListener();
+            CountingListener second = new CountingListener();
+
+            Mono<LLMResponse> original = llmService.getMatchScore("JD", "Resume", first).cache();
+            original.subscribe();
+            LLMResponse shared = llmService.getMatchScore("JD", "Resume", second).block();
+            assertEquals(78, original.block().score());
+            assertEquals(78, shared.score());
+            // A different resume is a different call.
+            llmService.getMatchScore("JD", "Other resume").block();
+
+            assertEquals(Map.of("match_score 200", 2L), stub.responseCounts());
+            assertEquals(0, first.shared.get());
+            assertEquals(1, second.shared.get());
+            // Both callers are charged for the answer they got.
+            assertEquals(1, second.replies.get());
+            assertTrue(second.promptTokens.get() > 0);
+            assertEquals(first.promptTokens.get(), second.promptTokens.get());
+            assertEquals(first.responseTokens.get(), second.responseTokens.get());
+            assertEquals(1.0, registry.get("llm.calls.coalesced").tag("operation", "match_score").counter().count());
+            assertEquals(2, registry.get("llm.requests").tag("outcome", "success").timer().count());
+
+            // Finished calls are not reused.
+            llmService.getMatchScore("JD", "Resume").block();
+            assertEquals(Map.of("match_score 200", 3L), stub.responseCounts());
+        }
+    }
+
+    @Test
+    void cancelledCallIsNotReused() throws Exception {
+        try (GeminiStub stub = new GeminiStub(new GeminiStub.Settings(200, 0, 0, 0, 0, 0, 0, 0, GeminiStub.Settings.DEFAULT_RESPONSES))) {
+            LLMService llmService = llmService(stub);
+            CountingListener first = new CountingListener();
+            CountingListener second = new CountingListener();
+
+            llmService.getMatchScore("JD", "Resume", first).subscribe().dispose();
+            assertEquals(78, llmService.getMatchScore("JD", "Resume", second).block().score());
+
+            assertEquals(0, second.shared.get());
+            assertEquals(1, second.replies.get());
+            assertEquals(0, first.replies.get());
+            assertNull(registry.find("llm.calls.coalesced").counter());
+        }
+    }
+
+    @Test
+    void sharedFailureDoesNotFailLaterCalls() throws Exception {
+        try (GeminiStub stub = new GeminiStub(new GeminiStub.Settings(200, 0, 0, 0, 0, 1.0, 0, 0, GeminiStub.Settings.DEFAULT_RESPONSES))) {
+            LLMService llmService = llmService(stub);
+
+            Mono<LLMResponse> original = llmService.getMatchScore("JD", "Resume").cache();
+            original.subscribe(response -> { }, error -> { });
+            Mono<LLMResponse> shared = llmService.getMatchScore("JD", "Resume");
+            assertThrows(WebClientResponseException.TooManyRequests.class, shared::block);
+            assertThrows(WebClientResponseException.TooManyRequests.class, original::block);
+            assertEquals(Map.of("match_score 429", 1L), stub.responseCounts());
+
+            assertThrows(WebClientResponseException.TooManyRequests.class, () -> llmService.getMatchScore("JD", "Resume").block());
+            assertEquals(Map.of("match_score 429", 2L), stub.responseCounts());
+        }
+    }
+
+    private double responses(String attempt, String parse) {
+        return registry.get("llm.responses").tag("operation", "match_score").tag("attempt", attempt).tag("parse", parse).counter().count();
+    }
+
+    private static class CountingListener implements LlmCallListener {
+        private final AtomicInteger retried = new AtomicInteger();
+        private final AtomicInteger shared = new AtomicInteger();
+        private final AtomicInteger replies = new AtomicInteger();
+        private final AtomicInteger promptTokens = new AtomicInteger();
+        private final AtomicInteger responseTokens = new AtomicInteger();
+
+        @Override
+        public void llmCallRetried() {
+            retried.incrementAndGet();
+        }
+
+        @Override
+        public void llmCallShared() {
+            shared.incrementAndGet();
+        }
+
+        @Override
+        public void llmTokensUsed(String operation, int prompt, int response) {
+            replies.incrementAndGet();
+            promptTokens.addAndGet(prompt);
+            responseTokens.addAndGet(response);
+        }
+    }
+
+    private LLMService llmService(GeminiStub stub) {
+        return llmService(stub, WebClient.builder());
+    }
+
+    private LLMService llmService(GeminiStub stub, WebClient.Builder webClientBuilder) {
+        LLMService llmService = new LLMService(webClientBuilder, registry, Tracer.NOOP);
+        ReflectionTestUtils.setField(llmService, "apiUrlTemplate", stub.urlTemplate());
+        ReflectionTestUtils.setField(llmService, "apiKey", "test-key");
+        return llmService;
+    }
+}
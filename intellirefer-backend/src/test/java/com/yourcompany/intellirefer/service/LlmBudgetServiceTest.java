@@ -0,0 +1,105 @@
+package com.yourcompany.intellirefer.service;
+
+import com.yourcompany.intellirefer.dto.LlmUsageDto;
+import com.yourcompany.intellirefer.dto.LlmUsageRow;
+import com.yourcompany.intellirefer.entity.JobDescription;
+import com.yourcompany.intellirefer.entity.User;
+import com.yourcompany.intellirefer.model.enums.Role;
+import com.yourcompany.intellirefer.repository.JobDescriptionRepository;
+import com.yourcompany.intellirefer.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that token usage is recorded per JD, employee and operation, and that reservations are refused
+ * once either the JD's budget (over all of its runs) or the day's budget (over all JDs) would be exceeded.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(LlmBudgetService.class)
+@TestPropertySource(properties = {"llm.budget.jd-tokens=1000", "llm.budget.daily-tokens=3000"})
+class LlmBudgetServiceTest {
+
+    @Autowired private LlmBudgetService llmBudgetService;
+    @Autowired private JobDescriptionRepository jdRepository;
+    @Autowired private UserRepository userRepository;
+
+    private User manager;
+
+    @BeforeEach
+    void setUp() {
+        manager = new User();
+        manager.setEmail("budget-manager@test");
+        manager.setPasswordHash("hash");
+        manager.setRole(Role.MANAGER);
+        userRepository.save(manager);
+        // Each test's rows are rolled back; forget the previous test's daily total with them.
+        llmBudgetService.refreshDailyUsage();
+    }
+
+    @Test
+    void jdBudgetCoversEarlierRunsAndCallsInFlight() {
+        Long jdId = jd("Engineer");
+        llmBudgetService.open(jdId).record(7L, "match_score", 300, 100);
+
+        LlmBudgetService.JdBudget budget = llmBudgetService.open(jdId);
+        assertTrue(budget.tryReserve(500));
+        assertFalse(budget.tryReserve(200));
+        assertTrue(budget.exceeded());
+        // Stays exceeded for the rest of the run, even once its reservations are returned.
+        budget.release(500);
+        assertFalse(budget.tryReserve(1));
+    }
+
+    @Test
+    void dailyBudgetSpansJdsAndUploads() {
+        llmBudgetService.record(7L, "skill_extraction", 1800, 200);
+        LlmBudgetService.JdBudget first = llmBudgetService.open(jd("First"));
+        LlmBudgetService.JdBudget second = llmBudgetService.open(jd("Second"));
+
+        assertTrue(first.tryReserve(900));
+        assertFalse(second.tryReserve(200));
+
+        first.release(900);
+        assertTrue(llmBudgetService.open(jd("Third")).tryReserve(900));
+    }
+
+    @Test
+    void usageIsSummarizedByOperation() {
+        Long jdId = jd("Engineer");
+        LlmBudgetService.JdBudget budget = llmBudgetService.open(jdId);
+        budget.record(null, "jd_experience", 200, 10);
+        budget.record(7L, "match_score", 300, 40);
+        budget.record(8L, "match_score", 400, 50);
+
+        LlmUsageDto usage = llmBudgetService.getUsage(jdId);
+
+        assertEquals(1000, usage.getTokensUsed());
+        assertEquals(1000L, usage.getTokenLimit());
+        assertTrue(usage.isBudgetExceeded());
+        assertEquals(1000, usage.getDailyTokensUsed());
+        assertEquals(3000L, usage.getDailyTokenLimit());
+        assertEquals(List.of(new LlmUsageRow("jd_experience", 1, 200, 10), new LlmUsageRow("match_score", 2, 700, 90)),
+                usage.getOperations());
+    }
+
+    private Long jd(String title) {
+        JobDescription jd = new JobDescription();
+        jd.setTitle(title);
+        jd.setClientName("Acme");
+        jd.setJdFilePath("jds/" + title + ".pdf");
+        jd.setUploadedByManager(manager);
+        return jdRepository.save(jd).getId();
+    }
+}
@@ -0,0 +1,67 @@
+package com.yourcompany.intellirefer.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the hedging delay, budget and savings estimate.
+ */
+class LlmHedgingTest {
+
+    @Test
+    void delayIsPercentileOfRecentCallsOnceThereAreEnough() {
+        LlmHedging hedging = new LlmHedging(0.9, 0.05, 10);
+        for (int ms = 1; ms <= 9; ms++) {
+            hedging.record("match_score", Duration.ofMillis(ms).toNanos());
+        }
+        assertNull(hedging.callStarted("match_score"));
+
+        hedging.record("match_score", Duration.ofMillis(1000).toNanos());
+        assertEquals(Duration.ofMillis(9), hedging.callStarted("match_score"));
+        // Each operation has its own latencies.
+        assertNull(hedging.callStarted("skill_extraction"));
+    }
+
+    @Test
+    void hedgesAreEarnedAtTheBudgetRate() {
+        LlmHedging hedging = new LlmHedging(0.95, 0.1, 1);
+        for (int i = 0; i < 9; i++) {
+            hedging.callStarted("match_score");
+        }
+        assertFalse(hedging.tryHedge());
+
+        hedging.callStarted("match_score");
+        assertTrue(hedging.tryHedge());
+        assertFalse(hedging.tryHedge());
+    }
+
+    @Test
+    void savedHedgesAreCapped() {
+        LlmHedging hedging = new LlmHedging(0.95, 1.0, 1);
+        for (int i = 0; i < 100; i++) {
+            hedging.callStarted("match_score");
+        }
+        int hedges = 0;
+        while (hedging.tryHedge()) {
+            hedges++;
+        }
+        assertEquals(10, hedges);
+    }
+
+    @Test
+    void savingIsMeanExcessOfCallsThatRanLonger() {
+        LlmHedging hedging = new LlmHedging(0.95, 0.05, 1);
+        hedging.record("match_score", 100);
+        hedging.record("match_score", 400);
+        hedging.record("match_score", 600);
+
+        assertEquals(300, hedging.estimatedSaving("match_score", 200));
+        assertEquals(0, hedging.estimatedSaving("match_score", 600));
+    }
+}
@@ -0,0 +1,71 @@
+package com.yourcompany.intellirefer.service;
+
+import com.yourcompany.intellirefer.dto.JdParsingResponse;
+import com.yourcompany.intellirefer.dto.LLMResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks which LLM replies are read strictly, which only tolerantly, and which not at all.
+ */
+class LlmJsonReaderTest {
+
+    private final LlmJsonReader reader = new LlmJsonReader();
+
+    @Test
+    void readsStructuredOutputStrictly() {
+        LlmJsonReader.Result<LLMResponse> result = reader.read(
+                "{\"score\": 81, \"justification\": \"Good fit.\", \"matching_skills\": [\"Java\"]}", LLMResponse.class);
+
+        assertEquals(LlmJsonReader.Mode.STRICT, result.mode());
+        assertEquals(81, result.value().score());
+        assertNull(result.error());
+    }
+
+    @Test
+    void recoversObjectFromChattyReply() {
+        String reply = """
+                Sure! Here is the analysis you asked for:
+                ```json
+                {
+                  'score': 64,
+                  "justification": "Solid Java, but no cloud
+                experience.",
+                  "matching_skills": ["Java", "SQL",],
+                }
+                ```
+                Let me know if you need anything else.
+                """;
+
+        LlmJsonReader.Result<LLMResponse> result = reader.read(reply, LLMResponse.class);
+
+        assertEquals(LlmJsonReader.Mode.TOLERANT, result.mode());
+        assertEquals(64, result.value().score());
+        assertEquals(List.of("Java", "SQL"), result.value().matchingSkills());
+        assertNotNull(result.error());
+    }
+
+    @Test
+    void skipsObjectsThatDoNotBind() {
+        LlmJsonReader.Result<JdParsingResponse> result = reader.read(
+                "{\"result\": {\"required_experience\": 4}}", JdParsingResponse.class);
+
+        assertEquals(LlmJsonReader.Mode.TOLERANT, result.mode());
+        assertEquals(4, result.value().requiredExperience());
+    }
+
+    @Test
+    void rejectsTruncatedAndIncompleteObjects() {
+        assertEquals(LlmJsonReader.Mode.FAILED,
+                reader.read("{\"score\": 78, \"justification\": \"Strong back", LLMResponse.class).mode());
+        // Would otherwise bind to a score of 0.
+        assertEquals(LlmJsonReader.Mode.FAILED,
+                reader.read("{\"justification\": \"No score given.\", \"matching_skills\": []}", LLMResponse.class).mode());
+        assertEquals(LlmJsonReader.Mode.FAILED, reader.read("  ", LLMResponse.class).mode());
+    }
+}
@@ -0,0 +1,211 @@
+package com.yourcompany.intellirefer.service;
+
+import com.yourcompany.intellirefer.dto.CursorPage;
+import com.yourcompany.intellirefer.dto.ReferralDto;
+import com.yourcompany.intellirefer.entity.EmployeeProfile;
+import com.yourcompany.intellirefer.entity.JobDescription;
+import com.yourcompany.intellirefer.entity.Referral;
+import com.yourcompany.intellirefer.entity.Skill;
+import com.yourcompany.intellirefer.entity.User;
+import com.yourcompany.intellirefer.exception.BadRequestException;
+import com.yourcompany.intellirefer.mapper.DtoMapper;
+import com.yourcompany.intellirefer.model.enums.AvailabilityStatus;
+import com.yourcompany.intellirefer.model.enums.JdStatus;
+import com.yourcompany.intellirefer.model.enums.ReferralStatus;
+import com.yourcompany.intellirefer.model.enums.Role;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Guards the recommendations and skill search read paths against N+1 queries: the number of
+ * statements must not grow with the number of referrals on a JD, nor with how deep the page is.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ManagerService.class, DtoMapper.class})
+class ManagerServiceRecommendationsTest {
+
+    private static final int REFERRALS = 50;
+
+    @Autowired private ManagerService managerService;
+    @Autowired private EntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean private StorageService storageService;
+    @MockitoBean private MatchingService matchingService;
+    @MockitoBean private LlmBudgetService llmBudgetService;
+
+    private Statistics statistics;
+    private Long jdId;
+    private Long managerId;
+
+    @BeforeEach
+    void setUp() {
+        User manager = user("manager@test", Role.MANAGER);
+        JobDescription jd = new JobDescription();
+        jd.setTitle("Backend Engineer");
+        jd.setJdFilePath("jds/jd.pdf");
+        jd.setUploadedByManager(manager);
+        entityManager.persist(jd);
+        jdId = jd.getId();
+        managerId = manager.getId();
+
+        Skill java = skill("Java");
+        Skill sql = skill("SQL");
+        for (int i = 0; i < REFERRALS; i++) {
+            EmployeeProfile employee = new EmployeeProfile();
+            employee.setUser(user("employee" + i + "@test", Role.EMPLOYEE));
+            employee.setFullName("Employee " + i);
+            employee.setSkills(i % 2 == 0 ? Set.of(java, sql) : Set.of(java));
+            entityManager.persist(employee);
+
+            Referral referral = new Referral();
+            referral.setJobDescription(jd);
+            referral.setEmployee(employee);
+            referral.setMatchScore(i);
+            referral.addMatchingSkill(java);
+            if (i % 2 == 0) {
+                referral.addMatchingSkill(sql);
+            }
+            entityManager.persist(referral);
+        }
+
+        // Start from an empty persistence context so every read below has to hit the database.
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void loadsRecommendationsInConstantNumberOfQueries() {
+        List<ReferralDto> recommendations = managerService.getRecommendationsForJd(jdId, null, null, null, null, REFERRALS).getItems();
+
+        assertEquals(REFERRALS, recommendations.size());
+        assertEquals(3, statistics.getPrepareStatementCount(), "one projection query plus one batched query each for skills and matching skills");
+        assertEquals(0, statistics.getEntityLoadCount());
+
+        ReferralDto top = recommendations.get(0);
+        assertEquals(REFERRALS - 1, top.getMatchScore());
+        assertEquals("Employee " + (REFERRALS - 1), top.getEmployeeFullName());
+        assertEquals(Set.of("Java"), top.getSkills());
+        assertEquals(Set.of("Java", "SQL"), recommendations.get(1).getSkills());
+        assertEquals(List.of("Java"), top.getMatchingSkills());
+        assertEquals(List.of("Java", "SQL"), recommendations.get(1).getMatchingSkills());
+    }
+
+    @Test
+    void returnsEmptyListWithSingleQueryForJdWithoutReferrals() {
+        assertEquals(0, managerService.getRecommendationsForJd(jdId + 1, null, null, null, null, 20).getItems().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void pagesThroughRecommendationsWithCursor() {
+        List<Integer> scores = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            statistics.clear();
+            CursorPage<ReferralDto> page = managerService.getRecommendationsForJd(jdId, null, null, null, cursor, 20);
+            assertEquals(3, statistics.getPrepareStatementCount(), "every page costs the same");
+            page.getItems().forEach(dto -> scores.add(dto.getMatchScore()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(REFERRALS, scores.size());
+        for (int i = 0; i < REFERRALS; i++) {
+            assertEquals(REFERRALS - 1 - i, scores.get(i));
+        }
+    }
+
+    @Test
+    void filtersByMinScoreAndStatus() {
+        CursorPage<ReferralDto> page = managerService.getRecommendationsForJd(
+                jdId, 40, List.of(ReferralStatus.PENDING_REVIEW), AvailabilityStatus.AVAILABLE, null, 100);
+
+        assertEquals(REFERRALS - 40, page.getItems().size());
+        assertNull(page.getNextCursor());
+        assertEquals(0, managerService.getRecommendationsForJd(
+                jdId, null, List.of(ReferralStatus.SELECTED), null, null, 100).getItems().size());
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        assertThrows(BadRequestException.class,
+                () -> managerService.getRecommendationsForJd(jdId, null, null, null, "not-a-cursor", 20));
+    }
+
+    @Test
+    void searchesReferralsMatchingAllSkillsAcrossPages() {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            statistics.clear();
+            CursorPage<ReferralDto> page = managerService.searchReferralsBySkills(
+                    managerId, List.of(" sql ", "JAVA"), null, JdStatus.OPEN, cursor, 10);
+            assertEquals(4, statistics.getPrepareStatementCount(), "skill lookup, page query and two batched skill queries");
+            page.getItems().forEach(dto -> {
+                assertEquals(List.of("Java", "SQL"), dto.getMatchingSkills());
+                assertEquals("Backend Engineer", dto.getJobTitle());
+                ids.add(dto.getReferralId());
+            });
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(REFERRALS / 2, ids.size());
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i) < ids.get(i - 1), "newest referral first");
+        }
+    }
+
+    @Test
+    void skillSearchIsLimitedToTheManagersJdsWithTheGivenStatus() {
+        assertEquals(REFERRALS, managerService.searchReferralsBySkills(
+                managerId, List.of("Java"), List.of(ReferralStatus.PENDING_REVIEW), JdStatus.OPEN, null, 100).getItems().size());
+        assertEquals(0, managerService.searchReferralsBySkills(
+                managerId, List.of("Java"), null, JdStatus.CLOSED, null, 100).getItems().size());
+        assertEquals(0, managerService.searchReferralsBySkills(
+                managerId + 1, List.of("Java"), null, JdStatus.OPEN, null, 100).getItems().size());
+        assertEquals(0, managerService.searchReferralsBySkills(
+                managerId, List.of("Java", "Kafka"), null, JdStatus.OPEN, null, 100).getItems().size());
+        assertThrows(BadRequestException.class,
+                () -> managerService.searchReferralsBySkills(managerId, List.of(" "), null, JdStatus.OPEN, null, 100));
+    }
+
+    private User user(String email, Role role) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPasswordHash("hash");
+        user.setRole(role);
+        entityManager.persist(user);
+        return user;
+    }
+
+    private Skill skill(String name) {
+        Skill skill = new Skill();
+        skill.setName(name);
+        entityManager.persist(skill);
+        return skill;
+    }
+}
@@ -0,0 +1,137 @@
+package com.yourcompany.intellirefer.service;
+
+import com.yourcompany.intellirefer.dto.SelectedEmployeeDto;
+import com.yourcompany.intellirefer.entity.EmployeeProfile;
+import com.yourcompany.intellirefer.entity.JobDescription;
+import com.yourcompany.intellirefer.entity.Referral;
+import com.yourcompany.intellirefer.entity.User;
+import com.yourcompany.intellirefer.mapper.DtoMapper;
+import com.yourcompany.intellirefer.model.enums.AvailabilityStatus;
+import com.yourcompany.intellirefer.model.enums.ReferralStatus;
+import com.yourcompany.intellirefer.model.enums.Role;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Guards the "selected and reserved employees" report against N+1 queries at 10k busy employees.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ManagerService.class, DtoMapper.class})
+class ManagerServiceSelectedEmployeesTest {
+
+    private static final int BUSY_EMPLOYEES = 10_000;
+    private static final int AVAILABLE_EMPLOYEES = 20;
+
+    @Autowired private ManagerService managerService;
+    @Autowired private EntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean private StorageService storageService;
+    @MockitoBean private MatchingService matchingService;
+    @MockitoBean private LlmBudgetService llmBudgetService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        User manager = user("manager@test", Role.MANAGER);
+        JobDescription acme = jd(manager, "Acme");
+        JobDescription globex = jd(manager, "Globex");
+
+        for (int i = 0; i < BUSY_EMPLOYEES + AVAILABLE_EMPLOYEES; i++) {
+            boolean busy = i < BUSY_EMPLOYEES;
+            EmployeeProfile employee = new EmployeeProfile();
+            employee.setUser(user("employee" + i + "@test", Role.EMPLOYEE));
+            employee.setFullName("Employee " + i);
+            employee.setAvailability(!busy ? AvailabilityStatus.AVAILABLE
+                    : i % 2 == 0 ? AvailabilityStatus.ON_PROJECT : AvailabilityStatus.RESERVED);
+            entityManager.persist(employee);
+
+            if (i % 100 == 0) {
+                // An older assignment that the report must not show.
+                referral(globex, employee, ReferralStatus.RESERVED);
+            }
+            referral(i % 4 == 3 ? globex : acme, employee, i % 2 == 0 ? ReferralStatus.SELECTED : ReferralStatus.RESERVED);
+
+            if (i % 1000 == 999) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void servesPageInOneQueryPlusCount() {
+        Page<SelectedEmployeeDto> page = managerService.getSelectedAndReservedEmployees(null, PageRequest.of(3, 50));
+
+        assertEquals(2, statistics.getPrepareStatementCount(), "one report query plus one count query");
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(BUSY_EMPLOYEES, page.getTotalElements());
+        assertEquals(50, page.getContent().size());
+
+        SelectedEmployeeDto first = page.getContent().get(0);
+        assertEquals("Employee 150", first.getEmployeeFullName());
+        assertEquals("employee150@test", first.getEmployeeEmail());
+        assertEquals(AvailabilityStatus.ON_PROJECT, first.getAvailability());
+        assertEquals("Acme", first.getClientName());
+    }
+
+    @Test
+    void filtersByClientUsingLatestAssignment() {
+        Page<SelectedEmployeeDto> globex = managerService.getSelectedAndReservedEmployees("Globex", PageRequest.of(0, 100));
+        Page<SelectedEmployeeDto> acme = managerService.getSelectedAndReservedEmployees(" Acme ", PageRequest.of(0, 100));
+
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(BUSY_EMPLOYEES / 4, globex.getTotalElements());
+        assertEquals(BUSY_EMPLOYEES - BUSY_EMPLOYEES / 4, acme.getTotalElements());
+        assertTrue(globex.getContent().stream().allMatch(dto -> "Globex".equals(dto.getClientName())));
+    }
+
+    private User user(String email, Role role) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPasswordHash("hash");
+        user.setRole(role);
+        entityManager.persist(user);
+        return user;
+    }
+
+    private JobDescription jd(User manager, String clientName) {
+        JobDescription jd = new JobDescription();
+        jd.setTitle("Engineer for " + clientName);
+        jd.setClientName(clientName);
+        jd.setJdFilePath("jds/" + clientName + ".pdf");
+        jd.setUploadedByManager(manager);
+        entityManager.persist(jd);
+        return jd;
+    }
+
+    private void referral(JobDescription jd, EmployeeProfile employee, ReferralStatus status) {
+        Referral referral = new Referral();
+        referral.setJobDescription(jd);
+        referral.setEmployee(employee);
+        referral.setMatchScore(80);
+        referral.setStatus(status);
+        entityManager.persist(referral);
+    }
+}
@@ -0,0 +1,59 @@
+package com.yourcompany.intellirefer.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks that a matching run ends only after both the dispatch and every LLM call it started have finished.
+ */
+class MatchingMetricsTest {
+
+    private MeterRegistry registry;
+    private MatchingMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new MatchingMetrics(registry);
+    }
+
+    @Test
+    void runCompletesWhenLastCandidateFinishes() {
+        MatchingMetrics.Run run = metrics.startRun(1L);
+        run.candidateConsidered();
+        run.candidateDispatched();
+        run.candidateConsidered();
+        run.candidateSkipped(MatchingMetrics.SKIP_RESUME_UNREADABLE);
+        run.dispatchFinished();
+
+        assertEquals(1.0, registry.get("matching.runs.active").gauge().value());
+        assertEquals(1.0, registry.get("matching.candidates.in_flight").gauge().value());
+        assertNull(registry.find("matching.run").timer());
+
+        run.candidateScored();
+        run.candidateFinished();
+
+        assertEquals(0.0, registry.get("matching.runs.active").gauge().value());
+        assertEquals(0.0, registry.get("matching.candidates.in_flight").gauge().value());
+        assertEquals(1, registry.get("matching.run").tag("outcome", "completed").timer().count());
+        assertEquals(2.0, registry.get("matching.candidates.considered").counter().count());
+        assertEquals(1.0, registry.get("matching.candidates.skipped").tag("reason", "resume_unreadable").counter().count());
+        assertEquals(1.0, registry.get("matching.candidates.scored").counter().count());
+    }
+
+    @Test
+    void abortedRunIsRecordedOnce() {
+        MatchingMetrics.Run run = metrics.startRun(2L);
+        run.abort();
+        run.dispatchFinished();
+
+        assertEquals(0.0, registry.get("matching.runs.active").gauge().value());
+        assertEquals(1, registry.get("matching.run").tag("outcome", "failed").timer().count());
+        assertNull(registry.find("matching.run").tag("outcome", "completed").timer());
+    }
+}
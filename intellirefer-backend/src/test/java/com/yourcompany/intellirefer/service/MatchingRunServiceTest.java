@@ -0,0 +1,140 @@
+package com.yourcompany.intellirefer.service;
+
+import com.yourcompany.intellirefer.entity.JobDescription;
+import com.yourcompany.intellirefer.entity.MatchingRun;
+import com.yourcompany.intellirefer.entity.User;
+import com.yourcompany.intellirefer.model.enums.MatchingRunStatus;
+import com.yourcompany.intellirefer.model.enums.Role;
+import com.yourcompany.intellirefer.repository.JobDescriptionRepository;
+import com.yourcompany.intellirefer.repository.MatchingRunRepository;
+import com.yourcompany.intellirefer.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks that a matching run's row follows the run: inserted when it starts, updated by the periodic
+ * flush, and finalized once when it ends. Runs are written in their own transactions, so these tests
+ * run without the usual rollback and clean up after themselves.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({MatchingRunService.class, MatchingMetrics.class, SimpleMeterRegistry.class})
+class MatchingRunServiceTest {
+
+    @Autowired private MatchingRunService matchingRunService;
+    @Autowired private MatchingRunRepository matchingRunRepository;
+    @Autowired private JobDescriptionRepository jdRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Long jdId;
+
+    @BeforeEach
+    void setUp() {
+        User manager = new User();
+        manager.setEmail("runs-manager@test");
+        manager.setPasswordHash("hash");
+        manager.setRole(Role.MANAGER);
+        userRepository.save(manager);
+
+        JobDescription jd = new JobDescription();
+        jd.setTitle("Engineer");
+        jd.setClientName("Acme");
+        jd.setJdFilePath("jds/acme.pdf");
+        jd.setUploadedByManager(manager);
+        jdId = jdRepository.save(jd).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM matching_runs WHERE job_description_id = ?", jdId);
+        jdbcTemplate.update("DELETE FROM job_descriptions WHERE id = ?", jdId);
+        jdbcTemplate.update("DELETE FROM users WHERE email = 'runs-manager@test'");
+    }
+
+    @Test
+    void rowTracksProgressAndFinalOutcome() {
+        List<String> outcomes = new ArrayList<>();
+        MatchingMetrics.Run run = matchingRunService.start(jdId, 42, outcomes::add);
+
+        MatchingRun started = single();
+        assertEquals(MatchingRunStatus.RUNNING, started.getStatus());
+        assertEquals(42, started.getQueueWaitMs());
+        assertNull(started.getFinishedAt());
+
+        run.stageTime(MatchingMetrics.Stage.JD_PARSE, Duration.ofMillis(120).toNanos());
+        run.candidateConsidered();
+        run.candidateDispatched();
+        run.candidateConsidered();
+        run.candidateSkipped(MatchingMetrics.SKIP_RESUME_UNREADABLE);
+        run.dispatchFinished();
+        matchingRunService.flush();
+
+        MatchingRun progress = single();
+        assertEquals(MatchingRunStatus.RUNNING, progress.getStatus());
+        assertEquals(2, progress.getCandidatesConsidered());
+        assertEquals(1, progress.getCandidatesSkipped());
+        assertEquals(1, progress.getCandidatesDispatched());
+        assertEquals(120, progress.getJdParseMs());
+
+        run.llmCallFinished(Duration.ofMillis(800).toNanos(), true);
+        run.candidateScored();
+        run.candidateFinished();
+
+        MatchingRun finished = single();
+        assertEquals(List.of("completed"), outcomes);
+        assertEquals(MatchingRunStatus.COMPLETED, finished.getStatus());
+        assertNotNull(finished.getFinishedAt());
+        assertEquals(1, finished.getCandidatesScored());
+        assertEquals(1, finished.getLlmCalls());
+        assertEquals(800, finished.getLlmMs());
+
+        // A later flush must leave the finished row alone.
+        matchingRunService.flush();
+        assertEquals(finished.getUpdatedAt(), single().getUpdatedAt());
+    }
+
+    @Test
+    void abortedRunIsMarkedFailed() {
+        matchingRunService.start(jdId, 0, outcome -> { }).abort();
+
+        assertEquals(MatchingRunStatus.FAILED, single().getStatus());
+    }
+
+    @Test
+    void runOutOfBudgetIsFlaggedWithItsTokens() {
+        MatchingMetrics.Run run = matchingRunService.start(jdId, 0, outcome -> { });
+        run.llmTokensUsed("jd_experience", 120, 30);
+        run.budgetExceeded();
+        run.dispatchFinished();
+
+        MatchingRun finished = single();
+        assertEquals(MatchingRunStatus.BUDGET_EXCEEDED, finished.getStatus());
+        assertEquals(120, finished.getLlmPromptTokens());
+        assertEquals(30, finished.getLlmResponseTokens());
+    }
+
+    private MatchingRun single() {
+        List<MatchingRun> runs = matchingRunRepository.findByJobDescriptionIdOrderByStartedAtDescIdDesc(jdId);
+        assertEquals(1, runs.size());
+        return runs.get(0);
+    }
+}
@@ -0,0 +1,172 @@
+package com.yourcompany.intellirefer.service;
+
+import com.yourcompany.intellirefer.dto.MatchCandidate;
+import com.yourcompany.intellirefer.entity.EmployeeProfile;
+import com.yourcompany.intellirefer.entity.JobDescription;
+import com.yourcompany.intellirefer.event.JdUploadedEvent;
+import com.yourcompany.intellirefer.loadtest.GeminiStub;
+import com.yourcompany.intellirefer.model.enums.AvailabilityStatus;
+import com.yourcompany.intellirefer.repository.EmployeeProfileRepository;
+import com.yourcompany.intellirefer.repository.JobDescriptionRepository;
+import com.yourcompany.intellirefer.repository.LlmTokenUsageRepository;
+import com.yourcompany.intellirefer.repository.ReferralRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.test.simple.SimpleSpan;
+import io.micrometer.tracing.test.simple.SimpleTracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the span tree of one matching run: every candidate's LLM call and referral save hang off
+ * that candidate's span, and all candidates off the run's span, across the Reactor callbacks.
+ * Also checks that a run out of token budget ends flagged, with the candidate it stopped at skipped.
+ */
+class MatchingServiceTracingTest {
+
+    private final SimpleTracer tracer = new SimpleTracer();
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private GeminiStub stub;
+    private MatchingService matchingService;
+    private LlmBudgetService llmBudgetService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new GeminiStub(GeminiStub.Settings.immediate());
+        LLMService llmService = new LLMService(WebClient.builder(), registry, tracer);
+        ReflectionTestUtils.setField(llmService, "apiUrlTemplate", stub.urlTemplate());
+        ReflectionTestUtils.setField(llmService, "apiKey", "test-key");
+
+        JobDescription jd = new JobDescription();
+        jd.setId(1L);
+        jd.setJdFilePath("jds/jd.pdf");
+        JobDescriptionRepository jdRepository = mock(JobDescriptionRepository.class);
+        when(jdRepository.findById(1L)).thenReturn(Optional.of(jd));
+
+        EmployeeProfileRepository employeeRepository = mock(EmployeeProfileRepository.class);
+        when(employeeRepository.findMatchCandidates(eq(AvailabilityStatus.AVAILABLE), isNull(), anyInt(), anyLong(), any()))
+                .thenReturn(List.of(new MatchCandidate(10L, "First", "resumes/10.pdf"), new MatchCandidate(11L, "Second", "resumes/11.pdf")));
+        when(employeeRepository.findMatchCandidates(eq(AvailabilityStatus.ON_PROJECT), any(), anyInt(), anyLong(), any()))
+                .thenReturn(List.of());
+        when(employeeRepository.getReferenceById(anyLong())).thenReturn(new EmployeeProfile());
+
+        StorageService storageService = mock(StorageService.class);
+        // Each document's text is its path, so the candidates' LLM calls differ and are not coalesced.
+        when(storageService.loadAsResource(anyString()))
+                .thenAnswer(invocation -> new ByteArrayResource(invocation.getArgument(0, String.class).getBytes(StandardCharsets.UTF_8)));
+        DocumentParsingService parsingService = mock(DocumentParsingService.class);
+        when(parsingService.parse(any(), anyString()))
+                .thenAnswer(invocation -> new String(invocation.getArgument(0, InputStream.class).readAllBytes(), StandardCharsets.UTF_8));
+        SkillDictionary skillDictionary = mock(SkillDictionary.class);
+        when(skillDictionary.resolveInOrder(any())).thenReturn(List.of());
+
+        matchingService = new MatchingService();
+        ReflectionTestUtils.setField(matchingService, "jdRepository", jdRepository);
+        ReflectionTestUtils.setField(matchingService, "employeeRepository", employeeRepository);
+        ReflectionTestUtils.setField(matchingService, "referralRepository", mock(ReferralRepository.class));
+        ReflectionTestUtils.setField(matchingService, "storageService", storageService);
+        ReflectionTestUtils.setField(matchingService, "parsingService", parsingService);
+        ReflectionTestUtils.setField(matchingService, "llmService", llmService);
+        llmBudgetService = new LlmBudgetService();
+        ReflectionTestUtils.setField(llmBudgetService, "tokenUsageRepository", mock(LlmTokenUsageRepository.class));
+        ReflectionTestUtils.setField(matchingService, "llmBudgetService", llmBudgetService);
+        ReflectionTestUtils.setField(matchingService, "skillDictionary", skillDictionary);
+        MatchingMetrics matchingMetrics = new MatchingMetrics(registry);
+        MatchingRunService matchingRunService = mock(MatchingRunService.class);
+        when(matchingRunService.start(anyLong(), anyLong(), any()))
+                .thenAnswer(invocation -> matchingMetrics.startRun(invocation.getArgument(0), invocation.getArgument(2)));
+        ReflectionTestUtils.setField(matchingService, "matchingMetrics", matchingMetrics);
+        ReflectionTestUtils.setField(matchingService, "matchingRunService", matchingRunService);
+        ReflectionTestUtils.setField(matchingService, "tracer", tracer);
+        ReflectionTestUtils.setField(matchingService, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(matchingService, "candidateChunkSize", 500);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    void candidatesAndTheirCallsAreChildrenOfTheRun() throws Exception {
+        Span upload = tracer.nextSpan().name("http post /api/manager/jds").start();
+        try (Tracer.SpanInScope scope = tracer.withSpan(upload)) {
+            matchingService.handleJdUploadedEvent(new JdUploadedEvent(this, 1L));
+        } finally {
+            upload.end();
+        }
+        awaitSpan("jd.matching");
+
+        Map<String, List<SimpleSpan>> byName = tracer.getSpans().stream().collect(Collectors.groupingBy(SimpleSpan::getName));
+        SimpleSpan matching = byName.get("jd.matching").get(0);
+        assertEquals(upload.context().spanId(), matching.getParentId());
+        assertEquals("completed", matching.getTags().get("outcome"));
+        assertEquals(matching.getSpanId(), byName.get("llm jd_experience").get(0).getParentId());
+
+        List<SimpleSpan> candidates = byName.get("matching.candidate");
+        assertEquals(2, candidates.size());
+        for (SimpleSpan candidate : candidates) {
+            assertEquals(matching.getSpanId(), candidate.getParentId());
+            assertEquals(1, count(byName.get("llm match_score"), candidate));
+            assertEquals(1, count(byName.get("referral.save"), candidate));
+            assertTrue(!candidate.getEndTimestamp().isAfter(matching.getEndTimestamp()));
+        }
+    }
+
+    @Test
+    void runStopsWhenTheJdTokenBudgetIsSpent() throws Exception {
+        // Room for the JD's own call, but not for a candidate's on top of the tokens it used.
+        ReflectionTestUtils.setField(llmBudgetService, "jdTokenLimit", 600L);
+
+        matchingService.handleJdUploadedEvent(new JdUploadedEvent(this, 1L));
+        awaitSpan("jd.matching");
+
+        Map<String, List<SimpleSpan>> byName = tracer.getSpans().stream().collect(Collectors.groupingBy(SimpleSpan::getName));
+        assertEquals("budget_exceeded", byName.get("jd.matching").get(0).getTags().get("outcome"));
+        assertEquals(1, byName.get("llm jd_experience").size());
+        assertNull(byName.get("llm match_score"));
+        List<SimpleSpan> candidates = byName.get("matching.candidate");
+        assertEquals(1, candidates.size());
+        assertEquals(MatchingMetrics.SKIP_BUDGET_EXCEEDED, candidates.get(0).getTags().get("skipped"));
+        assertEquals(1.0, registry.get("matching.candidates.skipped").tag("reason", MatchingMetrics.SKIP_BUDGET_EXCEEDED).counter().count());
+    }
+
+    private static long count(List<SimpleSpan> spans, SimpleSpan parent) {
+        return spans.stream().filter(span -> parent.getSpanId().equals(span.getParentId())).count();
+    }
+
+    private void awaitSpan(String name) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (tracer.getSpans().stream().noneMatch(span -> span.getName().equals(name) && span.getEndTimestamp().toEpochMilli() > 0)) {
+            assertTrue(System.nanoTime() < deadline, "timed out waiting for " + name);
+            Thread.sleep(20);
+        }
+    }
+}
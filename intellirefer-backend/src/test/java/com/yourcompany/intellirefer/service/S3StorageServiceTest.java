@@ -0,0 +1,329 @@
+package com.yourcompany.intellirefer.service;
+
+import com.amazonaws.services.s3.AbstractAmazonS3;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadResult;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
+import com.amazonaws.services.s3.model.ListPartsRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.PartListing;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.PutObjectResult;
+import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
+import com.amazonaws.services.s3.transfer.TransferManager;
+import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
+import com.yourcompany.intellirefer.config.AwsConfig;
+import com.yourcompany.intellirefer.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs {@link S3StorageService} against an in-process S3 fake, covering both single-request
+ * and parallel multipart uploads (also with the transfer manager {@link AwsConfig} builds by
+ * default) as well as ranged reads.
+ */
+class S3StorageServiceTest {
+
+    private static final String BUCKET = "intellirefer-test";
+    private static final long PART_SIZE = 5L * 1024 * 1024;
+
+    @TempDir
+    Path stagingDir;
+
+    private InMemoryS3 s3;
+    private TransferManager transferManager;
+    private S3StorageService storageService;
+
+    @BeforeEach
+    void setUp() {
+        s3 = new InMemoryS3();
+        transferManager = TransferManagerBuilder.standard()
+                .withS3Client(s3)
+                .withExecutorFactory(() -> Executors.newFixedThreadPool(4))
+                .withMultipartUploadThreshold(PART_SIZE)
+                .withMinimumUploadPartSize(PART_SIZE)
+                .build();
+
+        storageService = new S3StorageService();
+        ReflectionTestUtils.setField(storageService, "bucketName", BUCKET);
+        ReflectionTestUtils.setField(storageService, "layout", StorageLayout.SHARDED);
+        ReflectionTestUtils.setField(storageService, "stagingLocation", stagingDir.resolve("staging").toString());
+        ReflectionTestUtils.setField(storageService, "multipartLocation", stagingDir.resolve("multipart").toString());
+        ReflectionTestUtils.setField(storageService, "s3Client", s3);
+        ReflectionTestUtils.setField(storageService, "transferManager", transferManager);
+        storageService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transferManager.shutdownNow(false);
+    }
+
+    @Test
+    void storesSmallFileInOneRequestAndReadsItBack() throws Exception {
+        byte[] content = pdf(64 * 1024);
+
+        String key = storageService.store(new MockMultipartFile("file", "resume.pdf", "application/pdf", content), "resumes");
+
+        assertTrue(key.startsWith("resumes/"));
+        assertFalse(key.contains("\\"));
+        assertEquals(0, s3.multipartUploads);
+        try (InputStream stream = storageService.loadAsResource(key).getInputStream()) {
+            assertArrayEquals(content, stream.readAllBytes());
+        }
+        assertEquals(content.length, storageService.getMetadata(key).size());
+        assertEquals(sha256(content), storageService.getContentHash(key));
+    }
+
+    @Test
+    void storesLargeFileAsParallelMultipartUpload() throws Exception {
+        byte[] content = pdf((int) (3 * PART_SIZE + 1234));
+
+        String key = storageService.store(new MockMultipartFile("file", "jd.pdf", "application/pdf", content), "jds");
+
+        assertEquals(1, s3.multipartUploads);
+        assertEquals(4, s3.partsUploaded);
+        try (InputStream stream = storageService.loadAsResource(key).getInputStream()) {
+            assertArrayEquals(content, stream.readAllBytes());
+        }
+        assertEquals(sha256(content), storageService.getContentHash(key));
+    }
+
+    @Test
+    void uploadsBelowTheUploadLimitGoMultipartWithTheDefaultConfiguration() {
+        // 6 MB: above the default threshold, below spring.servlet.multipart.max-file-size (10 MB).
+        byte[] content = pdf(6 * 1024 * 1024);
+        InMemoryS3 defaultS3 = new InMemoryS3();
+
+        new ApplicationContextRunner()
+                .withUserConfiguration(AwsConfig.class, S3StorageService.class)
+                .withBean("inMemoryS3", AmazonS3.class, () -> defaultS3, definition -> definition.setPrimary(true))
+                // Registered as is, so its own dependencies are not wired; content addressing is off here.
+                .withInitializer(context -> context.getBeanFactory()
+                        .registerSingleton("blobReferenceTracker", mock(BlobReferenceTracker.class)))
+                .withPropertyValues("storage.backend=s3", "cloud.aws.region.static=ap-south-1",
+                        "cloud.aws.s3.bucket.name=" + BUCKET,
+                        "storage.s3.staging-location=" + stagingDir.resolve("default-staging"),
+                        "spring.servlet.multipart.location=" + stagingDir.resolve("default-multipart"))
+                .run(context -> {
+                    String key = context.getBean(S3StorageService.class)
+                            .store(new MockMultipartFile("file", "jd.pdf", "application/pdf", content), "jds");
+
+                    assertEquals(1, defaultS3.multipartUploads);
+                    assertEquals(2, defaultS3.partsUploaded);
+                    assertArrayEquals(content, defaultS3.objects.get(key));
+                });
+    }
+
+    @Test
+    void readsOnlyTheRequestedRange() throws Exception {
+        byte[] content = pdf(256 * 1024);
+        String key = storageService.store(new MockMultipartFile("file", "resume.pdf", "application/pdf", content), "resumes");
+
+        try (InputStream stream = storageService.openRange(key, 1000, 500)) {
+            assertArrayEquals(Arrays.copyOfRange(content, 1000, 1500), stream.readAllBytes());
+        }
+    }
+
+    @Test
+    void deleteRemovesObjectOutsideTransaction() {
+        String key = storageService.store(new MockMultipartFile("file", "resume.pdf", "application/pdf", pdf(1024)), "resumes");
+
+        storageService.delete(key);
+
+        assertFalse(s3.doesObjectExist(BUCKET, key));
+        assertThrows(ResourceNotFoundException.class, () -> storageService.getMetadata(key));
+    }
+
+    private static byte[] pdf(int size) {
+        byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+        System.arraycopy("%PDF-1.7\n".getBytes(), 0, content, 0, 9);
+        return content;
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+
+    /**
+     * Just enough of S3 for the storage service and the transfer manager.
+     */
+    static class InMemoryS3 extends AbstractAmazonS3 {
+
+        private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+        private final Map<String, ObjectMetadata> metadata = new ConcurrentHashMap<>();
+        private final Map<String, Map<Integer, byte[]>> pendingUploads = new ConcurrentHashMap<>();
+        int multipartUploads;
+        volatile int partsUploaded;
+
+        @Override
+        public PutObjectResult putObject(PutObjectRequest request) {
+            try (InputStream in = request.getFile() != null
+                    ? new FileInputStream(request.getFile())
+                    : request.getInputStream()) {
+                save(request.getKey(), in.readAllBytes(), request.getMetadata());
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return new PutObjectResult();
+        }
+
+        @Override
+        public InitiateMultipartUploadResult initiateMultipartUpload(InitiateMultipartUploadRequest request) {
+            String uploadId = UUID.randomUUID().toString();
+            pendingUploads.put(uploadId, new ConcurrentHashMap<>());
+            metadata.put(uploadId, request.getObjectMetadata());
+            multipartUploads++;
+            InitiateMultipartUploadResult result = new InitiateMultipartUploadResult();
+            result.setBucketName(request.getBucketName());
+            result.setKey(request.getKey());
+            result.setUploadId(uploadId);
+            return result;
+        }
+
+        @Override
+        public UploadPartResult uploadPart(UploadPartRequest request) {
+            byte[] part = new byte[(int) request.getPartSize()];
+            try {
+                if (request.getFile() != null) {
+                    try (RandomAccessFile file = new RandomAccessFile(request.getFile(), "r")) {
+                        file.seek(request.getFileOffset());
+                        file.readFully(part);
+                    }
+                } else {
+                    new DataInputStream(request.getInputStream()).readFully(part);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            pendingUploads.get(request.getUploadId()).put(request.getPartNumber(), part);
+            synchronized (this) {
+                partsUploaded++;
+            }
+            UploadPartResult result = new UploadPartResult();
+            result.setPartNumber(request.getPartNumber());
+            result.setETag(Integer.toHexString(Arrays.hashCode(part)));
+            return result;
+        }
+
+        @Override
+        public PartListing listParts(ListPartsRequest request) {
+            // Nothing to resume: every upload in these tests starts fresh.
+            PartListing listing = new PartListing();
+            listing.setUploadId(request.getUploadId());
+            listing.setTruncated(false);
+            return listing;
+        }
+
+        @Override
+        public CompleteMultipartUploadResult completeMultipartUpload(CompleteMultipartUploadRequest request) {
+            Map<Integer, byte[]> parts = new TreeMap<>(pendingUploads.remove(request.getUploadId()));
+            ByteArrayOutputStream assembled = new ByteArrayOutputStream();
+            for (PartETag partETag : request.getPartETags()) {
+                assembled.writeBytes(parts.get(partETag.getPartNumber()));
+            }
+            save(request.getKey(), assembled.toByteArray(), metadata.remove(request.getUploadId()));
+            CompleteMultipartUploadResult result = new CompleteMultipartUploadResult();
+            result.setKey(request.getKey());
+            return result;
+        }
+
+        @Override
+        public S3Object getObject(String bucketName, String key) {
+            return getObject(new GetObjectRequest(bucketName, key));
+        }
+
+        @Override
+        public S3Object getObject(GetObjectRequest request) {
+            byte[] content = find(request.getKey());
+            long[] range = request.getRange();
+            if (range != null) {
+                content = Arrays.copyOfRange(content, (int) range[0], (int) Math.min(range[1] + 1, content.length));
+            }
+            S3Object object = new S3Object();
+            object.setKey(request.getKey());
+            object.setObjectMetadata(metadata.get(request.getKey()));
+            object.setObjectContent(new ByteArrayInputStream(content));
+            return object;
+        }
+
+        @Override
+        public ObjectMetadata getObjectMetadata(String bucketName, String key) {
+            find(key);
+            return metadata.get(key);
+        }
+
+        @Override
+        public void shutdown() {
+            // Called by TransferManager.shutdownNow(); nothing to release.
+        }
+
+        @Override
+        public boolean doesObjectExist(String bucketName, String key) {
+            return objects.containsKey(key);
+        }
+
+        @Override
+        public void deleteObject(String bucketName, String key) {
+            objects.remove(key);
+            metadata.remove(key);
+        }
+
+        private void save(String key, byte[] content, ObjectMetadata requestMetadata) {
+            ObjectMetadata stored = requestMetadata != null ? requestMetadata.clone() : new ObjectMetadata();
+            stored.setContentLength(content.length);
+            stored.setLastModified(new Date());
+            objects.put(key, content);
+            metadata.put(key, stored);
+        }
+
+        private byte[] find(String key) {
+            byte[] content = objects.get(key);
+            if (content == null) {
+                AmazonS3Exception notFound = new AmazonS3Exception("Not Found");
+                notFound.setStatusCode(404);
+                throw notFound;
+            }
+            return content;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.yourcompany.intellirefer.service;
+
+import com.yourcompany.intellirefer.entity.Skill;
+import com.yourcompany.intellirefer.repository.SkillRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that skill resolution costs a constant number of queries (none once cached) and that concurrent
+ * resolutions of the same new skills agree. The dictionary commits in its own transactions,
+ * so these tests run without the usual rollback and clean up after themselves.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(SkillDictionary.class)
+class SkillDictionaryTest {
+
+    @Autowired private SkillDictionary skillDictionary;
+    @Autowired private SkillRepository skillRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM skills WHERE name_key LIKE 'dict-%'");
+    }
+
+    @Test
+    void resolvesManyNewSkillsWithConstantQueries() {
+        List<String> names = IntStream.range(0, 40).mapToObj(i -> "dict-skill-" + i).toList();
+
+        Set<Skill> created = skillDictionary.resolve(names);
+
+        assertEquals(40, created.size());
+        assertEquals(2, statistics.getPrepareStatementCount(), "one read-back after the bulk insert plus one load by id");
+        assertEquals("Dict-skill-7", skillRepository.findByNameIgnoreCase("DICT-SKILL-7").orElseThrow().getName());
+
+        statistics.clear();
+        Set<Skill> known = skillDictionary.resolve(names);
+
+        assertEquals(0, statistics.getPrepareStatementCount(), "known skills come from the second-level cache");
+        assertEquals(ids(created), ids(known));
+    }
+
+    @Test
+    void treatsNamesCaseAndWhitespaceInsensitively() {
+        Set<Skill> skills = skillDictionary.resolve(List.of("dict-Kotlin", " DICT-kotlin ", "dict-kotlin", "", "  "));
+
+        assertEquals(1, skills.size());
+        assertEquals("Dict-Kotlin", skills.iterator().next().getName());
+    }
+
+    @Test
+    void concurrentResolutionsAgreeOnNewSkills() throws Exception {
+        List<String> names = IntStream.range(0, 20).mapToObj(i -> "dict-shared-" + i).toList();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Set<Integer>>> tasks = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                tasks.add(() -> ids(skillDictionary.resolve(names)));
+            }
+            List<Future<Set<Integer>>> results = executor.invokeAll(tasks);
+
+            Set<Integer> expected = results.get(0).get();
+            assertEquals(20, expected.size());
+            for (Future<Set<Integer>> result : results) {
+                assertEquals(expected, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static Set<Integer> ids(Set<Skill> skills) {
+        return skills.stream().map(Skill::getId).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,165 @@
+package com.yourcompany.intellirefer.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Migrates a flat storage tree into the sharded layout, and resumes a migration that stopped
+ * part way through a batch. The migration commits its own transactions, so these tests run
+ * without the usual rollback and clean up after themselves.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({StorageLayoutMigrationService.class, FileSystemStorageService.class, BlobReferenceTracker.class})
+@TestPropertySource(properties = {
+        "storage.location=${java.io.tmpdir}/intellirefer-test-storage/layout-migration",
+        "storage.layout=SHARDED",
+        "storage.migration.batch-size=2",
+        "storage.migration.pause-ms=0"
+})
+class StorageLayoutMigrationServiceTest {
+
+    @Autowired private StorageLayoutMigrationService migrationService;
+    @Autowired private FileSystemStorageService storageService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Value("${storage.location}")
+    private Path storageLocation;
+
+    private long managerId;
+
+    @BeforeEach
+    void setUp() {
+        managerId = insertUser("layout-manager@intellirefer.test", "MANAGER");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        jdbcTemplate.update("DELETE FROM job_descriptions WHERE uploaded_by_manager_id = ?", managerId);
+        jdbcTemplate.update("DELETE FROM employee_profiles WHERE user_id IN (SELECT id FROM users WHERE email LIKE 'layout-%')");
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE 'layout-%'");
+        FileSystemUtils.deleteRecursively(storageLocation.resolve("resumes"));
+        FileSystemUtils.deleteRecursively(storageLocation.resolve("jds"));
+    }
+
+    @Test
+    void movesAFlatTreeIntoTheShardedLayout() throws IOException {
+        String shared = flatFile("resumes");
+        List<Long> employees = List.of(
+                insertEmployee(flatFile("resumes")),
+                insertEmployee(shared),
+                insertEmployee(flatFile("resumes")),
+                insertEmployee(shared),
+                insertEmployee(flatFile("resumes")));
+        List<Long> jds = List.of(insertJd(flatFile("jds")), insertJd(flatFile("jds")), insertJd(flatFile("jds")));
+
+        assertEquals(7, migrationService.migrate(), "the shared resume is moved once");
+
+        assertInShardedLayout(employees, jds);
+        assertEquals(resumePath(employees.get(1)), resumePath(employees.get(3)));
+        assertEquals(0, migrationService.migrate(), "a second run finds nothing left to move");
+    }
+
+    @Test
+    void resumesAfterAMigrationStoppedPartWay() throws IOException {
+        long notStarted = insertEmployee(flatFile("resumes"));
+        long linkedOnly = insertEmployee(flatFile("resumes"));
+        long rewrittenOnly = insertEmployee(flatFile("resumes"));
+        long jd = insertJd(flatFile("jds"));
+
+        // The run stopped after linking one file into place, and after rewriting another's
+        // path but before deleting its old file.
+        String linkedPath = resumePath(linkedOnly);
+        storageService.relocate(linkedPath, storageService.layoutPathFor(linkedPath));
+        String rewrittenPath = resumePath(rewrittenOnly);
+        String rewrittenTarget = storageService.layoutPathFor(rewrittenPath);
+        storageService.relocate(rewrittenPath, rewrittenTarget);
+        jdbcTemplate.update("UPDATE employee_profiles SET resume_file_path = ? WHERE user_id = ?", rewrittenTarget, rewrittenOnly);
+
+        migrationService.migrate();
+
+        assertInShardedLayout(List.of(notStarted, linkedOnly, rewrittenOnly), List.of(jd));
+        assertEquals(0, migrationService.migrate());
+    }
+
+    private void assertInShardedLayout(List<Long> employees, List<Long> jds) throws IOException {
+        for (Long employee : employees) {
+            assertMovedIntoShards(resumePath(employee));
+        }
+        for (Long jd : jds) {
+            assertMovedIntoShards(jdbcTemplate.queryForObject("SELECT jd_file_path FROM job_descriptions WHERE id = ?", String.class, jd));
+        }
+        assertEquals(List.of(), filesDirectlyIn("resumes"), "no file is left at its old path");
+        assertEquals(List.of(), filesDirectlyIn("jds"), "no file is left at its old path");
+    }
+
+    private void assertMovedIntoShards(String relativePath) throws IOException {
+        assertEquals(4, Paths.get(relativePath).getNameCount(), relativePath);
+        Path file = storageService.resolveStoredFile(relativePath);
+        String content = Files.readString(file, StandardCharsets.UTF_8);
+        assertTrue(content.endsWith(file.getFileName().toString()), "the file kept its content");
+    }
+
+    private List<Path> filesDirectlyIn(String subfolder) throws IOException {
+        try (Stream<Path> files = Files.list(storageLocation.resolve(subfolder))) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+
+    /**
+     * A legacy UUID-named file directly in the subfolder, holding its own name.
+     */
+    private String flatFile(String subfolder) throws IOException {
+        String fileName = UUID.randomUUID() + ".pdf";
+        Path file = storageLocation.resolve(subfolder).resolve(fileName);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "%PDF-1.7\n" + fileName, StandardCharsets.UTF_8);
+        return Paths.get(subfolder, fileName).toString();
+    }
+
+    private long insertUser(String email, String role) {
+        jdbcTemplate.update("INSERT INTO users (email, password_hash, role) VALUES (?, 'hash', ?)", email, role);
+        return jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, email);
+    }
+
+    private long insertEmployee(String resumePath) {
+        long userId = insertUser("layout-" + UUID.randomUUID() + "@intellirefer.test", "EMPLOYEE");
+        jdbcTemplate.update("INSERT INTO employee_profiles (user_id, full_name, resume_file_path, availability) VALUES (?, 'Layout Test', ?, 'AVAILABLE')",
+                userId, resumePath);
+        return userId;
+    }
+
+    private long insertJd(String jdPath) {
+        jdbcTemplate.update("INSERT INTO job_descriptions (title, jd_file_path, status, uploaded_by_manager_id) VALUES ('Layout Test', ?, 'OPEN', ?)",
+                jdPath, managerId);
+        return jdbcTemplate.queryForObject("SELECT id FROM job_descriptions WHERE jd_file_path = ?", Long.class, jdPath);
+    }
+
+    private String resumePath(long userId) {
+        return jdbcTemplate.queryForObject("SELECT resume_file_path FROM employee_profiles WHERE user_id = ?", String.class, userId);
+    }
+}
@@ -0,0 +1,72 @@
+-- H2 copy of db/migration/mysql/V1__baseline.sql for tests. Like that one it must never change.
+-- The unique keys that V2 drops carry Hibernate's names, as in MySQL.
+
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    email VARCHAR(255) NOT NULL,
+    password_hash VARCHAR(255) NOT NULL,
+    role ENUM ('EMPLOYEE','MANAGER') NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE employee_profiles (
+    user_id BIGINT NOT NULL,
+    full_name VARCHAR(255) NOT NULL,
+    years_of_experience INTEGER,
+    resume_file_path VARCHAR(255),
+    availability ENUM ('AVAILABLE','ON_PROJECT','RESERVED') NOT NULL,
+    job_level VARCHAR(50),
+    current_role VARCHAR(100),
+    expected_availability_date DATE,
+    updated_at TIMESTAMP(6) WITH TIME ZONE,
+    PRIMARY KEY (user_id),
+    CONSTRAINT UKg60c1gmifnmer4bp3x9sk621k UNIQUE (resume_file_path),
+    CONSTRAINT fk_employee_profiles_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE skills (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(100) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_skills_name UNIQUE (name)
+);
+
+CREATE TABLE employee_skills (
+    employee_user_id BIGINT NOT NULL,
+    skill_id INTEGER NOT NULL,
+    PRIMARY KEY (skill_id, employee_user_id),
+    CONSTRAINT fk_employee_skills_skill FOREIGN KEY (skill_id) REFERENCES skills (id),
+    CONSTRAINT fk_employee_skills_employee FOREIGN KEY (employee_user_id) REFERENCES employee_profiles (user_id)
+);
+
+CREATE TABLE job_descriptions (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    title VARCHAR(255) NOT NULL,
+    client_name VARCHAR(255),
+    jd_file_path VARCHAR(255) NOT NULL,
+    status ENUM ('CLOSED','OPEN') NOT NULL,
+    required_experience INTEGER,
+    uploaded_by_manager_id BIGINT NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE,
+    PRIMARY KEY (id),
+    CONSTRAINT UKfjo2m1mprikbqj9v3labvxk5x UNIQUE (jd_file_path),
+    CONSTRAINT fk_jds_manager FOREIGN KEY (uploaded_by_manager_id) REFERENCES users (id)
+);
+
+CREATE TABLE referrals (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    job_description_id BIGINT NOT NULL,
+    employee_user_id BIGINT NOT NULL,
+    match_score INTEGER NOT NULL,
+    justification TEXT,
+    matching_skills VARCHAR(255),
+    status ENUM ('PENDING_REVIEW','REJECTED','RESERVED','SELECTED') NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE,
+    updated_at TIMESTAMP(6) WITH TIME ZONE,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_referrals_jd_employee UNIQUE (job_description_id, employee_user_id),
+    CONSTRAINT fk_referrals_jd FOREIGN KEY (job_description_id) REFERENCES job_descriptions (id),
+    CONSTRAINT fk_referrals_employee FOREIGN KEY (employee_user_id) REFERENCES employee_profiles (user_id)
+);
@@ -0,0 +1,32 @@
+-- H2 copy of db/migration/mysql/V2__blob_storage_and_query_indexes.sql for tests. The test database
+-- starts empty, so the duplicate-skill merge is not needed here.
+
+CREATE INDEX idx_employee_profiles_resume_file_path ON employee_profiles (resume_file_path);
+CREATE INDEX idx_jds_jd_file_path ON job_descriptions (jd_file_path);
+ALTER TABLE employee_profiles DROP CONSTRAINT IF EXISTS UKg60c1gmifnmer4bp3x9sk621k;
+ALTER TABLE job_descriptions DROP CONSTRAINT IF EXISTS UKfjo2m1mprikbqj9v3labvxk5x;
+
+CREATE TABLE stored_blobs (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    relative_path VARCHAR(255) NOT NULL,
+    content_hash VARCHAR(64) NOT NULL,
+    size_bytes BIGINT NOT NULL,
+    ref_count INTEGER NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE,
+    released_at TIMESTAMP(6) WITH TIME ZONE,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_stored_blobs_relative_path UNIQUE (relative_path)
+);
+
+CREATE INDEX idx_stored_blobs_content_hash ON stored_blobs (content_hash);
+CREATE INDEX idx_stored_blobs_ref_count_released_at ON stored_blobs (ref_count, released_at);
+
+CREATE INDEX idx_jds_manager_created_id ON job_descriptions (uploaded_by_manager_id, created_at, id);
+CREATE INDEX idx_referrals_jd_score_id ON referrals (job_description_id, match_score, id);
+CREATE INDEX idx_employee_profiles_availability_date ON employee_profiles (availability, expected_availability_date);
+CREATE INDEX idx_referrals_employee_status_id ON referrals (employee_user_id, status, id);
+
+ALTER TABLE skills ADD COLUMN name_key VARCHAR(100);
+UPDATE skills SET name_key = LOWER(TRIM(name));
+ALTER TABLE skills ALTER COLUMN name_key SET NOT NULL;
+CREATE UNIQUE INDEX uk_skills_name_key ON skills (name_key);
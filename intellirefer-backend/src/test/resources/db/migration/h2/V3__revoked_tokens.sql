@@ -0,0 +1,11 @@
+-- H2 copy of db/migration/mysql/V3__revoked_tokens.sql for tests.
+
+CREATE TABLE revoked_tokens (
+    token_id VARCHAR(36) NOT NULL,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    revoked_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (token_id)
+);
+
+CREATE INDEX idx_revoked_tokens_revoked_at ON revoked_tokens (revoked_at);
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
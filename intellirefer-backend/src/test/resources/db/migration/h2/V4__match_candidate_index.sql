@@ -0,0 +1,3 @@
+-- H2 copy of db/migration/mysql/V4__match_candidate_index.sql for tests.
+
+CREATE INDEX idx_employee_profiles_availability_user ON employee_profiles (availability, user_id);
@@ -0,0 +1,17 @@
+-- H2 copy of db/migration/mysql/V5__referral_matching_skills.sql for tests. The test database
+-- starts empty, so the existing comma-joined lists need no conversion here; MySqlSchemaUpgradeTest
+-- runs the MySQL conversion.
+
+CREATE TABLE referral_matching_skills (
+    referral_id BIGINT NOT NULL,
+    position INTEGER NOT NULL,
+    skill_id INTEGER NOT NULL,
+    PRIMARY KEY (referral_id, position),
+    CONSTRAINT uk_referral_matching_skills_referral_skill UNIQUE (referral_id, skill_id)
+);
+
+CREATE INDEX idx_referral_matching_skills_skill_referral ON referral_matching_skills (skill_id, referral_id);
+ALTER TABLE referral_matching_skills ADD CONSTRAINT fk_referral_matching_skills_referral FOREIGN KEY (referral_id) REFERENCES referrals (id);
+ALTER TABLE referral_matching_skills ADD CONSTRAINT fk_referral_matching_skills_skill FOREIGN KEY (skill_id) REFERENCES skills (id);
+
+ALTER TABLE referrals DROP COLUMN matching_skills;
@@ -0,0 +1,31 @@
+-- H2 copy of db/migration/mysql/V6__matching_runs.sql for tests.
+
+CREATE TABLE matching_runs (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    job_description_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    app_version VARCHAR(64),
+    started_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    finished_at TIMESTAMP(6) WITH TIME ZONE,
+    updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    queue_wait_ms BIGINT NOT NULL,
+    candidates_considered INTEGER NOT NULL,
+    candidates_skipped INTEGER NOT NULL,
+    candidates_dispatched INTEGER NOT NULL,
+    candidates_scored INTEGER NOT NULL,
+    candidates_failed INTEGER NOT NULL,
+    llm_calls INTEGER NOT NULL,
+    llm_cached INTEGER NOT NULL,
+    llm_failed INTEGER NOT NULL,
+    llm_retried INTEGER NOT NULL,
+    jd_parse_ms BIGINT NOT NULL,
+    candidate_fetch_ms BIGINT NOT NULL,
+    resume_parse_ms BIGINT NOT NULL,
+    llm_ms BIGINT NOT NULL,
+    referral_save_ms BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_matching_runs_jd_started ON matching_runs (job_description_id, started_at);
+CREATE INDEX idx_matching_runs_started ON matching_runs (started_at);
+ALTER TABLE matching_runs ADD CONSTRAINT fk_matching_runs_jd FOREIGN KEY (job_description_id) REFERENCES job_descriptions (id);
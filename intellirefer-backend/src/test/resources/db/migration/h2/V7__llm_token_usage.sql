@@ -0,0 +1,19 @@
+-- H2 copy of db/migration/mysql/V7__llm_token_usage.sql for tests.
+
+CREATE TABLE llm_token_usage (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    job_description_id BIGINT,
+    employee_id BIGINT,
+    operation VARCHAR(32) NOT NULL,
+    prompt_tokens INTEGER NOT NULL,
+    response_tokens INTEGER NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_llm_token_usage_jd ON llm_token_usage (job_description_id);
+CREATE INDEX idx_llm_token_usage_created ON llm_token_usage (created_at);
+ALTER TABLE llm_token_usage ADD CONSTRAINT fk_llm_token_usage_jd FOREIGN KEY (job_description_id) REFERENCES job_descriptions (id);
+
+ALTER TABLE matching_runs ADD COLUMN llm_prompt_tokens BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE matching_runs ADD COLUMN llm_response_tokens BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,107 @@
+-- The schema Hibernate generated on H2 from the entities as they were before Flyway took over, with
+-- the unique keys added under the names Hibernate gives them, as on MySQL (its H2 dialect inlines them
+-- unnamed). SchemaUpgradeTest starts an existing database from it; leave it as is.
+
+create table employee_profiles (
+    expected_availability_date date,
+    years_of_experience integer,
+    updated_at timestamp(6) with time zone,
+    user_id bigint not null,
+    job_level varchar(50),
+    current_role varchar(100),
+    full_name varchar(255) not null,
+    resume_file_path varchar(255),
+    availability enum ('AVAILABLE','ON_PROJECT','RESERVED') not null,
+    primary key (user_id)
+);
+
+create table employee_skills (
+    skill_id integer not null,
+    employee_user_id bigint not null,
+    primary key (skill_id, employee_user_id)
+);
+
+create table job_descriptions (
+    required_experience integer,
+    created_at timestamp(6) with time zone,
+    id bigint generated by default as identity,
+    uploaded_by_manager_id bigint not null,
+    client_name varchar(255),
+    jd_file_path varchar(255) not null,
+    title varchar(255) not null,
+    status enum ('CLOSED','OPEN') not null,
+    primary key (id)
+);
+
+create table referrals (
+    match_score integer not null,
+    created_at timestamp(6) with time zone,
+    employee_user_id bigint not null,
+    id bigint generated by default as identity,
+    job_description_id bigint not null,
+    updated_at timestamp(6) with time zone,
+    justification TEXT,
+    matching_skills varchar(255),
+    status enum ('PENDING_REVIEW','REJECTED','RESERVED','SELECTED') not null,
+    primary key (id)
+);
+
+create table skills (
+    id integer generated by default as identity,
+    name varchar(100) not null,
+    primary key (id)
+);
+
+create table users (
+    created_at timestamp(6) with time zone,
+    id bigint generated by default as identity,
+    email varchar(255) not null,
+    password_hash varchar(255) not null,
+    role enum ('EMPLOYEE','MANAGER') not null,
+    primary key (id)
+);
+
+alter table employee_profiles
+   add constraint UKg60c1gmifnmer4bp3x9sk621k unique (resume_file_path);
+
+alter table job_descriptions
+   add constraint UKfjo2m1mprikbqj9v3labvxk5x unique (jd_file_path);
+
+alter table referrals
+   add constraint UK1j6smeppaqm2ss8llbg8jc6oi unique (job_description_id, employee_user_id);
+
+alter table skills
+   add constraint UK85woe63nu9klkk9fa73vf0jd0 unique (name);
+
+alter table users
+   add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+
+alter table if exists employee_profiles
+   add constraint FKeotvdthm6gd1pavuhb075uocm
+   foreign key (user_id)
+   references users;
+
+alter table if exists employee_skills
+   add constraint FK8anwsnenk9d8nirjuov0ywinb
+   foreign key (skill_id)
+   references skills;
+
+alter table if exists employee_skills
+   add constraint FK2on26ennduilfepb2q4ntk8j
+   foreign key (employee_user_id)
+   references employee_profiles;
+
+alter table if exists job_descriptions
+   add constraint FKawdwhl5kin9ccf8gaqgqc67fe
+   foreign key (uploaded_by_manager_id)
+   references users;
+
+alter table if exists referrals
+   add constraint FKoq4s2s49wn6vq60ypxqf0qb9t
+   foreign key (employee_user_id)
+   references employee_profiles;
+
+alter table if exists referrals
+   add constraint FK1gp4kv043j3jdi6s3ejhw8a2c
+   foreign key (job_description_id)
+   references job_descriptions;
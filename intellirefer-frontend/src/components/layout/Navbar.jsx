@@ -1,15 +1,21 @@
 import React from 'react';
 import { Link, NavLink, useNavigate } from 'react-router-dom';
 import useAuth from '../../hooks/useAuth';
+import apiService from '../../api/apiService';
+import { useAuthStore } from '../../store/authStore';
 import Button from '../ui/Button';
 
 const Navbar = () => {
     // useAuth hook provides all the necessary authentication state and actions.
     const { isAuthenticated, userRole, logout } = useAuth();
+    const token = useAuthStore((state) => state.token);
     const navigate = useNavigate();
 
     // Handles the logout action.
     const handleLogout = () => {
+        // Revoke the token on the server; the local logout does not wait for it.
+        // The header is set here because the store is cleared before the interceptor runs.
+        apiService.post('/auth/logout', null, { headers: { Authorization: `Bearer ${token}` } }).catch(() => {});
         logout(); // Clears the token and user role from the global store.
         navigate('/auth'); // Redirects the user to the login page.
     };
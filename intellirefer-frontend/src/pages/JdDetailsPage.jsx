@@ -5,28 +5,56 @@ import Spinner from '../components/ui/Spinner';
 import Card from '../components/ui/Card';
 import Button from '../components/ui/Button';
 
+const PAGE_SIZE = 20;
+// Already rejected candidates are left out for a cleaner view.
+const VISIBLE_STATUSES = 'PENDING_REVIEW,RESERVED,SELECTED';
+
 const JdDetailsPage = () => {
     const { jdId } = useParams();
     const [recommendations, setRecommendations] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
+    const [minScore, setMinScore] = useState('');
+    const [availability, setAvailability] = useState('');
     const [loading, setLoading] = useState(true);
+    const [loadingMore, setLoadingMore] = useState(false);
     const [error, setError] = useState(null);
 
+    // Filtering and sorting happen on the server; each page carries the cursor for the next one.
+    const fetchRecommendations = async (cursor) => {
+        const params = { limit: PAGE_SIZE, status: VISIBLE_STATUSES };
+        if (minScore) params.minScore = minScore;
+        if (availability) params.availability = availability;
+        if (cursor) params.cursor = cursor;
+        const response = await apiService.get(`/manager/jds/${jdId}/recommendations`, { params });
+        setRecommendations(prevRecs => cursor ? [...prevRecs, ...response.data.items] : response.data.items);
+        setNextCursor(response.data.nextCursor);
+    };
+
     useEffect(() => {
-        const fetchRecommendations = async () => {
+        const loadFirstPage = async () => {
             try {
                 setLoading(true);
                 setError(null);
-                const response = await apiService.get(`/manager/jds/${jdId}/recommendations`);
-                // Filter out already rejected candidates on initial load for a cleaner view
-                setRecommendations(response.data.filter(rec => rec.status !== 'REJECTED'));
+                await fetchRecommendations(null);
             } catch (err) {
                 setError('Failed to fetch recommendations. Please try again later.');
             } finally {
                 setLoading(false);
             }
         };
-        fetchRecommendations();
-    }, [jdId]);
+        loadFirstPage();
+    }, [jdId, minScore, availability]);
+
+    const loadMore = async () => {
+        try {
+            setLoadingMore(true);
+            await fetchRecommendations(nextCursor);
+        } catch (err) {
+            alert('Could not load more recommendations.');
+        } finally {
+            setLoadingMore(false);
+        }
+    };
 
     // === THIS FUNCTION NOW HAS THE UPDATED LOGIC ===
     const handleAction = async (referralId, action) => {
@@ -65,6 +93,27 @@ const JdDetailsPage = () => {
                 <p className="text-md text-gray-500">For Job ID: {jdId}</p>
             </div>
 
+            <div className="mb-4 flex flex-wrap gap-4 items-center text-sm">
+                <label className="flex items-center gap-2">
+                    Min score
+                    <select value={minScore} onChange={(e) => setMinScore(e.target.value)} className="px-2 py-1 border border-gray-300 rounded-md">
+                        <option value="">Any</option>
+                        <option value="50">50%+</option>
+                        <option value="70">70%+</option>
+                        <option value="85">85%+</option>
+                    </select>
+                </label>
+                <label className="flex items-center gap-2">
+                    Availability
+                    <select value={availability} onChange={(e) => setAvailability(e.target.value)} className="px-2 py-1 border border-gray-300 rounded-md">
+                        <option value="">Any</option>
+                        <option value="AVAILABLE">Available</option>
+                        <option value="ON_PROJECT">On project</option>
+                        <option value="RESERVED">Reserved</option>
+                    </select>
+                </label>
+            </div>
+
             <div className="space-y-4">
                 {recommendations.length > 0 ? (
                     recommendations.map((rec) => (
@@ -130,6 +179,13 @@ const JdDetailsPage = () => {
                         <p className="text-center text-gray-600">No pending or reserved recommendations found for this job description.</p>
                     </Card>
                 )}
+                {nextCursor && (
+                    <div className="flex justify-center">
+                        <Button variant="secondary" onClick={loadMore} disabled={loadingMore}>
+                            {loadingMore ? 'Loading...' : 'Load more'}
+                        </Button>
+                    </div>
+                )}
             </div>
         </div>
     );
@@ -7,27 +7,41 @@ import Button from '../components/ui/Button';
 import Modal from '../components/ui/Modal';
 import JdUploadForm from '../components/manager/JdUploadForm';
 
+const PAGE_SIZE = 20;
+
 const ManagerDashboard = () => {
     const [jds, setJds] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
     const [loading, setLoading] = useState(true);
+    const [loadingMore, setLoadingMore] = useState(false);
     const [isModalOpen, setIsModalOpen] = useState(false); // State for the upload modal
 
-    // Fetch the manager's job descriptions on component mount
-    useEffect(() => {
-        setLoading(true);
-        apiService.get('/manager/jds')
+    // The backend pages JDs newest first; each response carries the cursor for the next page.
+    const fetchJds = (cursor) => {
+        const params = { limit: PAGE_SIZE };
+        if (cursor) params.cursor = cursor;
+        return apiService.get('/manager/jds', { params })
             .then(response => {
-                setJds(response.data);
+                setJds(prevJds => cursor ? [...prevJds, ...response.data.items] : response.data.items);
+                setNextCursor(response.data.nextCursor);
             })
             .catch(err => {
                 console.error("Failed to fetch job descriptions", err);
                 alert("Could not load job descriptions.");
-            })
-            .finally(() => {
-                setLoading(false);
             });
+    };
+
+    // Fetch the first page of the manager's job descriptions on component mount
+    useEffect(() => {
+        setLoading(true);
+        fetchJds(null).finally(() => setLoading(false));
     }, []);
 
+    const loadMore = () => {
+        setLoadingMore(true);
+        fetchJds(nextCursor).finally(() => setLoadingMore(false));
+    };
+
     // Handles the success callback from the JdUploadForm
     const handleUploadSuccess = (newJd) => {
         setJds(prevJds => [newJd, ...prevJds]); // Add new JD to the top of the list
@@ -110,6 +124,13 @@ const ManagerDashboard = () => {
                             <p className="text-center text-gray-600">You have not uploaded any job descriptions yet. Click "Upload New JD" to get started.</p>
                         </Card>
                     )}
+                    {nextCursor && (
+                        <div className="flex justify-center">
+                            <Button variant="secondary" onClick={loadMore} disabled={loadingMore}>
+                                {loadingMore ? 'Loading...' : 'Load more'}
+                            </Button>
+                        </div>
+                    )}
                 </div>
             </div>
 
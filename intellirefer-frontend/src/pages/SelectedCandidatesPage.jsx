@@ -4,16 +4,27 @@ import apiService from '../api/apiService';
 import Spinner from '../components/ui/Spinner';
 import Card from '../components/ui/Card';
 
+const PAGE_SIZE = 50;
+
 const SelectedCandidatesPage = () => {
     const [employees, setEmployees] = useState([]);
+    const [page, setPage] = useState(0);
+    const [totalPages, setTotalPages] = useState(0);
+    const [totalElements, setTotalElements] = useState(0);
+    const [clientInput, setClientInput] = useState('');
+    const [clientName, setClientName] = useState('');
     const [loading, setLoading] = useState(true);
     const [error, setError] = useState('');
 
     useEffect(() => {
         setLoading(true);
-        apiService.get('/manager/selected-employees')
+        const params = { page, size: PAGE_SIZE };
+        if (clientName) params.clientName = clientName;
+        apiService.get('/manager/selected-employees', { params })
             .then(response => {
-                setEmployees(response.data);
+                setEmployees(response.data.content);
+                setTotalPages(response.data.page.totalPages);
+                setTotalElements(response.data.page.totalElements);
             })
             .catch(err => {
                 console.error("Failed to fetch selected employees:", err);
@@ -22,9 +33,15 @@ const SelectedCandidatesPage = () => {
             .finally(() => {
                 setLoading(false);
             });
-    }, []);
+    }, [page, clientName]);
+
+    const applyClientFilter = (e) => {
+        e.preventDefault();
+        setPage(0);
+        setClientName(clientInput.trim());
+    };
 
-    if (loading) return <div className="flex justify-center items-center h-screen"><Spinner /></div>;
+    if (loading && employees.length === 0) return <div className="flex justify-center items-center h-screen"><Spinner /></div>;
     if (error) return <div className="p-8 text-center text-red-500">{error}</div>;
 
     return (
@@ -35,6 +52,17 @@ const SelectedCandidatesPage = () => {
                 <p className="text-md text-gray-500">This list shows all employees currently assigned to or on hold for a project.</p>
             </div>
 
+            <form onSubmit={applyClientFilter} className="mb-4 flex gap-2">
+                <input
+                    type="text"
+                    value={clientInput}
+                    onChange={(e) => setClientInput(e.target.value)}
+                    placeholder="Filter by client"
+                    className="px-3 py-2 border border-gray-300 rounded-md text-sm"
+                />
+                <button type="submit" className="px-4 py-2 bg-blue-600 text-white rounded-md text-sm hover:bg-blue-700">Apply</button>
+            </form>
+
             <Card>
                 <div className="overflow-x-auto">
                     <table className="min-w-full divide-y divide-gray-200">
@@ -78,6 +106,17 @@ const SelectedCandidatesPage = () => {
                         </tbody>
                     </table>
                 </div>
+                {totalPages > 1 && (
+                    <div className="flex items-center justify-between px-6 py-3 text-sm text-gray-600">
+                        <span>Page {page + 1} of {totalPages} ({totalElements} employees)</span>
+                        <div className="flex gap-2">
+                            <button onClick={() => setPage(page - 1)} disabled={page === 0 || loading}
+                                    className="px-3 py-1 border rounded-md disabled:opacity-50">Previous</button>
+                            <button onClick={() => setPage(page + 1)} disabled={page + 1 >= totalPages || loading}
+                                    className="px-3 py-1 border rounded-md disabled:opacity-50">Next</button>
+                        </div>
+                    </div>
+                )}
             </Card>
         </div>
     );